@@ -0,0 +1,54 @@
+#!/usr/bin/env bash
+# Compara a execucao com threads de plataforma (padrao) e com threads virtuais (perfil 'virtual')
+# sob carga de POST /api/pedidos e GET /api/pedidos com 100, 1.000 e 10.000 clientes concorrentes.
+#
+# Uso: scripts/carga.sh [duracao-segundos] [clientes]
+#   ex.: scripts/carga.sh 20 100,1000,10000
+#
+# Requer JDK 21. Para 10.000 clientes, o limite de descritores de arquivo (ulimit -n) deve ser
+# maior que 10.000 tanto para a aplicacao quanto para o gerador de carga.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+DURACAO="${1:-20}"
+CLIENTES="${2:-100,1000,10000}"
+PORTA="${PORTA:-8080}"
+GERADOR=src/jmh/java/br/com/testetech/testetech/carga/CargaPedidos.java
+RESULTADO=target/carga-$(date +%Y%m%d-%H%M%S).md
+
+mvn -B -q package -DskipTests
+JAR=$(ls target/testetech-*.jar | grep -v original | head -n 1)
+
+executar() {
+    local rotulo="$1" cabecalho="$2"
+    shift 2
+    # Mesmos limites de conexao nos dois modos: a diferenca medida e apenas o modelo de threads
+    java -jar "$JAR" --server.port="$PORTA" \
+        --spring.jpa.show-sql=false \
+        --logging.level.br.com.testetech=WARN \
+        --server.tomcat.max-connections=20000 \
+        --server.tomcat.accept-count=10000 \
+        "$@" > "target/carga-$rotulo.log" 2>&1 &
+    local pid=$!
+    trap 'kill $pid 2>/dev/null || true' EXIT
+
+    until curl -sf "http://localhost:$PORTA/actuator/health" > /dev/null; do
+        kill -0 "$pid" 2>/dev/null || { echo "Aplicacao nao subiu; veja target/carga-$rotulo.log" >&2; exit 1; }
+        sleep 1
+    done
+
+    java -Dstdout.encoding=UTF-8 "$GERADOR" --url "http://localhost:$PORTA" --rotulo "$rotulo" \
+        --clientes "$CLIENTES" --duracao "$DURACAO" --cabecalho "$cabecalho" | tee -a "$RESULTADO"
+
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    trap - EXIT
+}
+
+executar plataforma true
+executar virtual false --spring.profiles.active=virtual
+
+echo
+echo "Resultados em $RESULTADO"
+grep -h "presa à carregadora" target/carga-virtual.log | sort | uniq -c || echo "Nenhum pinning acima do limiar reportado"
@@ -0,0 +1,56 @@
+#!/usr/bin/env bash
+# Compara POST /api/pedidos com e sem o controle de admissao adaptativo (pedidos.admissao.habilitada)
+# a partir da saturacao: vazao, goodput (2xx dentro do SLO), latencia e recusas (429) por nivel de clientes.
+#
+# Uso: scripts/sobrecarga.sh [duracao-segundos] [clientes] [slo-ms]
+#   ex.: scripts/sobrecarga.sh 20 50,200,1000,4000 500
+#
+# Requer JDK 21. O pool de conexoes e reduzido para que a saturacao aconteca com poucos clientes.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+DURACAO="${1:-20}"
+CLIENTES="${2:-50,200,1000,4000}"
+SLO="${3:-500}"
+PORTA="${PORTA:-8080}"
+GERADOR=src/jmh/java/br/com/testetech/testetech/carga/CargaPedidos.java
+RESULTADO=target/sobrecarga-$(date +%Y%m%d-%H%M%S).md
+
+mvn -B -q package -DskipTests
+JAR=$(ls target/testetech-*.jar | grep -v original | head -n 1)
+
+executar() {
+    local rotulo="$1" cabecalho="$2"
+    shift 2
+    java -jar "$JAR" --server.port="$PORTA" \
+        --spring.jpa.show-sql=false \
+        --logging.level.br.com.testetech=WARN \
+        --server.tomcat.max-connections=20000 \
+        --server.tomcat.accept-count=10000 \
+        --spring.datasource.hikari.maximum-pool-size=4 \
+        "$@" > "target/sobrecarga-$rotulo.log" 2>&1 &
+    local pid=$!
+    trap 'kill $pid 2>/dev/null || true' EXIT
+
+    until curl -sf "http://localhost:$PORTA/actuator/health" > /dev/null; do
+        kill -0 "$pid" 2>/dev/null || { echo "Aplicacao nao subiu; veja target/sobrecarga-$rotulo.log" >&2; exit 1; }
+        sleep 1
+    done
+
+    java -Dstdout.encoding=UTF-8 "$GERADOR" --url "http://localhost:$PORTA" --rotulo "$rotulo" \
+        --cenarios POST --clientes "$CLIENTES" --duracao "$DURACAO" --slo "$SLO" --cabecalho "$cabecalho" \
+        | tee -a "$RESULTADO"
+    curl -s "http://localhost:$PORTA/actuator/metrics/pedidos.admissao.limite?tag=rota:escrita" \
+        > "target/sobrecarga-$rotulo-limite.json" || true
+
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    trap - EXIT
+}
+
+executar sem-admissao true --pedidos.admissao.habilitada=false
+executar com-admissao false --pedidos.admissao.habilitada=true
+
+echo
+echo "Resultados em $RESULTADO"
@@ -0,0 +1,153 @@
+package br.com.testetech.testetech.benchmark;
+
+import br.com.testetech.testetech.TestetechApplication;
+import br.com.testetech.testetech.dto.ItemDTO;
+import br.com.testetech.testetech.dto.PedidoInputDTO;
+import br.com.testetech.testetech.dto.PedidoResumoDTO;
+import br.com.testetech.testetech.model.ArmazenamentoItens;
+import br.com.testetech.testetech.repository.PedidoRepository;
+import br.com.testetech.testetech.service.PedidoLoteService;
+import br.com.testetech.testetech.service.PedidoService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Compara os dois layouts de {@code pedidos.itens.armazenamento}: uma linha por item em 'itens_pedido'
+ * ({@link ArmazenamentoItens#NORMALIZADO}) e os itens codificados na própria linha do pedido
+ * ({@link ArmazenamentoItens#COMPACTO}), com 3 e 20 itens por pedido.
+ * <p>
+ * Mede a vazão de {@link PedidoService#registrarPedido} e o tempo de anexar os itens a uma página de 50 pedidos
+ * ({@link PedidoRepository#anexarItens}), sobre uma base pré-carregada com 10.000 pedidos. O banco H2 é gravado em
+ * arquivo (em um diretório temporário) para que o espaço ocupado pelas tabelas e seus índices após a carga
+ * ({@code DISK_SPACE_USED}) seja impresso na preparação de cada combinação.
+ * </p>
+ * <p>
+ * Execução: {@code mvn -Pbenchmark test-compile exec:exec -Djmh.args="ArmazenamentoItensBenchmark"}
+ * </p>
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ArmazenamentoItensBenchmark {
+
+    private static final int PEDIDOS_PRE_CARREGADOS = 10_000;
+
+    private static final int PEDIDOS_POR_PAGINA = 50;
+
+    @Param({"NORMALIZADO", "COMPACTO"})
+    public ArmazenamentoItens armazenamento;
+
+    @Param({"3", "20"})
+    public int itens;
+
+    private Path diretorio;
+
+    private ConfigurableApplicationContext contexto;
+
+    private PedidoService service;
+
+    private PedidoRepository repository;
+
+    private TransactionTemplate transacaoLeitura;
+
+    private List<PedidoResumoDTO> pagina;
+
+    private final AtomicLong sequencia = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void iniciar() throws IOException {
+        diretorio = Files.createTempDirectory("bench-armazenamento");
+        contexto = new SpringApplicationBuilder(TestetechApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "pedidos.itens.armazenamento=" + armazenamento,
+                        "logging.level.root=WARN",
+                        "logging.level.br.com.testetech=WARN")
+                // Argumentos, e não propriedades padrão: precisam prevalecer sobre o application.properties
+                .run("--spring.jpa.show-sql=false",
+                        "--spring.datasource.url=jdbc:h2:file:" + diretorio.resolve("pedidos"),
+                        // Em arquivo, o H2 não é tratado como banco embarcado: o esquema não seria criado
+                        "--spring.jpa.hibernate.ddl-auto=create-drop");
+        service = contexto.getBean(PedidoService.class);
+        repository = contexto.getBean(PedidoRepository.class);
+        transacaoLeitura = new TransactionTemplate(contexto.getBean(PlatformTransactionManager.class));
+        transacaoLeitura.setReadOnly(true);
+
+        PedidoLoteService loteService = contexto.getBean(PedidoLoteService.class);
+        for (int inicio = 0; inicio < PEDIDOS_PRE_CARREGADOS; inicio += loteService.getTamanhoChunk()) {
+            loteService.registrarLote(IntStream.range(0, loteService.getTamanhoChunk())
+                    .mapToObj(i -> pedido("CARGA-" + sequencia.incrementAndGet()))
+                    .toList());
+        }
+        // Página no meio da tabela, lida sempre pelos mesmos IDs
+        pagina = transacaoLeitura.execute(status -> repository
+                .findResumos(PageRequest.of(PEDIDOS_PRE_CARREGADOS / PEDIDOS_POR_PAGINA / 2, PEDIDOS_POR_PAGINA))
+                .getContent());
+
+        JdbcTemplate jdbc = contexto.getBean(JdbcTemplate.class);
+        // Grava no arquivo as páginas ainda em memória, que não entram na contagem
+        jdbc.execute("checkpoint sync");
+        long pedidos = jdbc.queryForObject("select disk_space_used('PEDIDOS')", Long.class);
+        long itensPedido = jdbc.queryForObject("select disk_space_used('ITENS_PEDIDO')", Long.class);
+        System.out.printf("%n[%s, %d itens] pedidos: %d bytes, itens_pedido: %d bytes, %.1f bytes por pedido%n",
+                armazenamento, itens, pedidos, itensPedido, (pedidos + itensPedido) / (double) PEDIDOS_PRE_CARREGADOS);
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() throws IOException {
+        contexto.close();
+        try (Stream<Path> arquivos = Files.walk(diretorio)) {
+            arquivos.sorted(Comparator.reverseOrder()).forEach(arquivo -> arquivo.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public Object registrarPedido() {
+        return service.registrarPedido(pedido("UNITARIO-" + sequencia.incrementAndGet()));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<PedidoResumoDTO> anexarItensPagina() {
+        return transacaoLeitura.execute(status -> repository.anexarItens(pagina));
+    }
+
+    private PedidoInputDTO pedido(String codigo) {
+        return new PedidoInputDTO(codigo, IntStream.range(0, itens)
+                .mapToObj(i -> new ItemDTO("PRODUTO-" + i, new BigDecimal("19.90").add(BigDecimal.valueOf(i)), 1 + i % 5))
+                .toList());
+    }
+}
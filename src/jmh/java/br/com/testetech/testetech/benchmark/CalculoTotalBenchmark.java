@@ -0,0 +1,83 @@
+package br.com.testetech.testetech.benchmark;
+
+import br.com.testetech.testetech.model.PedidoItem;
+import br.com.testetech.testetech.service.PedidoMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Compara o cálculo do valor total em ponto fixo ({@link PedidoMapper#calcularTotal}) com a redução
+ * de referência em {@link BigDecimal} ({@link PedidoMapper#calcularTotalBigDecimal}).
+ * <p>
+ * O cenário {@code CENTAVOS} usa valores com 2 casas decimais (caminho em {@code long}); {@code ESCALAS_MISTAS}
+ * alterna 0, 2 e 4 casas (reescala do acumulado); {@code ESTOURO} força o recálculo em {@link BigDecimal}
+ * no último item, medindo o custo do pior caso.
+ * </p>
+ * <p>
+ * Execução com taxa de alocação por operação:
+ * {@code mvn -Pbenchmark test-compile exec:exec -Djmh.args="CalculoTotalBenchmark -prof gc"}
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CalculoTotalBenchmark {
+
+    @Param({"1", "10", "100", "1000"})
+    public int itens;
+
+    @Param({"CENTAVOS", "ESCALAS_MISTAS", "ESTOURO"})
+    public String valores;
+
+    private List<PedidoItem> items;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        items = IntStream.range(0, itens).mapToObj(this::item).toList();
+        if (!PedidoMapper.calcularTotal(items).equals(PedidoMapper.calcularTotalBigDecimal(items))) {
+            throw new IllegalStateException("Totais divergentes para " + valores);
+        }
+    }
+
+    @Benchmark
+    public BigDecimal pontoFixo() {
+        return PedidoMapper.calcularTotal(items);
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimal() {
+        return PedidoMapper.calcularTotalBigDecimal(items);
+    }
+
+    private PedidoItem item(int i) {
+        BigDecimal valorUnitario = switch (valores) {
+            case "CENTAVOS" -> BigDecimal.valueOf(1990 + i * 100L, 2);
+            case "ESCALAS_MISTAS" -> BigDecimal.valueOf(1990 + i * 100L, (i % 3) * 2);
+            case "ESTOURO" -> i == itens - 1 ? BigDecimal.valueOf(Long.MAX_VALUE, 2) : BigDecimal.valueOf(1990 + i * 100L, 2);
+            default -> throw new IllegalArgumentException(valores);
+        };
+        PedidoItem item = new PedidoItem();
+        item.setProdutoId("PRODUTO-" + i);
+        item.setValorUnitario(valorUnitario);
+        item.setQuantidade(1 + i % 5);
+        return item;
+    }
+}
@@ -0,0 +1,109 @@
+package br.com.testetech.testetech.benchmark;
+
+import br.com.testetech.testetech.TestetechApplication;
+import br.com.testetech.testetech.dto.ItemDTO;
+import br.com.testetech.testetech.dto.PedidoInputDTO;
+import br.com.testetech.testetech.exception.PedidoDuplicadoException;
+import br.com.testetech.testetech.service.PedidoLoteService;
+import br.com.testetech.testetech.service.PedidoService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+/**
+ * Compara as estratégias de deduplicação de {@link PedidoService#registrarPedido} contra o H2 em memória,
+ * com baixa (5%) e alta (80%) proporção de códigos já existentes.
+ * <p>
+ * Execução: {@code mvn -Pbenchmark test-compile exec:exec -Djmh.args="DeduplicacaoBenchmark"}
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class DeduplicacaoBenchmark {
+
+    private static final int PEDIDOS_EXISTENTES = 10_000;
+
+    @Param({"VERIFICACAO_PREVIA", "OTIMISTA"})
+    public String estrategia;
+
+    @Param({"0.05", "0.80"})
+    public double taxaDuplicados;
+
+    private ConfigurableApplicationContext contexto;
+
+    private PedidoService service;
+
+    private final AtomicLong sequencia = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = new SpringApplicationBuilder(TestetechApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "pedidos.deduplicacao.estrategia=" + estrategia,
+                        "spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID(),
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN",
+                        "logging.level.br.com.testetech=WARN",
+                        "logging.level.org.hibernate.engine.jdbc.spi.SqlExceptionHelper=OFF")
+                .run();
+        service = contexto.getBean(PedidoService.class);
+
+        List<PedidoInputDTO> existentes = IntStream.range(0, PEDIDOS_EXISTENTES)
+                .mapToObj(i -> pedido("EXISTENTE-" + i))
+                .toList();
+        contexto.getBean(PedidoLoteService.class).registrarLote(existentes);
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public Object registrarPedido() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String codigo = random.nextDouble() < taxaDuplicados
+                ? "EXISTENTE-" + random.nextInt(PEDIDOS_EXISTENTES)
+                : "NOVO-" + sequencia.incrementAndGet();
+        try {
+            return service.registrarPedido(pedido(codigo));
+        } catch (PedidoDuplicadoException e) {
+            return e;
+        }
+    }
+
+    private static PedidoInputDTO pedido(String codigo) {
+        return new PedidoInputDTO(codigo, List.of(
+                new ItemDTO("PRODUTO-A", new BigDecimal("10.00"), 2),
+                new ItemDTO("PRODUTO-B", new BigDecimal("4.99"), 1),
+                new ItemDTO("PRODUTO-C", new BigDecimal("150.00"), 3)));
+    }
+}
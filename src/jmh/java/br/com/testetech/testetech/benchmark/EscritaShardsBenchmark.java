@@ -0,0 +1,114 @@
+package br.com.testetech.testetech.benchmark;
+
+import br.com.testetech.testetech.TestetechApplication;
+import br.com.testetech.testetech.dto.ItemDTO;
+import br.com.testetech.testetech.dto.PedidoInputDTO;
+import br.com.testetech.testetech.dto.ResultadoLoteDTO;
+import br.com.testetech.testetech.service.PedidoLoteService;
+import br.com.testetech.testetech.service.PedidoService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Mede a vazão de escrita com 1, 2 e 4 shards (bancos H2 em memória independentes), com 8 threads registrando
+ * pedidos inéditos pelo fluxo unitário ({@link PedidoService#registrarPedido}) e em lote
+ * ({@link PedidoLoteService#registrarLote}).
+ * <p>
+ * Com um único banco, as escritas concorrentes disputam o mesmo armazenamento (páginas do índice único e da
+ * sequence); com N shards, cada pedido toca apenas o banco do seu código.
+ * </p>
+ * <p>
+ * Execução: {@code mvn -Pbenchmark test-compile exec:exec -Djmh.args="EscritaShardsBenchmark"}
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class EscritaShardsBenchmark {
+
+    private static final int TAMANHO_LOTE = 100;
+
+    @Param({"1", "2", "4"})
+    public int shards;
+
+    private ConfigurableApplicationContext contexto;
+
+    private PedidoService service;
+
+    private PedidoLoteService loteService;
+
+    private final AtomicLong sequencia = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        String execucao = UUID.randomUUID().toString();
+        String urls = IntStream.range(0, shards)
+                .mapToObj(i -> "jdbc:h2:mem:bench-" + execucao + "-" + i)
+                .collect(Collectors.joining(","));
+        contexto = new SpringApplicationBuilder(TestetechApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        // Um único shard equivale à configuração sem particionamento
+                        shards == 1 ? "spring.datasource.url=" + urls : "pedidos.sharding.urls=" + urls,
+                        "logging.level.root=WARN",
+                        "logging.level.br.com.testetech=WARN")
+                // Argumento, e não propriedade padrão: precisa prevalecer sobre o application.properties
+                .run("--spring.jpa.show-sql=false");
+        service = contexto.getBean(PedidoService.class);
+        loteService = contexto.getBean(PedidoLoteService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public Object registrarPedido() {
+        return service.registrarPedido(pedido("UNITARIO-" + sequencia.incrementAndGet()));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TAMANHO_LOTE)
+    public List<ResultadoLoteDTO> registrarLote() {
+        List<PedidoInputDTO> lote = IntStream.range(0, TAMANHO_LOTE)
+                .mapToObj(i -> pedido("LOTE-" + sequencia.incrementAndGet()))
+                .toList();
+        return loteService.registrarLote(lote);
+    }
+
+    private static PedidoInputDTO pedido(String codigo) {
+        return new PedidoInputDTO(codigo, List.of(
+                new ItemDTO("PRODUTO-A", new BigDecimal("10.00"), 2),
+                new ItemDTO("PRODUTO-B", new BigDecimal("4.99"), 1),
+                new ItemDTO("PRODUTO-C", new BigDecimal("150.00"), 3)));
+    }
+}
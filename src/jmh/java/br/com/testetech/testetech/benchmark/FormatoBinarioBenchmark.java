@@ -0,0 +1,109 @@
+package br.com.testetech.testetech.benchmark;
+
+import br.com.testetech.testetech.config.FormatosBinariosConfig;
+import br.com.testetech.testetech.dto.ItemDTO;
+import br.com.testetech.testetech.dto.ItemResumoDTO;
+import br.com.testetech.testetech.dto.PedidoInputDTO;
+import br.com.testetech.testetech.dto.PedidoResumoDTO;
+import br.com.testetech.testetech.model.PedidoStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Compara JSON com as codificações binárias de {@link FormatosBinariosConfig} (CBOR e Smile) nos dois sentidos
+ * da API: leitura da entrada de {@code criar} ({@link PedidoInputDTO}) e escrita de uma página de {@code listar}
+ * (10 {@link PedidoResumoDTO} com itens).
+ * <p>
+ * O tamanho de cada corpo em bytes (o que trafega na rede) é impresso na preparação de cada combinação.
+ * Execução com taxa de alocação por operação:
+ * {@code mvn -Pbenchmark test-compile exec:exec -Djmh.args="FormatoBinarioBenchmark -prof gc"}
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FormatoBinarioBenchmark {
+
+    private static final int PEDIDOS_POR_PAGINA = 10;
+
+    @Param({"JSON", "CBOR", "SMILE"})
+    public String formato;
+
+    @Param({"1", "10", "100"})
+    public int itens;
+
+    private ObjectMapper objectMapper;
+
+    private PedidoInputDTO entrada;
+
+    private byte[] entradaCodificada;
+
+    private List<PedidoResumoDTO> pagina;
+
+    @Setup(Level.Trial)
+    public void preparar() throws IOException {
+        objectMapper = switch (formato) {
+            case "JSON" -> Jackson2ObjectMapperBuilder.json().build();
+            case "CBOR" -> Jackson2ObjectMapperBuilder.cbor().build();
+            case "SMILE" -> Jackson2ObjectMapperBuilder.smile().build();
+            default -> throw new IllegalArgumentException(formato);
+        };
+        entrada = new PedidoInputDTO("PEDIDO-BENCH", IntStream.range(0, itens)
+                .mapToObj(i -> new ItemDTO("PRODUTO-" + i, new BigDecimal("19.90").add(BigDecimal.valueOf(i)), 1 + i % 5))
+                .toList());
+        entradaCodificada = objectMapper.writeValueAsBytes(entrada);
+
+        pagina = IntStream.range(0, PEDIDOS_POR_PAGINA)
+                .mapToObj(i -> new PedidoResumoDTO((long) i, "PEDIDO-" + i, itensResumo(i), new BigDecimal("1234.50"),
+                        PedidoStatus.CALCULADO, LocalDateTime.of(2025, 12, 5, 10, 0).plusMinutes(i)))
+                .toList();
+
+        System.out.printf("%n[%s, %d itens] entrada: %d bytes, página: %d bytes%n", formato, itens,
+                entradaCodificada.length, objectMapper.writeValueAsBytes(pagina).length);
+    }
+
+    private List<ItemResumoDTO> itensResumo(int pedido) {
+        List<ItemDTO> items = entrada.getItems();
+        return IntStream.range(0, items.size())
+                .mapToObj(i -> new ItemResumoDTO((long) pedido * items.size() + i + 1, items.get(i).getProdutoId(),
+                        items.get(i).getValorUnitario(), items.get(i).getQuantidade()))
+                .toList();
+    }
+
+    @Benchmark
+    public PedidoInputDTO desserializarEntrada() throws IOException {
+        return objectMapper.readValue(entradaCodificada, PedidoInputDTO.class);
+    }
+
+    @Benchmark
+    public byte[] serializarEntrada() throws IOException {
+        return objectMapper.writeValueAsBytes(entrada);
+    }
+
+    @Benchmark
+    public byte[] serializarPagina() throws IOException {
+        return objectMapper.writeValueAsBytes(pagina);
+    }
+}
@@ -0,0 +1,118 @@
+package br.com.testetech.testetech.benchmark;
+
+import br.com.testetech.testetech.dto.ItemDTO;
+import br.com.testetech.testetech.dto.PedidoInputDTO;
+import br.com.testetech.testetech.model.Pedido;
+import br.com.testetech.testetech.model.PedidoItem;
+import br.com.testetech.testetech.service.PedidoMapper;
+import br.com.testetech.testetech.service.PedidoService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Mede isoladamente, sem banco, cada etapa de CPU de {@link PedidoService#registrarPedido}:
+ * mapeamento DTO → entidade, redução do valor total em {@link BigDecimal}, Bean Validation da entrada
+ * e (de)serialização JSON com o mesmo {@link ObjectMapper} configurado pelo Spring Boot.
+ * Cada etapa é parametrizada pela quantidade de itens do pedido.
+ * <p>
+ * Execução com taxa de alocação por operação ({@code gc.alloc.rate.norm}):
+ * {@code mvn -Pbenchmark test-compile exec:exec -Djmh.args="RegistroPedidoBenchmark -prof gc"}
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RegistroPedidoBenchmark {
+
+    @Param({"1", "10", "100", "1000"})
+    public int itens;
+
+    private PedidoInputDTO entrada;
+
+    private byte[] entradaJson;
+
+    private Pedido pedido;
+
+    private List<PedidoItem> itensEntidade;
+
+    private ValidatorFactory validatorFactory;
+
+    private Validator validator;
+
+    private ObjectMapper objectMapper;
+
+    @Setup(Level.Trial)
+    public void preparar() throws IOException {
+        entrada = new PedidoInputDTO("PEDIDO-BENCH", IntStream.range(0, itens)
+                .mapToObj(i -> new ItemDTO("PRODUTO-" + i, new BigDecimal("19.90").add(BigDecimal.valueOf(i)), 1 + i % 5))
+                .toList());
+
+        pedido = PedidoMapper.paraEntidade(entrada);
+        pedido.setId(1L);
+        pedido.setDataCriacao(LocalDateTime.of(2025, 12, 5, 10, 0));
+        itensEntidade = pedido.getItems();
+
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        entradaJson = objectMapper.writeValueAsBytes(entrada);
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public Pedido mapearParaEntidade() {
+        return PedidoMapper.paraEntidade(entrada);
+    }
+
+    @Benchmark
+    public BigDecimal calcularTotal() {
+        return PedidoMapper.calcularTotal(itensEntidade);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<PedidoInputDTO>> validarEntrada() {
+        return validator.validate(entrada);
+    }
+
+    @Benchmark
+    public PedidoInputDTO desserializarEntrada() throws IOException {
+        return objectMapper.readValue(entradaJson, PedidoInputDTO.class);
+    }
+
+    @Benchmark
+    public byte[] serializarPedido() throws IOException {
+        return objectMapper.writeValueAsBytes(pedido);
+    }
+}
@@ -0,0 +1,200 @@
+package br.com.testetech.testetech.carga;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Teste de carga em malha fechada para {@code POST /api/pedidos} e {@code GET /api/pedidos}.
+ * <p>
+ * Para cada cenário e nível de concorrência, N clientes (threads virtuais, para que o gerador não seja
+ * o gargalo) enviam requisições em sequência durante o período de medição, após um aquecimento
+ * descartado. Cada cliente registra a latência de todas as suas requisições; ao final são
+ * publicados vazão (respostas 2xx por segundo), goodput (respostas 2xx dentro de {@code --slo} por segundo),
+ * p50, p99, máximo, recusas (429) e erros como uma linha de tabela Markdown.
+ * </p>
+ * <p>
+ * Uma resposta 429 do controle de admissão não é erro: o cliente aguarda o {@code Retry-After} e tenta de novo,
+ * como um cliente bem-comportado, e a recusa é contada à parte.
+ * </p>
+ * <p>
+ * Não depende de bibliotecas externas e pode ser executado diretamente pelo JDK contra uma aplicação já no ar:
+ * {@code java src/jmh/java/br/com/testetech/testetech/carga/CargaPedidos.java --rotulo virtual --clientes 100,1000}.
+ * O script {@code scripts/carga.sh} sobe a aplicação nos dois modos de execução e compara os resultados.
+ * </p>
+ */
+public final class CargaPedidos {
+
+    private static final AtomicLong SEQUENCIA_PEDIDOS = new AtomicLong();
+
+    private final HttpClient client;
+
+    private final String url;
+
+    private final String rotulo;
+
+    private final String execucao = Long.toString(System.currentTimeMillis(), 36);
+
+    private final long sloNanos;
+
+    private CargaPedidos(String url, String rotulo, Duration slo) {
+        this.url = url;
+        this.rotulo = rotulo;
+        this.sloNanos = slo.toNanos();
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        String url = argumento(args, "--url", "http://localhost:8080");
+        String rotulo = argumento(args, "--rotulo", "plataforma");
+        int[] clientes = Arrays.stream(argumento(args, "--clientes", "100,1000,10000").split(","))
+                .mapToInt(Integer::parseInt).toArray();
+        Duration duracao = Duration.ofSeconds(Long.parseLong(argumento(args, "--duracao", "20")));
+        Duration aquecimento = Duration.ofSeconds(Long.parseLong(argumento(args, "--aquecimento", "5")));
+        List<String> cenarios = List.of(argumento(args, "--cenarios", "POST,GET").split(","));
+        Duration slo = Duration.ofMillis(Long.parseLong(argumento(args, "--slo", "1000")));
+
+        CargaPedidos carga = new CargaPedidos(url, rotulo, slo);
+        if (Boolean.parseBoolean(argumento(args, "--cabecalho", "true"))) {
+            System.out.println("| Modo | Cenário | Clientes | Vazão (req/s) | Goodput (req/s ≤ " + slo.toMillis()
+                    + " ms) | p50 (ms) | p99 (ms) | Máx (ms) | Recusas (429) | Erros |");
+            System.out.println("|---|---|---:|---:|---:|---:|---:|---:|---:|---:|");
+        }
+        // POST antes do GET: a listagem é medida sobre a tabela já populada pela carga de escrita
+        for (String cenario : cenarios) {
+            for (int quantidade : clientes) {
+                carga.executar(cenario, quantidade, aquecimento);
+                Resultado resultado = carga.executar(cenario, quantidade, duracao);
+                System.out.println(resultado.linha(rotulo, cenario, quantidade));
+            }
+        }
+    }
+
+    private Resultado executar(String cenario, int clientes, Duration duracao) throws InterruptedException {
+        long fim = System.nanoTime() + duracao.toNanos();
+        List<Cliente> participantes = new ArrayList<>(clientes);
+        List<Thread> threads = new ArrayList<>(clientes);
+        for (int i = 0; i < clientes; i++) {
+            Cliente cliente = new Cliente(cenario, fim);
+            participantes.add(cliente);
+            threads.add(Thread.ofVirtual().start(cliente));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        long erros = participantes.stream().mapToLong(c -> c.erros).sum();
+        long recusas = participantes.stream().mapToLong(c -> c.recusas).sum();
+        long[] latencias = participantes.stream()
+                .flatMapToLong(c -> Arrays.stream(c.latencias, 0, c.quantidade))
+                .sorted()
+                .toArray();
+        long dentroDoSlo = Arrays.stream(latencias).filter(latencia -> latencia <= sloNanos).count();
+        return new Resultado(latencias, dentroDoSlo, recusas, erros, duracao);
+    }
+
+    private HttpRequest requisicao(String cenario) {
+        if ("GET".equals(cenario)) {
+            return HttpRequest.newBuilder(URI.create(url + "/api/pedidos?size=10"))
+                    .timeout(Duration.ofSeconds(60))
+                    .GET()
+                    .build();
+        }
+        String codigo = "CARGA-" + rotulo + "-" + execucao + "-" + SEQUENCIA_PEDIDOS.incrementAndGet();
+        String corpo = "{\"codigoPedido\":\"" + codigo + "\",\"items\":["
+                + "{\"produtoId\":\"NOTEBOOK-PRO\",\"valorUnitario\":5000.00,\"quantidade\":1},"
+                + "{\"produtoId\":\"MOUSE-USB\",\"valorUnitario\":150.00,\"quantidade\":2}]}";
+        return HttpRequest.newBuilder(URI.create(url + "/api/pedidos"))
+                .timeout(Duration.ofSeconds(60))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(corpo))
+                .build();
+    }
+
+    /**
+     * Cliente em malha fechada: só envia a próxima requisição após receber a resposta da anterior.
+     */
+    private final class Cliente implements Runnable {
+
+        private final String cenario;
+
+        private final long fimNanos;
+
+        private long[] latencias = new long[256];
+
+        private int quantidade;
+
+        private long erros;
+
+        private long recusas;
+
+        private Cliente(String cenario, long fimNanos) {
+            this.cenario = cenario;
+            this.fimNanos = fimNanos;
+        }
+
+        @Override
+        public void run() {
+            while (System.nanoTime() < fimNanos) {
+                long inicio = System.nanoTime();
+                try {
+                    HttpResponse<Void> resposta = client.send(requisicao(cenario), HttpResponse.BodyHandlers.discarding());
+                    if (resposta.statusCode() == 429) {
+                        recusas++;
+                        long espera = resposta.headers().firstValueAsLong("Retry-After").orElse(1);
+                        Thread.sleep(Duration.ofSeconds(espera));
+                        continue;
+                    }
+                    if (resposta.statusCode() / 100 != 2) {
+                        erros++;
+                        continue;
+                    }
+                } catch (Exception e) {
+                    erros++;
+                    continue;
+                }
+                if (quantidade == latencias.length) {
+                    latencias = Arrays.copyOf(latencias, quantidade * 2);
+                }
+                latencias[quantidade++] = System.nanoTime() - inicio;
+            }
+        }
+    }
+
+    private record Resultado(long[] latencias, long dentroDoSlo, long recusas, long erros, Duration duracao) {
+
+        String linha(String rotulo, String cenario, int clientes) {
+            double segundos = duracao.toMillis() / 1000.0;
+            return String.format("| %s | %s | %d | %.0f | %.0f | %.1f | %.1f | %.1f | %d | %d |",
+                    rotulo, cenario, clientes, latencias.length / segundos, dentroDoSlo / segundos,
+                    percentil(0.50), percentil(0.99),
+                    latencias.length == 0 ? 0.0 : latencias[latencias.length - 1] / 1e6, recusas, erros);
+        }
+
+        private double percentil(double p) {
+            if (latencias.length == 0) {
+                return 0.0;
+            }
+            int indice = (int) Math.ceil(p * latencias.length) - 1;
+            return latencias[Math.max(0, indice)] / 1e6;
+        }
+    }
+
+    private static String argumento(String[] args, String nome, String padrao) {
+        for (int i = 0; i < args.length - 1; i++) {
+            if (args[i].equals(nome)) {
+                return args[i + 1];
+            }
+        }
+        return padrao;
+    }
+}
@@ -0,0 +1,23 @@
+package br.com.testetech.testetech.admissao;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Registra o {@link ControleAdmissao} nos endpoints de pedidos.
+ */
+@Configuration(proxyBeanMethods = false)
+class AdmissaoConfig implements WebMvcConfigurer {
+
+    private final ControleAdmissao controleAdmissao;
+
+    AdmissaoConfig(ControleAdmissao controleAdmissao) {
+        this.controleAdmissao = controleAdmissao;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(controleAdmissao).addPathPatterns("/api/pedidos", "/api/pedidos/**");
+    }
+}
@@ -0,0 +1,106 @@
+package br.com.testetech.testetech.admissao;
+
+import br.com.testetech.testetech.exception.SobrecargaException;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+
+/**
+ * Controle de admissão adaptativo dos endpoints de pedidos: recusa com 429 ({@link SobrecargaException}) as
+ * requisições que excedem o {@link LimiteAdaptativo} da sua rota, em vez de deixá-las na fila do Tomcat até
+ * expirarem.
+ * <p>
+ * O registro unitário ({@code POST /api/pedidos}, à frente de {@code PedidoService.registrarPedido}) e as
+ * consultas ({@code GET /api/pedidos/**}) têm limites independentes, para que uma sobrecarga de escrita não
+ * recuse leituras e vice-versa. A decisão é tomada no {@code preHandle}, antes da leitura do corpo, portanto
+ * recusar custa quase nada. Lotes e demais rotas não são limitados.
+ * </p>
+ * <p>
+ * Respostas assíncronas (streaming) liberam a vaga quando o processamento assíncrono começa, sem amostrar a
+ * latência.
+ * </p>
+ */
+@Component
+class ControleAdmissao implements AsyncHandlerInterceptor {
+
+    private static final String ATRIBUTO = ControleAdmissao.class.getName() + ".ADMISSAO";
+
+    private final boolean habilitado;
+
+    private final Duration retryAfter;
+
+    private final LimiteAdaptativo escrita;
+
+    private final LimiteAdaptativo leitura;
+
+    ControleAdmissao(MeterRegistry meterRegistry,
+                     @Value("${pedidos.admissao.habilitada:true}") boolean habilitado,
+                     @Value("${pedidos.admissao.tolerancia:1.5}") double tolerancia,
+                     @Value("${pedidos.admissao.limite-minimo:4}") int limiteMinimo,
+                     @Value("${pedidos.admissao.escrita.limite-inicial:20}") int escritaInicial,
+                     @Value("${pedidos.admissao.escrita.limite-maximo:200}") int escritaMaximo,
+                     @Value("${pedidos.admissao.leitura.limite-inicial:50}") int leituraInicial,
+                     @Value("${pedidos.admissao.leitura.limite-maximo:400}") int leituraMaximo,
+                     @Value("${pedidos.admissao.retry-after:1s}") Duration retryAfter) {
+        this.habilitado = habilitado;
+        this.retryAfter = retryAfter;
+        this.escrita = new LimiteAdaptativo("escrita", escritaInicial, limiteMinimo, escritaMaximo, tolerancia, meterRegistry);
+        this.leitura = new LimiteAdaptativo("leitura", leituraInicial, limiteMinimo, leituraMaximo, tolerancia, meterRegistry);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // O redespacho de uma resposta assíncrona já foi admitido na requisição original
+        if (!habilitado || request.getDispatcherType() != DispatcherType.REQUEST) {
+            return true;
+        }
+        LimiteAdaptativo limite = limiteDe(request);
+        if (limite == null) {
+            return true;
+        }
+        if (!limite.tentarAdquirir()) {
+            throw new SobrecargaException("Limite de concorrência atingido (" + limite.getRota() + "); tente novamente em instantes",
+                    retryAfter);
+        }
+        request.setAttribute(ATRIBUTO, new Admissao(limite, System.nanoTime()));
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getAttribute(ATRIBUTO) instanceof Admissao admissao) {
+            request.removeAttribute(ATRIBUTO);
+            admissao.limite().descartar();
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(ATRIBUTO) instanceof Admissao admissao) {
+            request.removeAttribute(ATRIBUTO);
+            admissao.limite().liberar(System.nanoTime() - admissao.inicio());
+        }
+    }
+
+    private LimiteAdaptativo limiteDe(HttpServletRequest request) {
+        if (HttpMethod.GET.matches(request.getMethod())) {
+            return leitura;
+        }
+        Object padrao = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (HttpMethod.POST.matches(request.getMethod()) && "/api/pedidos".equals(padrao)) {
+            return escrita;
+        }
+        return null;
+    }
+
+    private record Admissao(LimiteAdaptativo limite, long inicio) {
+    }
+}
@@ -0,0 +1,148 @@
+package br.com.testetech.testetech.admissao;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limite de concorrência ajustado pela latência observada, no estilo do gradiente (Gradient2) do
+ * concurrency-limits da Netflix.
+ * <p>
+ * Cada requisição concluída atualiza duas médias móveis exponenciais do tempo de resposta: uma curta (estado
+ * atual) e uma longa (referência sem fila). O gradiente {@code tolerancia * longa / curta}, limitado a
+ * {@code [0.5, 1]}, encolhe o limite quando a latência sobe acima da referência (as requisições passaram a
+ * enfileirar em algum recurso, ex: pool de conexões) e, com gradiente 1, o limite cresce de
+ * {@code sqrt(limite)} para sondar capacidade ociosa. Enquanto menos da metade do limite estiver em uso, o
+ * limite não cresce: sem demanda, a latência não diz nada sobre a capacidade.
+ * </p>
+ * <p>
+ * Publica {@code pedidos.admissao.limite}, {@code pedidos.admissao.em.execucao} e
+ * {@code pedidos.admissao.rejeicoes}, com a tag {@code rota}.
+ * </p>
+ */
+final class LimiteAdaptativo {
+
+    /**
+     * Amostras da média longa: lenta o bastante para não acompanhar uma sobrecarga passageira.
+     */
+    private static final double JANELA_LONGA = 600;
+
+    private static final double JANELA_CURTA = 10;
+
+    private static final double SUAVIZACAO = 0.2;
+
+    private final String rota;
+
+    private final int minimo;
+
+    private final int maximo;
+
+    private final double tolerancia;
+
+    private final AtomicInteger emExecucao = new AtomicInteger();
+
+    private final Counter rejeicoes;
+
+    /**
+     * Parte inteira de {@link #estimativa}, lida sem sincronização na admissão.
+     */
+    private volatile int limite;
+
+    // Estado do ajuste, protegido pelo monitor da instância
+    private double estimativa;
+
+    private double rttLongo;
+
+    private double rttCurto;
+
+    LimiteAdaptativo(String rota, int inicial, int minimo, int maximo, double tolerancia, MeterRegistry meterRegistry) {
+        this.rota = rota;
+        this.minimo = minimo;
+        this.maximo = maximo;
+        this.tolerancia = tolerancia;
+        this.estimativa = Math.clamp(inicial, minimo, maximo);
+        this.limite = (int) estimativa;
+
+        Gauge.builder("pedidos.admissao.limite", this, LimiteAdaptativo::getLimite)
+                .description("Limite de concorrência corrente do controle de admissão")
+                .tag("rota", rota)
+                .register(meterRegistry);
+        Gauge.builder("pedidos.admissao.em.execucao", emExecucao, AtomicInteger::get)
+                .description("Requisições admitidas e ainda em execução")
+                .tag("rota", rota)
+                .register(meterRegistry);
+        this.rejeicoes = Counter.builder("pedidos.admissao.rejeicoes")
+                .description("Requisições recusadas (429) por excederem o limite de concorrência")
+                .tag("rota", rota)
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return {@code true} se a requisição foi admitida; nesse caso, {@link #liberar} ou {@link #descartar}
+     * deve ser chamado ao seu término.
+     */
+    boolean tentarAdquirir() {
+        while (true) {
+            int atual = emExecucao.get();
+            if (atual >= limite) {
+                rejeicoes.increment();
+                return false;
+            }
+            if (emExecucao.compareAndSet(atual, atual + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Encerra uma requisição admitida e usa o seu tempo de resposta para ajustar o limite.
+     */
+    void liberar(long rttNanos) {
+        int emVoo = emExecucao.getAndDecrement();
+        ajustar(rttNanos, emVoo);
+    }
+
+    /**
+     * Encerra uma requisição admitida sem amostrar a latência (ex: resposta em streaming, cuja duração
+     * não reflete a saturação do serviço).
+     */
+    void descartar() {
+        emExecucao.decrementAndGet();
+    }
+
+    private synchronized void ajustar(long rttNanos, int emVoo) {
+        double rtt = Math.max(rttNanos, 1);
+        if (rttLongo == 0) {
+            rttLongo = rtt;
+            rttCurto = rtt;
+        } else {
+            rttLongo += (rtt - rttLongo) / JANELA_LONGA;
+            rttCurto += (rtt - rttCurto) / JANELA_CURTA;
+        }
+        // Passada a sobrecarga, a referência longa ficou inflada: aproxima-a da latência atual
+        if (rttLongo / rttCurto > 2) {
+            rttLongo *= 0.95;
+        }
+        if (emVoo < estimativa / 2) {
+            return;
+        }
+        double gradiente = Math.clamp(tolerancia * rttLongo / rttCurto, 0.5, 1.0);
+        double proposta = estimativa * gradiente + Math.sqrt(estimativa);
+        estimativa = Math.clamp(estimativa * (1 - SUAVIZACAO) + proposta * SUAVIZACAO, minimo, maximo);
+        limite = (int) estimativa;
+    }
+
+    int getLimite() {
+        return limite;
+    }
+
+    int getEmExecucao() {
+        return emExecucao.get();
+    }
+
+    String getRota() {
+        return rota;
+    }
+}
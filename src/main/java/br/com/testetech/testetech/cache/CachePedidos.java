@@ -0,0 +1,68 @@
+package br.com.testetech.testetech.cache;
+
+import br.com.testetech.testetech.dto.PedidoResumoDTO;
+import br.com.testetech.testetech.evento.PedidoRegistradoEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Cache em processo (Caffeine) da consulta de pedido por código de negócio.
+ * <p>
+ * Limitado por quantidade de entradas ({@code pedidos.cache.tamanho-maximo}) e por tempo desde a escrita
+ * ({@code pedidos.cache.ttl}). Armazena apenas o modelo de leitura imutável {@link PedidoResumoDTO},
+ * nunca entidades gerenciadas. É alimentado por escrita direta (write-through) a cada
+ * {@link PedidoRegistradoEvent}, após o commit, e pela primeira leitura dos pedidos anteriores à inicialização.
+ * Códigos inexistentes não são armazenados, para que uma ausência em cache nunca oculte um pedido registrado depois.
+ * </p>
+ * <p>
+ * As estatísticas são exportadas pelo binder do Micrometer com a tag {@code cache=pedidos}
+ * ({@code cache.gets}, {@code cache.evictions}, {@code cache.load.duration}, ...), além da taxa de acerto
+ * em {@code pedidos.cache.taxa.acerto}.
+ * </p>
+ */
+@Component
+public class CachePedidos {
+
+    private final Cache<String, PedidoResumoDTO> cache;
+
+    public CachePedidos(MeterRegistry meterRegistry,
+                        @Value("${pedidos.cache.tamanho-maximo:10000}") long tamanhoMaximo,
+                        @Value("${pedidos.cache.ttl:10m}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "pedidos");
+        Gauge.builder("pedidos.cache.taxa.acerto", cache, c -> c.stats().hitRate())
+                .description("Fração das consultas por código atendidas pelo cache")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param codigoPedido Código de negócio do pedido.
+     * @param carregador Consulta ao banco executada somente em caso de ausência; pode devolver {@code null}.
+     * @return O resumo em cache ou recém-carregado, ou {@code null} se o pedido não existe.
+     */
+    public PedidoResumoDTO buscar(String codigoPedido, Function<String, PedidoResumoDTO> carregador) {
+        return cache.get(codigoPedido, carregador);
+    }
+
+    /**
+     * Publica no cache um pedido recém-registrado, somente após o commit da transação que o persistiu.
+     */
+    @TransactionalEventListener
+    public void registrar(PedidoRegistradoEvent evento) {
+        cache.put(evento.pedido().getCodigoPedido(), evento.pedido());
+    }
+}
@@ -0,0 +1,222 @@
+package br.com.testetech.testetech.cache;
+
+import br.com.testetech.testetech.dto.PedidoResumoDTO;
+import br.com.testetech.testetech.evento.PedidoRegistradoEvent;
+import br.com.testetech.testetech.replica.RoteamentoLeitura;
+import br.com.testetech.testetech.repository.PedidoRepository;
+import br.com.testetech.testetech.sharding.ShardsPedidos;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Janela em memória com os N pedidos mais recentes, usada para atender a primeira página da
+ * listagem padrão ({@code page=0}, {@code dataCriacao} decrescente) e da listagem por cursor
+ * sem consulta nem COUNT no banco.
+ * <p>
+ * É um buffer circular sem bloqueio: cada escritor reserva uma posição com um incremento atômico e
+ * publica o resumo com uma escrita volátil; leitores copiam as posições ocupadas sem coordenação com
+ * os escritores. As entradas são os mesmos {@link PedidoResumoDTO} imutáveis (com itens) publicados
+ * em {@link PedidoRegistradoEvent}, compartilhados entre requisições sem cópia. A contagem total,
+ * usada nos metadados da página, é mantida em memória a partir do {@code count} da inicialização.
+ * </p>
+ * <p>
+ * A janela é carregada do banco antes da reprodução do journal e da abertura da ingestão; a partir daí,
+ * todo pedido persistido (unitário, lote, ingestão assíncrona) chega pelo evento após o commit.
+ * </p>
+ */
+@Component
+public class JanelaPedidosRecentes implements SmartLifecycle {
+
+    /**
+     * Inicia antes do journal ({@code DEFAULT_PHASE - 8192}): os pedidos reprocessados chegam como eventos.
+     */
+    private static final int FASE = SmartLifecycle.DEFAULT_PHASE - 16384;
+
+    private static final Sort ORDENACAO_PADRAO = Sort.by(Sort.Direction.DESC, "dataCriacao");
+
+    private final Logger logger = LoggerFactory.getLogger(JanelaPedidosRecentes.class);
+
+    private final PedidoRepository repository;
+
+    private final TransactionTemplate transacaoLeitura;
+
+    private final ShardsPedidos shards;
+
+    private final boolean habilitada;
+
+    private final AtomicReferenceArray<PedidoResumoDTO> posicoes;
+
+    private final int mascara;
+
+    /**
+     * Próxima sequência a ser reservada; a posição é {@code sequencia & mascara}.
+     */
+    private final AtomicLong proximaSequencia = new AtomicLong();
+
+    private final AtomicLong totalPedidos = new AtomicLong();
+
+    private final Counter paginasAtendidas;
+
+    private volatile boolean pronta;
+
+    public JanelaPedidosRecentes(PedidoRepository repository,
+                                 PlatformTransactionManager transactionManager,
+                                 ShardsPedidos shards,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${pedidos.recentes.habilitada:true}") boolean habilitada,
+                                 @Value("${pedidos.recentes.capacidade:128}") int capacidade) {
+        this.repository = repository;
+        this.transacaoLeitura = new TransactionTemplate(transactionManager);
+        this.transacaoLeitura.setReadOnly(true);
+        this.shards = shards;
+        this.habilitada = habilitada;
+
+        int tamanho = Integer.highestOneBit(Math.max(1, capacidade - 1)) << 1;
+        this.posicoes = new AtomicReferenceArray<>(tamanho);
+        this.mascara = tamanho - 1;
+
+        this.paginasAtendidas = Counter.builder("pedidos.recentes.paginas")
+                .description("Primeiras páginas da listagem atendidas pela janela em memória")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Carrega os pedidos mais recentes e a contagem total do banco (de todos os shards, intercalados).
+     */
+    @Override
+    public void start() {
+        if (!habilitada) {
+            logger.info("Janela de pedidos recentes desabilitada");
+            return;
+        }
+        // No primário: a janela é mantida pelos eventos de gravação, que a réplica pode ainda não conter
+        List<CargaShard> cargas = shards.executarEmTodos(shard -> RoteamentoLeitura.noPrimario(() ->
+                transacaoLeitura.execute(status -> new CargaShard(
+                        repository.anexarItens(repository.findMaisRecentes(Limit.of(posicoes.length()))),
+                        repository.count()))));
+        List<PedidoResumoDTO> recentes = ShardsPedidos.intercalar(cargas.stream().map(CargaShard::recentes).toList(),
+                PedidoResumoDTO.MAIS_RECENTES_PRIMEIRO, 0, posicoes.length());
+        totalPedidos.set(cargas.stream().mapToLong(CargaShard::total).sum());
+        // Do mais antigo para o mais recente, como se tivessem chegado por evento
+        for (int i = recentes.size() - 1; i >= 0; i--) {
+            adicionar(recentes.get(i));
+        }
+        pronta = true;
+        logger.info("Janela de pedidos recentes carregada com {} de {} pedidos", Math.min(totalPedidos.get(), posicoes.length()), totalPedidos.get());
+    }
+
+    @Override
+    public void stop() {
+        pronta = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return pronta;
+    }
+
+    @Override
+    public int getPhase() {
+        return FASE;
+    }
+
+    /**
+     * Acrescenta um pedido recém-confirmado, sobrescrevendo o mais antigo quando a janela está cheia.
+     */
+    @TransactionalEventListener
+    public void registrar(PedidoRegistradoEvent evento) {
+        if (!pronta) {
+            return;
+        }
+        adicionar(evento.pedido());
+        totalPedidos.incrementAndGet();
+    }
+
+    /**
+     * @param pageable Paginação solicitada.
+     * @return {@code true} se a página é a primeira da ordenação padrão e cabe na janela.
+     */
+    public boolean atende(Pageable pageable) {
+        return pageable.isPaged()
+                && pageable.getPageNumber() == 0
+                && ORDENACAO_PADRAO.equals(pageable.getSort())
+                && atende(pageable.getPageSize());
+    }
+
+    /**
+     * @param quantidade Quantidade de pedidos mais recentes desejada.
+     * @return {@code true} se a janela está carregada e comporta a quantidade.
+     */
+    public boolean atende(int quantidade) {
+        return pronta && quantidade <= posicoes.length();
+    }
+
+    /**
+     * Monta a primeira página a partir da janela. Deve ser chamado somente quando {@link #atende(Pageable)}.
+     *
+     * @param pageable Paginação solicitada.
+     * @param incluirItens Se {@code false}, os itens são omitidos da resposta.
+     * @return Página com os pedidos mais recentes e a contagem total mantida em memória.
+     */
+    public Page<PedidoResumoDTO> primeiraPagina(Pageable pageable, boolean incluirItens) {
+        long total = totalPedidos.get();
+        List<PedidoResumoDTO> conteudo = recentes(pageable.getPageSize(), incluirItens);
+        return new PageImpl<>(conteudo, pageable, Math.max(total, conteudo.size()));
+    }
+
+    /**
+     * Cópia instantânea (sem bloqueio) das posições ocupadas, ordenada do mais recente para o mais antigo.
+     * Uma posição reservada mas ainda não publicada pode conter o pedido anterior àquela posição, que
+     * também é válido; o ID descarta a eventual repetição de uma volta completa durante a leitura.
+     * Deve ser chamado somente quando {@link #atende(int)}.
+     *
+     * @param quantidade Quantidade máxima de pedidos.
+     * @param incluirItens Se {@code false}, os itens são omitidos.
+     * @return Os pedidos mais recentes, em ordem decrescente de (dataCriacao, id).
+     */
+    public List<PedidoResumoDTO> recentes(int quantidade, boolean incluirItens) {
+        long fim = proximaSequencia.get();
+        long inicio = Math.max(0, fim - posicoes.length());
+        List<PedidoResumoDTO> copia = new ArrayList<>((int) (fim - inicio));
+        Set<Long> ids = new HashSet<>();
+        for (long sequencia = fim - 1; sequencia >= inicio; sequencia--) {
+            PedidoResumoDTO pedido = posicoes.get((int) (sequencia & mascara));
+            if (pedido != null && ids.add(pedido.getId())) {
+                copia.add(pedido);
+            }
+        }
+        copia.sort(PedidoResumoDTO.MAIS_RECENTES_PRIMEIRO);
+        paginasAtendidas.increment();
+        return copia.stream()
+                .limit(quantidade)
+                .map(p -> incluirItens ? p : p.comItens(null))
+                .toList();
+    }
+
+    private void adicionar(PedidoResumoDTO pedido) {
+        posicoes.set((int) (proximaSequencia.getAndIncrement() & mascara), pedido);
+    }
+
+    private record CargaShard(List<PedidoResumoDTO> recentes, long total) {
+    }
+}
@@ -0,0 +1,37 @@
+package br.com.testetech.testetech.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Codificações binárias dos endpoints REST, negociadas por {@code Content-Type} (entrada) e {@code Accept} (saída).
+ * <p>
+ * Para chamadas entre serviços internos, CBOR ({@code application/cbor}) e Smile
+ * ({@code application/x-jackson-smile}) representam os mesmos DTOs do JSON com números e tamanhos em binário,
+ * e o Smile ainda referencia nomes de campo repetidos (ex: {@code valorUnitario} em cada item) por índice.
+ * JSON continua o padrão: é o primeiro conversor da lista, usado quando o cliente não envia {@code Accept}.
+ * </p>
+ * <p>
+ * Os conversores são criados a partir do {@link Jackson2ObjectMapperBuilder} do Spring Boot, portanto seguem a
+ * mesma configuração do JSON ({@code spring.jackson.*}, módulos e datas em ISO-8601). O builder tem escopo
+ * protótipo: cada conversor recebe uma instância própria.
+ * </p>
+ */
+@Configuration(proxyBeanMethods = false)
+public class FormatosBinariosConfig {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter conversorCbor(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter conversorSmile(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
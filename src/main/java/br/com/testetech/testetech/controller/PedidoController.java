@@ -1,16 +1,35 @@
 package br.com.testetech.testetech.controller;
 
+import br.com.testetech.testetech.dto.PaginaCursorDTO;
 import br.com.testetech.testetech.dto.PedidoInputDTO;
-import br.com.testetech.testetech.model.Pedido;
-import br.com.testetech.testetech.service.PedidoService;
+import br.com.testetech.testetech.dto.PedidoRecebidoDTO;
+import br.com.testetech.testetech.dto.PedidoResumoDTO;
+import br.com.testetech.testetech.dto.ResultadoLoteDTO;
+import br.com.testetech.testetech.exception.PedidoNaoEncontradoException;
+import br.com.testetech.testetech.ingestao.IngestaoAssincrona;
+import br.com.testetech.testetech.service.PedidoConsultaService;
+import br.com.testetech.testetech.service.PedidoLoteService;
+import br.com.testetech.testetech.service.PedidoLoteStreamingService;
+import br.com.testetech.testetech.service.RegistroIdempotenteService;
+import br.com.testetech.testetech.service.RegistroIdempotenteService.ResultadoRegistro;
+import com.fasterxml.jackson.core.JsonParser;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
 
 /**
  * Controlador REST responsável pela exposição dos endpoints de pedidos.
@@ -18,26 +37,101 @@ import org.springframework.web.bind.annotation.*;
  */
 @RestController
 @RequestMapping("/api/pedidos")
-
 public class PedidoController {
 
-    private final PedidoService service;
+    /**
+     * Cabeçalho de resposta que indica uma repetição respondida com o registro original.
+     */
+    private static final String CABECALHO_REPETIDO = "Idempotent-Replayed";
+
+    private final RegistroIdempotenteService service;
+
+    private final PedidoLoteService loteService;
+
+    private final PedidoLoteStreamingService loteStreamingService;
+
+    private final PedidoConsultaService consultaService;
 
-    public PedidoController(PedidoService service){
+    private final IngestaoAssincrona ingestaoAssincrona;
+
+    public PedidoController(RegistroIdempotenteService service, PedidoLoteService loteService,
+                            PedidoLoteStreamingService loteStreamingService, PedidoConsultaService consultaService,
+                            IngestaoAssincrona ingestaoAssincrona){
         this.service = service;
+        this.loteService = loteService;
+        this.loteStreamingService = loteStreamingService;
+        this.consultaService = consultaService;
+        this.ingestaoAssincrona = ingestaoAssincrona;
     }
 
     /**
      * Recebe e processa uma requisição para criação de um novo pedido.
      * O método delega o cálculo de valores e validações para a camada de serviço.
+     * <p>
+     * Com {@code pedidos.ingestao.modo=ASSINCRONO}, o pedido validado é apenas enfileirado e a
+     * resposta é 202 (Accepted) com o status {@code RECEBIDO}; o cálculo e a persistência ocorrem
+     * em segundo plano.
+     * </p>
+     * <p>
+     * No modo síncrono o registro é idempotente: uma repetição com o mesmo conteúdo (identificada pelo
+     * cabeçalho {@code Idempotency-Key} ou, na sua ausência, pelo código do pedido) recebe novamente o
+     * 201 original, com o cabeçalho {@code Idempotent-Replayed: true}; conteúdo diferente resulta em 409.
+     * </p>
      *
+     * @param chaveIdempotencia Chave de idempotência opcional escolhida pelo cliente.
      * @param dto Objeto de transferência contendo o código do pedido e lista de itens.
-     * @return ResponseEntity contendo o pedido persistido e o status HTTP 201 (Created).
+     * @return ResponseEntity contendo o pedido persistido e o status HTTP 201 (Created),
+     * ou a confirmação de recebimento e o status HTTP 202 (Accepted) no modo assíncrono.
      */
     @PostMapping
-    public ResponseEntity<Pedido> criar(@RequestBody @Valid PedidoInputDTO dto) {
-        Pedido pedidoSalvo = service.registrarPedido(dto);
-        return ResponseEntity.status(HttpStatus.CREATED).body(pedidoSalvo);
+    public ResponseEntity<?> criar(@RequestHeader(name = "Idempotency-Key", required = false) String chaveIdempotencia,
+                                   @RequestBody @Valid PedidoInputDTO dto) {
+        if (ingestaoAssincrona.isAssincrona()) {
+            return ResponseEntity.accepted().body(ingestaoAssincrona.enfileirar(dto));
+        }
+        ResultadoRegistro resultado = service.registrar(chaveIdempotencia, dto);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .header(CABECALHO_REPETIDO, String.valueOf(resultado.repetido()))
+                .body(resultado.pedido());
+    }
+
+    /**
+     * Recebe um lote de pedidos (ex: rajadas de sistemas upstream) e os processa em blocos.
+     * <p>
+     * Cada pedido é validado individualmente: erros de validação ou duplicidade não abortam
+     * o lote, sendo reportados no resultado correspondente à sua posição.
+     * </p>
+     *
+     * @param dtos Lista de pedidos a registrar.
+     * @return ResponseEntity com o resultado (aceito, duplicado ou falha) de cada pedido, na ordem recebida.
+     */
+    @PostMapping("/lote")
+    public ResponseEntity<List<ResultadoLoteDTO>> criarLote(
+            @RequestBody @NotEmpty(message = "O lote deve conter pelo menos um pedido") List<PedidoInputDTO> dtos) {
+        return ResponseEntity.ok(loteService.registrarLote(dtos));
+    }
+
+    /**
+     * Variante do lote para corpos muito grandes: o array JSON é lido em streaming, pedido a pedido, e
+     * registrado em blocos, sem desserializar o corpo inteiro.
+     * <p>
+     * Os resultados (mesmo formato do lote) são devolvidos em NDJSON, um por linha, à medida que cada bloco
+     * é persistido. Elementos inválidos são reportados individualmente sem interromper a leitura.
+     * </p>
+     *
+     * @param corpo Corpo da requisição: array JSON de pedidos.
+     * @return ResponseEntity com os resultados em streaming, ou 400 (Bad Request) se o corpo não for um array JSON.
+     */
+    @PostMapping(value = "/lote/stream", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> criarLoteStreaming(InputStream corpo) throws IOException {
+        JsonParser parser = loteStreamingService.abrir(corpo);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(saida -> {
+                    try (parser) {
+                        loteStreamingService.processar(parser, saida);
+                    }
+                });
     }
 
     /**
@@ -45,12 +139,59 @@ public class PedidoController {
      * A ordenação padrão é decrescente pela data de criação (mais recentes primeiro).
      *
      * @param pageable Objeto contendo os parâmetros de paginação (page, size, sort).
+     * @param incluirItens Se {@code false}, os itens são omitidos e a consulta de itens não é executada.
      * @return ResponseEntity contendo a página (Page) de pedidos encontrados.
      */
     @GetMapping
-    public ResponseEntity<Page<Pedido>> listar(
+    public ResponseEntity<Page<PedidoResumoDTO>> listar(
             @org.springdoc.core.annotations.ParameterObject
-            @PageableDefault(size = 10, sort = "dataCriacao", direction = Sort.Direction.DESC) Pageable pageable) {
-        return ResponseEntity.ok(service.listarTodos(pageable));
+            @PageableDefault(size = 10, sort = "dataCriacao", direction = Sort.Direction.DESC) Pageable pageable,
+            @RequestParam(defaultValue = "true") boolean incluirItens) {
+        return ResponseEntity.ok(consultaService.listarTodos(pageable, incluirItens));
+    }
+
+    /**
+     * Consulta um pedido pelo seu código de negócio.
+     * <p>
+     * Atendida por cache em processo: leituras repetidas do mesmo código não acessam o banco.
+     * </p>
+     * <p>
+     * No modo assíncrono, um pedido aceito por esta instância e ainda não persistido pelos workers é respondido
+     * com 202 (Accepted) e a mesma confirmação do POST, com o status {@code RECEBIDO}.
+     * </p>
+     *
+     * @param codigoPedido Código de negócio do pedido.
+     * @return ResponseEntity contendo o pedido com seus itens, a confirmação de recebimento com o status HTTP 202
+     * (Accepted) se ainda estiver na fila de ingestão, ou 404 (Not Found) se não existir.
+     */
+    @GetMapping("/{codigoPedido}")
+    public ResponseEntity<?> buscarPorCodigo(@PathVariable String codigoPedido) {
+        try {
+            return ResponseEntity.ok(consultaService.buscarPorCodigo(codigoPedido));
+        } catch (PedidoNaoEncontradoException e) {
+            PedidoRecebidoDTO recebido = ingestaoAssincrona.buscarPendente(codigoPedido).orElseThrow(() -> e);
+            return ResponseEntity.accepted().body(recebido);
+        }
+    }
+
+    /**
+     * Lista os pedidos (mais recentes primeiro) com paginação por cursor.
+     * <p>
+     * Alternativa à listagem paginada para varreduras profundas: não executa COUNT nem OFFSET,
+     * então o custo de cada página é constante. Para avançar, envie o {@code proximoCursor} da
+     * resposta anterior no parâmetro {@code cursor}.
+     * </p>
+     *
+     * @param cursor Token de continuação (omitido na primeira página).
+     * @param size Quantidade de pedidos por página (1 a 100).
+     * @param incluirItens Se {@code false}, os itens são omitidos e a consulta de itens não é executada.
+     * @return ResponseEntity contendo os pedidos da página e o token da próxima.
+     */
+    @GetMapping("/cursor")
+    public ResponseEntity<PaginaCursorDTO<PedidoResumoDTO>> listarPorCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") @Min(1) @Max(100) int size,
+            @RequestParam(defaultValue = "true") boolean incluirItens) {
+        return ResponseEntity.ok(consultaService.listarPorCursor(cursor, size, incluirItens));
     }
-}
\ No newline at end of file
+}
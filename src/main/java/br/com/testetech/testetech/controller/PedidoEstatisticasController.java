@@ -0,0 +1,107 @@
+package br.com.testetech.testetech.controller;
+
+import br.com.testetech.testetech.dto.AgregadoPedidosDTO;
+import br.com.testetech.testetech.dto.EstatisticasPedidosDTO;
+import br.com.testetech.testetech.dto.RankingProdutosDTO;
+import br.com.testetech.testetech.estatisticas.AgregadosPedidos;
+import br.com.testetech.testetech.estatisticas.CriterioRanking;
+import br.com.testetech.testetech.estatisticas.RankingProdutos;
+import br.com.testetech.testetech.exception.PeriodoInvalidoException;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Controlador REST dos agregados de pedidos (quantidade e receita) para painéis operacionais.
+ * <p>
+ * As respostas vêm de contadores mantidos em memória ({@link AgregadosPedidos}, {@link RankingProdutos}):
+ * nenhuma consulta {@code SUM}/{@code COUNT}/{@code GROUP BY} é executada no banco, qualquer que seja o tamanho das tabelas.
+ * </p>
+ */
+@RestController
+@RequestMapping("/api/pedidos/estatisticas")
+public class PedidoEstatisticasController {
+
+    /**
+     * Maior intervalo aceito na consulta por dia.
+     */
+    private static final long MAXIMO_DIAS = 366;
+
+    private final AgregadosPedidos agregados;
+
+    private final RankingProdutos rankingProdutos;
+
+    public PedidoEstatisticasController(AgregadosPedidos agregados, RankingProdutos rankingProdutos) {
+        this.agregados = agregados;
+        this.rankingProdutos = rankingProdutos;
+    }
+
+    /**
+     * @return ResponseEntity com o total de pedidos e receita, geral e por status.
+     */
+    @GetMapping
+    public ResponseEntity<EstatisticasPedidosDTO> visaoGeral() {
+        return ResponseEntity.ok(agregados.visaoGeral());
+    }
+
+    /**
+     * Quantidade e receita por dia.
+     *
+     * @param de Primeiro dia (inclusive); padrão: 29 dias antes de {@code ate}.
+     * @param ate Último dia (inclusive); padrão: hoje.
+     * @return ResponseEntity com um agregado por dia do intervalo, incluindo dias sem pedidos.
+     */
+    @GetMapping("/dias")
+    public ResponseEntity<List<AgregadoPedidosDTO>> porDia(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate de,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate ate) {
+        LocalDate fim = ate != null ? ate : LocalDate.now();
+        LocalDate inicio = de != null ? de : fim.minusDays(29);
+        if (inicio.isAfter(fim) || ChronoUnit.DAYS.between(inicio, fim) >= MAXIMO_DIAS) {
+            throw new PeriodoInvalidoException("Período inválido: informe 'de' <= 'ate' com no máximo " + MAXIMO_DIAS + " dias");
+        }
+        return ResponseEntity.ok(agregados.porDia(inicio, fim));
+    }
+
+    /**
+     * Quantidade e receita por hora de um dia.
+     *
+     * @param data Dia consultado; padrão: hoje.
+     * @return ResponseEntity com as 24 horas do dia, incluindo horas sem pedidos.
+     */
+    @GetMapping("/horas")
+    public ResponseEntity<List<AgregadoPedidosDTO>> porHora(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate data) {
+        return ResponseEntity.ok(agregados.porHora(data != null ? data : LocalDate.now()));
+    }
+
+    /**
+     * Produtos mais vendidos, estimados por um resumo Space-Saving com memória fixa.
+     * <p>
+     * Os valores são aproximados: o valor real de cada produto está entre {@code valorMinimo} e
+     * {@code valorEstimado}, e a cota {@code erroMaximo} é no máximo o total da janela dividido pela
+     * quantidade de contadores ({@code pedidos.ranking.contadores}).
+     * </p>
+     *
+     * @param criterio Ordenação por receita ou por quantidade.
+     * @param k Quantidade de produtos (1 a 100).
+     * @param horas Janela em horas (a corrente e as anteriores); omitida, usa o acumulado desde a inicialização.
+     * @return ResponseEntity com o ranking e as cotas de erro.
+     */
+    @GetMapping("/produtos")
+    public ResponseEntity<RankingProdutosDTO> rankingProdutos(
+            @RequestParam(defaultValue = "RECEITA") CriterioRanking criterio,
+            @RequestParam(defaultValue = "10") @Min(1) @Max(100) int k,
+            @RequestParam(required = false) Integer horas) {
+        return ResponseEntity.ok(rankingProdutos.ranking(criterio, k, horas));
+    }
+}
@@ -0,0 +1,123 @@
+package br.com.testetech.testetech.controller;
+
+import br.com.testetech.testetech.exportacao.ExportacaoPedidos;
+import br.com.testetech.testetech.exportacao.FormatoExportacao;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+/**
+ * Controlador REST da exportação completa de pedidos, para cargas em sistemas externos (ex: financeiro).
+ * <p>
+ * Substitui a varredura página a página de {@code GET /api/pedidos} (OFFSET + COUNT a cada página) por uma
+ * única resposta em streaming, escrita à medida que o banco é percorrido.
+ * </p>
+ */
+@RestController
+@RequestMapping("/api/pedidos/exportacao")
+public class PedidoExportacaoController {
+
+    private final ExportacaoPedidos exportacao;
+
+    private final long timeoutMs;
+
+    public PedidoExportacaoController(ExportacaoPedidos exportacao,
+                                      @Value("${pedidos.exportacao.timeout:1h}") Duration timeout) {
+        this.exportacao = exportacao;
+        this.timeoutMs = timeout.toMillis();
+    }
+
+    /**
+     * Exporta os pedidos (mais antigos primeiro) em NDJSON ou CSV.
+     * <p>
+     * A resposta é comprimida em gzip ({@code Content-Encoding: gzip}) quando o cliente a aceita
+     * ({@code Accept-Encoding: gzip}, ex: {@code curl --compressed}).
+     * </p>
+     * <p>
+     * O corpo é escrito em uma tarefa assíncrona com tempo limite próprio ({@code pedidos.exportacao.timeout}),
+     * sem alongar o {@code spring.mvc.async.request-timeout} das demais respostas assíncronas.
+     * </p>
+     *
+     * @param formato {@code NDJSON} (padrão) ou {@code CSV}.
+     * @param de Início do período de criação (inclusive), ex: {@code 2025-12-01T00:00:00}.
+     * @param ate Fim do período de criação (exclusivo).
+     * @param incluirItens Se {@code false}, os itens são omitidos e a consulta de itens não é executada.
+     * @param acceptEncoding Codificações aceitas pelo cliente.
+     * @param resposta Resposta em que o corpo é escrito.
+     * @return Tarefa que escreve o corpo em streaming; 400 (Bad Request) se o período for inválido.
+     */
+    @GetMapping
+    public WebAsyncTask<Void> exportar(
+            @RequestParam(defaultValue = "NDJSON") FormatoExportacao formato,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime de,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime ate,
+            @RequestParam(defaultValue = "true") boolean incluirItens,
+            @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            HttpServletResponse resposta) {
+        exportacao.validarPeriodo(de, ate);
+        boolean gzip = aceitaGzip(acceptEncoding);
+
+        resposta.setContentType(formato.getMediaType().toString());
+        resposta.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename("pedidos." + formato.getExtensao()).build().toString());
+        resposta.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            resposta.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return new WebAsyncTask<>(timeoutMs, () -> {
+            exportacao.exportar(formato, de, ate, incluirItens, gzip, resposta.getOutputStream());
+            resposta.flushBuffer();
+            return null;
+        });
+    }
+
+    /**
+     * Interpreta o {@code Accept-Encoding} com os pesos ({@code q}) da RFC 9110: {@code gzip;q=0} recusa o gzip,
+     * e {@code *} vale para o gzip quando ele não é listado.
+     *
+     * @param acceptEncoding Valor do cabeçalho, ou {@code null}.
+     * @return {@code true} se o gzip (ou {@code x-gzip}) é aceito com peso maior que zero.
+     */
+    static boolean aceitaGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double pesoGzip = null;
+        Double pesoCuringa = null;
+        for (String elemento : acceptEncoding.split(",")) {
+            String[] partes = elemento.split(";");
+            String codificacao = partes[0].trim().toLowerCase(Locale.ROOT);
+            double peso = 1.0;
+            for (int i = 1; i < partes.length; i++) {
+                String parametro = partes[i].trim();
+                if (parametro.regionMatches(true, 0, "q=", 0, 2)) {
+                    try {
+                        peso = Double.parseDouble(parametro.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        // Peso inválido: a codificação é tratada como não aceita
+                        peso = 0;
+                    }
+                }
+            }
+            if (codificacao.equals("gzip") || codificacao.equals("x-gzip")) {
+                pesoGzip = pesoGzip == null ? peso : Math.max(pesoGzip, peso);
+            } else if (codificacao.equals("*")) {
+                pesoCuringa = peso;
+            }
+        }
+        double peso = pesoGzip != null ? pesoGzip : pesoCuringa != null ? pesoCuringa : 0;
+        return peso > 0;
+    }
+}
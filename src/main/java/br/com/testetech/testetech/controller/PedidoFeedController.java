@@ -0,0 +1,43 @@
+package br.com.testetech.testetech.controller;
+
+import br.com.testetech.testetech.feed.FeedPedidos;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Controlador REST do feed de pedidos registrados, em Server-Sent Events.
+ * <p>
+ * Substitui a consulta periódica de {@code GET /api/pedidos} (ordenação + COUNT a cada chamada) por uma conexão
+ * aberta que recebe cada pedido assim que ele é confirmado.
+ * </p>
+ */
+@RestController
+@RequestMapping("/api/pedidos/feed")
+public class PedidoFeedController {
+
+    private final FeedPedidos feed;
+
+    public PedidoFeedController(FeedPedidos feed) {
+        this.feed = feed;
+    }
+
+    /**
+     * Assina o feed: cada pedido confirmado chega como um evento {@code pedido} com o resumo em JSON e um
+     * {@code id} que pode ser enviado em {@code Last-Event-ID} para retomar após uma reconexão.
+     * <p>
+     * Um evento {@code resync} indica que pedidos foram perdidos (consumidor lento, que é desconectado, ou
+     * {@code Last-Event-ID} fora do histórico retido): o cliente deve reler a listagem.
+     * </p>
+     *
+     * @param ultimoId ID do último evento recebido, para retomada.
+     * @return Emissor SSE da assinatura, ou 429 (Too Many Requests) se o limite de assinantes foi atingido.
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter assinar(@RequestHeader(name = "Last-Event-ID", required = false) String ultimoId) {
+        return feed.assinar(ultimoId);
+    }
+}
@@ -0,0 +1,130 @@
+package br.com.testetech.testetech.dedupe;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Filtro de Bloom thread-safe e sem locks para chaves do tipo {@link String}.
+ * <p>
+ * Responde "certamente ausente" (sem falsos negativos) ou "talvez presente" (com probabilidade
+ * de falso positivo controlada pelo dimensionamento). Os bits ficam em um {@link AtomicLongArray},
+ * permitindo inserções e consultas concorrentes via CAS, e as posições são derivadas por
+ * double hashing (Kirsch-Mitzenmacher) a partir de dois hashes de 64 bits.
+ * </p>
+ */
+public class BloomFilter {
+
+    private static final double LN2 = Math.log(2);
+
+    private final AtomicLongArray bits;
+
+    private final long totalBits;
+
+    private final int numeroHashes;
+
+    private final LongAdder bitsAtivos = new LongAdder();
+
+    private final LongAdder insercoes = new LongAdder();
+
+    /**
+     * Dimensiona o filtro pelas fórmulas clássicas: {@code m = -n·ln(p) / ln(2)²} e {@code k = (m/n)·ln(2)}.
+     *
+     * @param capacidadeEsperada Quantidade de elementos distintos esperada (n).
+     * @param taxaFalsoPositivo Probabilidade de falso positivo desejada ao atingir a capacidade (p).
+     */
+    public BloomFilter(long capacidadeEsperada, double taxaFalsoPositivo) {
+        if (capacidadeEsperada <= 0) {
+            throw new IllegalArgumentException("A capacidade esperada deve ser positiva");
+        }
+        if (taxaFalsoPositivo <= 0 || taxaFalsoPositivo >= 1) {
+            throw new IllegalArgumentException("A taxa de falso positivo deve estar entre 0 e 1 (exclusivo)");
+        }
+        long m = (long) Math.ceil(-capacidadeEsperada * Math.log(taxaFalsoPositivo) / (LN2 * LN2));
+        int palavras = Math.toIntExact((m + 63) / 64);
+        this.bits = new AtomicLongArray(palavras);
+        this.totalBits = (long) palavras * 64;
+        this.numeroHashes = Math.max(1, (int) Math.round((double) totalBits / capacidadeEsperada * LN2));
+    }
+
+    /**
+     * Registra a chave no filtro.
+     */
+    public void adicionar(String chave) {
+        long h1 = hash(chave, 0x9E3779B97F4A7C15L);
+        long h2 = hash(chave, 0xC2B2AE3D27D4EB4FL) | 1;
+        for (int i = 0; i < numeroHashes; i++) {
+            long posicao = Math.floorMod(h1 + i * h2, totalBits);
+            int palavra = (int) (posicao >>> 6);
+            long mascara = 1L << posicao;
+            long atual;
+            do {
+                atual = bits.get(palavra);
+                if ((atual & mascara) != 0) {
+                    break;
+                }
+            } while (!bits.compareAndSet(palavra, atual, atual | mascara));
+            if ((atual & mascara) == 0) {
+                bitsAtivos.increment();
+            }
+        }
+        insercoes.increment();
+    }
+
+    /**
+     * @return {@code false} se a chave certamente nunca foi adicionada; {@code true} se talvez tenha sido.
+     */
+    public boolean talvezContenha(String chave) {
+        long h1 = hash(chave, 0x9E3779B97F4A7C15L);
+        long h2 = hash(chave, 0xC2B2AE3D27D4EB4FL) | 1;
+        for (int i = 0; i < numeroHashes; i++) {
+            long posicao = Math.floorMod(h1 + i * h2, totalBits);
+            if ((bits.get((int) (posicao >>> 6)) & (1L << posicao)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Probabilidade de falso positivo estimada a partir da ocupação atual: {@code (bitsAtivos / m)^k}.
+     */
+    public double taxaFalsoPositivoEstimada() {
+        return Math.pow((double) bitsAtivos.sum() / totalBits, numeroHashes);
+    }
+
+    public long tamanhoEmBytes() {
+        return totalBits / 8;
+    }
+
+    public long getTotalBits() {
+        return totalBits;
+    }
+
+    public int getNumeroHashes() {
+        return numeroHashes;
+    }
+
+    /**
+     * @return Quantidade de inserções realizadas (inclui chaves repetidas).
+     */
+    public long getInsercoes() {
+        return insercoes.sum();
+    }
+
+    /**
+     * Hash de 64 bits (FNV-1a sobre os caracteres seguido do finalizador do MurmurHash3).
+     */
+    private static long hash(String chave, long semente) {
+        long h = semente ^ 0xCBF29CE484222325L;
+        for (int i = 0; i < chave.length(); i++) {
+            h ^= chave.charAt(i);
+            h *= 0x100000001B3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,175 @@
+package br.com.testetech.testetech.dedupe;
+
+import br.com.testetech.testetech.replica.RoteamentoLeitura;
+import br.com.testetech.testetech.repository.PedidoRepository;
+import br.com.testetech.testetech.sharding.ShardsPedidos;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.stream.Stream;
+
+/**
+ * Filtro probabilístico de códigos de pedido posicionado à frente de
+ * {@link PedidoRepository#existsByCodigoPedido(String)}.
+ * <p>
+ * Como a grande maioria dos códigos recebidos é inédita, um "certamente novo" do {@link BloomFilter}
+ * dispensa a consulta ao índice no banco; apenas respostas "talvez existente" seguem para o banco.
+ * O filtro é aquecido na inicialização percorrendo os códigos existentes em streaming e
+ * alimentado a cada pedido salvo. Enquanto o aquecimento não termina, toda verificação vai ao banco.
+ * </p>
+ * <p>
+ * Falsos positivos custam apenas a consulta que já seria feita; a unicidade continua garantida
+ * pelo índice único {@code idx_codigo_pedido}.
+ * </p>
+ */
+@Component
+public class FiltroCodigosPedido {
+
+    private final Logger logger = LoggerFactory.getLogger(FiltroCodigosPedido.class);
+
+    private final PedidoRepository repository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ShardsPedidos shards;
+
+    private final boolean habilitado;
+
+    /**
+     * {@code null} com o filtro desabilitado: o vetor de bits ocupa cerca de 1,2 MB na capacidade padrão.
+     */
+    private final BloomFilter bloomFilter;
+
+    /**
+     * Indica que o aquecimento terminou e que respostas "certamente novo" são confiáveis.
+     */
+    private volatile boolean pronto;
+
+    private final Counter certamenteNovos;
+
+    private final Counter talvezExistentes;
+
+    private final Counter falsosPositivos;
+
+    public FiltroCodigosPedido(PedidoRepository repository,
+                               PlatformTransactionManager transactionManager,
+                               ShardsPedidos shards,
+                               MeterRegistry meterRegistry,
+                               @Value("${pedidos.dedupe.bloom.habilitado:true}") boolean habilitado,
+                               @Value("${pedidos.dedupe.bloom.capacidade:1000000}") long capacidade,
+                               @Value("${pedidos.dedupe.bloom.taxa-falso-positivo:0.01}") double taxaFalsoPositivo) {
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.shards = shards;
+        this.habilitado = habilitado;
+        this.bloomFilter = habilitado ? new BloomFilter(capacidade, taxaFalsoPositivo) : null;
+
+        this.certamenteNovos = Counter.builder("pedidos.dedupe.bloom.consultas")
+                .description("Verificações de duplicidade respondidas pelo filtro de Bloom")
+                .tag("resultado", "certamente_novo")
+                .register(meterRegistry);
+        this.talvezExistentes = Counter.builder("pedidos.dedupe.bloom.consultas")
+                .description("Verificações de duplicidade respondidas pelo filtro de Bloom")
+                .tag("resultado", "talvez_existente")
+                .register(meterRegistry);
+        this.falsosPositivos = Counter.builder("pedidos.dedupe.bloom.falsos.positivos")
+                .description("Respostas 'talvez existente' em que o banco confirmou um código inédito")
+                .register(meterRegistry);
+        if (!habilitado) {
+            return;
+        }
+
+        Gauge.builder("pedidos.dedupe.bloom.memoria", bloomFilter, BloomFilter::tamanhoEmBytes)
+                .description("Memória ocupada pelo vetor de bits do filtro de Bloom")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("pedidos.dedupe.bloom.fpp.estimada", bloomFilter, BloomFilter::taxaFalsoPositivoEstimada)
+                .description("Probabilidade de falso positivo estimada pela ocupação atual do filtro")
+                .register(meterRegistry);
+        Gauge.builder("pedidos.dedupe.bloom.fpp.observada", this, FiltroCodigosPedido::taxaFalsoPositivoObservada)
+                .description("Fração de códigos inéditos que o filtro classificou como 'talvez existente'")
+                .register(meterRegistry);
+        FunctionCounter.builder("pedidos.dedupe.bloom.insercoes", bloomFilter, BloomFilter::getInsercoes)
+                .description("Códigos inseridos no filtro desde a inicialização")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Aquece o filtro com todos os códigos já persistidos, percorridos em streaming (um shard de cada vez).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void aquecer() {
+        if (!habilitado) {
+            logger.info("Filtro de Bloom de códigos de pedido desabilitado");
+            return;
+        }
+        long inicio = System.nanoTime();
+        long[] total = new long[1];
+        // No primário: a réplica pode ainda não conter códigos já aceitos
+        shards.paraCadaShard(shard -> RoteamentoLeitura.noPrimario(() -> transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<String> codigos = repository.streamCodigos()) {
+                for (String codigo : (Iterable<String>) codigos::iterator) {
+                    bloomFilter.adicionar(codigo);
+                    total[0]++;
+                }
+            }
+        })));
+        pronto = true;
+        logger.info("Filtro de Bloom aquecido com {} códigos em {} ms ({} bytes, {} funções de hash)",
+                total[0], (System.nanoTime() - inicio) / 1_000_000, bloomFilter.tamanhoEmBytes(), bloomFilter.getNumeroHashes());
+    }
+
+    /**
+     * @param codigoPedido Código a verificar.
+     * @return {@code true} somente se o código certamente nunca foi registrado, dispensando a ida ao banco.
+     */
+    public boolean certamenteNovo(String codigoPedido) {
+        if (!habilitado || !pronto) {
+            return false;
+        }
+        if (bloomFilter.talvezContenha(codigoPedido)) {
+            talvezExistentes.increment();
+            return false;
+        }
+        certamenteNovos.increment();
+        return true;
+    }
+
+    /**
+     * Informa o resultado da consulta ao banco feita após uma resposta "talvez existente",
+     * alimentando a taxa de falsos positivos observada.
+     *
+     * @param existia Se o banco confirmou a existência do código.
+     */
+    public void confirmarVerificacao(boolean existia) {
+        if (habilitado && pronto && !existia) {
+            falsosPositivos.increment();
+        }
+    }
+
+    /**
+     * Registra um código recém-persistido no filtro.
+     */
+    public void registrar(String codigoPedido) {
+        if (habilitado) {
+            bloomFilter.adicionar(codigoPedido);
+        }
+    }
+
+    private double taxaFalsoPositivoObservada() {
+        double fp = falsosPositivos.count();
+        double negativos = fp + certamenteNovos.count();
+        return negativos == 0 ? 0.0 : fp / negativos;
+    }
+}
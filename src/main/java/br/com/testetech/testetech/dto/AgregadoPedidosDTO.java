@@ -0,0 +1,40 @@
+package br.com.testetech.testetech.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Quantidade de pedidos e receita (soma de {@code valorTotal}) de um agrupamento.
+ */
+public class AgregadoPedidosDTO {
+
+    /**
+     * Início do período (dia ou hora). Nulo (e omitido no JSON) nos agrupamentos sem período.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private final LocalDateTime inicio;
+
+    private final long quantidade;
+
+    private final BigDecimal receita;
+
+    public AgregadoPedidosDTO(LocalDateTime inicio, long quantidade, BigDecimal receita) {
+        this.inicio = inicio;
+        this.quantidade = quantidade;
+        this.receita = receita;
+    }
+
+    public LocalDateTime getInicio() {
+        return inicio;
+    }
+
+    public long getQuantidade() {
+        return quantidade;
+    }
+
+    public BigDecimal getReceita() {
+        return receita;
+    }
+}
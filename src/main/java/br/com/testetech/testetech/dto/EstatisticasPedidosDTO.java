@@ -0,0 +1,28 @@
+package br.com.testetech.testetech.dto;
+
+import br.com.testetech.testetech.model.PedidoStatus;
+
+import java.util.Map;
+
+/**
+ * Visão geral dos agregados de pedidos: total e distribuição por {@link PedidoStatus}.
+ */
+public class EstatisticasPedidosDTO {
+
+    private final AgregadoPedidosDTO total;
+
+    private final Map<PedidoStatus, AgregadoPedidosDTO> porStatus;
+
+    public EstatisticasPedidosDTO(AgregadoPedidosDTO total, Map<PedidoStatus, AgregadoPedidosDTO> porStatus) {
+        this.total = total;
+        this.porStatus = Map.copyOf(porStatus);
+    }
+
+    public AgregadoPedidosDTO getTotal() {
+        return total;
+    }
+
+    public Map<PedidoStatus, AgregadoPedidosDTO> getPorStatus() {
+        return porStatus;
+    }
+}
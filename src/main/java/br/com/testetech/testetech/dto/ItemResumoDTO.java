@@ -0,0 +1,51 @@
+package br.com.testetech.testetech.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Representação imutável, somente leitura, de um item de pedido nas respostas da API.
+ * <p>
+ * O {@code id} é o da linha em {@code itens_pedido}; é nulo para os pedidos no armazenamento compacto, cujos itens
+ * não têm linha própria.
+ * </p>
+ */
+public class ItemResumoDTO {
+
+    private final Long id;
+
+    private final String produtoId;
+
+    private final BigDecimal valorUnitario;
+
+    private final Integer quantidade;
+
+    public ItemResumoDTO(Long id, String produtoId, BigDecimal valorUnitario, Integer quantidade) {
+        this.id = id;
+        this.produtoId = produtoId;
+        this.valorUnitario = valorUnitario;
+        this.quantidade = quantidade;
+    }
+
+    /**
+     * Item sem linha própria em {@code itens_pedido} (armazenamento compacto ou ainda não persistido).
+     */
+    public ItemResumoDTO(String produtoId, BigDecimal valorUnitario, Integer quantidade) {
+        this(null, produtoId, valorUnitario, quantidade);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getProdutoId() {
+        return produtoId;
+    }
+
+    public BigDecimal getValorUnitario() {
+        return valorUnitario;
+    }
+
+    public Integer getQuantidade() {
+        return quantidade;
+    }
+}
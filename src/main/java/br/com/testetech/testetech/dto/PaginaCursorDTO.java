@@ -0,0 +1,35 @@
+package br.com.testetech.testetech.dto;
+
+import java.util.List;
+
+/**
+ * Página de uma listagem paginada por cursor (keyset).
+ * <p>
+ * Diferente de {@code Page}, não carrega total de elementos nem número de página: o cliente
+ * avança enviando o {@code proximoCursor} recebido, que é nulo quando não há mais registros.
+ * </p>
+ *
+ * @param <T> Tipo dos elementos da página.
+ */
+public class PaginaCursorDTO<T> {
+
+    private final List<T> conteudo;
+
+    /**
+     * Token opaco de continuação. Deve ser devolvido sem alterações no parâmetro {@code cursor}.
+     */
+    private final String proximoCursor;
+
+    public PaginaCursorDTO(List<T> conteudo, String proximoCursor) {
+        this.conteudo = conteudo;
+        this.proximoCursor = proximoCursor;
+    }
+
+    public List<T> getConteudo() {
+        return conteudo;
+    }
+
+    public String getProximoCursor() {
+        return proximoCursor;
+    }
+}
@@ -3,6 +3,7 @@ package br.com.testetech.testetech.dto;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Pattern;
 
 import java.util.List;
 
@@ -15,8 +16,12 @@ public class PedidoInputDTO {
     /**
      * Código identificador do pedido vindo do sistema externo.
      * Deve ser único no sistema para evitar duplicidade.
+     * Não pode coincidir com as rotas fixas sob {@code GET /api/pedidos/}, que têm precedência sobre
+     * {@code /{codigoPedido}} e tornariam o pedido inacessível pelo código.
      */
     @NotBlank(message = "O código do pedido não pode estar em branco")
+    @Pattern(regexp = "(?s)(?!(cursor|exportacao|estatisticas|feed)$).*",
+            message = "O código do pedido não pode ser cursor, exportacao, estatisticas ou feed (rotas de consulta)")
     private String codigoPedido;
 
     /**
@@ -0,0 +1,40 @@
+package br.com.testetech.testetech.dto;
+
+import br.com.testetech.testetech.model.PedidoStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO de saída devolvido quando um pedido é aceito para processamento assíncrono.
+ * <p>
+ * O pedido ainda não possui ID nem valor total: ambos são definidos pelos workers de ingestão,
+ * que persistem o registro já com o status {@link PedidoStatus#CALCULADO}. Até lá, a consulta por código
+ * devolve este mesmo DTO (202), e o status {@link PedidoStatus#RECEBIDO} nunca é gravado no banco.
+ * </p>
+ */
+public class PedidoRecebidoDTO {
+
+    private final String codigoPedido;
+
+    private final PedidoStatus status;
+
+    private final LocalDateTime recebidoEm;
+
+    public PedidoRecebidoDTO(String codigoPedido, LocalDateTime recebidoEm) {
+        this.codigoPedido = codigoPedido;
+        this.status = PedidoStatus.RECEBIDO;
+        this.recebidoEm = recebidoEm;
+    }
+
+    public String getCodigoPedido() {
+        return codigoPedido;
+    }
+
+    public PedidoStatus getStatus() {
+        return status;
+    }
+
+    public LocalDateTime getRecebidoEm() {
+        return recebidoEm;
+    }
+}
@@ -0,0 +1,93 @@
+package br.com.testetech.testetech.dto;
+
+import br.com.testetech.testetech.model.PedidoStatus;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Modelo de leitura (projeção) de um pedido, usado nas respostas de consulta.
+ * <p>
+ * É preenchido diretamente por consultas JPQL com expressão de construtor, sem instanciar
+ * entidades gerenciadas: a serialização JSON nunca aciona lazy loading nem percorre o grafo
+ * do JPA. É imutável; os itens são anexados via {@link #comItens(List)}, que gera uma nova instância.
+ * </p>
+ */
+public class PedidoResumoDTO {
+
+    /**
+     * Ordem da listagem por cursor: data de criação e, no empate, ID decrescentes.
+     */
+    public static final Comparator<PedidoResumoDTO> MAIS_RECENTES_PRIMEIRO = Comparator
+            .comparing(PedidoResumoDTO::getDataCriacao, Comparator.nullsFirst(Comparator.<LocalDateTime>naturalOrder()))
+            .thenComparing(PedidoResumoDTO::getId, Comparator.nullsFirst(Comparator.<Long>naturalOrder()))
+            .reversed();
+
+    private final Long id;
+
+    private final String codigoPedido;
+
+    /**
+     * Itens do pedido. Nulo (e omitido no JSON) quando a consulta não solicitou os itens.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private final List<ItemResumoDTO> items;
+
+    private final BigDecimal valorTotal;
+
+    private final PedidoStatus status;
+
+    private final LocalDateTime dataCriacao;
+
+    /**
+     * Construtor utilizado pelas consultas JPQL ({@code select new ...}), sem os itens.
+     */
+    public PedidoResumoDTO(Long id, String codigoPedido, BigDecimal valorTotal, PedidoStatus status,
+                           LocalDateTime dataCriacao) {
+        this(id, codigoPedido, null, valorTotal, status, dataCriacao);
+    }
+
+    public PedidoResumoDTO(Long id, String codigoPedido, List<ItemResumoDTO> items, BigDecimal valorTotal,
+                           PedidoStatus status, LocalDateTime dataCriacao) {
+        this.id = id;
+        this.codigoPedido = codigoPedido;
+        this.items = items == null ? null : List.copyOf(items);
+        this.valorTotal = valorTotal;
+        this.status = status;
+        this.dataCriacao = dataCriacao;
+    }
+
+    /**
+     * @return Cópia deste resumo com a lista de itens informada.
+     */
+    public PedidoResumoDTO comItens(List<ItemResumoDTO> items) {
+        return new PedidoResumoDTO(id, codigoPedido, items, valorTotal, status, dataCriacao);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getCodigoPedido() {
+        return codigoPedido;
+    }
+
+    public List<ItemResumoDTO> getItems() {
+        return items;
+    }
+
+    public BigDecimal getValorTotal() {
+        return valorTotal;
+    }
+
+    public PedidoStatus getStatus() {
+        return status;
+    }
+
+    public LocalDateTime getDataCriacao() {
+        return dataCriacao;
+    }
+}
@@ -0,0 +1,49 @@
+package br.com.testetech.testetech.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Posição de um produto no ranking aproximado, com os limites do valor real.
+ * <p>
+ * O valor real está sempre em {@code [valorMinimo, valorEstimado]}.
+ * </p>
+ */
+public class ProdutoRankingDTO {
+
+    private final String produtoId;
+
+    /**
+     * Estimativa (limite superior) da receita ou quantidade do produto.
+     */
+    private final BigDecimal valorEstimado;
+
+    /**
+     * Limite inferior garantido ({@code valorEstimado - erroMaximo}).
+     */
+    private final BigDecimal valorMinimo;
+
+    private final BigDecimal erroMaximo;
+
+    public ProdutoRankingDTO(String produtoId, BigDecimal valorEstimado, BigDecimal erroMaximo) {
+        this.produtoId = produtoId;
+        this.valorEstimado = valorEstimado;
+        this.valorMinimo = valorEstimado.subtract(erroMaximo);
+        this.erroMaximo = erroMaximo;
+    }
+
+    public String getProdutoId() {
+        return produtoId;
+    }
+
+    public BigDecimal getValorEstimado() {
+        return valorEstimado;
+    }
+
+    public BigDecimal getValorMinimo() {
+        return valorMinimo;
+    }
+
+    public BigDecimal getErroMaximo() {
+        return erroMaximo;
+    }
+}
@@ -0,0 +1,62 @@
+package br.com.testetech.testetech.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Ranking aproximado dos produtos mais vendidos em uma janela de tempo.
+ */
+public class RankingProdutosDTO {
+
+    private final String criterio;
+
+    /**
+     * Janela em horas (a hora corrente e as anteriores). Nula (e omitida no JSON) para o acumulado desde a inicialização.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private final Integer janelaHoras;
+
+    /**
+     * Receita ou quantidade total observada na janela.
+     */
+    private final BigDecimal totalObservado;
+
+    /**
+     * Cota de erro das estimativas da janela (no máximo {@code totalObservado / contadores}). Também limita o valor
+     * real de qualquer produto não monitorado.
+     */
+    private final BigDecimal erroMaximo;
+
+    private final List<ProdutoRankingDTO> produtos;
+
+    public RankingProdutosDTO(String criterio, Integer janelaHoras, BigDecimal totalObservado, BigDecimal erroMaximo,
+                              List<ProdutoRankingDTO> produtos) {
+        this.criterio = criterio;
+        this.janelaHoras = janelaHoras;
+        this.totalObservado = totalObservado;
+        this.erroMaximo = erroMaximo;
+        this.produtos = List.copyOf(produtos);
+    }
+
+    public String getCriterio() {
+        return criterio;
+    }
+
+    public Integer getJanelaHoras() {
+        return janelaHoras;
+    }
+
+    public BigDecimal getTotalObservado() {
+        return totalObservado;
+    }
+
+    public BigDecimal getErroMaximo() {
+        return erroMaximo;
+    }
+
+    public List<ProdutoRankingDTO> getProdutos() {
+        return produtos;
+    }
+}
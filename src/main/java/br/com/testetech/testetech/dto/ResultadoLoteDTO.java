@@ -0,0 +1,57 @@
+package br.com.testetech.testetech.dto;
+
+/**
+ * DTO de saída que descreve o desfecho de cada pedido recebido no endpoint de lote.
+ * <p>
+ * A posição original no lote ({@code indice}) é sempre devolvida, permitindo ao cliente
+ * correlacionar o resultado mesmo quando o código do pedido está ausente ou inválido.
+ * </p>
+ */
+public class ResultadoLoteDTO {
+
+    private final int indice;
+
+    private final String codigoPedido;
+
+    private final SituacaoLote situacao;
+
+    /**
+     * Detalhe do motivo da rejeição. Nulo para pedidos aceitos.
+     */
+    private final String mensagem;
+
+    public ResultadoLoteDTO(int indice, String codigoPedido, SituacaoLote situacao, String mensagem) {
+        this.indice = indice;
+        this.codigoPedido = codigoPedido;
+        this.situacao = situacao;
+        this.mensagem = mensagem;
+    }
+
+    public static ResultadoLoteDTO aceito(int indice, String codigoPedido) {
+        return new ResultadoLoteDTO(indice, codigoPedido, SituacaoLote.ACEITO, null);
+    }
+
+    public static ResultadoLoteDTO duplicado(int indice, String codigoPedido, String mensagem) {
+        return new ResultadoLoteDTO(indice, codigoPedido, SituacaoLote.DUPLICADO, mensagem);
+    }
+
+    public static ResultadoLoteDTO falha(int indice, String codigoPedido, String mensagem) {
+        return new ResultadoLoteDTO(indice, codigoPedido, SituacaoLote.FALHA, mensagem);
+    }
+
+    public int getIndice() {
+        return indice;
+    }
+
+    public String getCodigoPedido() {
+        return codigoPedido;
+    }
+
+    public SituacaoLote getSituacao() {
+        return situacao;
+    }
+
+    public String getMensagem() {
+        return mensagem;
+    }
+}
@@ -0,0 +1,22 @@
+package br.com.testetech.testetech.dto;
+
+/**
+ * Resultado individual de um pedido submetido dentro de um lote.
+ */
+public enum SituacaoLote {
+
+    /**
+     * O pedido foi validado, calculado e persistido com sucesso.
+     */
+    ACEITO,
+
+    /**
+     * O código do pedido já existia no banco de dados ou se repetiu dentro do próprio lote.
+     */
+    DUPLICADO,
+
+    /**
+     * O pedido foi rejeitado por erro de validação ou falha inesperada na persistência.
+     */
+    FALHA
+}
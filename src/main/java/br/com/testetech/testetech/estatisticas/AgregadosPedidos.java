@@ -0,0 +1,304 @@
+package br.com.testetech.testetech.estatisticas;
+
+import br.com.testetech.testetech.dto.AgregadoPedidosDTO;
+import br.com.testetech.testetech.dto.EstatisticasPedidosDTO;
+import br.com.testetech.testetech.dto.PedidoResumoDTO;
+import br.com.testetech.testetech.evento.PedidoRegistradoEvent;
+import br.com.testetech.testetech.model.PedidoStatus;
+import br.com.testetech.testetech.replica.RoteamentoLeitura;
+import br.com.testetech.testetech.repository.AgregadoLinha;
+import br.com.testetech.testetech.repository.PedidoRepository;
+import br.com.testetech.testetech.sharding.ShardsPedidos;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Agregados de pedidos (quantidade e receita) por dia, por hora e por {@link PedidoStatus}, mantidos
+ * incrementalmente em memória para que as leituras tenham custo constante, independente do tamanho da tabela.
+ * <p>
+ * Cada agrupamento é um par de {@link LongAdder} (quantidade e receita em centavos): atualizações concorrentes
+ * são distribuídas entre células e nunca disputam um bloqueio. A base é o agrupamento por (hora, status);
+ * dia, hora, status e total são atualizados junto com ela a cada {@link PedidoRegistradoEvent}, após o commit.
+ * </p>
+ * <p>
+ * Na inicialização, antes de a aplicação aceitar pedidos, os agregados são reconstruídos por uma varredura em
+ * streaming da tabela. Periodicamente ({@code pedidos.agregados.intervalo-reconciliacao}), as horas já encerradas
+ * (anteriores a agora menos {@code pedidos.agregados.margem-reconciliacao}, que não recebem mais pedidos) são
+ * comparadas com o banco e corrigidas pela diferença, publicada em {@code pedidos.agregados.divergencias}.
+ * </p>
+ */
+@Component
+public class AgregadosPedidos implements SmartLifecycle {
+
+    /**
+     * Mesma fase da janela de pedidos recentes: reconstrói antes da reprodução do journal.
+     */
+    private static final int FASE = SmartLifecycle.DEFAULT_PHASE - 16384;
+
+    private static final int ESCALA_CENTAVOS = 2;
+
+    private final Logger logger = LoggerFactory.getLogger(AgregadosPedidos.class);
+
+    private final PedidoRepository repository;
+
+    private final TransactionTemplate transacaoLeitura;
+
+    private final ShardsPedidos shards;
+
+    private final Duration intervaloReconciliacao;
+
+    private final Duration margemReconciliacao;
+
+    private final Map<ChaveHora, Contadores> porHoraStatus = new ConcurrentHashMap<>();
+
+    private final Map<LocalDateTime, Contadores> porHora = new ConcurrentHashMap<>();
+
+    private final Map<LocalDate, Contadores> porDia = new ConcurrentHashMap<>();
+
+    private final Map<PedidoStatus, Contadores> porStatus = new ConcurrentHashMap<>();
+
+    private final Contadores total = new Contadores();
+
+    private final Timer reconciliacoes;
+
+    private final Counter divergencias;
+
+    private ScheduledExecutorService agendador;
+
+    private volatile boolean pronto;
+
+    public AgregadosPedidos(PedidoRepository repository,
+                            PlatformTransactionManager transactionManager,
+                            ShardsPedidos shards,
+                            MeterRegistry meterRegistry,
+                            @Value("${pedidos.agregados.intervalo-reconciliacao:10m}") Duration intervaloReconciliacao,
+                            @Value("${pedidos.agregados.margem-reconciliacao:1m}") Duration margemReconciliacao) {
+        this.repository = repository;
+        this.transacaoLeitura = new TransactionTemplate(transactionManager);
+        this.transacaoLeitura.setReadOnly(true);
+        this.shards = shards;
+        this.intervaloReconciliacao = intervaloReconciliacao;
+        this.margemReconciliacao = margemReconciliacao;
+
+        this.reconciliacoes = Timer.builder("pedidos.agregados.reconciliacao")
+                .description("Tempo da varredura de reconciliação dos agregados com o banco")
+                .register(meterRegistry);
+        this.divergencias = Counter.builder("pedidos.agregados.divergencias")
+                .description("Agrupamentos (hora, status) corrigidos pela reconciliação")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Reconstrói os agregados a partir do banco (percorrendo cada shard) e agenda a reconciliação periódica.
+     */
+    @Override
+    public void start() {
+        long inicio = System.nanoTime();
+        long[] pedidos = new long[1];
+        // No primário, como os eventos que mantêm os contadores
+        shards.paraCadaShard(shard -> RoteamentoLeitura.noPrimario(() -> transacaoLeitura.executeWithoutResult(status -> {
+            try (Stream<AgregadoLinha> linhas = repository.streamAgregados()) {
+                for (AgregadoLinha linha : (Iterable<AgregadoLinha>) linhas::iterator) {
+                    somar(hora(linha.dataCriacao()), linha.status(), 1, centavos(linha.valorTotal()));
+                    pedidos[0]++;
+                }
+            }
+        })));
+        pronto = true;
+        logger.info("Agregados de pedidos reconstruídos a partir de {} pedidos em {} ms",
+                pedidos[0], (System.nanoTime() - inicio) / 1_000_000);
+
+        if (!intervaloReconciliacao.isZero() && !intervaloReconciliacao.isNegative()) {
+            agendador = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                    .name("agregados-reconciliacao")
+                    .daemon(true)
+                    .factory());
+            agendador.scheduleWithFixedDelay(this::reconciliarComTratamento, intervaloReconciliacao.toMillis(),
+                    intervaloReconciliacao.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public void stop() {
+        if (agendador != null) {
+            agendador.shutdownNow();
+            agendador = null;
+        }
+        pronto = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return pronto;
+    }
+
+    @Override
+    public int getPhase() {
+        return FASE;
+    }
+
+    /**
+     * Soma um pedido recém-confirmado a todos os agrupamentos.
+     */
+    @TransactionalEventListener
+    public void registrar(PedidoRegistradoEvent evento) {
+        if (!pronto) {
+            return;
+        }
+        PedidoResumoDTO pedido = evento.pedido();
+        somar(hora(pedido.getDataCriacao()), pedido.getStatus(), 1, centavos(pedido.getValorTotal()));
+    }
+
+    /**
+     * @return Total geral e distribuição por status. Quantidade e receita são lidas sem bloqueio e podem
+     * refletir momentaneamente um pedido em quantidade e ainda não em receita.
+     */
+    public EstatisticasPedidosDTO visaoGeral() {
+        Map<PedidoStatus, AgregadoPedidosDTO> status = new EnumMap<>(PedidoStatus.class);
+        porStatus.forEach((chave, contadores) -> status.put(chave, contadores.paraDTO(null)));
+        return new EstatisticasPedidosDTO(total.paraDTO(null), status);
+    }
+
+    /**
+     * @param de Primeiro dia (inclusive).
+     * @param ate Último dia (inclusive).
+     * @return Um agregado por dia do intervalo, com zeros nos dias sem pedidos.
+     */
+    public List<AgregadoPedidosDTO> porDia(LocalDate de, LocalDate ate) {
+        List<AgregadoPedidosDTO> dias = new ArrayList<>();
+        for (LocalDate dia = de; !dia.isAfter(ate); dia = dia.plusDays(1)) {
+            dias.add(porDia.getOrDefault(dia, Contadores.VAZIO).paraDTO(dia.atStartOfDay()));
+        }
+        return dias;
+    }
+
+    /**
+     * @param dia Dia consultado.
+     * @return As 24 horas do dia, com zeros nas horas sem pedidos.
+     */
+    public List<AgregadoPedidosDTO> porHora(LocalDate dia) {
+        List<AgregadoPedidosDTO> horas = new ArrayList<>(24);
+        for (LocalDateTime hora = dia.atStartOfDay(); hora.toLocalDate().equals(dia); hora = hora.plusHours(1)) {
+            horas.add(porHora.getOrDefault(hora, Contadores.VAZIO).paraDTO(hora));
+        }
+        return horas;
+    }
+
+    /**
+     * Compara as horas encerradas antes de {@code agora - margem} com o banco e aplica as diferenças.
+     *
+     * @param agora Instante de referência.
+     * @return Quantidade de agrupamentos (hora, status) corrigidos.
+     */
+    int reconciliar(LocalDateTime agora) {
+        LocalDateTime corte = hora(agora.minus(margemReconciliacao));
+        Map<ChaveHora, long[]> banco = new HashMap<>();
+        // No primário: comparada à réplica, a reconciliação acusaria o próprio atraso de replicação
+        shards.paraCadaShard(shard -> RoteamentoLeitura.noPrimario(() -> transacaoLeitura.executeWithoutResult(status -> {
+            try (Stream<AgregadoLinha> linhas = repository.streamAgregadosAntesDe(corte)) {
+                linhas.forEach(linha -> {
+                    long[] valores = banco.computeIfAbsent(new ChaveHora(hora(linha.dataCriacao()), linha.status()), c -> new long[2]);
+                    valores[0]++;
+                    valores[1] += centavos(linha.valorTotal());
+                });
+            }
+        })));
+
+        Set<ChaveHora> chaves = new HashSet<>(banco.keySet());
+        porHoraStatus.keySet().stream().filter(chave -> chave.hora().isBefore(corte)).forEach(chaves::add);
+
+        int corrigidos = 0;
+        for (ChaveHora chave : chaves) {
+            long[] esperado = banco.getOrDefault(chave, new long[2]);
+            Contadores atual = porHoraStatus.getOrDefault(chave, Contadores.VAZIO);
+            long diferencaQuantidade = esperado[0] - atual.quantidade.sum();
+            long diferencaCentavos = esperado[1] - atual.receitaCentavos.sum();
+            if (diferencaQuantidade != 0 || diferencaCentavos != 0) {
+                logger.warn("Agregado de {} ({}) divergente do banco: corrigindo {} pedidos e {} centavos",
+                        chave.hora(), chave.status(), diferencaQuantidade, diferencaCentavos);
+                somar(chave.hora(), chave.status(), diferencaQuantidade, diferencaCentavos);
+                corrigidos++;
+            }
+        }
+        divergencias.increment(corrigidos);
+        return corrigidos;
+    }
+
+    private void reconciliarComTratamento() {
+        try {
+            int corrigidos = reconciliacoes.recordCallable(() -> reconciliar(LocalDateTime.now()));
+            logger.debug("Reconciliação dos agregados concluída: {} agrupamentos corrigidos", corrigidos);
+        } catch (Exception e) {
+            logger.error("Falha na reconciliação dos agregados de pedidos", e);
+        }
+    }
+
+    private void somar(LocalDateTime hora, PedidoStatus status, long quantidade, long centavos) {
+        porHoraStatus.computeIfAbsent(new ChaveHora(hora, status), c -> new Contadores()).somar(quantidade, centavos);
+        porHora.computeIfAbsent(hora, h -> new Contadores()).somar(quantidade, centavos);
+        porDia.computeIfAbsent(hora.toLocalDate(), d -> new Contadores()).somar(quantidade, centavos);
+        porStatus.computeIfAbsent(status, s -> new Contadores()).somar(quantidade, centavos);
+        total.somar(quantidade, centavos);
+    }
+
+    private static LocalDateTime hora(LocalDateTime dataCriacao) {
+        return dataCriacao.truncatedTo(ChronoUnit.HOURS);
+    }
+
+    private static long centavos(BigDecimal valor) {
+        return valor == null ? 0 : valor.setScale(ESCALA_CENTAVOS, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private record ChaveHora(LocalDateTime hora, PedidoStatus status) {
+    }
+
+    /**
+     * Par de contadores listrados de um agrupamento.
+     */
+    private static final class Contadores {
+
+        static final Contadores VAZIO = new Contadores();
+
+        final LongAdder quantidade = new LongAdder();
+
+        final LongAdder receitaCentavos = new LongAdder();
+
+        void somar(long pedidos, long centavos) {
+            quantidade.add(pedidos);
+            receitaCentavos.add(centavos);
+        }
+
+        AgregadoPedidosDTO paraDTO(LocalDateTime inicio) {
+            return new AgregadoPedidosDTO(inicio, quantidade.sum(), BigDecimal.valueOf(receitaCentavos.sum(), ESCALA_CENTAVOS));
+        }
+    }
+}
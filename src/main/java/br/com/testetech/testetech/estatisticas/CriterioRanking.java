@@ -0,0 +1,17 @@
+package br.com.testetech.testetech.estatisticas;
+
+/**
+ * Medida usada para ordenar o ranking de produtos.
+ */
+public enum CriterioRanking {
+
+    /**
+     * Soma de {@code valorUnitario x quantidade} dos itens.
+     */
+    RECEITA,
+
+    /**
+     * Soma das quantidades dos itens.
+     */
+    QUANTIDADE
+}
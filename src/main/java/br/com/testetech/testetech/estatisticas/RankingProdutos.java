@@ -0,0 +1,191 @@
+package br.com.testetech.testetech.estatisticas;
+
+import br.com.testetech.testetech.dto.ItemResumoDTO;
+import br.com.testetech.testetech.dto.PedidoResumoDTO;
+import br.com.testetech.testetech.dto.ProdutoRankingDTO;
+import br.com.testetech.testetech.dto.RankingProdutosDTO;
+import br.com.testetech.testetech.evento.PedidoRegistradoEvent;
+import br.com.testetech.testetech.exception.PeriodoInvalidoException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Ranking aproximado dos produtos mais vendidos (por receita e por quantidade), alimentado item a item
+ * no registro de cada pedido, sem nenhum {@code GROUP BY} sobre {@code itens_pedido}.
+ * <p>
+ * Cada hora tem um par de {@link ResumoSpaceSaving} com {@code pedidos.ranking.contadores} contadores, em um
+ * anel de {@code pedidos.ranking.janela-maxima-horas} posições reaproveitadas a cada volta; há ainda um par
+ * acumulado desde a inicialização. A memória é fixa, independente do tamanho do catálogo. Uma janela de
+ * {@code n} horas é a fusão dos resumos dessas horas: para cada produto, somam-se as contagens das horas em que
+ * ele é monitorado e, nas demais, a menor contagem da hora (limite superior de um item não monitorado).
+ * </p>
+ * <p>
+ * Cota de erro: com {@code m} contadores, cada estimativa excede o valor real em no máximo a soma das menores
+ * contagens das horas fundidas, que é no máximo {@code total da janela / m}.
+ * </p>
+ */
+@Component
+public class RankingProdutos {
+
+    private static final int ESCALA_CENTAVOS = 2;
+
+    private final Fatia[] fatias;
+
+    private final Fatia acumulado;
+
+    public RankingProdutos(@Value("${pedidos.ranking.contadores:1000}") int contadores,
+                           @Value("${pedidos.ranking.janela-maxima-horas:24}") int janelaMaximaHoras) {
+        this.fatias = new Fatia[janelaMaximaHoras];
+        for (int i = 0; i < fatias.length; i++) {
+            fatias[i] = new Fatia(contadores);
+        }
+        this.acumulado = new Fatia(contadores);
+    }
+
+    /**
+     * Contabiliza os itens de um pedido recém-confirmado na hora de sua criação e no acumulado.
+     */
+    @TransactionalEventListener
+    public void registrar(PedidoRegistradoEvent evento) {
+        PedidoResumoDTO pedido = evento.pedido();
+        if (pedido.getItems() == null || pedido.getItems().isEmpty()) {
+            return;
+        }
+        long hora = epocaEmHoras(pedido.getDataCriacao() != null ? pedido.getDataCriacao() : LocalDateTime.now());
+        Fatia fatia = fatias[(int) Math.floorMod(hora, (long) fatias.length)];
+        synchronized (fatia) {
+            if (fatia.hora != hora) {
+                if (fatia.hora > hora) {
+                    // Pedido mais antigo que a janela mantida: entra apenas no acumulado
+                    fatia = null;
+                } else {
+                    fatia.reiniciar(hora);
+                }
+            }
+            if (fatia != null) {
+                fatia.adicionar(pedido.getItems());
+            }
+        }
+        synchronized (acumulado) {
+            acumulado.adicionar(pedido.getItems());
+        }
+    }
+
+    /**
+     * @param criterio Medida do ranking.
+     * @param k Quantidade de produtos.
+     * @param janelaHoras Quantidade de horas (a corrente e as anteriores), ou {@code null} para o acumulado desde a inicialização.
+     * @return Os {@code k} produtos de maior valor estimado, com as cotas de erro.
+     */
+    public RankingProdutosDTO ranking(CriterioRanking criterio, int k, Integer janelaHoras) {
+        List<ResumoSpaceSaving.Instantaneo> resumos = new ArrayList<>();
+        if (janelaHoras == null) {
+            synchronized (acumulado) {
+                resumos.add(acumulado.resumo(criterio).instantaneo());
+            }
+        } else {
+            if (janelaHoras < 1 || janelaHoras > fatias.length) {
+                throw new PeriodoInvalidoException("Janela inválida: informe de 1 a " + fatias.length + " horas");
+            }
+            long horaAtual = epocaEmHoras(LocalDateTime.now());
+            for (long hora = horaAtual - janelaHoras + 1; hora <= horaAtual; hora++) {
+                Fatia fatia = fatias[(int) Math.floorMod(hora, (long) fatias.length)];
+                synchronized (fatia) {
+                    if (fatia.hora == hora) {
+                        resumos.add(fatia.resumo(criterio).instantaneo());
+                    }
+                }
+            }
+        }
+        return fundir(criterio, k, janelaHoras, resumos);
+    }
+
+    private RankingProdutosDTO fundir(CriterioRanking criterio, int k, Integer janelaHoras,
+                                      List<ResumoSpaceSaving.Instantaneo> resumos) {
+        Set<String> candidatos = new HashSet<>();
+        long total = 0;
+        long erroGlobal = 0;
+        for (ResumoSpaceSaving.Instantaneo resumo : resumos) {
+            candidatos.addAll(resumo.contagens().keySet());
+            total += resumo.total();
+            erroGlobal += resumo.minimo();
+        }
+
+        Map<String, long[]> estimativas = new HashMap<>(candidatos.size() * 2);
+        for (String produto : candidatos) {
+            long contagem = 0;
+            long erro = 0;
+            for (ResumoSpaceSaving.Instantaneo resumo : resumos) {
+                long[] valores = resumo.contagens().get(produto);
+                contagem += valores != null ? valores[0] : resumo.minimo();
+                erro += valores != null ? valores[1] : resumo.minimo();
+            }
+            estimativas.put(produto, new long[]{contagem, erro});
+        }
+
+        List<ProdutoRankingDTO> produtos = estimativas.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, long[]> e) -> e.getValue()[0]).reversed()
+                        .thenComparing(Map.Entry::getKey))
+                .limit(k)
+                .map(e -> new ProdutoRankingDTO(e.getKey(), valor(criterio, e.getValue()[0]), valor(criterio, e.getValue()[1])))
+                .toList();
+        return new RankingProdutosDTO(criterio.name(), janelaHoras, valor(criterio, total), valor(criterio, erroGlobal), produtos);
+    }
+
+    private static BigDecimal valor(CriterioRanking criterio, long contagem) {
+        return criterio == CriterioRanking.RECEITA ? BigDecimal.valueOf(contagem, ESCALA_CENTAVOS) : BigDecimal.valueOf(contagem);
+    }
+
+    private static long epocaEmHoras(LocalDateTime dataCriacao) {
+        return dataCriacao.toEpochSecond(ZoneOffset.UTC) / 3600;
+    }
+
+    /**
+     * Resumos de receita e quantidade de uma hora (ou do acumulado). Acesso sincronizado na própria instância.
+     */
+    private static final class Fatia {
+
+        private final ResumoSpaceSaving receita;
+
+        private final ResumoSpaceSaving quantidade;
+
+        private long hora = Long.MIN_VALUE;
+
+        private Fatia(int contadores) {
+            this.receita = new ResumoSpaceSaving(contadores);
+            this.quantidade = new ResumoSpaceSaving(contadores);
+        }
+
+        private void reiniciar(long novaHora) {
+            receita.limpar();
+            quantidade.limpar();
+            hora = novaHora;
+        }
+
+        private void adicionar(List<ItemResumoDTO> itens) {
+            for (ItemResumoDTO item : itens) {
+                long centavos = item.getValorUnitario().multiply(BigDecimal.valueOf(item.getQuantidade()))
+                        .setScale(ESCALA_CENTAVOS, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+                receita.adicionar(item.getProdutoId(), centavos);
+                quantidade.adicionar(item.getProdutoId(), item.getQuantidade());
+            }
+        }
+
+        private ResumoSpaceSaving resumo(CriterioRanking criterio) {
+            return criterio == CriterioRanking.RECEITA ? receita : quantidade;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package br.com.testetech.testetech.estatisticas;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Resumo Space-Saving (Metwally, Agrawal e El Abbadi) com pesos: estima os itens mais frequentes de
+ * um fluxo usando uma quantidade fixa de contadores, qualquer que seja o número de itens distintos.
+ * <p>
+ * Com {@code m} contadores e peso total observado {@code N}, para todo item monitorado
+ * {@code contagem - erro <= real <= contagem}, com {@code erro <= N / m}; todo item com peso real
+ * maior que {@code N / m} está garantidamente monitorado. Quando os contadores se esgotam, o novo item
+ * substitui o de menor contagem e herda essa contagem como erro.
+ * </p>
+ * <p>
+ * Os contadores ficam em um heap mínimo indexado (atualização em {@code O(log m)}). Não é thread-safe:
+ * o acesso é serializado por quem o mantém.
+ * </p>
+ */
+final class ResumoSpaceSaving {
+
+    private final Map<String, Contador> porItem;
+
+    private final Contador[] heap;
+
+    private int tamanho;
+
+    private long total;
+
+    ResumoSpaceSaving(int capacidade) {
+        this.porItem = new HashMap<>(capacidade * 2);
+        this.heap = new Contador[capacidade];
+    }
+
+    void adicionar(String item, long peso) {
+        total += peso;
+        Contador contador = porItem.get(item);
+        if (contador != null) {
+            contador.contagem += peso;
+            descer(contador.posicao);
+            return;
+        }
+        if (tamanho < heap.length) {
+            contador = new Contador(item, peso, 0, tamanho);
+            heap[tamanho++] = contador;
+            porItem.put(item, contador);
+            subir(contador.posicao);
+            return;
+        }
+        // Substitui o menor contador: o novo item herda sua contagem como erro máximo
+        contador = heap[0];
+        porItem.remove(contador.item);
+        contador.item = item;
+        contador.erro = contador.contagem;
+        contador.contagem += peso;
+        porItem.put(item, contador);
+        descer(0);
+    }
+
+    void limpar() {
+        porItem.clear();
+        Arrays.fill(heap, 0, tamanho, null);
+        tamanho = 0;
+        total = 0;
+    }
+
+    /**
+     * @return Cópia dos contadores, do peso total e da menor contagem (cota de erro de itens não monitorados).
+     */
+    Instantaneo instantaneo() {
+        Map<String, long[]> contagens = new HashMap<>(tamanho * 2);
+        for (int i = 0; i < tamanho; i++) {
+            contagens.put(heap[i].item, new long[]{heap[i].contagem, heap[i].erro});
+        }
+        long minimo = tamanho == heap.length ? heap[0].contagem : 0;
+        return new Instantaneo(contagens, minimo, total);
+    }
+
+    private void subir(int posicao) {
+        while (posicao > 0) {
+            int pai = (posicao - 1) / 2;
+            if (heap[pai].contagem <= heap[posicao].contagem) {
+                return;
+            }
+            trocar(posicao, pai);
+            posicao = pai;
+        }
+    }
+
+    private void descer(int posicao) {
+        while (true) {
+            int menor = posicao;
+            int esquerda = 2 * posicao + 1;
+            int direita = esquerda + 1;
+            if (esquerda < tamanho && heap[esquerda].contagem < heap[menor].contagem) {
+                menor = esquerda;
+            }
+            if (direita < tamanho && heap[direita].contagem < heap[menor].contagem) {
+                menor = direita;
+            }
+            if (menor == posicao) {
+                return;
+            }
+            trocar(posicao, menor);
+            posicao = menor;
+        }
+    }
+
+    private void trocar(int a, int b) {
+        Contador contador = heap[a];
+        heap[a] = heap[b];
+        heap[b] = contador;
+        heap[a].posicao = a;
+        heap[b].posicao = b;
+    }
+
+    /**
+     * @param contagens Item monitorado → {contagem estimada, erro máximo}.
+     * @param minimo Menor contagem com o resumo cheio (limite superior para itens não monitorados), ou 0.
+     * @param total Peso total observado.
+     */
+    record Instantaneo(Map<String, long[]> contagens, long minimo, long total) {
+    }
+
+    private static final class Contador {
+
+        private String item;
+
+        private long contagem;
+
+        private long erro;
+
+        private int posicao;
+
+        private Contador(String item, long contagem, long erro, int posicao) {
+            this.item = item;
+            this.contagem = contagem;
+            this.erro = erro;
+            this.posicao = posicao;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package br.com.testetech.testetech.evento;
+
+import br.com.testetech.testetech.dto.PedidoResumoDTO;
+
+/**
+ * Evento publicado, dentro da transação de escrita, para cada pedido persistido pelo fluxo unitário
+ * ou em lote (incluindo a ingestão assíncrona e a reprodução do journal).
+ * <p>
+ * Os consumidores (modelos de leitura em memória) o recebem via
+ * {@code @TransactionalEventListener}, portanto somente após o commit: um rollback nunca
+ * expõe um pedido inexistente.
+ * </p>
+ *
+ * @param pedido Resumo imutável do pedido, com os itens, desacoplado da sessão JPA.
+ */
+public record PedidoRegistradoEvent(PedidoResumoDTO pedido) {
+}
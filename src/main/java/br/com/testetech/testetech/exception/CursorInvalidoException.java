@@ -0,0 +1,21 @@
+package br.com.testetech.testetech.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exceção lançada quando o token de continuação da listagem por cursor não pode ser decodificado
+ * (token adulterado, truncado ou gerado por outra versão da API).
+ * <p>
+ * Mapeia automaticamente para o Status HTTP 400 (Bad Request) se não tratada globalmente.
+ * </p>
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class CursorInvalidoException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public CursorInvalidoException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
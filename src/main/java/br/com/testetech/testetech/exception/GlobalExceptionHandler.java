@@ -1,5 +1,6 @@
 package br.com.testetech.testetech.exception;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -41,4 +42,82 @@ public class GlobalExceptionHandler {
 
         return new ResponseEntity<>(body, HttpStatus.CONFLICT);
     }
-}
\ No newline at end of file
+
+    /**
+     * Manipula a exceção {@link PedidoNaoEncontradoException}, lançada pela consulta por código
+     * quando o pedido não existe.
+     *
+     * @param ex A exceção capturada contendo a mensagem de erro específica.
+     * @return Um ResponseEntity com os detalhes do erro e o status HTTP 404 (Not Found).
+     */
+    @ExceptionHandler(PedidoNaoEncontradoException.class)
+    public ResponseEntity<Object> tratarPedidoNaoEncontrado(PedidoNaoEncontradoException ex) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        body.put("status", HttpStatus.NOT_FOUND.value());
+        body.put("error", "Não Encontrado");
+        body.put("message", ex.getMessage());
+
+        return new ResponseEntity<>(body, HttpStatus.NOT_FOUND);
+    }
+
+    /**
+     * Manipula as exceções {@link CursorInvalidoException}, lançada quando o token de continuação
+     * da listagem por cursor é inválido, {@link PeriodoInvalidoException}, lançada quando o período
+     * solicitado às estatísticas é inválido, e {@link LoteInvalidoException}, lançada quando o lote em
+     * streaming não é um array JSON.
+     *
+     * @param ex A exceção capturada contendo a mensagem de erro específica.
+     * @return Um ResponseEntity com os detalhes do erro e o status HTTP 400 (Bad Request).
+     */
+    @ExceptionHandler({CursorInvalidoException.class, PeriodoInvalidoException.class, LoteInvalidoException.class})
+    public ResponseEntity<Object> tratarRequisicaoInvalida(RuntimeException ex) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        body.put("status", HttpStatus.BAD_REQUEST.value());
+        body.put("error", "Requisição Inválida");
+        body.put("message", ex.getMessage());
+
+        return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Manipula a exceção {@link IngestaoIndisponivelException}, lançada quando a fila de ingestão
+     * assíncrona não pode aceitar novos pedidos.
+     *
+     * @param ex A exceção capturada contendo a mensagem de erro específica.
+     * @return Um ResponseEntity com os detalhes do erro, o cabeçalho Retry-After e o status HTTP 503 (Service Unavailable).
+     */
+    @ExceptionHandler(IngestaoIndisponivelException.class)
+    public ResponseEntity<Object> tratarIngestaoIndisponivel(IngestaoIndisponivelException ex) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        body.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
+        body.put("error", "Serviço Indisponível");
+        body.put("message", ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(body);
+    }
+
+    /**
+     * Manipula a exceção {@link SobrecargaException}, lançada pelo controle de admissão quando a rota
+     * atingiu o seu limite de concorrência.
+     *
+     * @param ex A exceção capturada contendo a mensagem de erro e o tempo sugerido para nova tentativa.
+     * @return Um ResponseEntity com os detalhes do erro, o cabeçalho Retry-After (em segundos) e o status HTTP 429 (Too Many Requests).
+     */
+    @ExceptionHandler(SobrecargaException.class)
+    public ResponseEntity<Object> tratarSobrecarga(SobrecargaException ex) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        body.put("status", HttpStatus.TOO_MANY_REQUESTS.value());
+        body.put("error", "Muitas Requisições");
+        body.put("message", ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, (ex.getRetryAfter().toMillis() + 999) / 1000)))
+                .body(body);
+    }
+}
@@ -0,0 +1,22 @@
+package br.com.testetech.testetech.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exceção lançada quando a fila de ingestão assíncrona não pode aceitar o pedido
+ * (fila cheia ou aplicação em desligamento).
+ * <p>
+ * Mapeia automaticamente para o Status HTTP 503 (Service Unavailable) se não tratada globalmente,
+ * sinalizando ao cliente que a requisição pode ser repetida mais tarde.
+ * </p>
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class IngestaoIndisponivelException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public IngestaoIndisponivelException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,20 @@
+package br.com.testetech.testetech.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exceção lançada quando o corpo do lote em streaming não é um array JSON.
+ * <p>
+ * Mapeia automaticamente para o Status HTTP 400 (Bad Request) se não tratada globalmente.
+ * </p>
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class LoteInvalidoException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public LoteInvalidoException(String message) {
+        super(message);
+    }
+}
@@ -9,6 +9,9 @@ import org.springframework.web.bind.annotation.ResponseStatus;
  * <p>
  * Mapeia automaticamente para o Status HTTP 409 (Conflict) se não tratada globalmente.
  * </p>
+ * <p>
+ * Por ser um resultado de negócio esperado (e não uma falha), a pilha de chamadas não é capturada.
+ * </p>
  */
 @ResponseStatus(HttpStatus.CONFLICT)
 public class PedidoDuplicadoException extends RuntimeException {
@@ -16,6 +19,6 @@ public class PedidoDuplicadoException extends RuntimeException {
     private static final long serialVersionUID = 1L;
 
     public PedidoDuplicadoException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
\ No newline at end of file
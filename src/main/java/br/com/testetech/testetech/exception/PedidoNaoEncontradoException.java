@@ -0,0 +1,20 @@
+package br.com.testetech.testetech.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exceção lançada quando não existe pedido com o código de negócio consultado.
+ * <p>
+ * Mapeia automaticamente para o Status HTTP 404 (Not Found) se não tratada globalmente.
+ * </p>
+ */
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class PedidoNaoEncontradoException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public PedidoNaoEncontradoException(String message) {
+        super(message);
+    }
+}
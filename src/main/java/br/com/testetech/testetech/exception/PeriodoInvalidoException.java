@@ -0,0 +1,21 @@
+package br.com.testetech.testetech.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exceção lançada quando o período solicitado às estatísticas é inválido
+ * (início posterior ao fim ou intervalo maior que o permitido).
+ * <p>
+ * Mapeia automaticamente para o Status HTTP 400 (Bad Request) se não tratada globalmente.
+ * </p>
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class PeriodoInvalidoException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public PeriodoInvalidoException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,31 @@
+package br.com.testetech.testetech.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.time.Duration;
+
+/**
+ * Exceção lançada pelo controle de admissão quando a rota já tem tantas requisições em execução quanto o seu
+ * limite de concorrência.
+ * <p>
+ * Mapeia para o Status HTTP 429 (Too Many Requests), com o cabeçalho {@code Retry-After}: a requisição é
+ * recusada antes de qualquer processamento, em vez de esperar na fila até expirar.
+ * </p>
+ */
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+public class SobrecargaException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Duration retryAfter;
+
+    public SobrecargaException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,123 @@
+package br.com.testetech.testetech.execucao;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Detecta, em produção, threads virtuais presas à thread carregadora (<em>pinning</em>).
+ * <p>
+ * No JDK 21, uma thread virtual que bloqueia dentro de um bloco {@code synchronized} (comum em drivers
+ * JDBC e pools de conexão) não libera a carregadora, e o ganho de escalabilidade desaparece. Este
+ * componente assina o evento JFR {@code jdk.VirtualThreadPinned} acima de
+ * {@code pedidos.virtual.pinning.limiar-ms}, publica o timer {@code pedidos.virtual.pinning} com a
+ * origem (primeiro frame fora do JDK) e registra em log a pilha completa na primeira ocorrência de cada origem.
+ * </p>
+ * <p>
+ * Ativo apenas com {@code spring.threads.virtual.enabled=true} (perfil {@code virtual}).
+ * </p>
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class DetectorPinning implements SmartLifecycle {
+
+    private static final String EVENTO_PINNING = "jdk.VirtualThreadPinned";
+
+    private static final int FRAMES_LOG = 20;
+
+    private final Logger logger = LoggerFactory.getLogger(DetectorPinning.class);
+
+    private final MeterRegistry meterRegistry;
+
+    private final Duration limiar;
+
+    /**
+     * Origens já reportadas com a pilha completa, para não inundar o log.
+     */
+    private final Set<String> origensReportadas = ConcurrentHashMap.newKeySet();
+
+    private RecordingStream recordingStream;
+
+    public DetectorPinning(MeterRegistry meterRegistry,
+                           @Value("${pedidos.virtual.pinning.limiar-ms:20}") long limiarMs) {
+        this.meterRegistry = meterRegistry;
+        this.limiar = Duration.ofMillis(limiarMs);
+    }
+
+    @Override
+    public void start() {
+        recordingStream = new RecordingStream();
+        recordingStream.enable(EVENTO_PINNING).withThreshold(limiar).withStackTrace();
+        recordingStream.onEvent(EVENTO_PINNING, this::registrar);
+        recordingStream.startAsync();
+        logger.info("Detecção de pinning de threads virtuais ativa (limiar: {} ms)", limiar.toMillis());
+    }
+
+    @Override
+    public void stop() {
+        if (recordingStream != null) {
+            recordingStream.close();
+            recordingStream = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return recordingStream != null;
+    }
+
+    private void registrar(RecordedEvent evento) {
+        String origem = origem(evento.getStackTrace());
+        Timer.builder("pedidos.virtual.pinning")
+                .description("Tempo em que threads virtuais ficaram presas à thread carregadora")
+                .tag("origem", origem)
+                .register(meterRegistry)
+                .record(evento.getDuration());
+
+        if (origensReportadas.add(origem)) {
+            logger.warn("Thread virtual presa à carregadora por {} ms em {}:\n{}",
+                    evento.getDuration().toMillis(), origem, pilha(evento.getStackTrace()));
+        }
+    }
+
+    /**
+     * @return O primeiro frame de código que não pertence ao JDK, normalmente o {@code synchronized} responsável.
+     */
+    private static String origem(RecordedStackTrace pilha) {
+        if (pilha == null) {
+            return "desconhecida";
+        }
+        return pilha.getFrames().stream()
+                .filter(RecordedFrame::isJavaFrame)
+                .map(frame -> frame.getMethod().getType().getName() + "." + frame.getMethod().getName())
+                .filter(metodo -> !metodo.startsWith("java.") && !metodo.startsWith("jdk.") && !metodo.startsWith("sun."))
+                .findFirst()
+                .orElse("jdk");
+    }
+
+    private static String pilha(RecordedStackTrace pilha) {
+        if (pilha == null) {
+            return "\t(pilha indisponível)";
+        }
+        return pilha.getFrames().stream()
+                .limit(FRAMES_LOG)
+                .map(frame -> "\tat " + frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                        + ":" + frame.getLineNumber())
+                .collect(Collectors.joining("\n"));
+    }
+}
@@ -0,0 +1,87 @@
+package br.com.testetech.testetech.exportacao;
+
+import br.com.testetech.testetech.dto.ItemResumoDTO;
+import br.com.testetech.testetech.dto.PedidoResumoDTO;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * CSV (RFC 4180): uma linha por item, repetindo os campos do pedido; pedidos sem itens (ou exportados
+ * sem itens) ocupam uma linha. Campos com vírgula, aspas ou quebra de linha são colocados entre aspas.
+ */
+class EscritorCsv implements EscritorPedidos {
+
+    private static final String CABECALHO_PEDIDO = "id,codigoPedido,dataCriacao,status,valorTotal";
+
+    private static final String CABECALHO_ITEM = ",produtoId,valorUnitario,quantidade";
+
+    private final Writer saida;
+
+    private final boolean incluirItens;
+
+    EscritorCsv(OutputStream saida, boolean incluirItens) throws IOException {
+        // O buffer fica a cargo do fluxo recebido (ver ExportacaoPedidos)
+        this.saida = new OutputStreamWriter(saida, StandardCharsets.UTF_8);
+        this.incluirItens = incluirItens;
+        this.saida.write(incluirItens ? CABECALHO_PEDIDO + CABECALHO_ITEM : CABECALHO_PEDIDO);
+        this.saida.write("\r\n");
+    }
+
+    @Override
+    public void escrever(PedidoResumoDTO pedido) throws IOException {
+        if (!incluirItens || pedido.getItems().isEmpty()) {
+            escreverPedido(pedido);
+            if (incluirItens) {
+                saida.write(",,,");
+            }
+            saida.write("\r\n");
+            return;
+        }
+        for (ItemResumoDTO item : pedido.getItems()) {
+            escreverPedido(pedido);
+            saida.write(',');
+            escreverCampo(item.getProdutoId());
+            saida.write(',');
+            saida.write(texto(item.getValorUnitario()));
+            saida.write(',');
+            saida.write(String.valueOf(item.getQuantidade()));
+            saida.write("\r\n");
+        }
+    }
+
+    @Override
+    public void concluir() throws IOException {
+        saida.flush();
+    }
+
+    private void escreverPedido(PedidoResumoDTO pedido) throws IOException {
+        saida.write(String.valueOf(pedido.getId()));
+        saida.write(',');
+        escreverCampo(pedido.getCodigoPedido());
+        saida.write(',');
+        saida.write(String.valueOf(pedido.getDataCriacao()));
+        saida.write(',');
+        saida.write(pedido.getStatus().name());
+        saida.write(',');
+        saida.write(texto(pedido.getValorTotal()));
+    }
+
+    private void escreverCampo(String valor) throws IOException {
+        if (valor.indexOf(',') < 0 && valor.indexOf('"') < 0 && valor.indexOf('\n') < 0 && valor.indexOf('\r') < 0) {
+            saida.write(valor);
+            return;
+        }
+        saida.write('"');
+        saida.write(valor.replace("\"", "\"\""));
+        saida.write('"');
+    }
+
+    private static String texto(BigDecimal valor) {
+        return valor == null ? "" : valor.toPlainString();
+    }
+}
@@ -0,0 +1,47 @@
+package br.com.testetech.testetech.exportacao;
+
+import br.com.testetech.testetech.dto.PedidoResumoDTO;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * NDJSON: um único {@link JsonGenerator} para toda a exportação, com quebra de linha como separador
+ * entre valores raiz e sem flush a cada pedido.
+ */
+class EscritorNdjson implements EscritorPedidos {
+
+    private final ObjectWriter writer;
+
+    private final JsonGenerator generator;
+
+    private boolean vazio = true;
+
+    EscritorNdjson(OutputStream saida, ObjectMapper objectMapper) throws IOException {
+        this.writer = objectMapper.writerFor(PedidoResumoDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(SerializationFeature.INDENT_OUTPUT);
+        this.generator = writer.createGenerator(saida)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .setRootValueSeparator(new SerializedString("\n"));
+    }
+
+    @Override
+    public void escrever(PedidoResumoDTO pedido) throws IOException {
+        writer.writeValue(generator, pedido);
+        vazio = false;
+    }
+
+    @Override
+    public void concluir() throws IOException {
+        if (!vazio) {
+            generator.writeRaw('\n');
+        }
+        generator.flush();
+    }
+}
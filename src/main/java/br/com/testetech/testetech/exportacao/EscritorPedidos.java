@@ -0,0 +1,18 @@
+package br.com.testetech.testetech.exportacao;
+
+import br.com.testetech.testetech.dto.PedidoResumoDTO;
+
+import java.io.IOException;
+
+/**
+ * Serializa pedidos, um a um, diretamente na saída da exportação.
+ */
+interface EscritorPedidos {
+
+    void escrever(PedidoResumoDTO pedido) throws IOException;
+
+    /**
+     * Descarrega o que estiver em buffer, sem fechar a saída.
+     */
+    void concluir() throws IOException;
+}
@@ -0,0 +1,201 @@
+package br.com.testetech.testetech.exportacao;
+
+import br.com.testetech.testetech.dto.PedidoResumoDTO;
+import br.com.testetech.testetech.exception.PeriodoInvalidoException;
+import br.com.testetech.testetech.repository.PedidoRepository;
+import br.com.testetech.testetech.sharding.ShardsPedidos;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exportação completa de pedidos em streaming (NDJSON ou CSV), com memória constante.
+ * <p>
+ * Uma única transação somente leitura percorre os resumos com um cursor do JDBC
+ * ({@link PedidoRepository#streamResumosCriadosEntre}, fetch size 1000), sem OFFSET nem COUNT. Os itens são
+ * anexados em blocos de {@code pedidos.exportacao.tamanho-bloco} pedidos (uma consulta {@code IN} por bloco), e
+ * cada bloco é escrito e descartado antes do próximo. Como resumos e itens são projeções, o contexto de
+ * persistência não acumula entidades e dispensa {@code clear()}: o heap usado independe do total exportado.
+ * </p>
+ * <p>
+ * Com particionamento ativo ({@link ShardsPedidos}), cada shard é percorrido em páginas de {@code tamanho-bloco}
+ * posicionadas pela chave (dataCriacao, id), cada uma em transação curta, e as páginas são intercaladas mantendo a
+ * ordem cronológica. A memória continua limitada (uma página por shard), mas a exportação deixa de ser um
+ * instantâneo único: pedidos gravados durante a varredura podem ou não aparecer.
+ * </p>
+ * <p>
+ * Métricas: timer {@code pedidos.exportacao} e contador {@code pedidos.exportacao.pedidos}, ambos com a tag
+ * {@code formato}.
+ * </p>
+ */
+@Service
+public class ExportacaoPedidos {
+
+    private static final int TAMANHO_BUFFER = 64 * 1024;
+
+    private final Logger logger = LoggerFactory.getLogger(ExportacaoPedidos.class);
+
+    private final PedidoRepository repository;
+
+    private final TransactionTemplate transacaoLeitura;
+
+    private final ShardsPedidos shards;
+
+    private final ObjectMapper objectMapper;
+
+    private final MeterRegistry meterRegistry;
+
+    private final int tamanhoBloco;
+
+    public ExportacaoPedidos(PedidoRepository repository, PlatformTransactionManager transactionManager,
+                             ShardsPedidos shards, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                             @Value("${pedidos.exportacao.tamanho-bloco:500}") int tamanhoBloco) {
+        this.repository = repository;
+        this.transacaoLeitura = new TransactionTemplate(transactionManager);
+        this.transacaoLeitura.setReadOnly(true);
+        this.shards = shards;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.tamanhoBloco = tamanhoBloco;
+    }
+
+    /**
+     * Valida o período antes de iniciar a resposta (depois do primeiro byte não é mais possível responder 400).
+     *
+     * @throws PeriodoInvalidoException Se {@code de} não for anterior a {@code ate}.
+     */
+    public void validarPeriodo(LocalDateTime de, LocalDateTime ate) {
+        if (de != null && ate != null && !de.isBefore(ate)) {
+            throw new PeriodoInvalidoException("O início do período deve ser anterior ao fim");
+        }
+    }
+
+    /**
+     * Escreve os pedidos do período na saída, em ordem cronológica.
+     *
+     * @param formato Formato de saída.
+     * @param de Limite inclusivo da data de criação, ou {@code null}.
+     * @param ate Limite exclusivo da data de criação, ou {@code null}.
+     * @param incluirItens Se {@code false}, os itens não são consultados nem exportados.
+     * @param gzip Se {@code true}, a saída é comprimida em gzip.
+     * @param saida Fluxo de destino (ex: corpo da resposta); não é fechado.
+     * @return Quantidade de pedidos exportados.
+     */
+    public long exportar(FormatoExportacao formato, LocalDateTime de, LocalDateTime ate, boolean incluirItens,
+                         boolean gzip, OutputStream saida) {
+        validarPeriodo(de, ate);
+        Timer.Sample inicio = Timer.start(meterRegistry);
+        Long exportados = shards.isAtivo()
+                ? exportarShards(formato, de, ate, incluirItens, gzip, saida)
+                : transacaoLeitura.execute(status -> {
+                    try (Stream<PedidoResumoDTO> pedidos = repository.streamResumosCriadosEntre(de, ate)) {
+                        return escrever(formato, pedidos.iterator(), repository::anexarItens, incluirItens, gzip, saida);
+                    } catch (IOException e) {
+                        // Tipicamente o cliente encerrou a conexão: a varredura é abandonada
+                        throw new UncheckedIOException(e);
+                    }
+                });
+        inicio.stop(meterRegistry.timer("pedidos.exportacao", "formato", formato.name()));
+        Counter.builder("pedidos.exportacao.pedidos")
+                .description("Pedidos escritos pela exportação em streaming")
+                .tag("formato", formato.name())
+                .register(meterRegistry)
+                .increment(exportados);
+        logger.info("Exportação {} concluída: {} pedidos (de={}, ate={})", formato, exportados, de, ate);
+        return exportados;
+    }
+
+    private long exportarShards(FormatoExportacao formato, LocalDateTime de, LocalDateTime ate, boolean incluirItens,
+                                boolean gzip, OutputStream saida) {
+        List<Iterator<PedidoResumoDTO>> porShard = new ArrayList<>(shards.getQuantidade());
+        for (int shard = 0; shard < shards.getQuantidade(); shard++) {
+            porShard.add(paginasDoShard(shard, de, ate));
+        }
+        Iterator<PedidoResumoDTO> pedidos = ShardsPedidos.intercalar(porShard, PedidoResumoDTO.MAIS_RECENTES_PRIMEIRO.reversed());
+        UnaryOperator<List<PedidoResumoDTO>> anexarItens = bloco -> shards.distribuir(bloco, PedidoResumoDTO::getCodigoPedido,
+                grupo -> transacaoLeitura.execute(status -> repository.anexarItens(grupo)));
+        try {
+            return escrever(formato, pedidos, anexarItens, incluirItens, gzip, saida);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Percorre o período em um shard, uma página por vez, retomando a partir do último pedido lido.
+     */
+    private Iterator<PedidoResumoDTO> paginasDoShard(int shard, LocalDateTime de, LocalDateTime ate) {
+        return new Iterator<>() {
+            private List<PedidoResumoDTO> pagina = List.of();
+            private int posicao;
+            private boolean ultima;
+
+            @Override
+            public boolean hasNext() {
+                if (posicao == pagina.size() && !ultima) {
+                    PedidoResumoDTO anterior = pagina.isEmpty() ? null : pagina.get(pagina.size() - 1);
+                    pagina = shards.executar(shard, () -> transacaoLeitura.execute(status -> repository.findCriadosEntrePosteriores(
+                            de, ate, anterior == null ? null : anterior.getDataCriacao(), anterior == null ? null : anterior.getId(),
+                            Limit.of(tamanhoBloco))));
+                    posicao = 0;
+                    ultima = pagina.size() < tamanhoBloco;
+                }
+                return posicao < pagina.size();
+            }
+
+            @Override
+            public PedidoResumoDTO next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return pagina.get(posicao++);
+            }
+        };
+    }
+
+    private long escrever(FormatoExportacao formato, Iterator<PedidoResumoDTO> pedidos,
+                          UnaryOperator<List<PedidoResumoDTO>> anexarItens, boolean incluirItens,
+                          boolean gzip, OutputStream saida) throws IOException {
+        OutputStream destino = gzip ? new GZIPOutputStream(saida, TAMANHO_BUFFER) : new BufferedOutputStream(saida, TAMANHO_BUFFER);
+        EscritorPedidos escritor = formato.novoEscritor(destino, objectMapper, incluirItens);
+        List<PedidoResumoDTO> bloco = new ArrayList<>(tamanhoBloco);
+        long exportados = 0;
+        while (pedidos.hasNext()) {
+            bloco.add(pedidos.next());
+            if (bloco.size() == tamanhoBloco || !pedidos.hasNext()) {
+                for (PedidoResumoDTO pedido : incluirItens ? anexarItens.apply(bloco) : bloco) {
+                    escritor.escrever(pedido);
+                }
+                exportados += bloco.size();
+                bloco.clear();
+            }
+        }
+        escritor.concluir();
+        if (destino instanceof GZIPOutputStream comprimido) {
+            comprimido.finish();
+        }
+        destino.flush();
+        return exportados;
+    }
+}
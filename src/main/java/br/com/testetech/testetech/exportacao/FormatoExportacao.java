@@ -0,0 +1,47 @@
+package br.com.testetech.testetech.exportacao;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Formatos da exportação de pedidos em streaming.
+ */
+public enum FormatoExportacao {
+
+    /**
+     * Um objeto JSON por linha (JSON Lines), com o mesmo formato do {@code GET /api/pedidos/{codigoPedido}}.
+     */
+    NDJSON(MediaType.parseMediaType("application/x-ndjson;charset=UTF-8"), "ndjson"),
+
+    /**
+     * Uma linha por item (os campos do pedido se repetem), com cabeçalho.
+     */
+    CSV(MediaType.parseMediaType("text/csv;charset=UTF-8"), "csv");
+
+    private final MediaType mediaType;
+
+    private final String extensao;
+
+    FormatoExportacao(MediaType mediaType, String extensao) {
+        this.mediaType = mediaType;
+        this.extensao = extensao;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public String getExtensao() {
+        return extensao;
+    }
+
+    EscritorPedidos novoEscritor(OutputStream saida, ObjectMapper objectMapper, boolean incluirItens) throws IOException {
+        return switch (this) {
+            case NDJSON -> new EscritorNdjson(saida, objectMapper);
+            case CSV -> new EscritorCsv(saida, incluirItens);
+        };
+    }
+}
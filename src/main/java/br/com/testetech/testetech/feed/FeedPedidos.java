@@ -0,0 +1,350 @@
+package br.com.testetech.testetech.feed;
+
+import br.com.testetech.testetech.dto.PedidoResumoDTO;
+import br.com.testetech.testetech.evento.PedidoRegistradoEvent;
+import br.com.testetech.testetech.exception.SobrecargaException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Feed dos pedidos registrados, entregue por Server-Sent Events aos assinantes de {@code GET /api/pedidos/feed}.
+ * <p>
+ * Cada pedido confirmado ({@link PedidoRegistradoEvent}, após o commit) recebe uma sequência e é gravado em um
+ * anel de capacidade fixa ({@code pedidos.feed.capacidade}). Cada assinante tem o próprio cursor e a própria
+ * thread de envio: a gravação no anel nunca espera por um assinante, então um consumidor lento não exerce
+ * contrapressão sobre a ingestão. Se o anel der a volta sobre o cursor de um assinante, ele recebe o evento
+ * {@code resync} e a conexão é encerrada; cabe a ele reler a listagem e assinar de novo.
+ * </p>
+ * <p>
+ * O {@code id} de cada evento ({@code <instância>-<sequência>}) pode ser devolvido em {@code Last-Event-ID} para
+ * retomar a partir do evento seguinte. Se o evento já saiu do anel ou é de outra execução da aplicação, o
+ * assinante recebe {@code resync} e passa a receber os novos pedidos.
+ * </p>
+ * <p>
+ * O feed é local à instância: contém apenas os pedidos confirmados por ela.
+ * </p>
+ */
+@Component
+public class FeedPedidos implements SmartLifecycle {
+
+    private static final Duration RETRY_AFTER = Duration.ofSeconds(5);
+
+    private final Logger logger = LoggerFactory.getLogger(FeedPedidos.class);
+
+    /**
+     * Distingue os IDs desta execução: as sequências recomeçam a cada inicialização.
+     */
+    private final String instancia = Long.toString(System.currentTimeMillis(), 36);
+
+    private final EventoFeed[] anel;
+
+    private final int mascara;
+
+    private final int maxAssinantes;
+
+    private final long heartbeatNanos;
+
+    private final long timeoutMs;
+
+    private final ReentrantLock trava = new ReentrantLock();
+
+    private final Condition novosEventos = trava.newCondition();
+
+    /**
+     * Sequência do próximo pedido publicado; a primeira é 1.
+     */
+    private volatile long proxima = 1;
+
+    private final Set<Assinante> assinantes = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Vagas de assinatura reservadas, de {@link #assinar} até o fim da thread do assinante. Reservadas com
+     * {@code incrementAndGet}, para que assinaturas concorrentes não ultrapassem {@code pedidos.feed.max-assinantes}.
+     */
+    private final AtomicInteger vagasOcupadas = new AtomicInteger();
+
+    private final AtomicLong contadorAssinantes = new AtomicLong();
+
+    private volatile boolean executando;
+
+    private final Counter publicados;
+
+    private final Map<String, Counter> ressincronizacoes;
+
+    public FeedPedidos(MeterRegistry meterRegistry,
+                       @Value("${pedidos.feed.capacidade:1024}") int capacidade,
+                       @Value("${pedidos.feed.max-assinantes:64}") int maxAssinantes,
+                       @Value("${pedidos.feed.heartbeat:15s}") Duration heartbeat,
+                       @Value("${pedidos.feed.timeout:30m}") Duration timeout) {
+        // Potência de 2, para que a posição no anel seja uma máscara da sequência
+        int tamanho = Integer.highestOneBit(Math.max(2, capacidade) - 1) << 1;
+        this.anel = new EventoFeed[tamanho];
+        this.mascara = tamanho - 1;
+        this.maxAssinantes = maxAssinantes;
+        this.heartbeatNanos = heartbeat.toNanos();
+        this.timeoutMs = timeout.toMillis();
+
+        this.publicados = Counter.builder("pedidos.feed.publicados")
+                .description("Pedidos publicados no feed")
+                .register(meterRegistry);
+        this.ressincronizacoes = Map.of(
+                "consumidor-lento", ressincronizacoes(meterRegistry, "consumidor-lento"),
+                "id-desconhecido", ressincronizacoes(meterRegistry, "id-desconhecido"));
+        Gauge.builder("pedidos.feed.assinantes", assinantes, Set::size)
+                .description("Assinantes conectados ao feed")
+                .register(meterRegistry);
+    }
+
+    private static Counter ressincronizacoes(MeterRegistry meterRegistry, String motivo) {
+        return Counter.builder("pedidos.feed.ressincronizacoes")
+                .description("Assinantes instruídos a reler a listagem (evento resync)")
+                .tag("motivo", motivo)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Grava o pedido confirmado no anel e acorda os assinantes; não espera por nenhum deles.
+     */
+    @TransactionalEventListener
+    public void registrar(PedidoRegistradoEvent evento) {
+        trava.lock();
+        try {
+            long sequencia = proxima;
+            anel[(int) (sequencia & mascara)] = new EventoFeed(sequencia, evento.pedido());
+            proxima = sequencia + 1;
+            novosEventos.signalAll();
+        } finally {
+            trava.unlock();
+        }
+        publicados.increment();
+    }
+
+    /**
+     * Cria uma assinatura do feed.
+     *
+     * @param ultimoId {@code Last-Event-ID} do cliente, ou {@code null} para receber apenas os próximos pedidos.
+     * @return O emissor SSE da assinatura.
+     * @throws SobrecargaException Se o limite de assinantes ({@code pedidos.feed.max-assinantes}) foi atingido.
+     */
+    public SseEmitter assinar(String ultimoId) {
+        if (vagasOcupadas.incrementAndGet() > maxAssinantes) {
+            vagasOcupadas.decrementAndGet();
+            throw new SobrecargaException("Limite de assinantes do feed atingido", RETRY_AFTER);
+        }
+        try {
+            return iniciarAssinatura(ultimoId);
+        } catch (RuntimeException | Error e) {
+            vagasOcupadas.decrementAndGet();
+            throw e;
+        }
+    }
+
+    /**
+     * Com a vaga já reservada: a partir daqui, a vaga é liberada pela thread do assinante ao terminar.
+     */
+    private SseEmitter iniciarAssinatura(String ultimoId) {
+        long cabeca = proxima;
+        long inicio = cabeca;
+        boolean ressincronizar = false;
+        if (ultimoId != null && !ultimoId.isBlank()) {
+            Long retomada = sequenciaDe(ultimoId);
+            long maisAntiga = Math.max(1, cabeca - anel.length);
+            if (retomada == null || retomada >= cabeca || retomada + 1 < maisAntiga) {
+                ressincronizar = true;
+            } else {
+                inicio = retomada + 1;
+            }
+        }
+
+        // Ao fim do tempo limite a conexão é encerrada, e o cliente retoma com Last-Event-ID
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Assinante assinante = new Assinante(emitter, inicio, ressincronizar);
+        emitter.onCompletion(assinante::encerrar);
+        emitter.onTimeout(assinante::encerrar);
+        emitter.onError(erro -> assinante.encerrar());
+        // Threads de plataforma: o envio do SseEmitter é sincronizado e prenderia uma thread virtual à carregadora
+        Thread thread = Thread.ofPlatform()
+                .name("feed-pedidos-" + contadorAssinantes.incrementAndGet())
+                .daemon(true)
+                .unstarted(assinante);
+        assinantes.add(assinante);
+        try {
+            thread.start();
+        } catch (RuntimeException | Error e) {
+            assinantes.remove(assinante);
+            throw e;
+        }
+        return emitter;
+    }
+
+    private Long sequenciaDe(String id) {
+        int separador = id.lastIndexOf('-');
+        if (separador < 0 || !id.substring(0, separador).equals(instancia)) {
+            return null;
+        }
+        try {
+            return Long.parseLong(id.substring(separador + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private String idDe(long sequencia) {
+        return instancia + "-" + sequencia;
+    }
+
+    /**
+     * Aguarda até haver eventos a partir do cursor, até o fim do intervalo de heartbeat ou até o encerramento.
+     *
+     * @return A próxima sequência a ser publicada (os eventos disponíveis vão do cursor até ela, exclusive).
+     */
+    private long aguardar(long cursor, Assinante assinante) throws InterruptedException {
+        trava.lock();
+        try {
+            long restante = heartbeatNanos;
+            while (proxima == cursor && assinante.ativo && restante > 0) {
+                restante = novosEventos.awaitNanos(restante);
+            }
+            return proxima;
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    private void acordarTodos() {
+        trava.lock();
+        try {
+            novosEventos.signalAll();
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    @Override
+    public void start() {
+        executando = true;
+    }
+
+    /**
+     * Encerra as assinaturas abertas, para que o desligamento gracioso do servidor não espere por elas.
+     */
+    @Override
+    public void stop() {
+        executando = false;
+        assinantes.forEach(assinante -> {
+            assinante.ativo = false;
+            assinante.emitter.complete();
+        });
+        acordarTodos();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return executando;
+    }
+
+    /**
+     * Pedido publicado no anel, com a sua sequência: ao ler a posição, o assinante confere a sequência para
+     * detectar que o anel já deu a volta.
+     */
+    private record EventoFeed(long sequencia, PedidoResumoDTO pedido) {
+    }
+
+    /**
+     * Assinatura: cursor próprio e thread própria, que envia os eventos do anel ao cliente.
+     */
+    private final class Assinante implements Runnable {
+
+        private final SseEmitter emitter;
+
+        private final boolean ressincronizarAoIniciar;
+
+        /**
+         * Sequência do próximo evento a enviar.
+         */
+        private long cursor;
+
+        private volatile boolean ativo = true;
+
+        private Assinante(SseEmitter emitter, long cursor, boolean ressincronizarAoIniciar) {
+            this.emitter = emitter;
+            this.cursor = cursor;
+            this.ressincronizarAoIniciar = ressincronizarAoIniciar;
+        }
+
+        @Override
+        public void run() {
+            try {
+                if (ressincronizarAoIniciar) {
+                    ressincronizar("id-desconhecido");
+                }
+                while (ativo) {
+                    long cabeca = aguardar(cursor, this);
+                    if (!ativo) {
+                        return;
+                    }
+                    if (cabeca == cursor) {
+                        // Mantém a conexão viva e detecta clientes que já se desconectaram
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                        continue;
+                    }
+                    for (; cursor < cabeca; cursor++) {
+                        EventoFeed evento = anel[(int) (cursor & mascara)];
+                        if (cabeca - cursor > anel.length || evento == null || evento.sequencia() != cursor) {
+                            ressincronizar("consumidor-lento");
+                            emitter.complete();
+                            return;
+                        }
+                        emitter.send(SseEmitter.event()
+                                .id(idDe(cursor))
+                                .name("pedido")
+                                .data(evento.pedido(), MediaType.APPLICATION_JSON));
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Cliente desconectado ou emissor já encerrado
+                logger.debug("Assinatura do feed encerrada: {}", e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                ativo = false;
+                assinantes.remove(this);
+                vagasOcupadas.decrementAndGet();
+            }
+        }
+
+        /**
+         * Informa ao cliente que eventos foram perdidos e o ID a partir do qual o feed continuaria.
+         */
+        private void ressincronizar(String motivo) throws IOException {
+            ressincronizacoes.get(motivo).increment();
+            emitter.send(SseEmitter.event()
+                    .name("resync")
+                    .data(Map.of("motivo", motivo, "ultimoId", idDe(cursor - 1)), MediaType.APPLICATION_JSON));
+        }
+
+        private void encerrar() {
+            ativo = false;
+            acordarTodos();
+        }
+    }
+}
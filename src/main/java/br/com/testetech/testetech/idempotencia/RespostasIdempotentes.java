@@ -0,0 +1,141 @@
+package br.com.testetech.testetech.idempotencia;
+
+import br.com.testetech.testetech.dto.ItemDTO;
+import br.com.testetech.testetech.dto.ItemResumoDTO;
+import br.com.testetech.testetech.dto.PedidoInputDTO;
+import br.com.testetech.testetech.dto.PedidoResumoDTO;
+import br.com.testetech.testetech.evento.PedidoRegistradoEvent;
+import br.com.testetech.testetech.service.PedidoMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+
+/**
+ * Respostas de registro de pedidos armazenadas para repetição idempotente (Caffeine).
+ * <p>
+ * Cada entrada guarda o pedido devolvido no 201 original e a impressão digital (SHA-256) do conteúdo que o
+ * originou: código do pedido e itens na ordem recebida, com os valores na escala persistida. É alimentado
+ * após o commit por {@link PedidoRegistradoEvent} (chave = código do pedido, cobrindo também o lote e a
+ * ingestão assíncrona) e, quando o cliente envia {@code Idempotency-Key}, também pela chave informada.
+ * </p>
+ * <p>
+ * Limitado por quantidade de entradas ({@code pedidos.idempotencia.tamanho-maximo}) e por tempo desde a escrita
+ * ({@code pedidos.idempotencia.ttl}); estatísticas em {@code cache.*} com a tag {@code cache=idempotencia}.
+ * </p>
+ */
+@Component
+public class RespostasIdempotentes {
+
+    /**
+     * Prefixo das chaves informadas pelo cliente, para que não colidam com códigos de pedido.
+     */
+    private static final String PREFIXO_CHAVE_CLIENTE = "chave:";
+
+    private final Cache<String, RespostaRegistrada> cache;
+
+    public RespostasIdempotentes(MeterRegistry meterRegistry,
+                                 @Value("${pedidos.idempotencia.tamanho-maximo:100000}") long tamanhoMaximo,
+                                 @Value("${pedidos.idempotencia.ttl:24h}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "idempotencia");
+    }
+
+    /**
+     * @param chaveCliente Valor do cabeçalho {@code Idempotency-Key}, ou {@code null}.
+     * @param codigoPedido Código do pedido, usado como chave na ausência do cabeçalho.
+     * @return A chave de armazenamento da resposta.
+     */
+    public static String chave(String chaveCliente, String codigoPedido) {
+        return chaveCliente == null || chaveCliente.isBlank() ? codigoPedido : PREFIXO_CHAVE_CLIENTE + chaveCliente;
+    }
+
+    /**
+     * @return A resposta armazenada para a chave, ou {@code null}.
+     */
+    public RespostaRegistrada buscar(String chave) {
+        return cache.getIfPresent(chave);
+    }
+
+    public void armazenar(String chave, RespostaRegistrada resposta) {
+        cache.put(chave, resposta);
+    }
+
+    /**
+     * Armazena o pedido recém-registrado sob o seu código, somente após o commit da transação que o persistiu.
+     */
+    @TransactionalEventListener
+    public void registrar(PedidoRegistradoEvent evento) {
+        PedidoResumoDTO pedido = evento.pedido();
+        cache.put(pedido.getCodigoPedido(), new RespostaRegistrada(impressaoDigital(pedido), pedido));
+    }
+
+    /**
+     * Impressão digital do conteúdo de entrada, comparável com a de um pedido já registrado.
+     */
+    public static byte[] impressaoDigital(PedidoInputDTO dto) {
+        MessageDigest digest = novoDigest(dto.getCodigoPedido());
+        for (ItemDTO item : dto.getItems()) {
+            atualizar(digest, item.getProdutoId(), item.getValorUnitario(), item.getQuantidade());
+        }
+        return digest.digest();
+    }
+
+    /**
+     * Impressão digital de um pedido registrado (lido do banco ou recebido por evento).
+     */
+    public static byte[] impressaoDigital(PedidoResumoDTO pedido) {
+        MessageDigest digest = novoDigest(pedido.getCodigoPedido());
+        for (ItemResumoDTO item : pedido.getItems()) {
+            atualizar(digest, item.getProdutoId(), item.getValorUnitario(), item.getQuantidade());
+        }
+        return digest.digest();
+    }
+
+    private static MessageDigest novoDigest(String codigoPedido) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(codigoPedido.getBytes(StandardCharsets.UTF_8));
+            return digest;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível na JVM", e);
+        }
+    }
+
+    private static void atualizar(MessageDigest digest, String produtoId, BigDecimal valorUnitario, Integer quantidade) {
+        // Separadores de controle impedem que campos concatenados de itens diferentes coincidam
+        String campos = "\u001e" + produtoId + "\u001f" + PedidoMapper.escalaMonetaria(valorUnitario).toPlainString()
+                + "\u001f" + quantidade;
+        digest.update(campos.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Resposta do registro original e a impressão digital do conteúdo que a produziu.
+     *
+     * @param impressaoDigital SHA-256 do conteúdo (ver {@link #impressaoDigital(PedidoInputDTO)}).
+     * @param pedido Corpo do 201 original.
+     */
+    public record RespostaRegistrada(byte[] impressaoDigital, PedidoResumoDTO pedido) {
+
+        /**
+         * @return {@code true} se o conteúdo repetido é idêntico ao que originou esta resposta.
+         */
+        public boolean corresponde(byte[] outraImpressao) {
+            return MessageDigest.isEqual(impressaoDigital, outraImpressao);
+        }
+    }
+}
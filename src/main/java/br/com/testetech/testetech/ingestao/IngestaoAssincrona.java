@@ -0,0 +1,386 @@
+package br.com.testetech.testetech.ingestao;
+
+import br.com.testetech.testetech.dto.PedidoInputDTO;
+import br.com.testetech.testetech.dto.PedidoRecebidoDTO;
+import br.com.testetech.testetech.dto.ResultadoLoteDTO;
+import br.com.testetech.testetech.dto.SituacaoLote;
+import br.com.testetech.testetech.exception.IngestaoIndisponivelException;
+import br.com.testetech.testetech.exception.PedidoDuplicadoException;
+import br.com.testetech.testetech.journal.JournalPedidos;
+import br.com.testetech.testetech.service.PedidoLoteService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pipeline de ingestão assíncrona de pedidos ({@code pedidos.ingestao.modo=ASSINCRONO}).
+ * <p>
+ * A requisição apenas valida o pedido e o deposita em uma fila limitada, respondendo
+ * imediatamente com o status {@code RECEBIDO}. Workers em segundo plano drenam a fila em lotes
+ * de até {@code pedidos.ingestao.tamanho-lote} pedidos e os entregam ao {@link PedidoLoteService},
+ * que calcula os totais e persiste tudo em uma única transação por bloco, já como {@code CALCULADO}.
+ * Enquanto isso, {@link #buscarPendente} informa o pedido como {@code RECEBIDO}.
+ * Assim, a latência do POST não depende do banco: uma lentidão no H2/JDBC apenas aumenta a
+ * profundidade da fila.
+ * </p>
+ * <p>
+ * Quando a fila está cheia o pedido é recusado com 503 (contrapressão explícita), em vez de bloquear
+ * a thread da requisição. Códigos que ainda aguardam na fila são recusados com 409; a duplicidade
+ * contra o banco é resolvida pelos workers e reportada nas métricas e nos logs.
+ * </p>
+ * <p>
+ * No desligamento, a fila deixa de aceitar pedidos e os workers drenam o que restou antes de
+ * encerrar. Com o {@link JournalPedidos} habilitado, cada pedido é gravado no journal antes de entrar
+ * na fila e confirmado após o processamento do seu lote, de modo que uma queda abrupta da JVM não
+ * perde pedidos já respondidos com 202.
+ * </p>
+ */
+@Component
+public class IngestaoAssincrona implements SmartLifecycle {
+
+    /**
+     * Os workers param depois do servidor web (fases de {@code SmartLifecycle} menores param por último),
+     * garantindo que nenhuma requisição em andamento enfileire pedidos após a drenagem final.
+     */
+    private static final int FASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    private static final long ESPERA_POLL_MS = 200;
+
+    private final Logger logger = LoggerFactory.getLogger(IngestaoAssincrona.class);
+
+    private final PedidoLoteService loteService;
+
+    private final JournalPedidos journal;
+
+    private final ModoIngestao modo;
+
+    private final int quantidadeWorkers;
+
+    private final int tamanhoLote;
+
+    private final int tentativas;
+
+    private final long esperaNovaTentativaMs;
+
+    private final long timeoutDesligamentoMs;
+
+    private final boolean threadsVirtuais;
+
+    private final BlockingQueue<PedidoRecebido> fila;
+
+    /**
+     * Códigos aceitos e ainda não processados pelos workers, com o instante de recebimento.
+     */
+    private final Map<String, LocalDateTime> pendentes = new ConcurrentHashMap<>();
+
+    private final List<Thread> workers = new ArrayList<>();
+
+    private volatile boolean aceitando;
+
+    private volatile boolean executando;
+
+    private final DistributionSummary tamanhoLoteSummary;
+
+    private final Timer tempoDrenagem;
+
+    private final Timer tempoEspera;
+
+    private final Counter recusadosFilaCheia;
+
+    private final Counter rejeitadosDuplicados;
+
+    private final Counter rejeitadosFalha;
+
+    private final Counter novasTentativas;
+
+    public IngestaoAssincrona(PedidoLoteService loteService,
+                              JournalPedidos journal,
+                              MeterRegistry meterRegistry,
+                              @Value("${pedidos.ingestao.modo:SINCRONO}") ModoIngestao modo,
+                              @Value("${pedidos.ingestao.capacidade-fila:10000}") int capacidadeFila,
+                              @Value("${pedidos.ingestao.workers:2}") int quantidadeWorkers,
+                              @Value("${pedidos.ingestao.tamanho-lote:200}") int tamanhoLote,
+                              @Value("${pedidos.ingestao.tentativas:3}") int tentativas,
+                              @Value("${pedidos.ingestao.espera-nova-tentativa-ms:500}") long esperaNovaTentativaMs,
+                              @Value("${pedidos.ingestao.timeout-desligamento-ms:30000}") long timeoutDesligamentoMs,
+                              @Value("${spring.threads.virtual.enabled:false}") boolean threadsVirtuais) {
+        this.loteService = loteService;
+        this.journal = journal;
+        this.modo = modo;
+        this.quantidadeWorkers = quantidadeWorkers;
+        this.tamanhoLote = tamanhoLote;
+        this.tentativas = Math.max(1, tentativas);
+        this.esperaNovaTentativaMs = esperaNovaTentativaMs;
+        this.timeoutDesligamentoMs = timeoutDesligamentoMs;
+        this.threadsVirtuais = threadsVirtuais;
+        this.fila = new ArrayBlockingQueue<>(capacidadeFila);
+        this.aceitando = modo == ModoIngestao.ASSINCRONO;
+
+        Gauge.builder("pedidos.ingestao.fila.profundidade", fila, BlockingQueue::size)
+                .description("Pedidos recebidos aguardando os workers de ingestão")
+                .register(meterRegistry);
+        Gauge.builder("pedidos.ingestao.fila.capacidade", fila, f -> f.size() + f.remainingCapacity())
+                .description("Capacidade máxima da fila de ingestão")
+                .register(meterRegistry);
+        this.tamanhoLoteSummary = DistributionSummary.builder("pedidos.ingestao.lote.tamanho")
+                .description("Quantidade de pedidos drenados da fila a cada lote")
+                .register(meterRegistry);
+        this.tempoDrenagem = Timer.builder("pedidos.ingestao.drenagem")
+                .description("Tempo para calcular e persistir um lote drenado da fila")
+                .register(meterRegistry);
+        this.tempoEspera = Timer.builder("pedidos.ingestao.espera")
+                .description("Tempo entre o recebimento do pedido e o término do seu processamento")
+                .register(meterRegistry);
+        this.recusadosFilaCheia = Counter.builder("pedidos.ingestao.recusados")
+                .description("Pedidos recusados na entrada por falta de espaço na fila")
+                .register(meterRegistry);
+        this.rejeitadosDuplicados = Counter.builder("pedidos.ingestao.rejeitados")
+                .description("Pedidos aceitos na fila e rejeitados pelos workers")
+                .tag("situacao", "duplicado")
+                .register(meterRegistry);
+        this.rejeitadosFalha = Counter.builder("pedidos.ingestao.rejeitados")
+                .description("Pedidos aceitos na fila e rejeitados pelos workers")
+                .tag("situacao", "falha")
+                .register(meterRegistry);
+        this.novasTentativas = Counter.builder("pedidos.ingestao.novas-tentativas")
+                .description("Lotes da fila reenviados ao serviço de lote após uma falha inesperada")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return {@code true} se o endpoint unitário deve enfileirar os pedidos em vez de processá-los na requisição.
+     */
+    public boolean isAssincrona() {
+        return modo == ModoIngestao.ASSINCRONO;
+    }
+
+    /**
+     * Enfileira um pedido já validado para processamento em segundo plano, sem bloquear.
+     *
+     * @param dto Pedido validado pela camada de controle.
+     * @return Confirmação de recebimento com o status {@code RECEBIDO}.
+     * @throws PedidoDuplicadoException Se um pedido com o mesmo código ainda aguarda na fila.
+     * @throws IngestaoIndisponivelException Se a fila estiver cheia ou a aplicação estiver em desligamento.
+     */
+    public PedidoRecebidoDTO enfileirar(PedidoInputDTO dto) {
+        if (!aceitando) {
+            throw new IngestaoIndisponivelException("Ingestão assíncrona indisponível no momento");
+        }
+        String codigo = dto.getCodigoPedido();
+        LocalDateTime recebidoEm = LocalDateTime.now();
+        if (pendentes.putIfAbsent(codigo, recebidoEm) != null) {
+            throw new PedidoDuplicadoException("Pedido já está em processamento: " + codigo);
+        }
+        long sequencia;
+        try {
+            sequencia = journal.registrar(dto);
+        } catch (RuntimeException e) {
+            // Sem a entrada no journal o pedido não foi aceito: o código precisa ficar livre para uma nova tentativa
+            pendentes.remove(codigo);
+            throw e;
+        }
+        if (!fila.offer(new PedidoRecebido(dto, sequencia, System.nanoTime()))) {
+            journal.confirmar(sequencia);
+            pendentes.remove(codigo);
+            recusadosFilaCheia.increment();
+            logger.warn("Fila de ingestão cheia; pedido {} recusado", codigo);
+            throw new IngestaoIndisponivelException("Fila de ingestão cheia, tente novamente em instantes");
+        }
+        logger.debug("Pedido {} enfileirado para ingestão assíncrona", codigo);
+        return new PedidoRecebidoDTO(codigo, recebidoEm);
+    }
+
+    /**
+     * Consulta um pedido aceito por esta instância que os workers ainda não persistiram (na fila ou no lote em
+     * processamento). O status {@code RECEBIDO} só existe aqui: o pedido é gravado diretamente como
+     * {@code CALCULADO}.
+     *
+     * @param codigoPedido Código de negócio do pedido.
+     * @return Confirmação de recebimento, ou vazio se o código não estiver pendente.
+     */
+    public Optional<PedidoRecebidoDTO> buscarPendente(String codigoPedido) {
+        LocalDateTime recebidoEm = pendentes.get(codigoPedido);
+        return recebidoEm == null ? Optional.empty() : Optional.of(new PedidoRecebidoDTO(codigoPedido, recebidoEm));
+    }
+
+    @Override
+    public void start() {
+        if (!isAssincrona()) {
+            return;
+        }
+        // Os workers passam a maior parte do tempo bloqueados na fila ou no JDBC: no perfil 'virtual' não ocupam threads do SO
+        Thread.Builder construtor = threadsVirtuais ? Thread.ofVirtual() : Thread.ofPlatform();
+        construtor.name("pedidos-ingestao-", 0);
+        for (int i = 0; i < quantidadeWorkers; i++) {
+            workers.add(construtor.unstarted(this::drenar));
+        }
+        executando = true;
+        workers.forEach(Thread::start);
+        logger.info("Ingestão assíncrona iniciada com {} workers {} (capacidade da fila: {}, lotes de até {} pedidos)",
+                quantidadeWorkers, threadsVirtuais ? "virtuais" : "de plataforma", fila.remainingCapacity(), tamanhoLote);
+    }
+
+    @Override
+    public void stop() {
+        aceitando = false;
+        executando = false;
+        long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutDesligamentoMs);
+        for (Thread worker : workers) {
+            try {
+                worker.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(limite - System.nanoTime())));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        workers.clear();
+        if (!fila.isEmpty()) {
+            logger.error("Ingestão encerrada com {} pedidos não processados na fila", fila.size());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return executando;
+    }
+
+    @Override
+    public int getPhase() {
+        return FASE;
+    }
+
+    /**
+     * Laço de cada worker: aguarda o primeiro pedido e leva junto os que já estiverem na fila,
+     * até o tamanho máximo do lote. Após o desligamento, continua até esvaziar a fila.
+     */
+    private void drenar() {
+        List<PedidoRecebido> lote = new ArrayList<>(tamanhoLote);
+        while (true) {
+            try {
+                PedidoRecebido primeiro = fila.poll(ESPERA_POLL_MS, TimeUnit.MILLISECONDS);
+                if (primeiro == null) {
+                    if (!executando) {
+                        return;
+                    }
+                    continue;
+                }
+                lote.add(primeiro);
+                fila.drainTo(lote, tamanhoLote - 1);
+                processar(lote);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                lote.clear();
+            }
+        }
+    }
+
+    /**
+     * Entrega o lote ao {@link PedidoLoteService}, com até {@code pedidos.ingestao.tentativas} tentativas.
+     * <p>
+     * {@code registrarLote} já isola as falhas por pedido; as novas tentativas cobrem só os erros inesperados do lote
+     * inteiro (ex: banco indisponível). Os códigos continuam pendentes durante as novas tentativas, e os pedidos de um
+     * bloco já gravado na tentativa anterior voltam como duplicados. Esgotadas as tentativas, cada pedido é movido
+     * para os descartados do journal, que confirma a sequência: o checkpoint não fica preso nem o lote é reprocessado
+     * em toda inicialização, e o código fica livre para o cliente reenviar.
+     * </p>
+     * <p>
+     * O mesmo vale para o pedido que {@code registrarLote} devolve como {@code FALHA}: o cliente já recebeu 202,
+     * então ele vai para os descartados em vez de ser apenas confirmado. Aceitos e duplicados são confirmados.
+     * </p>
+     */
+    private void processar(List<PedidoRecebido> lote) throws InterruptedException {
+        tamanhoLoteSummary.record(lote.size());
+        long inicio = System.nanoTime();
+        try {
+            List<PedidoInputDTO> dtos = lote.stream().map(PedidoRecebido::dto).toList();
+            List<ResultadoLoteDTO> resultados;
+            for (int tentativa = 1; ; tentativa++) {
+                try {
+                    resultados = loteService.registrarLote(dtos);
+                    break;
+                } catch (RuntimeException e) {
+                    if (tentativa >= tentativas) {
+                        descartar(lote, e);
+                        return;
+                    }
+                    novasTentativas.increment();
+                    logger.warn("Falha ao processar lote de {} pedidos da fila de ingestão (tentativa {} de {})",
+                            lote.size(), tentativa, tentativas, e);
+                    // Interrompido na espera (desligamento forçado): sem confirmação, o journal reprocessa o lote
+                    Thread.sleep(esperaNovaTentativaMs << (tentativa - 1));
+                }
+            }
+            for (ResultadoLoteDTO resultado : resultados) {
+                PedidoRecebido recebido = lote.get(resultado.getIndice());
+                if (resultado.getSituacao() == SituacaoLote.ACEITO) {
+                    journal.confirmar(recebido.sequencia());
+                    continue;
+                }
+                registrarRejeicao(resultado);
+                if (resultado.getSituacao() == SituacaoLote.FALHA) {
+                    moverParaDescartados(recebido);
+                } else {
+                    journal.confirmar(recebido.sequencia());
+                }
+            }
+        } finally {
+            long fim = System.nanoTime();
+            tempoDrenagem.record(fim - inicio, TimeUnit.NANOSECONDS);
+            for (PedidoRecebido recebido : lote) {
+                tempoEspera.record(fim - recebido.recebidoEmNanos(), TimeUnit.NANOSECONDS);
+                pendentes.remove(recebido.dto().getCodigoPedido());
+            }
+        }
+    }
+
+    private void descartar(List<PedidoRecebido> lote, RuntimeException causa) {
+        rejeitadosFalha.increment(lote.size());
+        logger.error("Lote de {} pedidos da fila de ingestão descartado após {} tentativas: {}", lote.size(), tentativas,
+                lote.stream().map(recebido -> recebido.dto().getCodigoPedido()).toList(), causa);
+        lote.forEach(this::moverParaDescartados);
+    }
+
+    private void moverParaDescartados(PedidoRecebido recebido) {
+        try {
+            journal.descartar(recebido.dto(), recebido.sequencia());
+        } catch (RuntimeException e) {
+            // Sem o registro dos descartados, a entrada continua pendente e é reprocessada na inicialização
+            logger.error("Falha ao descartar o pedido {} no journal", recebido.dto().getCodigoPedido(), e);
+        }
+    }
+
+    private void registrarRejeicao(ResultadoLoteDTO resultado) {
+        if (resultado.getSituacao() == SituacaoLote.DUPLICADO) {
+            rejeitadosDuplicados.increment();
+        } else {
+            rejeitadosFalha.increment();
+        }
+        logger.warn("Pedido {} recebido de forma assíncrona foi rejeitado ({}): {}",
+                resultado.getCodigoPedido(), resultado.getSituacao(), resultado.getMensagem());
+    }
+
+    /**
+     * Pedido aguardando na fila, com a sequência no journal e o instante de recebimento para a métrica de espera.
+     */
+    private record PedidoRecebido(PedidoInputDTO dto, long sequencia, long recebidoEmNanos) {
+    }
+}
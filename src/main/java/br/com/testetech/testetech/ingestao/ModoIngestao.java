@@ -0,0 +1,20 @@
+package br.com.testetech.testetech.ingestao;
+
+/**
+ * Define como o endpoint unitário de criação ({@code POST /api/pedidos}) processa os pedidos recebidos.
+ */
+public enum ModoIngestao {
+
+    /**
+     * Verifica a duplicidade, calcula o total e persiste o pedido dentro da própria requisição,
+     * respondendo 201 com o pedido já {@code CALCULADO}.
+     */
+    SINCRONO,
+
+    /**
+     * Apenas valida e enfileira o pedido, respondendo 202 com o status {@code RECEBIDO}.
+     * Workers em segundo plano drenam a fila em lotes, calculam os totais e persistem
+     * os pedidos já como {@code CALCULADO}.
+     */
+    ASSINCRONO
+}
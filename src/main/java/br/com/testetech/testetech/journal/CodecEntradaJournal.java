@@ -0,0 +1,115 @@
+package br.com.testetech.testetech.journal;
+
+import br.com.testetech.testetech.dto.ItemDTO;
+import br.com.testetech.testetech.dto.PedidoInputDTO;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Codificação binária compacta de {@link PedidoInputDTO} para o journal de ingestão.
+ * <p>
+ * Formato (big-endian): código do pedido, quantidade de itens e, para cada item, produto,
+ * valor unitário (escala + valor não escalado) e quantidade. Textos são gravados como UTF-8
+ * prefixados pelo tamanho, com {@code -1} representando nulo. Evita reflexão e árvores JSON
+ * para manter o custo do append na casa dos microssegundos.
+ * </p>
+ */
+final class CodecEntradaJournal {
+
+    private CodecEntradaJournal() {
+    }
+
+    static byte[] codificar(PedidoInputDTO dto) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + 48 * tamanho(dto.getItems()));
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            escreverTexto(out, dto.getCodigoPedido());
+            List<ItemDTO> items = dto.getItems();
+            out.writeInt(items == null ? -1 : items.size());
+            if (items != null) {
+                for (ItemDTO item : items) {
+                    escreverTexto(out, item.getProdutoId());
+                    escreverDecimal(out, item.getValorUnitario());
+                    out.writeInt(item.getQuantidade() == null ? Integer.MIN_VALUE : item.getQuantidade());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static PedidoInputDTO decodificar(ByteBuffer payload) {
+        byte[] copia = new byte[payload.remaining()];
+        payload.get(copia);
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(copia))) {
+            String codigo = lerTexto(in);
+            int quantidadeItens = in.readInt();
+            List<ItemDTO> items = null;
+            if (quantidadeItens >= 0) {
+                items = new ArrayList<>(quantidadeItens);
+                for (int i = 0; i < quantidadeItens; i++) {
+                    String produto = lerTexto(in);
+                    BigDecimal valor = lerDecimal(in);
+                    int quantidade = in.readInt();
+                    items.add(new ItemDTO(produto, valor, quantidade == Integer.MIN_VALUE ? null : quantidade));
+                }
+            }
+            return new PedidoInputDTO(codigo, items);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static int tamanho(List<?> lista) {
+        return lista == null ? 0 : lista.size();
+    }
+
+    private static void escreverTexto(DataOutputStream out, String texto) throws IOException {
+        if (texto == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] utf8 = texto.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(utf8.length);
+        out.write(utf8);
+    }
+
+    private static String lerTexto(DataInputStream in) throws IOException {
+        int tamanho = in.readInt();
+        if (tamanho < 0) {
+            return null;
+        }
+        return new String(in.readNBytes(tamanho), StandardCharsets.UTF_8);
+    }
+
+    private static void escreverDecimal(DataOutputStream out, BigDecimal valor) throws IOException {
+        if (valor == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] naoEscalado = valor.unscaledValue().toByteArray();
+        out.writeInt(naoEscalado.length);
+        out.write(naoEscalado);
+        out.writeInt(valor.scale());
+    }
+
+    private static BigDecimal lerDecimal(DataInputStream in) throws IOException {
+        int tamanho = in.readInt();
+        if (tamanho < 0) {
+            return null;
+        }
+        BigInteger naoEscalado = new BigInteger(in.readNBytes(tamanho));
+        return new BigDecimal(naoEscalado, in.readInt());
+    }
+}
@@ -0,0 +1,610 @@
+package br.com.testetech.testetech.journal;
+
+import br.com.testetech.testetech.dto.PedidoInputDTO;
+import br.com.testetech.testetech.dto.ResultadoLoteDTO;
+import br.com.testetech.testetech.dto.SituacaoLote;
+import br.com.testetech.testetech.service.PedidoLoteService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Journal append-only, em arquivos mapeados em memória, dos pedidos aceitos pela ingestão assíncrona.
+ * <p>
+ * Cada pedido aceito é gravado no segmento corrente ({@link MappedByteBuffer}) antes de entrar na fila
+ * em memória: o append é uma cópia para o page cache do sistema operacional, sem chamada de sistema,
+ * e sobrevive a uma queda da JVM. A durabilidade contra queda do sistema operacional vem do
+ * <em>group commit</em>: uma única thread executa {@code force()} a cada {@code pedidos.journal.intervalo-force-ms}
+ * para todas as entradas acumuladas no intervalo. Com {@code pedidos.journal.aguardar-force=true}, o append
+ * só retorna depois desse {@code force()}.
+ * </p>
+ * <p>
+ * Formato de cada entrada: tamanho do payload (int), CRC32C (int) da sequência e do payload, sequência (long)
+ * e o payload ({@link CodecEntradaJournal}). Ao encher, o segmento é fechado e um novo é aberto, nomeado
+ * pela primeira sequência que contém. O mapeamento dos segmentos rolados e reprocessados é liberado pelo GC quando
+ * o buffer deixa de ser referenciado; {@code pedidos.journal.tamanho-segmento} limita a memória mapeada por segmento.
+ * </p>
+ * <p>
+ * Quando os workers confirmam que um pedido chegou à tabela {@code pedidos} (ou foi definitivamente
+ * rejeitado), sua sequência é confirmada. O checkpoint é a maior sequência abaixo da qual tudo foi
+ * confirmado; ele é gravado periodicamente e os segmentos inteiramente cobertos são apagados.
+ * Na inicialização, as entradas íntegras posteriores ao checkpoint são reprocessadas pelo
+ * {@link PedidoLoteService}; pedidos que já haviam sido persistidos voltam como duplicados e são ignorados,
+ * e os que falham são movidos para o arquivo de descartados antes de o checkpoint avançar.
+ * </p>
+ */
+@Component
+public class JournalPedidos implements SmartLifecycle {
+
+    /**
+     * Valor devolvido por {@link #registrar(PedidoInputDTO)} quando o journal está desabilitado.
+     */
+    public static final long SEM_SEQUENCIA = -1;
+
+    /**
+     * Inicia antes e para depois da ingestão assíncrona: o reprocessamento termina antes de a fila
+     * aceitar pedidos, e as últimas confirmações entram no checkpoint final.
+     */
+    private static final int FASE = SmartLifecycle.DEFAULT_PHASE - 8192;
+
+    static final int TAMANHO_CABECALHO = Integer.BYTES + Integer.BYTES + Long.BYTES;
+
+    private static final String PREFIXO_SEGMENTO = "segmento-";
+
+    private static final String SUFIXO_SEGMENTO = ".journal";
+
+    private static final String ARQUIVO_CHECKPOINT = "checkpoint";
+
+    /**
+     * Entradas que a ingestão desistiu de persistir, no mesmo formato dos segmentos. Não é reprocessado.
+     */
+    private static final String ARQUIVO_DESCARTADOS = "descartados";
+
+    private static final int TAMANHO_LOTE_REPROCESSAMENTO = 500;
+
+    private final Logger logger = LoggerFactory.getLogger(JournalPedidos.class);
+
+    private final PedidoLoteService loteService;
+
+    private final boolean habilitado;
+
+    private final Path diretorio;
+
+    private final int tamanhoSegmento;
+
+    private final long intervaloForceMs;
+
+    private final boolean aguardarForce;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition forcado = lock.newCondition();
+
+    /**
+     * Serializa as gravações no arquivo de descartados, sem disputar o {@link #lock} dos appends.
+     */
+    private final ReentrantLock lockDescartados = new ReentrantLock();
+
+    /**
+     * Segmentos em disco, indexados pela primeira sequência que contêm. Protegido por {@link #lock}.
+     */
+    private final NavigableMap<Long, Path> segmentos = new TreeMap<>();
+
+    /**
+     * Sequências gravadas e ainda não confirmadas pelos workers.
+     */
+    private final ConcurrentSkipListSet<Long> pendentes = new ConcurrentSkipListSet<>();
+
+    private MappedByteBuffer segmentoAtual;
+
+    private long proximaSequencia = 1;
+
+    private long ultimaSequenciaEscrita;
+
+    private volatile long ultimaSequenciaForcada;
+
+    private volatile long checkpoint;
+
+    private Thread sincronizador;
+
+    private volatile boolean executando;
+
+    private final Timer tempoAppend;
+
+    private final Timer tempoForce;
+
+    private final Counter reprocessados;
+
+    private final Counter descartados;
+
+    public JournalPedidos(PedidoLoteService loteService,
+                          MeterRegistry meterRegistry,
+                          @Value("${pedidos.journal.habilitado:false}") boolean habilitado,
+                          @Value("${pedidos.journal.diretorio:data/journal}") Path diretorio,
+                          @Value("${pedidos.journal.tamanho-segmento:64MB}") DataSize tamanhoSegmento,
+                          @Value("${pedidos.journal.intervalo-force-ms:10}") long intervaloForceMs,
+                          @Value("${pedidos.journal.aguardar-force:false}") boolean aguardarForce) {
+        this.loteService = loteService;
+        this.habilitado = habilitado;
+        this.diretorio = diretorio;
+        this.tamanhoSegmento = Math.toIntExact(tamanhoSegmento.toBytes());
+        this.intervaloForceMs = intervaloForceMs;
+        this.aguardarForce = aguardarForce;
+
+        this.tempoAppend = Timer.builder("pedidos.journal.append")
+                .description("Tempo para gravar um pedido no segmento mapeado em memória")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.tempoForce = Timer.builder("pedidos.journal.force")
+                .description("Tempo de cada force() do group commit")
+                .register(meterRegistry);
+        this.reprocessados = Counter.builder("pedidos.journal.reprocessados")
+                .description("Pedidos do journal reprocessados na inicialização")
+                .register(meterRegistry);
+        this.descartados = Counter.builder("pedidos.journal.descartados")
+                .description("Pedidos que falharam em todas as tentativas e foram movidos para o arquivo de descartados")
+                .register(meterRegistry);
+        Gauge.builder("pedidos.journal.pendentes", pendentes, ConcurrentSkipListSet::size)
+                .description("Pedidos gravados no journal e ainda não confirmados no banco")
+                .register(meterRegistry);
+        Gauge.builder("pedidos.journal.checkpoint", this, j -> j.checkpoint)
+                .description("Maior sequência do journal com todos os pedidos anteriores confirmados")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Grava o pedido no journal.
+     *
+     * @param dto Pedido aceito pela ingestão assíncrona.
+     * @return Sequência atribuída à entrada, a ser informada em {@link #confirmar(long)},
+     * ou {@link #SEM_SEQUENCIA} se o journal estiver desabilitado.
+     */
+    public long registrar(PedidoInputDTO dto) {
+        if (!habilitado) {
+            return SEM_SEQUENCIA;
+        }
+        byte[] payload = CodecEntradaJournal.codificar(dto);
+        int tamanhoEntrada = TAMANHO_CABECALHO + payload.length;
+        if (tamanhoEntrada > tamanhoSegmento) {
+            throw new IllegalArgumentException("Pedido " + dto.getCodigoPedido() + " excede o tamanho do segmento do journal");
+        }
+
+        long inicio = System.nanoTime();
+        long sequencia;
+        lock.lock();
+        try {
+            if (segmentoAtual == null) {
+                throw new IllegalStateException("Journal de pedidos não está aberto");
+            }
+            if (segmentoAtual.remaining() < tamanhoEntrada) {
+                rolarSegmento();
+            }
+            sequencia = proximaSequencia++;
+            escreverEntrada(segmentoAtual, sequencia, payload);
+            pendentes.add(sequencia);
+            ultimaSequenciaEscrita = sequencia;
+        } finally {
+            lock.unlock();
+        }
+        tempoAppend.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+
+        if (aguardarForce) {
+            aguardarDurabilidade(sequencia);
+        }
+        return sequencia;
+    }
+
+    /**
+     * Confirma que o pedido da sequência informada não precisa mais ser reprocessado
+     * (persistido na tabela {@code pedidos} ou rejeitado definitivamente).
+     */
+    public void confirmar(long sequencia) {
+        if (sequencia != SEM_SEQUENCIA) {
+            pendentes.remove(sequencia);
+        }
+    }
+
+    /**
+     * Move o pedido para o arquivo de descartados ({@code descartados}, no diretório do journal) e confirma
+     * a sequência. Usado quando a ingestão desiste de persistir o pedido: sem a confirmação, a entrada prenderia o
+     * checkpoint e seria reprocessada a cada inicialização.
+     * <p>
+     * O arquivo é gravado com {@code force()} antes da confirmação e mantém o formato das entradas dos segmentos,
+     * para inspeção e reenvio manual.
+     * </p>
+     *
+     * @param dto Pedido descartado.
+     * @param sequencia Sequência devolvida por {@link #registrar(PedidoInputDTO)}.
+     */
+    public void descartar(PedidoInputDTO dto, long sequencia) {
+        if (sequencia == SEM_SEQUENCIA) {
+            return;
+        }
+        byte[] payload = CodecEntradaJournal.codificar(dto);
+        ByteBuffer entrada = ByteBuffer.allocate(TAMANHO_CABECALHO + payload.length);
+        escreverEntrada(entrada, sequencia, payload);
+        entrada.flip();
+        lockDescartados.lock();
+        try (FileChannel canal = FileChannel.open(diretorio.resolve(ARQUIVO_DESCARTADOS), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            while (entrada.hasRemaining()) {
+                canal.write(entrada);
+            }
+            canal.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao gravar o pedido descartado " + dto.getCodigoPedido(), e);
+        } finally {
+            lockDescartados.unlock();
+        }
+        descartados.increment();
+        confirmar(sequencia);
+    }
+
+    @Override
+    public void start() {
+        if (!habilitado) {
+            return;
+        }
+        try {
+            Files.createDirectories(diretorio);
+            long ultima = recuperar();
+            lock.lock();
+            try {
+                proximaSequencia = ultima + 1;
+                ultimaSequenciaEscrita = ultima;
+                ultimaSequenciaForcada = ultima;
+                abrirSegmento(proximaSequencia);
+            } finally {
+                lock.unlock();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao abrir o journal de pedidos em " + diretorio, e);
+        }
+        executando = true;
+        // Thread de plataforma mesmo no perfil 'virtual': force() é E/S de arquivo bloqueante e prenderia a carregadora
+        sincronizador = new Thread(this::sincronizarPeriodicamente, "pedidos-journal-sync");
+        sincronizador.setDaemon(true);
+        sincronizador.start();
+        logger.info("Journal de pedidos aberto em {} (segmentos de {} bytes, force a cada {} ms)",
+                diretorio.toAbsolutePath(), tamanhoSegmento, intervaloForceMs);
+    }
+
+    @Override
+    public void stop() {
+        if (!executando) {
+            return;
+        }
+        executando = false;
+        sincronizador.interrupt();
+        try {
+            sincronizador.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        sincronizar();
+        lock.lock();
+        try {
+            forcado.signalAll();
+            // Sem referência, o mapeamento é liberado pelo GC; novos appends são recusados
+            segmentoAtual = null;
+        } finally {
+            lock.unlock();
+        }
+        logger.info("Journal de pedidos fechado. Checkpoint: {}, pendentes: {}", checkpoint, pendentes.size());
+    }
+
+    @Override
+    public boolean isRunning() {
+        return executando;
+    }
+
+    @Override
+    public int getPhase() {
+        return FASE;
+    }
+
+    /**
+     * Executa um group commit e atualiza o checkpoint imediatamente.
+     */
+    void sincronizar() {
+        forcar();
+        atualizarCheckpoint();
+    }
+
+    private void sincronizarPeriodicamente() {
+        while (executando) {
+            try {
+                Thread.sleep(intervaloForceMs);
+            } catch (InterruptedException e) {
+                return;
+            }
+            try {
+                sincronizar();
+            } catch (RuntimeException e) {
+                logger.error("Falha na sincronização do journal de pedidos", e);
+            }
+        }
+    }
+
+    /**
+     * Executado por uma thread de cada vez: o sincronizador e, depois de encerrá-lo, o {@link #stop()}.
+     */
+    private void forcar() {
+        MappedByteBuffer segmento;
+        long alvo;
+        lock.lock();
+        try {
+            alvo = ultimaSequenciaEscrita;
+            segmento = alvo == ultimaSequenciaForcada ? null : segmentoAtual;
+        } finally {
+            lock.unlock();
+        }
+        if (segmento == null) {
+            return;
+        }
+
+        // O force() roda fora do lock: os appends continuam enquanto as páginas são gravadas
+        long inicio = System.nanoTime();
+        segmento.force();
+        tempoForce.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+
+        lock.lock();
+        try {
+            if (alvo > ultimaSequenciaForcada) {
+                ultimaSequenciaForcada = alvo;
+            }
+            forcado.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void aguardarDurabilidade(long sequencia) {
+        lock.lock();
+        try {
+            while (ultimaSequenciaForcada < sequencia && executando) {
+                forcado.await();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void atualizarCheckpoint() {
+        long novoCheckpoint;
+        lock.lock();
+        try {
+            // Iterador fracamente consistente: confirmações concorrentes não invalidam a leitura
+            Iterator<Long> menorPendente = pendentes.iterator();
+            novoCheckpoint = menorPendente.hasNext() ? menorPendente.next() - 1 : ultimaSequenciaEscrita;
+        } finally {
+            lock.unlock();
+        }
+        if (novoCheckpoint <= checkpoint) {
+            return;
+        }
+        try {
+            gravarCheckpoint(novoCheckpoint);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao gravar o checkpoint do journal", e);
+        }
+        apagarSegmentosConfirmados(novoCheckpoint);
+    }
+
+    /**
+     * Apaga os segmentos cujas entradas estão todas cobertas pelo checkpoint
+     * (a primeira sequência do segmento seguinte é no máximo {@code checkpoint + 1}).
+     */
+    private void apagarSegmentosConfirmados(long checkpointAtual) {
+        List<Path> obsoletos = new ArrayList<>();
+        lock.lock();
+        try {
+            Iterator<Map.Entry<Long, Path>> iterator = segmentos.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<Long, Path> segmento = iterator.next();
+                Long inicioSeguinte = segmentos.higherKey(segmento.getKey());
+                if (inicioSeguinte == null || inicioSeguinte - 1 > checkpointAtual) {
+                    break;
+                }
+                obsoletos.add(segmento.getValue());
+                iterator.remove();
+            }
+        } finally {
+            lock.unlock();
+        }
+        for (Path obsoleto : obsoletos) {
+            try {
+                Files.deleteIfExists(obsoleto);
+            } catch (IOException e) {
+                logger.warn("Não foi possível apagar o segmento confirmado {}", obsoleto, e);
+            }
+        }
+    }
+
+    private void gravarCheckpoint(long valor) throws IOException {
+        Path temporario = diretorio.resolve(ARQUIVO_CHECKPOINT + ".tmp");
+        try (FileChannel canal = FileChannel.open(temporario, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            canal.write(ByteBuffer.allocate(Long.BYTES).putLong(0, valor));
+            canal.force(true);
+        }
+        Files.move(temporario, diretorio.resolve(ARQUIVO_CHECKPOINT),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        checkpoint = valor;
+    }
+
+    private long lerCheckpoint() throws IOException {
+        Path arquivo = diretorio.resolve(ARQUIVO_CHECKPOINT);
+        if (!Files.exists(arquivo)) {
+            return 0;
+        }
+        return ByteBuffer.wrap(Files.readAllBytes(arquivo)).getLong();
+    }
+
+    /**
+     * Reprocessa as entradas íntegras posteriores ao checkpoint e descarta os segmentos antigos.
+     *
+     * @return A maior sequência encontrada no journal.
+     */
+    private long recuperar() throws IOException {
+        checkpoint = lerCheckpoint();
+        List<Path> arquivos;
+        try (Stream<Path> listagem = Files.list(diretorio)) {
+            arquivos = listagem
+                    .filter(p -> p.getFileName().toString().startsWith(PREFIXO_SEGMENTO))
+                    .sorted()
+                    .toList();
+        }
+
+        long ultima = checkpoint;
+        List<EntradaJournal> lote = new ArrayList<>(TAMANHO_LOTE_REPROCESSAMENTO);
+        int total = 0;
+        for (Path arquivo : arquivos) {
+            MappedByteBuffer segmento;
+            try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+                segmento = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+            }
+            // Os pedidos pendentes são decodificados para objetos próprios: o mapeamento não escapa desta iteração
+            while (segmento.remaining() >= TAMANHO_CABECALHO) {
+                int posicao = segmento.position();
+                int tamanho = segmento.getInt(posicao);
+                if (tamanho <= 0 || tamanho > segmento.remaining() - TAMANHO_CABECALHO) {
+                    break;
+                }
+                if (segmento.getInt(posicao + Integer.BYTES) != crc(segmento, posicao, tamanho)) {
+                    logger.warn("Entrada corrompida no journal {} (posição {}); descartando o restante do segmento",
+                            arquivo.getFileName(), posicao);
+                    break;
+                }
+                long sequencia = segmento.getLong(posicao + 2 * Integer.BYTES);
+                ultima = Math.max(ultima, sequencia);
+                if (sequencia > checkpoint) {
+                    lote.add(new EntradaJournal(sequencia,
+                            CodecEntradaJournal.decodificar(segmento.slice(posicao + TAMANHO_CABECALHO, tamanho))));
+                    if (lote.size() == TAMANHO_LOTE_REPROCESSAMENTO) {
+                        total += reprocessar(lote);
+                    }
+                }
+                segmento.position(posicao + TAMANHO_CABECALHO + tamanho);
+            }
+        }
+        total += reprocessar(lote);
+
+        if (ultima > checkpoint) {
+            gravarCheckpoint(ultima);
+        }
+        for (Path arquivo : arquivos) {
+            Files.delete(arquivo);
+        }
+        if (total > 0) {
+            logger.info("Journal de pedidos: {} pedidos reprocessados após o checkpoint {}", total, checkpoint);
+        }
+        return ultima;
+    }
+
+    /**
+     * Reprocessa um bloco de entradas. As que falham vão para os descartados com {@code force()}; uma falha ao
+     * gravá-las interrompe a inicialização antes de o checkpoint avançar e de os segmentos serem apagados.
+     */
+    private int reprocessar(List<EntradaJournal> lote) {
+        if (lote.isEmpty()) {
+            return 0;
+        }
+        List<ResultadoLoteDTO> resultados = loteService.registrarLote(lote.stream().map(EntradaJournal::dto).toList());
+        for (ResultadoLoteDTO resultado : resultados) {
+            if (resultado.getSituacao() == SituacaoLote.FALHA) {
+                EntradaJournal entrada = lote.get(resultado.getIndice());
+                logger.error("Pedido {} do journal não pôde ser reprocessado e foi movido para os descartados: {}",
+                        resultado.getCodigoPedido(), resultado.getMensagem());
+                descartar(entrada.dto(), entrada.sequencia());
+            }
+        }
+        int quantidade = lote.size();
+        reprocessados.increment(quantidade);
+        lote.clear();
+        return quantidade;
+    }
+
+    /**
+     * Deve ser chamado com {@link #lock} adquirido.
+     */
+    private void rolarSegmento() {
+        // Após o force(), o segmento rolado só é referenciado por um force() em andamento; o GC libera o mapeamento
+        segmentoAtual.force();
+        ultimaSequenciaForcada = ultimaSequenciaEscrita;
+        try {
+            abrirSegmento(proximaSequencia);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao abrir novo segmento do journal", e);
+        }
+    }
+
+    /**
+     * Deve ser chamado com {@link #lock} adquirido.
+     */
+    private void abrirSegmento(long primeiraSequencia) throws IOException {
+        Path arquivo = diretorio.resolve(String.format("%s%020d%s", PREFIXO_SEGMENTO, primeiraSequencia, SUFIXO_SEGMENTO));
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // O mapeamento permanece válido após o fechamento do canal
+            segmentoAtual = canal.map(FileChannel.MapMode.READ_WRITE, 0, tamanhoSegmento);
+        }
+        segmentos.put(primeiraSequencia, arquivo);
+    }
+
+    /**
+     * Grava sequência e payload e, por último, o CRC e o tamanho: uma entrada interrompida no meio
+     * fica com tamanho zero ou CRC divergente e é descartada na recuperação.
+     */
+    private static void escreverEntrada(ByteBuffer segmento, long sequencia, byte[] payload) {
+        int posicao = segmento.position();
+        segmento.putLong(posicao + 2 * Integer.BYTES, sequencia);
+        segmento.put(posicao + TAMANHO_CABECALHO, payload);
+        segmento.putInt(posicao + Integer.BYTES, crc(segmento, posicao, payload.length));
+        segmento.putInt(posicao, payload.length);
+        segmento.position(posicao + TAMANHO_CABECALHO + payload.length);
+    }
+
+    /**
+     * Entrada lida de um segmento durante a recuperação.
+     */
+    private record EntradaJournal(long sequencia, PedidoInputDTO dto) {
+    }
+
+    private static int crc(ByteBuffer segmento, int posicaoEntrada, int tamanhoPayload) {
+        CRC32C crc = new CRC32C();
+        crc.update(segmento.slice(posicaoEntrada + 2 * Integer.BYTES, Long.BYTES + tamanhoPayload));
+        return (int) crc.getValue();
+    }
+}
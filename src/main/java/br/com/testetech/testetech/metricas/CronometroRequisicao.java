@@ -0,0 +1,86 @@
+package br.com.testetech.testetech.metricas;
+
+import java.util.Locale;
+
+/**
+ * Acumula, na thread da requisição HTTP corrente, o tempo gasto em cada etapa do registro e
+ * na espera por conexões do pool, para correlacioná-los com a requisição no cabeçalho {@code Server-Timing}.
+ * <p>
+ * Só acumula entre {@link #iniciar()} e {@link #encerrar()} (chamados por {@link FiltroCronometroRequisicao});
+ * fora de uma requisição (workers, lotes, inicialização) as chamadas são ignoradas.
+ * </p>
+ */
+public final class CronometroRequisicao {
+
+    private static final ThreadLocal<CronometroRequisicao> ATUAL = new ThreadLocal<>();
+
+    private final long[] etapasNanos = new long[EtapaRegistro.values().length];
+
+    private long esperaPoolNanos;
+
+    private int conexoes;
+
+    private CronometroRequisicao() {
+    }
+
+    static void iniciar() {
+        ATUAL.set(new CronometroRequisicao());
+    }
+
+    static CronometroRequisicao encerrar() {
+        CronometroRequisicao cronometro = ATUAL.get();
+        ATUAL.remove();
+        return cronometro;
+    }
+
+    static CronometroRequisicao atual() {
+        return ATUAL.get();
+    }
+
+    static void acumularEtapa(EtapaRegistro etapa, long nanos) {
+        CronometroRequisicao cronometro = ATUAL.get();
+        if (cronometro != null) {
+            cronometro.etapasNanos[etapa.ordinal()] += nanos;
+        }
+    }
+
+    static void acumularEsperaPool(long nanos) {
+        CronometroRequisicao cronometro = ATUAL.get();
+        if (cronometro != null) {
+            cronometro.esperaPoolNanos += nanos;
+            cronometro.conexoes++;
+        }
+    }
+
+    long getEsperaPoolNanos() {
+        return esperaPoolNanos;
+    }
+
+    int getConexoes() {
+        return conexoes;
+    }
+
+    /**
+     * @return Valor do cabeçalho {@code Server-Timing} (durações em milissegundos), ou {@code null} se nada foi medido.
+     */
+    String serverTiming() {
+        StringBuilder valor = new StringBuilder();
+        for (EtapaRegistro etapa : EtapaRegistro.values()) {
+            long nanos = etapasNanos[etapa.ordinal()];
+            if (nanos > 0) {
+                adicionar(valor, etapa.getNome(), nanos);
+            }
+        }
+        if (conexoes > 0) {
+            adicionar(valor, "pool", esperaPoolNanos);
+        }
+        return valor.isEmpty() ? null : valor.toString();
+    }
+
+    private static void adicionar(StringBuilder valor, String nome, long nanos) {
+        if (!valor.isEmpty()) {
+            valor.append(", ");
+        }
+        valor.append(nome).append(";dur=").append(String.format(Locale.ROOT, "%.3f", nanos / 1_000_000.0));
+    }
+}
@@ -0,0 +1,42 @@
+package br.com.testetech.testetech.metricas;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * {@link DataSource} que cronometra a obtenção de conexões do pool (HikariCP) e atribui
+ * a espera à requisição HTTP corrente via {@link CronometroRequisicao}.
+ * <p>
+ * O Hikari já publica a espera agregada ({@code hikaricp.connections.acquire}); este invólucro
+ * permite saber quanto dela pertence a cada requisição.
+ * </p>
+ */
+public class DataSourceCronometrado extends DelegatingDataSource {
+
+    public DataSourceCronometrado(DataSource alvo) {
+        super(alvo);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long inicio = System.nanoTime();
+        try {
+            return super.getConnection();
+        } finally {
+            CronometroRequisicao.acumularEsperaPool(System.nanoTime() - inicio);
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        long inicio = System.nanoTime();
+        try {
+            return super.getConnection(username, password);
+        } finally {
+            CronometroRequisicao.acumularEsperaPool(System.nanoTime() - inicio);
+        }
+    }
+}
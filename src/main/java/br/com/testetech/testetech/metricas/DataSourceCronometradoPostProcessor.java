@@ -0,0 +1,32 @@
+package br.com.testetech.testetech.metricas;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Envolve o {@link DataSource} da aplicação em um {@link DataSourceCronometrado} após sua inicialização,
+ * preservando a auto-configuração do pool e suas métricas {@code hikaricp.*}.
+ * <p>
+ * É aplicado antes dos demais invólucros (ex: roteamento de leitura com obtenção tardia da conexão), para
+ * continuar medindo a espera real do pool.
+ * </p>
+ */
+@Component
+class DataSourceCronometradoPostProcessor implements BeanPostProcessor, Ordered {
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof DataSourceCronometrado)) {
+            return new DataSourceCronometrado(dataSource);
+        }
+        return bean;
+    }
+}
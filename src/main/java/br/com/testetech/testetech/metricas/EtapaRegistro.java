@@ -0,0 +1,46 @@
+package br.com.testetech.testetech.metricas;
+
+/**
+ * Etapas cronometradas do registro unitário de pedidos ({@code PedidoService#registrarPedido}).
+ * <p>
+ * O nome de cada etapa é usado como valor da tag {@code etapa} do timer {@code pedidos.registro.etapa}
+ * e como métrica do cabeçalho {@code Server-Timing} da resposta.
+ * </p>
+ */
+public enum EtapaRegistro {
+
+    /**
+     * Filtro de Bloom e, quando necessário, a consulta de existência do código.
+     */
+    DEDUPLICACAO("deduplicacao"),
+
+    /**
+     * Conversão do DTO de entrada na entidade {@code Pedido} com seus itens (codificados, no armazenamento compacto).
+     */
+    MAPEAMENTO("mapeamento"),
+
+    /**
+     * Redução do valor total dos itens.
+     */
+    CALCULO_TOTAL("calculo_total"),
+
+    /**
+     * {@code saveAndFlush}: INSERTs do pedido e dos itens.
+     */
+    PERSISTENCIA("persistencia"),
+
+    /**
+     * Confirmação da transação no banco.
+     */
+    COMMIT("commit");
+
+    private final String nome;
+
+    EtapaRegistro(String nome) {
+        this.nome = nome;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+}
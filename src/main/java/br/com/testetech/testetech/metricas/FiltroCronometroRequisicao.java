@@ -0,0 +1,49 @@
+package br.com.testetech.testetech.metricas;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Delimita a janela de medição de cada requisição HTTP para o {@link CronometroRequisicao}
+ * e, ao final, publica a espera por conexões do pool da requisição no timer
+ * {@code pedidos.requisicao.pool.espera} (tags {@code method} e {@code uri}, como em {@code http.server.requests}).
+ */
+@Component
+class FiltroCronometroRequisicao extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+
+    FiltroCronometroRequisicao(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        CronometroRequisicao.iniciar();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            CronometroRequisicao cronometro = CronometroRequisicao.encerrar();
+            if (cronometro != null && cronometro.getConexoes() > 0) {
+                Object padrao = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                Timer.builder("pedidos.requisicao.pool.espera")
+                        .description("Espera por conexões do pool acumulada por requisição HTTP")
+                        .tag("method", request.getMethod())
+                        .tag("uri", padrao != null ? padrao.toString() : "UNKNOWN")
+                        .register(meterRegistry)
+                        .record(cronometro.getEsperaPoolNanos(), TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+}
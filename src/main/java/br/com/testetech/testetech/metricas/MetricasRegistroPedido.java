@@ -0,0 +1,120 @@
+package br.com.testetech.testetech.metricas;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Superfície de instrumentação do registro unitário de pedidos.
+ * <p>
+ * Cada {@link EtapaRegistro} tem um timer {@code pedidos.registro.etapa} (tag {@code etapa}) com histograma
+ * de percentis e os buckets de SLO de {@code pedidos.metricas.slo}, exportado pelo endpoint
+ * {@code /actuator/metrics}. O custo por medição é uma leitura de {@link System#nanoTime()} e um registro
+ * em histograma sem bloqueio, baixo o bastante para permanecer ativo em produção.
+ * </p>
+ * <p>
+ * Também concentra os contadores de duplicidade ({@code pedidos.duplicados}, tag {@code deteccao}) e de
+ * conflitos de concorrência ({@code pedidos.conflitos.concorrencia}).
+ * </p>
+ */
+@Component
+public class MetricasRegistroPedido {
+
+    private final Map<EtapaRegistro, Timer> timersEtapa = new EnumMap<>(EtapaRegistro.class);
+
+    private final Counter duplicadosConsulta;
+
+    private final Counter duplicadosIndice;
+
+    private final Counter conflitosConcorrencia;
+
+    public MetricasRegistroPedido(MeterRegistry meterRegistry,
+                                  @Value("${pedidos.metricas.slo:1ms,5ms,10ms,25ms,50ms,100ms,250ms,500ms,1s}") Duration[] slo,
+                                  @Value("${pedidos.metricas.histograma-percentis:true}") boolean histogramaPercentis) {
+        for (EtapaRegistro etapa : EtapaRegistro.values()) {
+            timersEtapa.put(etapa, Timer.builder("pedidos.registro.etapa")
+                    .description("Tempo de cada etapa do registro unitário de pedidos")
+                    .tag("etapa", etapa.getNome())
+                    .publishPercentileHistogram(histogramaPercentis)
+                    .serviceLevelObjectives(slo)
+                    .minimumExpectedValue(Duration.ofNanos(100_000))
+                    .maximumExpectedValue(Duration.ofSeconds(10))
+                    .register(meterRegistry));
+        }
+        this.duplicadosConsulta = Counter.builder("pedidos.duplicados")
+                .description("Pedidos rejeitados por código já existente")
+                .tag("deteccao", "consulta")
+                .register(meterRegistry);
+        this.duplicadosIndice = Counter.builder("pedidos.duplicados")
+                .description("Pedidos rejeitados por código já existente")
+                .tag("deteccao", "indice_unico")
+                .register(meterRegistry);
+        this.conflitosConcorrencia = Counter.builder("pedidos.conflitos.concorrencia")
+                .description("Requisições concorrentes com o mesmo código que passaram pela verificação prévia")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Executa e cronometra uma etapa.
+     */
+    public <T> T medir(EtapaRegistro etapa, Supplier<T> execucao) {
+        long inicio = System.nanoTime();
+        try {
+            return execucao.get();
+        } finally {
+            registrar(etapa, System.nanoTime() - inicio);
+        }
+    }
+
+    /**
+     * Cronometra a confirmação da transação corrente, do início do commit até sua conclusão.
+     * Sem transação ativa (ex: testes unitários), nada é medido.
+     */
+    public void medirCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private long inicio;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                inicio = System.nanoTime();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (inicio != 0 && status == STATUS_COMMITTED) {
+                    registrar(EtapaRegistro.COMMIT, System.nanoTime() - inicio);
+                }
+            }
+        });
+    }
+
+    public void duplicadoPorConsulta() {
+        duplicadosConsulta.increment();
+    }
+
+    public void duplicadoPorIndiceUnico() {
+        duplicadosIndice.increment();
+    }
+
+    public void conflitoConcorrencia() {
+        conflitosConcorrencia.increment();
+    }
+
+    private void registrar(EtapaRegistro etapa, long nanos) {
+        timersEtapa.get(etapa).record(nanos, TimeUnit.NANOSECONDS);
+        CronometroRequisicao.acumularEtapa(etapa, nanos);
+    }
+}
@@ -0,0 +1,34 @@
+package br.com.testetech.testetech.metricas;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Expõe ao cliente, no cabeçalho {@code Server-Timing}, o tempo das etapas do registro e da espera
+ * pelo pool acumulados pela requisição, antes da escrita do corpo (quando os cabeçalhos ainda podem ser alterados).
+ */
+@ControllerAdvice
+class ServerTimingAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        CronometroRequisicao cronometro = CronometroRequisicao.atual();
+        String valor = cronometro != null ? cronometro.serverTiming() : null;
+        if (valor != null) {
+            response.getHeaders().add("Server-Timing", valor);
+        }
+        return body;
+    }
+}
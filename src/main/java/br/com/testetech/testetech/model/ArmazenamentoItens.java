@@ -0,0 +1,19 @@
+package br.com.testetech.testetech.model;
+
+/**
+ * Layout de gravação dos itens de novos pedidos, selecionado pela propriedade {@code pedidos.itens.armazenamento}.
+ * A leitura independe do layout configurado: pedidos gravados nos dois layouts convivem no mesmo banco.
+ */
+public enum ArmazenamentoItens {
+
+    /**
+     * Uma linha em {@code itens_pedido} por item (com ID da sequence e entrada no índice por {@code pedido_id}).
+     */
+    NORMALIZADO,
+
+    /**
+     * Itens codificados por {@link CodecItensPedido} na coluna {@code pedidos.itens_compactos}: o pedido inteiro é
+     * gravado e lido em uma única linha. Os itens deixam de ser consultáveis por SQL.
+     */
+    COMPACTO
+}
@@ -0,0 +1,136 @@
+package br.com.testetech.testetech.model;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Codificação colunar dos itens de um pedido para a coluna {@code pedidos.itens_compactos}
+ * ({@link ArmazenamentoItens#COMPACTO}).
+ * <p>
+ * Formato: um byte de formato, a quantidade de itens e as três "colunas" em sequência: os tamanhos dos produtos
+ * seguidos dos seus bytes UTF-8 concatenados, os valores unitários não escalados e as quantidades. Inteiros são
+ * gravados como varint (7 bits por byte) e os valores com zigzag, de modo que um item típico ocupa o tamanho do
+ * produto mais 3 a 5 bytes. Os valores são gravados na escala de {@code itens_pedido.valor_unitario}
+ * ({@code numeric(38,2)}, HALF_UP), para que a leitura devolva exatamente o que o layout normalizado devolveria;
+ * se algum não couber em um {@code long}, a coluna inteira usa o valor não escalado em bytes.
+ * </p>
+ */
+public final class CodecItensPedido {
+
+    /**
+     * Construtor do item decodificado (ex: {@code PedidoItem::new}, {@code ItemResumoDTO::new}).
+     */
+    @FunctionalInterface
+    public interface FabricaItem<T> {
+        T criar(String produtoId, BigDecimal valorUnitario, Integer quantidade);
+    }
+
+    private static final byte FORMATO_LONG = 1;
+
+    private static final byte FORMATO_BIG_INTEGER = 2;
+
+    private static final int ESCALA = 2;
+
+    private CodecItensPedido() {
+    }
+
+    public static byte[] codificar(List<PedidoItem> items) {
+        int quantidade = items.size();
+        byte[][] produtos = new byte[quantidade][];
+        BigInteger[] valores = new BigInteger[quantidade];
+        boolean cabemEmLong = true;
+        int tamanhoProdutos = 0;
+        for (int i = 0; i < quantidade; i++) {
+            PedidoItem item = items.get(i);
+            produtos[i] = item.getProdutoId().getBytes(StandardCharsets.UTF_8);
+            tamanhoProdutos += produtos[i].length;
+            valores[i] = item.getValorUnitario().setScale(ESCALA, RoundingMode.HALF_UP).unscaledValue();
+            cabemEmLong &= valores[i].bitLength() < Long.SIZE;
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(8 + tamanhoProdutos + 8 * quantidade);
+        out.write(cabemEmLong ? FORMATO_LONG : FORMATO_BIG_INTEGER);
+        escreverVarint(out, quantidade);
+        for (byte[] produto : produtos) {
+            escreverVarint(out, produto.length);
+        }
+        for (byte[] produto : produtos) {
+            out.writeBytes(produto);
+        }
+        for (BigInteger valor : valores) {
+            if (cabemEmLong) {
+                long v = valor.longValue();
+                escreverVarint(out, (v << 1) ^ (v >> 63));
+            } else {
+                byte[] bytes = valor.toByteArray();
+                escreverVarint(out, bytes.length);
+                out.writeBytes(bytes);
+            }
+        }
+        for (PedidoItem item : items) {
+            int q = item.getQuantidade();
+            escreverVarint(out, Integer.toUnsignedLong((q << 1) ^ (q >> 31)));
+        }
+        return out.toByteArray();
+    }
+
+    public static <T> List<T> decodificar(byte[] dados, FabricaItem<T> fabrica) {
+        ByteBuffer in = ByteBuffer.wrap(dados);
+        byte formato = in.get();
+        if (formato != FORMATO_LONG && formato != FORMATO_BIG_INTEGER) {
+            throw new IllegalArgumentException("Formato de itens compactos desconhecido: " + formato);
+        }
+        int quantidade = (int) lerVarint(in);
+        int[] tamanhos = new int[quantidade];
+        for (int i = 0; i < quantidade; i++) {
+            tamanhos[i] = (int) lerVarint(in);
+        }
+        String[] produtos = new String[quantidade];
+        for (int i = 0; i < quantidade; i++) {
+            produtos[i] = new String(dados, in.position(), tamanhos[i], StandardCharsets.UTF_8);
+            in.position(in.position() + tamanhos[i]);
+        }
+        BigDecimal[] valores = new BigDecimal[quantidade];
+        for (int i = 0; i < quantidade; i++) {
+            if (formato == FORMATO_LONG) {
+                long v = lerVarint(in);
+                valores[i] = BigDecimal.valueOf((v >>> 1) ^ -(v & 1), ESCALA);
+            } else {
+                byte[] bytes = new byte[(int) lerVarint(in)];
+                in.get(bytes);
+                valores[i] = new BigDecimal(new BigInteger(bytes), ESCALA);
+            }
+        }
+        List<T> items = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            int q = (int) lerVarint(in);
+            items.add(fabrica.criar(produtos[i], valores[i], (q >>> 1) ^ -(q & 1)));
+        }
+        return items;
+    }
+
+    private static void escreverVarint(ByteArrayOutputStream out, long valor) {
+        while ((valor & ~0x7FL) != 0) {
+            out.write((int) (valor & 0x7F) | 0x80);
+            valor >>>= 7;
+        }
+        out.write((int) valor);
+    }
+
+    private static long lerVarint(ByteBuffer in) {
+        long valor = 0;
+        for (int deslocamento = 0; ; deslocamento += 7) {
+            byte b = in.get();
+            valor |= (long) (b & 0x7F) << deslocamento;
+            if (b >= 0) {
+                return valor;
+            }
+        }
+    }
+}
@@ -3,6 +3,8 @@ package br.com.testetech.testetech.model;
 import jakarta.persistence.*;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -10,39 +12,69 @@ import java.util.List;
  * <p>
  * Mapeada para a tabela 'pedidos', esta classe é a raiz do agregado de pedidos,
  * gerenciando o ciclo de vida dos itens associados através de cascata (CascadeType.ALL).
- * Possui índice único para garantir a integridade de códigos externos.
+ * Possui índice único para garantir a integridade de códigos externos e um índice composto
+ * em (data_criacao, id) que sustenta a paginação por cursor (keyset) da listagem.
+ * </p>
+ * <p>
+ * No armazenamento {@link ArmazenamentoItens#COMPACTO} ({@link #compactarItens()}), os itens são gravados na
+ * coluna {@code itens_compactos} em vez de em 'itens_pedido'; {@link #getItems()} devolve os itens nos dois casos.
  * </p>
  */
 @Entity
 @Table(name = "pedidos", indexes = {
-        @Index(name = "idx_codigo_pedido", columnList = "codigo_pedido", unique = true)
+        @Index(name = "idx_codigo_pedido", columnList = "codigo_pedido", unique = true),
+        @Index(name = "idx_pedidos_data_criacao_id", columnList = "data_criacao DESC, id DESC")
 })
 public class Pedido {
 
     /**
-     * Identificador técnico gerado automaticamente pelo banco.
+     * Identificador técnico gerado a partir da sequence 'pedidos_seq'.
      * Uso exclusivo para integridade referencial interna.
+     * <p>
+     * A alocação em blocos (pooled, {@code allocationSize = 50}) permite que o Hibernate conheça o ID
+     * antes do INSERT, viabilizando o agrupamento dos INSERTs em batches JDBC
+     * (o que é impossível com {@code GenerationType.IDENTITY}).
+     * </p>
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pedidos_seq")
+    @SequenceGenerator(name = "pedidos_seq", sequenceName = "pedidos_seq", allocationSize = 50)
     private Long id;
 
     /**
      * Código de negócio (Business Key) recebido do sistema externo.
-     * Este campo possui restrição de unicidade (unique constraint) para evitar duplicidade de pedidos.
+     * A unicidade é garantida exclusivamente pelo índice único {@code idx_codigo_pedido}, declarado na tabela;
+     * um {@code unique = true} aqui criaria uma segunda estrutura redundante, mantida a cada INSERT.
      */
-    @Column(name = "codigo_pedido", nullable = false, unique = true)
+    @Column(name = "codigo_pedido", nullable = false)
     private String codigoPedido;
 
     /**
      * Lista de itens que compõem o pedido.
      * Configurada com FetchType.LAZY para performance e CascadeType.ALL para
      * que os itens sejam persistidos/removidos automaticamente junto com o pedido.
+     * <p>
+     * O relacionamento é bidirecional ({@code mappedBy}): a coluna 'pedido_id' é preenchida
+     * pelo próprio INSERT do item, eliminando os UPDATEs extras do mapeamento unidirecional.
+     * </p>
      */
-    @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
-    @JoinColumn(name = "pedido_id")
+    @OneToMany(mappedBy = "pedido", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<PedidoItem> items;
 
+    /**
+     * Itens codificados por {@link CodecItensPedido} no armazenamento compacto; nulo quando os itens estão
+     * em 'itens_pedido'.
+     */
+    @Column(name = "itens_compactos", length = 1_000_000)
+    private byte[] itensCompactos;
+
+    /**
+     * Itens de um pedido compactado (a coleção mapeada fica vazia): os originais, logo após
+     * {@link #compactarItens()}, ou os decodificados da coluna no primeiro acesso.
+     */
+    @Transient
+    private List<PedidoItem> itensEmbutidos;
+
     /**
      * Valor total calculado do pedido. Armazenado para evitar recálculos em consultas de leitura.
      */
@@ -54,6 +86,7 @@ public class Pedido {
     /**
      * Data de recebimento/criação do registro no banco de dados.
      */
+    @Column(name = "data_criacao")
     private LocalDateTime dataCriacao;
 
 
@@ -62,7 +95,7 @@ public class Pedido {
     public Pedido(Long id, String codigoPedido, List<PedidoItem> items, BigDecimal valorTotal, PedidoStatus status, LocalDateTime dataCriacao) {
         this.id = id;
         this.codigoPedido = codigoPedido;
-        this.items = items;
+        setItems(items);
         this.valorTotal = valorTotal;
         this.status = status;
         this.dataCriacao = dataCriacao;
@@ -85,12 +118,45 @@ public class Pedido {
         this.codigoPedido = codigoPedido;
     }
 
+    /**
+     * @return Os itens do pedido, independentemente do armazenamento.
+     */
     public List<PedidoItem> getItems() {
-        return items;
+        if (itensCompactos == null) {
+            return items;
+        }
+        if (itensEmbutidos == null) {
+            itensEmbutidos = CodecItensPedido.decodificar(itensCompactos, PedidoItem::new);
+            itensEmbutidos.forEach(item -> item.setPedido(this));
+        }
+        return itensEmbutidos;
     }
 
+    /**
+     * Define os itens do pedido, mantendo o lado {@link PedidoItem#getPedido()} do relacionamento sincronizado.
+     * Os itens passam ao armazenamento normalizado.
+     */
     public void setItems(List<PedidoItem> items) {
         this.items = items;
+        this.itensCompactos = null;
+        this.itensEmbutidos = null;
+        if (items != null) {
+            items.forEach(item -> item.setPedido(this));
+        }
+    }
+
+    /**
+     * Passa os itens ao armazenamento compacto: codifica-os em {@code itens_compactos} e esvazia a coleção
+     * mapeada, para que nenhuma linha seja gravada em 'itens_pedido'. Deve ser chamado antes da persistência.
+     */
+    public void compactarItens() {
+        itensCompactos = CodecItensPedido.codificar(items);
+        itensEmbutidos = items;
+        items = new ArrayList<>();
+    }
+
+    public byte[] getItensCompactos() {
+        return itensCompactos;
     }
 
     public PedidoStatus getStatus() {
@@ -121,9 +187,13 @@ public class Pedido {
      * Callback de ciclo de vida do JPA executado antes da persistência.
      * Garante que a data de criação seja sempre preenchida automaticamente pelo servidor,
      * independente da origem da requisição.
+     * <p>
+     * O valor é truncado em microssegundos (precisão da coluna TIMESTAMP) para que a instância
+     * em memória seja idêntica à lida do banco, condição para cursores de paginação consistentes.
+     * </p>
      */
     @PrePersist
     public void prePersist() {
-        this.dataCriacao = LocalDateTime.now();
+        this.dataCriacao = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
     }
 }
\ No newline at end of file
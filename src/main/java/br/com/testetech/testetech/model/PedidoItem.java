@@ -1,5 +1,6 @@
 package br.com.testetech.testetech.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import java.math.BigDecimal;
 
@@ -11,13 +12,25 @@ import java.math.BigDecimal;
  * </p>
  */
 @Entity
-@Table(name = "itens_pedido")
+@Table(name = "itens_pedido", indexes = {
+        @Index(name = "idx_itens_pedido_pedido_id", columnList = "pedido_id")
+})
 public class PedidoItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "itens_pedido_seq")
+    @SequenceGenerator(name = "itens_pedido_seq", sequenceName = "itens_pedido_seq", allocationSize = 50)
     private Long id;
 
+    /**
+     * Pedido ao qual o item pertence (lado dono do relacionamento).
+     * Ignorado na serialização JSON para evitar referência cíclica com {@link Pedido#getItems()}.
+     */
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "pedido_id", nullable = false)
+    @JsonIgnore
+    private Pedido pedido;
+
     /**
      * Identificador lógico ou SKU do produto adquirido.
      */
@@ -52,6 +65,14 @@ public class PedidoItem {
         this.id = id;
     }
 
+    public Pedido getPedido() {
+        return pedido;
+    }
+
+    public void setPedido(Pedido pedido) {
+        this.pedido = pedido;
+    }
+
     public String getProdutoId() {
         return produtoId;
     }
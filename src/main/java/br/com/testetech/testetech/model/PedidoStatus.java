@@ -9,6 +9,7 @@ public enum PedidoStatus {
     /**
      * Estado inicial indicando que a requisição foi recebida pela API,
      * mas ainda aguarda processamento ou validação de regras de negócio.
+     * Existe apenas em memória, para pedidos na fila da ingestão assíncrona: nunca é persistido.
      */
     RECEBIDO,
 
@@ -0,0 +1,176 @@
+package br.com.testetech.testetech.replica;
+
+import br.com.testetech.testetech.sharding.ShardsPedidos;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede a posição de cada réplica mantida pelo próprio banco e a informa ao {@link RoteamentoLeitura}.
+ * <p>
+ * A cada {@code pedidos.replica.batimento.intervalo}, grava no primário de cada shard uma linha de batimento
+ * (tabela {@code replica_batimento}, uma linha por instância) com uma sequência crescente, anotando o instante
+ * anterior à gravação. Em seguida lê a linha na réplica: se ela já contém a sequência {@code n}, contém também
+ * tudo o que foi confirmado no primário antes do instante de {@code n}, já que a replicação aplica as transações
+ * na ordem do primário. O instante confirmado é o menor entre os shards.
+ * </p>
+ * <p>
+ * O atraso medido é, no mínimo, o intervalo do batimento; ele deve ficar bem abaixo de
+ * {@code pedidos.replica.atraso-maximo}. Substituído pelo {@link ReplicadorH2} nos testes locais.
+ * </p>
+ */
+class BatimentoReplica implements SmartLifecycle {
+
+    private final Logger logger = LoggerFactory.getLogger(BatimentoReplica.class);
+
+    private final DataSource primario;
+
+    private final ReplicasLeitura replicas;
+
+    private final ShardsPedidos shards;
+
+    private final RoteamentoLeitura roteamento;
+
+    private final Duration intervalo;
+
+    private final String instancia = UUID.randomUUID().toString();
+
+    /**
+     * Instante ({@link System#nanoTime()}) anterior à gravação de cada sequência ainda não vista em todas as réplicas.
+     */
+    private final ConcurrentSkipListMap<Long, Long> enviados = new ConcurrentSkipListMap<>();
+
+    /**
+     * Maior sequência lida na réplica de cada shard. Acessado somente pela thread do agendador.
+     */
+    private final long[] vistas;
+
+    private long sequencia;
+
+    private ScheduledExecutorService agendador;
+
+    private volatile boolean executando;
+
+    BatimentoReplica(DataSource primario, ReplicasLeitura replicas, ShardsPedidos shards, RoteamentoLeitura roteamento,
+                     Duration intervalo) {
+        this.primario = primario;
+        this.replicas = replicas;
+        this.shards = shards;
+        this.roteamento = roteamento;
+        this.intervalo = intervalo;
+        this.vistas = new long[shards.getQuantidade()];
+    }
+
+    @Override
+    public void start() {
+        shards.paraCadaShard(shard -> executarNoPrimario("""
+                create table if not exists replica_batimento (
+                    instancia varchar(36) primary key,
+                    sequencia bigint not null)""", shard));
+        agendador = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                .name("replica-batimento")
+                .daemon(true)
+                .factory());
+        agendador.scheduleWithFixedDelay(this::bater, intervalo.toMillis(), intervalo.toMillis(), TimeUnit.MILLISECONDS);
+        executando = true;
+        logger.info("Batimento das réplicas a cada {} ms (instância {})", intervalo.toMillis(), instancia);
+    }
+
+    @Override
+    public void stop() {
+        executando = false;
+        if (agendador != null) {
+            agendador.shutdownNow();
+        }
+        try {
+            shards.paraCadaShard(shard -> executarNoPrimario(
+                    "delete from replica_batimento where instancia = '" + instancia + "'", shard));
+        } catch (RuntimeException e) {
+            logger.warn("Não foi possível remover a linha de batimento da instância {}", instancia, e);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return executando;
+    }
+
+    /**
+     * Um ciclo: lê a posição de cada réplica, confirma o instante correspondente e grava o próximo batimento.
+     */
+    void bater() {
+        try {
+            for (int shard = 0; shard < vistas.length; shard++) {
+                vistas[shard] = Math.max(vistas[shard], lerNaReplica(shard));
+            }
+            long menorVista = Arrays.stream(vistas).min().orElse(0);
+            Long instante = enviados.get(menorVista);
+            if (instante != null) {
+                roteamento.confirmarReplicacao(instante);
+                enviados.headMap(menorVista).clear();
+            }
+
+            long proxima = ++sequencia;
+            enviados.put(proxima, System.nanoTime());
+            shards.paraCadaShard(shard -> gravarNoPrimario(proxima, shard));
+        } catch (RuntimeException e) {
+            logger.warn("Falha no batimento das réplicas; a posição confirmada não avança", e);
+        }
+    }
+
+    private long lerNaReplica(int shard) {
+        try (Connection conexao = replicas.pool(shard).getConnection();
+             PreparedStatement consulta = conexao.prepareStatement(
+                     "select sequencia from replica_batimento where instancia = ?")) {
+            consulta.setString(1, instancia);
+            try (ResultSet resultado = consulta.executeQuery()) {
+                return resultado.next() ? resultado.getLong(1) : 0;
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Falha ao ler o batimento na réplica do shard " + shard, e);
+        }
+    }
+
+    private void gravarNoPrimario(long valor, int shard) {
+        try (Connection conexao = primario.getConnection();
+             PreparedStatement atualizar = conexao.prepareStatement(
+                     "update replica_batimento set sequencia = ? where instancia = ?")) {
+            conexao.setAutoCommit(true);
+            atualizar.setLong(1, valor);
+            atualizar.setString(2, instancia);
+            if (atualizar.executeUpdate() == 0) {
+                try (PreparedStatement inserir = conexao.prepareStatement(
+                        "insert into replica_batimento (instancia, sequencia) values (?, ?)")) {
+                    inserir.setString(1, instancia);
+                    inserir.setLong(2, valor);
+                    inserir.executeUpdate();
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Falha ao gravar o batimento no primário do shard " + shard, e);
+        }
+    }
+
+    private void executarNoPrimario(String sql, int shard) {
+        try (Connection conexao = primario.getConnection(); Statement comando = conexao.createStatement()) {
+            conexao.setAutoCommit(true);
+            comando.execute(sql);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Falha ao executar no primário do shard " + shard + ": " + sql, e);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package br.com.testetech.testetech.replica;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * {@link DataSource} das transações somente leitura: entrega a conexão da réplica ou, quando o
+ * {@link RoteamentoLeitura} assim decidir, a do primário.
+ */
+class DataSourceLeitura extends AbstractRoutingDataSource {
+
+    private final RoteamentoLeitura roteamento;
+
+    DataSourceLeitura(DataSource primario, DataSource replica, RoteamentoLeitura roteamento) {
+        this.roteamento = roteamento;
+        setTargetDataSources(Map.of(RoteamentoLeitura.Destino.PRIMARIO, primario, RoteamentoLeitura.Destino.REPLICA, replica));
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return roteamento.destinoLeitura();
+    }
+}
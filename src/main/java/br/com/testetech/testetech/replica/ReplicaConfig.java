@@ -0,0 +1,76 @@
+package br.com.testetech.testetech.replica;
+
+import br.com.testetech.testetech.model.ArmazenamentoItens;
+import br.com.testetech.testetech.sharding.ShardsConfig;
+import br.com.testetech.testetech.sharding.ShardsPedidos;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ativa o roteamento das transações somente leitura para as réplicas de {@code pedidos.replica.urls}, uma por
+ * shard (na ordem de {@code pedidos.sharding.urls}) ou uma única réplica sem particionamento.
+ * <p>
+ * Usuário, senha e driver vêm de {@code spring.datasource.*}. Cada pool publica as métricas {@code hikaricp.*}
+ * com a tag {@code pool=replica-<i>}. A posição das réplicas é medida pelo {@link BatimentoReplica}. Localmente, com
+ * bancos H2 em memória, o {@link ReplicadorH2} ({@code pedidos.replica.replicador.habilitado=true}) o substitui e
+ * mantém as réplicas sincronizadas.
+ * </p>
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnExpression("!'${pedidos.replica.urls:}'.isBlank()")
+public class ReplicaConfig {
+
+    @Bean
+    ReplicasLeitura replicasLeitura(ShardsPedidos shards, DataSourceProperties propriedades, MeterRegistry meterRegistry,
+                                    @Value("${pedidos.replica.urls}") List<String> urls,
+                                    @Value("${pedidos.replica.tamanho-pool:10}") int tamanhoPool) {
+        if (urls.size() != shards.getQuantidade()) {
+            throw new IllegalStateException("pedidos.replica.urls deve ter uma réplica por shard: " + urls.size()
+                    + " réplica(s) para " + shards.getQuantidade() + " shard(s)");
+        }
+        List<HikariDataSource> pools = new ArrayList<>(urls.size());
+        for (int i = 0; i < urls.size(); i++) {
+            pools.add(ShardsConfig.criarPool("replica-" + i, urls.get(i), propriedades, tamanhoPool, meterRegistry));
+        }
+        return new ReplicasLeitura(pools);
+    }
+
+    /**
+     * Estático para não antecipar a criação desta configuração; as dependências só são resolvidas quando o
+     * {@link DataSource} é criado.
+     */
+    @Bean
+    static RoteamentoLeituraPostProcessor roteamentoLeituraPostProcessor(ObjectProvider<ReplicasLeitura> replicas,
+                                                                         ObjectProvider<RoteamentoLeitura> roteamento) {
+        return new RoteamentoLeituraPostProcessor(replicas, roteamento);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "pedidos.replica.replicador.habilitado", havingValue = "false", matchIfMissing = true)
+    BatimentoReplica batimentoReplica(DataSource dataSource, ReplicasLeitura replicas, ShardsPedidos shards,
+                                      RoteamentoLeitura roteamento,
+                                      @Value("${pedidos.replica.batimento.intervalo:200ms}") Duration intervalo) {
+        return new BatimentoReplica(dataSource, replicas, shards, roteamento, intervalo);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "pedidos.replica.replicador.habilitado", havingValue = "true")
+    ReplicadorH2 replicadorH2(DataSource dataSource, ReplicasLeitura replicas, ShardsPedidos shards,
+                              RoteamentoLeitura roteamento,
+                              @Value("${pedidos.replica.replicador.intervalo:200ms}") Duration intervalo,
+                              @Value("${pedidos.itens.armazenamento:NORMALIZADO}") ArmazenamentoItens armazenamentoItens) {
+        return new ReplicadorH2(dataSource, replicas, shards, roteamento, intervalo, armazenamentoItens);
+    }
+}
@@ -0,0 +1,222 @@
+package br.com.testetech.testetech.replica;
+
+import br.com.testetech.testetech.dto.ItemResumoDTO;
+import br.com.testetech.testetech.dto.PedidoResumoDTO;
+import br.com.testetech.testetech.evento.PedidoRegistradoEvent;
+import br.com.testetech.testetech.model.ArmazenamentoItens;
+import br.com.testetech.testetech.model.CodecItensPedido;
+import br.com.testetech.testetech.model.PedidoItem;
+import br.com.testetech.testetech.sharding.ShardsPedidos;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Replicador substituto, para validar localmente o roteamento com dois (ou mais) bancos H2
+ * ({@code pedidos.replica.replicador.habilitado=true}). Não se destina à produção, onde a réplica é mantida
+ * pelo próprio banco.
+ * <p>
+ * Na inicialização, copia esquema e dados de cada primário para a sua réplica com o comando {@code SCRIPT} do H2.
+ * Depois, como uma replicação lógica, enfileira cada pedido confirmado ({@link PedidoRegistradoEvent}) e o aplica
+ * na réplica a cada {@code pedidos.replica.replicador.intervalo}, com {@code MERGE} (aplicar duas vezes não
+ * duplica). Ao fim de cada ciclo, confirma ao {@link RoteamentoLeitura} o instante até o qual a réplica está
+ * atualizada; se a aplicação falhar, os pedidos são mantidos para o próximo ciclo e nada é confirmado.
+ * Os itens são gravados no layout de {@code pedidos.itens.armazenamento}, o mesmo do primário.
+ * </p>
+ */
+class ReplicadorH2 implements SmartLifecycle {
+
+    private final Logger logger = LoggerFactory.getLogger(ReplicadorH2.class);
+
+    private final DataSource primario;
+
+    private final ReplicasLeitura replicas;
+
+    private final ShardsPedidos shards;
+
+    private final RoteamentoLeitura roteamento;
+
+    private final Duration intervalo;
+
+    private final ArmazenamentoItens armazenamentoItens;
+
+    /**
+     * Pedidos confirmados no primário e ainda não aplicados; a inserção e a retirada de um ciclo são
+     * sincronizadas para que todo pedido enfileirado antes do instante do ciclo faça parte dele.
+     */
+    private final Queue<PedidoResumoDTO> fila = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Pedidos de um ciclo que falhou, reaplicados no próximo. Acessado somente pela thread do agendador.
+     */
+    private List<PedidoResumoDTO> pendentes = new ArrayList<>();
+
+    private ScheduledExecutorService agendador;
+
+    private volatile boolean executando;
+
+    ReplicadorH2(DataSource primario, ReplicasLeitura replicas, ShardsPedidos shards, RoteamentoLeitura roteamento,
+                 Duration intervalo, ArmazenamentoItens armazenamentoItens) {
+        this.primario = primario;
+        this.replicas = replicas;
+        this.shards = shards;
+        this.roteamento = roteamento;
+        this.intervalo = intervalo;
+        this.armazenamentoItens = armazenamentoItens;
+    }
+
+    /**
+     * Enfileira o pedido confirmado. Executado antes dos demais ouvintes, em especial do
+     * {@link RoteamentoLeitura#registrar}.
+     */
+    @TransactionalEventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void enfileirar(PedidoRegistradoEvent evento) {
+        synchronized (fila) {
+            fila.add(evento.pedido());
+        }
+    }
+
+    @Override
+    public void start() {
+        shards.paraCadaShard(this::copiarEsquemaEDados);
+        logger.info("Réplicas inicializadas a partir de {} primário(s); replicação a cada {} ms",
+                shards.getQuantidade(), intervalo.toMillis());
+        agendador = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                .name("replicador-h2")
+                .daemon(true)
+                .factory());
+        agendador.scheduleWithFixedDelay(this::replicar, 0, intervalo.toMillis(), TimeUnit.MILLISECONDS);
+        executando = true;
+    }
+
+    @Override
+    public void stop() {
+        executando = false;
+        if (agendador != null) {
+            agendador.shutdownNow();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return executando;
+    }
+
+    /**
+     * Aplica os pedidos enfileirados e confirma a posição da réplica.
+     */
+    void replicar() {
+        List<PedidoResumoDTO> lote = pendentes;
+        long instante;
+        synchronized (fila) {
+            instante = System.nanoTime();
+            for (PedidoResumoDTO pedido = fila.poll(); pedido != null; pedido = fila.poll()) {
+                lote.add(pedido);
+            }
+        }
+        try {
+            Map<Integer, List<PedidoResumoDTO>> porShard = lote.stream()
+                    .collect(Collectors.groupingBy(pedido -> shards.shardDe(pedido.getCodigoPedido())));
+            for (Map.Entry<Integer, List<PedidoResumoDTO>> grupo : porShard.entrySet()) {
+                aplicar(replicas.pool(grupo.getKey()), grupo.getValue());
+            }
+            pendentes = new ArrayList<>();
+            roteamento.confirmarReplicacao(instante);
+        } catch (SQLException | RuntimeException e) {
+            pendentes = lote;
+            logger.warn("Falha ao replicar {} pedidos; nova tentativa no próximo ciclo", lote.size(), e);
+        }
+    }
+
+    private void copiarEsquemaEDados(int shard) {
+        List<String> comandos = new ArrayList<>();
+        try {
+            try (Connection conexao = primario.getConnection();
+                 Statement comando = conexao.createStatement();
+                 ResultSet script = comando.executeQuery("SCRIPT")) {
+                while (script.next()) {
+                    comandos.add(script.getString(1));
+                }
+            }
+            try (Connection conexao = replicas.pool(shard).getConnection();
+                 Statement comando = conexao.createStatement()) {
+                for (String sql : comandos) {
+                    comando.execute(sql);
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Falha ao copiar o primário para a réplica do shard " + shard, e);
+        }
+    }
+
+    private void aplicar(DataSource replica, List<PedidoResumoDTO> lote) throws SQLException {
+        // Um pedido repetido no lote (ex: reenvio) é aplicado uma única vez: os comandos são agrupados por tipo
+        Collection<PedidoResumoDTO> pedidos = lote.stream()
+                .collect(Collectors.toMap(PedidoResumoDTO::getId, p -> p, (anterior, atual) -> atual, LinkedHashMap::new))
+                .values();
+        try (Connection conexao = replica.getConnection()) {
+            conexao.setAutoCommit(false);
+            try (PreparedStatement pedido = conexao.prepareStatement("""
+                    merge into pedidos (id, codigo_pedido, valor_total, status, data_criacao, itens_compactos) key (id)
+                    values (?, ?, ?, ?, ?, ?)""");
+                 PreparedStatement removerItens = conexao.prepareStatement("delete from itens_pedido where pedido_id = ?");
+                 PreparedStatement item = conexao.prepareStatement("""
+                         insert into itens_pedido (id, pedido_id, produto_id, valor_unitario, quantidade)
+                         values (next value for itens_pedido_seq, ?, ?, ?, ?)""")) {
+                for (PedidoResumoDTO p : pedidos) {
+                    pedido.setLong(1, p.getId());
+                    pedido.setString(2, p.getCodigoPedido());
+                    pedido.setBigDecimal(3, p.getValorTotal());
+                    pedido.setString(4, p.getStatus() == null ? null : p.getStatus().name());
+                    pedido.setTimestamp(5, p.getDataCriacao() == null ? null : Timestamp.valueOf(p.getDataCriacao()));
+                    List<ItemResumoDTO> items = p.getItems() == null ? List.of() : p.getItems();
+                    boolean compacto = armazenamentoItens == ArmazenamentoItens.COMPACTO;
+                    pedido.setBytes(6, compacto ? CodecItensPedido.codificar(items.stream()
+                            .map(i -> new PedidoItem(i.getProdutoId(), i.getValorUnitario(), i.getQuantidade()))
+                            .toList()) : null);
+                    pedido.addBatch();
+                    removerItens.setLong(1, p.getId());
+                    removerItens.addBatch();
+                    for (ItemResumoDTO i : compacto ? List.<ItemResumoDTO>of() : items) {
+                        item.setLong(1, p.getId());
+                        item.setString(2, i.getProdutoId());
+                        item.setBigDecimal(3, i.getValorUnitario());
+                        item.setObject(4, i.getQuantidade());
+                        item.addBatch();
+                    }
+                }
+                pedido.executeBatch();
+                removerItens.executeBatch();
+                item.executeBatch();
+                conexao.commit();
+            } catch (SQLException | RuntimeException e) {
+                conexao.rollback();
+                throw e;
+            }
+        }
+    }
+}
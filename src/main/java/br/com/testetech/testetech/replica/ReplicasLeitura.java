@@ -0,0 +1,41 @@
+package br.com.testetech.testetech.replica;
+
+import br.com.testetech.testetech.sharding.DataSourceShards;
+import com.zaxxer.hikari.HikariDataSource;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Pools HikariCP das réplicas de leitura, um por shard, fechados junto com o contexto.
+ */
+class ReplicasLeitura implements AutoCloseable {
+
+    private final List<HikariDataSource> pools;
+
+    private final DataSource dataSource;
+
+    ReplicasLeitura(List<HikariDataSource> pools) {
+        this.pools = List.copyOf(pools);
+        this.dataSource = pools.size() == 1 ? pools.get(0) : new DataSourceShards(pools);
+    }
+
+    /**
+     * @return Réplica do shard escolhido para a thread corrente.
+     */
+    DataSource dataSource() {
+        return dataSource;
+    }
+
+    /**
+     * @return Réplica do shard informado.
+     */
+    DataSource pool(int shard) {
+        return pools.get(shard);
+    }
+
+    @Override
+    public void close() {
+        pools.forEach(HikariDataSource::close);
+    }
+}
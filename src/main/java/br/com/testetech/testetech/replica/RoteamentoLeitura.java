@@ -0,0 +1,190 @@
+package br.com.testetech.testetech.replica;
+
+import br.com.testetech.testetech.evento.PedidoRegistradoEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Decide se uma transação somente leitura usa a réplica ({@code pedidos.replica.urls}) ou o banco primário.
+ * <p>
+ * Transações de escrita sempre usam o primário. As somente leitura ({@code readOnly = true}) vão para a réplica,
+ * exceto quando:
+ * <ul>
+ * <li>a replicação ainda não confirmou nenhuma posição ({@link #confirmarReplicacao}), ex: na inicialização;</li>
+ * <li>o atraso da réplica passa de {@code pedidos.replica.atraso-maximo};</li>
+ * <li>a consulta é de um código gravado por esta instância e ainda não replicado ({@link #porCodigo}), garantindo
+ * a leitura das próprias escritas logo depois do POST;</li>
+ * <li>a leitura foi marcada com {@link #noPrimario} (varreduras que reconstroem estado em memória).</li>
+ * </ul>
+ * A decisão é tomada quando a conexão física é obtida, já dentro da transação, e contada em
+ * {@code pedidos.replica.leituras} (tag {@code destino}). O atraso é publicado em {@code pedidos.replica.atraso}.
+ * </p>
+ * <p>
+ * Sem {@code pedidos.replica.urls}, todas as leituras usam o primário e os métodos apenas executam a ação.
+ * </p>
+ */
+@Component
+public class RoteamentoLeitura {
+
+    /**
+     * Banco de destino de uma leitura.
+     */
+    public enum Destino {
+        PRIMARIO, REPLICA
+    }
+
+    private static final ThreadLocal<Boolean> PRIMARIO = new ThreadLocal<>();
+
+    private final boolean ativo;
+
+    private final long atrasoMaximoNanos;
+
+    /**
+     * Códigos gravados recentemente, com o instante ({@link System#nanoTime()}) em que a gravação foi confirmada.
+     * Basta guardá-los pelo atraso máximo: depois disso, ou a réplica já os contém, ou o atraso excedido
+     * desvia todas as leituras para o primário.
+     */
+    private final Cache<String, Long> escritasRecentes;
+
+    private volatile long ultimaEscrita;
+
+    private volatile long replicadaAte;
+
+    private volatile boolean replicacaoConfirmada;
+
+    private final Counter leiturasReplica;
+
+    private final Counter leiturasPrimario;
+
+    public RoteamentoLeitura(@Value("${pedidos.replica.urls:}") List<String> urls,
+                             @Value("${pedidos.replica.atraso-maximo:1s}") Duration atrasoMaximo,
+                             MeterRegistry meterRegistry) {
+        this.ativo = !urls.isEmpty();
+        this.atrasoMaximoNanos = atrasoMaximo.toNanos();
+        this.escritasRecentes = Caffeine.newBuilder()
+                .expireAfterWrite(atrasoMaximo)
+                .build();
+
+        this.leiturasReplica = Counter.builder("pedidos.replica.leituras")
+                .description("Conexões de transações somente leitura, por banco de destino")
+                .tag("destino", "replica")
+                .register(meterRegistry);
+        this.leiturasPrimario = Counter.builder("pedidos.replica.leituras")
+                .description("Conexões de transações somente leitura, por banco de destino")
+                .tag("destino", "primario")
+                .register(meterRegistry);
+        Gauge.builder("pedidos.replica.atraso", this, r -> r.atrasoNanos() / 1e9)
+                .description("Tempo desde a última posição confirmada pela réplica, se houver gravações posteriores a ela")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Executa a ação com as leituras da thread direcionadas ao primário. Deve envolver a transação.
+     */
+    public static <T> T noPrimario(Supplier<T> acao) {
+        Boolean anterior = PRIMARIO.get();
+        PRIMARIO.set(Boolean.TRUE);
+        try {
+            return acao.get();
+        } finally {
+            if (anterior == null) {
+                PRIMARIO.remove();
+            }
+        }
+    }
+
+    /**
+     * Versão sem retorno de {@link #noPrimario(Supplier)}.
+     */
+    public static void noPrimario(Runnable acao) {
+        noPrimario(() -> {
+            acao.run();
+            return null;
+        });
+    }
+
+    /**
+     * Executa a consulta de um pedido pelo código, no primário se a sua gravação ainda não foi replicada.
+     */
+    public <T> T porCodigo(String codigoPedido, Supplier<T> acao) {
+        if (!ativo) {
+            return acao.get();
+        }
+        Long gravadoEm = escritasRecentes.getIfPresent(codigoPedido);
+        if (gravadoEm != null && (!replicacaoConfirmada || gravadoEm - replicadaAte >= 0)) {
+            return noPrimario(acao);
+        }
+        return acao.get();
+    }
+
+    /**
+     * Registra a gravação confirmada. Executado depois dos demais ouvintes (em especial, do envio à replicação),
+     * para que o instante registrado nunca seja anterior ao instante em que o pedido entrou na replicação.
+     */
+    @TransactionalEventListener
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void registrar(PedidoRegistradoEvent evento) {
+        if (!ativo) {
+            return;
+        }
+        long agora = System.nanoTime();
+        escritasRecentes.put(evento.pedido().getCodigoPedido(), agora);
+        ultimaEscrita = agora;
+    }
+
+    /**
+     * Informa que a réplica contém todas as gravações confirmadas antes do instante informado. Chamado pelo
+     * {@link BatimentoReplica} ou, nos testes locais, pelo {@link ReplicadorH2}.
+     *
+     * @param instante Instante no relógio de {@link System#nanoTime()}.
+     */
+    public synchronized void confirmarReplicacao(long instante) {
+        if (!replicacaoConfirmada || instante - replicadaAte > 0) {
+            replicadaAte = instante;
+            replicacaoConfirmada = true;
+        }
+    }
+
+    /**
+     * @return Banco da próxima conexão somente leitura da thread corrente (contabilizado nas métricas).
+     */
+    Destino destinoLeitura() {
+        boolean replica = ativo
+                && PRIMARIO.get() == null
+                && replicacaoConfirmada
+                && atrasoNanos() <= atrasoMaximoNanos;
+        (replica ? leiturasReplica : leiturasPrimario).increment();
+        return replica ? Destino.REPLICA : Destino.PRIMARIO;
+    }
+
+    /**
+     * @return Limite superior da idade da gravação mais antiga ainda não confirmada na réplica; zero se não houver.
+     */
+    long atrasoNanos() {
+        if (!ativo) {
+            return 0;
+        }
+        long agora = System.nanoTime();
+        if (!replicacaoConfirmada) {
+            return ultimaEscrita == 0 ? 0 : agora - ultimaEscrita;
+        }
+        return ultimaEscrita - replicadaAte >= 0 ? agora - replicadaAte : 0;
+    }
+
+    public boolean isAtivo() {
+        return ativo;
+    }
+}
@@ -0,0 +1,46 @@
+package br.com.testetech.testetech.replica;
+
+import br.com.testetech.testetech.metricas.DataSourceCronometrado;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Envolve o {@link DataSource} primário em um {@link LazyConnectionDataSourceProxy} cujas transações somente
+ * leitura obtêm a conexão do {@link DataSourceLeitura}.
+ * <p>
+ * A obtenção tardia é o que torna o roteamento possível: o {@code JpaTransactionManager} pede a conexão ao
+ * iniciar a transação, antes de marcá-la como somente leitura, e o proxy só escolhe o banco no primeiro comando.
+ * É aplicado depois do {@link DataSourceCronometrado}, para que a espera medida continue sendo a do pool real.
+ * </p>
+ */
+class RoteamentoLeituraPostProcessor implements BeanPostProcessor, Ordered {
+
+    private final ObjectProvider<ReplicasLeitura> replicas;
+
+    private final ObjectProvider<RoteamentoLeitura> roteamento;
+
+    RoteamentoLeituraPostProcessor(ObjectProvider<ReplicasLeitura> replicas, ObjectProvider<RoteamentoLeitura> roteamento) {
+        this.replicas = replicas;
+        this.roteamento = roteamento;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource primario && !(bean instanceof LazyConnectionDataSourceProxy)) {
+            DataSource replica = new DataSourceCronometrado(replicas.getObject().dataSource());
+            LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primario);
+            proxy.setReadOnlyDataSource(new DataSourceLeitura(primario, replica, roteamento.getObject()));
+            return proxy;
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,12 @@
+package br.com.testetech.testetech.repository;
+
+import br.com.testetech.testetech.model.PedidoStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Colunas de um pedido necessárias para reconstruir os agregados, projetadas pela varredura em streaming.
+ */
+public record AgregadoLinha(LocalDateTime dataCriacao, PedidoStatus status, BigDecimal valorTotal) {
+}
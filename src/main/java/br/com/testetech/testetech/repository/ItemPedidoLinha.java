@@ -0,0 +1,34 @@
+package br.com.testetech.testetech.repository;
+
+import br.com.testetech.testetech.dto.ItemResumoDTO;
+import br.com.testetech.testetech.model.CodecItensPedido;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Linha de item projetada pela consulta em lote de itens, carregando o ID do pedido
+ * para que os itens de uma página inteira sejam agrupados em memória.
+ * <p>
+ * Para um pedido no armazenamento compacto, a linha é única e traz a coluna {@code itens_compactos}, com os
+ * campos do item nulos; para um pedido sem itens normalizados, todos os campos além do ID são nulos.
+ * </p>
+ *
+ * @param pedidoId ID do pedido ao qual o item pertence.
+ * @param itensCompactos Itens codificados por {@link CodecItensPedido}, ou {@code null}.
+ * @param itemId ID da linha em {@code itens_pedido}, ou {@code null}.
+ */
+public record ItemPedidoLinha(Long pedidoId, byte[] itensCompactos, Long itemId, String produtoId,
+                              BigDecimal valorUnitario, Integer quantidade) {
+
+    /**
+     * Acrescenta à lista os itens representados pela linha (nenhum, um ou todos os do pedido compactado).
+     */
+    public void anexarA(List<ItemResumoDTO> items) {
+        if (itensCompactos != null) {
+            items.addAll(CodecItensPedido.decodificar(itensCompactos, ItemResumoDTO::new));
+        } else if (produtoId != null) {
+            items.add(new ItemResumoDTO(itemId, produtoId, valorUnitario, quantidade));
+        }
+    }
+}
@@ -1,9 +1,29 @@
 package br.com.testetech.testetech.repository;
 
+import br.com.testetech.testetech.dto.ItemResumoDTO;
+import br.com.testetech.testetech.dto.PedidoResumoDTO;
 import br.com.testetech.testetech.model.Pedido;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
 /**
  * Interface de repositório responsável pela camada de acesso a dados da entidade {@link Pedido}.
  * <p>
@@ -27,4 +47,219 @@ public interface PedidoRepository extends JpaRepository<Pedido, Long> {
      * @return {@code true} se um pedido com este código já estiver persistido, {@code false} caso contrário.
      */
     boolean existsByCodigoPedido(String codigoPedido);
-}
\ No newline at end of file
+
+    /**
+     * Verificação de duplicidade em conjunto (set-based) utilizada pela ingestão em lote.
+     * <p>
+     * Em vez de uma consulta {@link #existsByCodigoPedido(String)} por pedido, resolve
+     * todos os códigos de um bloco em uma única ida ao banco, apoiada no índice único
+     * {@code idx_codigo_pedido}.
+     * </p>
+     *
+     * @param codigos Códigos de negócio a verificar.
+     * @return Subconjunto dos códigos informados que já estão persistidos.
+     */
+    @Query("select p.codigoPedido from Pedido p where p.codigoPedido in :codigos")
+    Set<String> findCodigosExistentes(@Param("codigos") Collection<String> codigos);
+
+    /**
+     * Percorre todos os códigos de pedido em modo streaming (cursor do JDBC com fetch size),
+     * sem materializar a tabela em memória. Deve ser consumido dentro de uma transação e fechado.
+     *
+     * @return Stream com o código de cada pedido persistido.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select p.codigoPedido from Pedido p")
+    Stream<String> streamCodigos();
+
+    /**
+     * Percorre, em streaming, as colunas usadas pelos agregados de todos os pedidos.
+     * Deve ser consumido dentro de uma transação e fechado.
+     *
+     * @return Stream com data de criação, status e valor total de cada pedido.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new br.com.testetech.testetech.repository.AgregadoLinha(p.dataCriacao, p.status, p.valorTotal) from Pedido p")
+    Stream<AgregadoLinha> streamAgregados();
+
+    /**
+     * Igual a {@link #streamAgregados()}, restrito aos pedidos criados antes do corte.
+     *
+     * @param corte Limite exclusivo da data de criação.
+     * @return Stream com data de criação, status e valor total de cada pedido anterior ao corte.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            select new br.com.testetech.testetech.repository.AgregadoLinha(p.dataCriacao, p.status, p.valorTotal)
+            from Pedido p
+            where p.dataCriacao < :corte
+            """)
+    Stream<AgregadoLinha> streamAgregadosAntesDe(@Param("corte") LocalDateTime corte);
+
+    /**
+     * Percorre, em streaming e em ordem cronológica, os resumos (sem itens) dos pedidos criados no período.
+     * Por ser uma projeção, nada é mantido no contexto de persistência durante a varredura.
+     * Deve ser consumido dentro de uma transação e fechado.
+     *
+     * @param de Limite inclusivo da data de criação, ou {@code null} para não limitar.
+     * @param ate Limite exclusivo da data de criação, ou {@code null} para não limitar.
+     * @return Stream de resumos ordenados por (dataCriacao, id).
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            select new br.com.testetech.testetech.dto.PedidoResumoDTO(
+                p.id, p.codigoPedido, p.valorTotal, p.status, p.dataCriacao)
+            from Pedido p
+            where (:de is null or p.dataCriacao >= :de)
+              and (:ate is null or p.dataCriacao < :ate)
+            order by p.dataCriacao, p.id
+            """)
+    Stream<PedidoResumoDTO> streamResumosCriadosEntre(@Param("de") LocalDateTime de, @Param("ate") LocalDateTime ate);
+
+    /**
+     * Página da varredura cronológica de {@link #streamResumosCriadosEntre} posicionada pela chave (keyset), para
+     * percorrer o período em transações curtas (ex: intercalação da exportação entre shards).
+     *
+     * @param de Limite inclusivo da data de criação, ou {@code null} para não limitar.
+     * @param ate Limite exclusivo da data de criação, ou {@code null} para não limitar.
+     * @param dataCriacao Data do último pedido da página anterior, ou {@code null} na primeira página.
+     * @param id ID do último pedido da página anterior (desempate).
+     * @param limite Quantidade máxima de registros.
+     * @return Resumos estritamente posteriores a (dataCriacao, id), ordenados por (dataCriacao, id).
+     */
+    @Query("""
+            select new br.com.testetech.testetech.dto.PedidoResumoDTO(
+                p.id, p.codigoPedido, p.valorTotal, p.status, p.dataCriacao)
+            from Pedido p
+            where (:de is null or p.dataCriacao >= :de)
+              and (:ate is null or p.dataCriacao < :ate)
+              and (:dataCriacao is null or p.dataCriacao > :dataCriacao
+                   or (p.dataCriacao = :dataCriacao and p.id > :id))
+            order by p.dataCriacao, p.id
+            """)
+    List<PedidoResumoDTO> findCriadosEntrePosteriores(@Param("de") LocalDateTime de, @Param("ate") LocalDateTime ate,
+                                                      @Param("dataCriacao") LocalDateTime dataCriacao,
+                                                      @Param("id") Long id, Limit limite);
+
+    /**
+     * Listagem paginada projetada diretamente no modelo de leitura {@link PedidoResumoDTO},
+     * sem carregar entidades gerenciadas nem a coleção de itens.
+     *
+     * @param pageable Configuração de paginação (tamanho, página e ordenação).
+     * @return Página de resumos de pedidos.
+     */
+    @Query(value = """
+            select new br.com.testetech.testetech.dto.PedidoResumoDTO(
+                p.id, p.codigoPedido, p.valorTotal, p.status, p.dataCriacao)
+            from Pedido p
+            """,
+            countQuery = "select count(p) from Pedido p")
+    Page<PedidoResumoDTO> findResumos(Pageable pageable);
+
+    /**
+     * Consulta pontual pelo código de negócio, projetada no modelo de leitura e apoiada no índice
+     * único {@code idx_codigo_pedido}.
+     *
+     * @param codigoPedido Código de negócio do pedido.
+     * @return Resumo do pedido (sem itens), se existir.
+     */
+    @Query("""
+            select new br.com.testetech.testetech.dto.PedidoResumoDTO(
+                p.id, p.codigoPedido, p.valorTotal, p.status, p.dataCriacao)
+            from Pedido p
+            where p.codigoPedido = :codigoPedido
+            """)
+    Optional<PedidoResumoDTO> findResumoPorCodigo(@Param("codigoPedido") String codigoPedido);
+
+    /**
+     * Carrega, em uma única consulta, os itens de todos os pedidos de uma página
+     * (evita o N+1 de acessar {@code Pedido.items} pedido a pedido).
+     * <p>
+     * Parte dos pedidos (pela chave primária) com junção externa aos itens, de modo que a mesma consulta atende
+     * os dois armazenamentos ({@link br.com.testetech.testetech.model.ArmazenamentoItens}): um pedido compactado
+     * rende uma única linha com {@code itens_compactos}.
+     * </p>
+     *
+     * @param pedidoIds IDs dos pedidos da página.
+     * @return Linhas de itens com o ID do pedido correspondente.
+     */
+    @Query("""
+            select new br.com.testetech.testetech.repository.ItemPedidoLinha(
+                p.id, p.itensCompactos, i.id, i.produtoId, i.valorUnitario, i.quantidade)
+            from Pedido p
+            left join p.items i
+            where p.id in :pedidoIds
+            order by i.id
+            """)
+    List<ItemPedidoLinha> findItensDosPedidos(@Param("pedidoIds") Collection<Long> pedidoIds);
+
+    /**
+     * Anexa os itens a todos os pedidos informados com uma única consulta {@code IN}
+     * ({@link #findItensDosPedidos(Collection)}).
+     *
+     * @param pedidos Resumos sem itens.
+     * @return Novos resumos, na mesma ordem, com os itens de cada pedido.
+     */
+    default List<PedidoResumoDTO> anexarItens(List<PedidoResumoDTO> pedidos) {
+        if (pedidos.isEmpty()) {
+            return pedidos;
+        }
+        List<Long> ids = pedidos.stream().map(PedidoResumoDTO::getId).toList();
+        Map<Long, List<ItemResumoDTO>> itensPorPedido = new HashMap<>();
+        for (ItemPedidoLinha linha : findItensDosPedidos(ids)) {
+            linha.anexarA(itensPorPedido.computeIfAbsent(linha.pedidoId(), id -> new ArrayList<>()));
+        }
+        return pedidos.stream()
+                .map(p -> p.comItens(itensPorPedido.getOrDefault(p.getId(), List.of())))
+                .toList();
+    }
+
+    /**
+     * Primeira página da listagem por cursor: pedidos mais recentes, sem OFFSET e sem COUNT.
+     *
+     * @param limite Quantidade máxima de registros.
+     * @return Resumos ordenados por (dataCriacao, id) decrescentes.
+     */
+    @Query("""
+            select new br.com.testetech.testetech.dto.PedidoResumoDTO(
+                p.id, p.codigoPedido, p.valorTotal, p.status, p.dataCriacao)
+            from Pedido p
+            order by p.dataCriacao desc, p.id desc
+            """)
+    List<PedidoResumoDTO> findMaisRecentes(Limit limite);
+
+    /**
+     * Página seguinte da listagem por cursor (keyset / seek method).
+     * <p>
+     * O predicado {@code dataCriacao <= :data} é o que permite ao banco posicionar a leitura
+     * diretamente no índice {@code idx_pedidos_data_criacao_id}; o segundo termo apenas descarta os
+     * registros já entregues com a mesma data. O custo independe da profundidade da página.
+     * </p>
+     *
+     * @param dataCriacao Data do último pedido entregue na página anterior.
+     * @param id ID do último pedido entregue na página anterior (desempate).
+     * @param limite Quantidade máxima de registros.
+     * @return Resumos estritamente anteriores a (dataCriacao, id), em ordem decrescente.
+     */
+    @Query("""
+            select new br.com.testetech.testetech.dto.PedidoResumoDTO(
+                p.id, p.codigoPedido, p.valorTotal, p.status, p.dataCriacao)
+            from Pedido p
+            where p.dataCriacao <= :dataCriacao
+              and (p.dataCriacao < :dataCriacao or p.id < :id)
+            order by p.dataCriacao desc, p.id desc
+            """)
+    List<PedidoResumoDTO> findAnterioresA(@Param("dataCriacao") LocalDateTime dataCriacao, @Param("id") Long id, Limit limite);
+}
@@ -0,0 +1,45 @@
+package br.com.testetech.testetech.service;
+
+import br.com.testetech.testetech.exception.CursorInvalidoException;
+import br.com.testetech.testetech.dto.PedidoResumoDTO;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Posição de continuação da listagem por cursor: a chave (dataCriacao, id) do último pedido entregue.
+ * <p>
+ * É serializada como token opaco (Base64 URL-safe), para que o cliente não dependa do formato interno.
+ * </p>
+ *
+ * @param dataCriacao Data de criação do último pedido da página.
+ * @param id ID do último pedido da página (desempate entre datas iguais).
+ */
+public record CursorPedido(LocalDateTime dataCriacao, Long id) {
+
+    private static final char SEPARADOR = '|';
+
+    public static CursorPedido de(PedidoResumoDTO pedido) {
+        return new CursorPedido(pedido.getDataCriacao(), pedido.getId());
+    }
+
+    public String codificar() {
+        String bruto = dataCriacao.toString() + SEPARADOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bruto.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws CursorInvalidoException Se o token não foi gerado por {@link #codificar()}.
+     */
+    public static CursorPedido decodificar(String token) {
+        try {
+            String bruto = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separador = bruto.lastIndexOf(SEPARADOR);
+            return new CursorPedido(LocalDateTime.parse(bruto.substring(0, separador)),
+                    Long.parseLong(bruto.substring(separador + 1)));
+        } catch (RuntimeException e) {
+            throw new CursorInvalidoException("Cursor de paginação inválido", e);
+        }
+    }
+}
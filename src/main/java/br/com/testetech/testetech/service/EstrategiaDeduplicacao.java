@@ -0,0 +1,20 @@
+package br.com.testetech.testetech.service;
+
+/**
+ * Estratégias de detecção de pedidos duplicados em {@link PedidoService#registrarPedido}.
+ * Selecionada pela propriedade {@code pedidos.deduplicacao.estrategia}.
+ */
+public enum EstrategiaDeduplicacao {
+
+    /**
+     * Consulta {@code existsByCodigoPedido} antes do INSERT (duas idas ao banco por pedido novo).
+     * Rejeita duplicados sem tentar a escrita, sendo vantajosa quando a taxa de duplicados é alta.
+     */
+    VERIFICACAO_PREVIA,
+
+    /**
+     * Tenta o INSERT diretamente e delega a detecção ao índice único {@code idx_codigo_pedido}
+     * (uma única ida ao banco por pedido novo). Vantajosa quando a maioria dos códigos é inédita.
+     */
+    OTIMISTA
+}
@@ -0,0 +1,249 @@
+package br.com.testetech.testetech.service;
+
+import br.com.testetech.testetech.cache.CachePedidos;
+import br.com.testetech.testetech.cache.JanelaPedidosRecentes;
+import br.com.testetech.testetech.dto.PaginaCursorDTO;
+import br.com.testetech.testetech.dto.PedidoResumoDTO;
+import br.com.testetech.testetech.exception.PedidoNaoEncontradoException;
+import br.com.testetech.testetech.replica.RoteamentoLeitura;
+import br.com.testetech.testetech.repository.PedidoRepository;
+import br.com.testetech.testetech.sharding.ShardsPedidos;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Camada de serviço dedicada às consultas (lado de leitura) de pedidos.
+ * <p>
+ * Separa as operações somente leitura do fluxo transacional de escrita de {@link PedidoService}.
+ * Todas as consultas devolvem o modelo de leitura {@link PedidoResumoDTO}, projetado diretamente
+ * pelo JPQL: nenhuma entidade gerenciada chega à camada de serialização e a quantidade de consultas
+ * por página é constante (página + contagem + no máximo uma consulta de itens). A primeira página da
+ * ordenação padrão é atendida pela {@link JanelaPedidosRecentes}, sem nenhuma consulta.
+ * </p>
+ * <p>
+ * Com particionamento ativo ({@link ShardsPedidos}), a consulta por código vai direto ao shard do pedido e as
+ * listagens consultam todos os shards em paralelo, intercalando os resultados já ordenados de cada um.
+ * </p>
+ * <p>
+ * Com réplica de leitura ({@link RoteamentoLeitura}), as transações somente leitura vão para a réplica enquanto
+ * o atraso for aceitável; a consulta por código de um pedido recém-gravado e ainda não replicado vai ao primário.
+ * </p>
+ */
+@Service
+public class PedidoConsultaService {
+
+    /**
+     * Atributos de {@link PedidoResumoDTO} aceitos na ordenação da intercalação entre shards.
+     */
+    private static final Map<String, Function<PedidoResumoDTO, Comparable<?>>> ATRIBUTOS_ORDENACAO = Map.of(
+            "id", PedidoResumoDTO::getId,
+            "codigoPedido", PedidoResumoDTO::getCodigoPedido,
+            "valorTotal", PedidoResumoDTO::getValorTotal,
+            // Persistido como texto (EnumType.STRING): o banco ordena pelo nome
+            "status", p -> p.getStatus() == null ? null : p.getStatus().name(),
+            "dataCriacao", PedidoResumoDTO::getDataCriacao);
+
+    private final Logger logger = LoggerFactory.getLogger(PedidoConsultaService.class);
+
+    private final PedidoRepository repository;
+
+    private final CachePedidos cachePedidos;
+
+    private final JanelaPedidosRecentes janelaRecentes;
+
+    /**
+     * Transação somente leitura aberta apenas quando a consulta por código não é atendida pelo cache.
+     */
+    private final TransactionTemplate transacaoLeitura;
+
+    private final ShardsPedidos shards;
+
+    private final RoteamentoLeitura roteamento;
+
+    public PedidoConsultaService(PedidoRepository repository, CachePedidos cachePedidos,
+                                 JanelaPedidosRecentes janelaRecentes, PlatformTransactionManager transactionManager,
+                                 ShardsPedidos shards, RoteamentoLeitura roteamento) {
+        this.repository = repository;
+        this.shards = shards;
+        this.roteamento = roteamento;
+        this.cachePedidos = cachePedidos;
+        this.janelaRecentes = janelaRecentes;
+        this.transacaoLeitura = new TransactionTemplate(transactionManager);
+        this.transacaoLeitura.setReadOnly(true);
+    }
+
+    /**
+     * Consulta um pedido pelo código de negócio.
+     * <p>
+     * Atendida pelo {@link CachePedidos}; somente em caso de ausência é aberta uma transação
+     * para carregar o resumo e os itens (duas consultas). Leituras repetidas não acessam o banco
+     * nem o pool de conexões.
+     * </p>
+     *
+     * @param codigoPedido Código de negócio do pedido.
+     * @return Resumo imutável do pedido, com os itens.
+     * @throws PedidoNaoEncontradoException Se não houver pedido com o código informado.
+     */
+    public PedidoResumoDTO buscarPorCodigo(String codigoPedido) {
+        PedidoResumoDTO pedido = cachePedidos.buscar(codigoPedido, this::carregarPorCodigo);
+        if (pedido == null) {
+            throw new PedidoNaoEncontradoException("Pedido não encontrado: " + codigoPedido);
+        }
+        return pedido;
+    }
+
+    /**
+     * Recupera a listagem paginada de todos os pedidos.
+     * <p>
+     * A primeira página da ordenação padrão ({@code dataCriacao} decrescente) é servida da memória;
+     * as demais páginas e ordenações consultam o banco.
+     * </p>
+     * <p>
+     * Com vários shards, cada um devolve as {@code (página + 1) * tamanho} primeiras linhas da ordenação e a página
+     * é recortada da intercalação: páginas profundas custam proporcionalmente mais, como qualquer OFFSET; para
+     * navegação profunda prefira {@link #listarPorCursor}.
+     * </p>
+     *
+     * @param pageable Configuração de paginação (tamanho, página e ordenação).
+     * @param incluirItens Se {@code true}, os itens de todos os pedidos da página são carregados em uma única consulta.
+     * @return Um objeto {@link Page} contendo os resumos dos pedidos e metadados da consulta.
+     */
+    public Page<PedidoResumoDTO> listarTodos(Pageable pageable, boolean incluirItens) {
+        if (janelaRecentes.atende(pageable)) {
+            return janelaRecentes.primeiraPagina(pageable, incluirItens);
+        }
+        if (shards.isAtivo() && pageable.isPaged()) {
+            return consultarPaginaShards(pageable, incluirItens);
+        }
+        return transacaoLeitura.execute(status -> consultarPagina(pageable, incluirItens));
+    }
+
+    private Page<PedidoResumoDTO> consultarPaginaShards(Pageable pageable, boolean incluirItens) {
+        logger.debug("Consultando lista de pedidos em {} shards com parâmetros de paginação: {}", shards.getQuantidade(), pageable);
+        Pageable prefixo = PageRequest.of(0, (int) Math.min(Integer.MAX_VALUE, pageable.getOffset() + pageable.getPageSize()),
+                pageable.getSort());
+        List<Page<PedidoResumoDTO>> paginas = shards.executarEmTodos(shard ->
+                transacaoLeitura.execute(status -> repository.findResumos(prefixo)));
+        List<PedidoResumoDTO> conteudo = ShardsPedidos.intercalar(paginas.stream().map(Page::getContent).toList(),
+                comparador(pageable.getSort()), pageable.getOffset(), pageable.getPageSize());
+        long total = paginas.stream().mapToLong(Page::getTotalElements).sum();
+        return new PageImpl<>(incluirItens ? anexarItens(conteudo) : conteudo, pageable, total);
+    }
+
+    private Page<PedidoResumoDTO> consultarPagina(Pageable pageable, boolean incluirItens) {
+        logger.debug("Consultando lista de pedidos com parâmetros de paginação: {}", pageable);
+        Page<PedidoResumoDTO> pagina = repository.findResumos(pageable);
+        if (!incluirItens) {
+            return pagina;
+        }
+        return new PageImpl<>(repository.anexarItens(pagina.getContent()), pagina.getPageable(), pagina.getTotalElements());
+    }
+
+    /**
+     * Lista os pedidos do mais recente para o mais antigo usando paginação por cursor (keyset).
+     * <p>
+     * Cada página é resolvida por uma busca posicionada no índice (dataCriacao, id), sem OFFSET
+     * e sem COUNT: a página 10.000 custa o mesmo que a primeira. Uma linha extra é lida apenas
+     * para saber se existe continuação. Com vários shards, cada um faz a mesma busca posicionada e as
+     * listas são intercaladas.
+     * </p>
+     *
+     * @param cursor Token recebido na página anterior, ou {@code null} para a primeira página.
+     * @param tamanho Quantidade de pedidos por página.
+     * @param incluirItens Se {@code true}, os itens da página são carregados em uma única consulta.
+     * @return Página com os pedidos e o token da próxima página (nulo na última).
+     */
+    public PaginaCursorDTO<PedidoResumoDTO> listarPorCursor(String cursor, int tamanho, boolean incluirItens) {
+        boolean primeiraPagina = cursor == null || cursor.isBlank();
+        // Primeira página: a linha extra que indica continuação também vem da janela em memória
+        if (primeiraPagina && janelaRecentes.atende(tamanho + 1)) {
+            return paginaCursor(janelaRecentes.recentes(tamanho + 1, incluirItens), tamanho);
+        }
+        CursorPedido posicao = primeiraPagina ? null : CursorPedido.decodificar(cursor);
+        if (shards.isAtivo()) {
+            List<List<PedidoResumoDTO>> porShard = shards.executarEmTodos(shard ->
+                    transacaoLeitura.execute(status -> buscarPosicao(posicao, Limit.of(tamanho + 1))));
+            PaginaCursorDTO<PedidoResumoDTO> pagina = paginaCursor(ShardsPedidos.intercalar(porShard,
+                    PedidoResumoDTO.MAIS_RECENTES_PRIMEIRO, 0, tamanho + 1), tamanho);
+            return incluirItens
+                    ? new PaginaCursorDTO<>(anexarItens(pagina.getConteudo()), pagina.getProximoCursor())
+                    : pagina;
+        }
+        return transacaoLeitura.execute(status -> {
+            logger.debug("Consultando lista de pedidos por cursor. Cursor: {}, tamanho: {}", cursor, tamanho);
+            List<PedidoResumoDTO> pedidos = buscarPosicao(posicao, Limit.of(tamanho + 1));
+            PaginaCursorDTO<PedidoResumoDTO> pagina = paginaCursor(pedidos, tamanho);
+            return incluirItens
+                    ? new PaginaCursorDTO<>(repository.anexarItens(pagina.getConteudo()), pagina.getProximoCursor())
+                    : pagina;
+        });
+    }
+
+    private List<PedidoResumoDTO> buscarPosicao(CursorPedido posicao, Limit limite) {
+        return posicao == null
+                ? repository.findMaisRecentes(limite)
+                : repository.findAnterioresA(posicao.dataCriacao(), posicao.id(), limite);
+    }
+
+    /**
+     * Anexa os itens de uma página intercalada, consultando cada shard apenas com os seus pedidos.
+     */
+    private List<PedidoResumoDTO> anexarItens(List<PedidoResumoDTO> pedidos) {
+        return shards.distribuir(pedidos, PedidoResumoDTO::getCodigoPedido,
+                grupo -> transacaoLeitura.execute(status -> repository.anexarItens(grupo)));
+    }
+
+    /**
+     * Comparador equivalente à ordenação aplicada pelo banco (H2: nulos primeiro na ordem ascendente),
+     * usado para intercalar as páginas dos shards.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static Comparator<PedidoResumoDTO> comparador(Sort sort) {
+        Comparator<PedidoResumoDTO> comparador = (a, b) -> 0;
+        for (Sort.Order ordem : sort) {
+            Function<PedidoResumoDTO, Comparable> atributo = (Function) ATRIBUTOS_ORDENACAO.get(ordem.getProperty());
+            if (atributo == null) {
+                throw new IllegalArgumentException("Ordenação não suportada: " + ordem.getProperty());
+            }
+            Comparator<PedidoResumoDTO> parcial = Comparator.comparing(atributo,
+                    Comparator.nullsFirst(Comparator.<Comparable>naturalOrder()));
+            comparador = comparador.thenComparing(ordem.isAscending() ? parcial : parcial.reversed());
+        }
+        return comparador;
+    }
+
+    /**
+     * Recorta a página e gera o cursor da próxima a partir de uma lista com até {@code tamanho + 1} pedidos.
+     */
+    private PaginaCursorDTO<PedidoResumoDTO> paginaCursor(List<PedidoResumoDTO> pedidos, int tamanho) {
+        String proximoCursor = null;
+        if (pedidos.size() > tamanho) {
+            pedidos = pedidos.subList(0, tamanho);
+            proximoCursor = CursorPedido.de(pedidos.get(tamanho - 1)).codificar();
+        }
+        return new PaginaCursorDTO<>(pedidos, proximoCursor);
+    }
+
+    private PedidoResumoDTO carregarPorCodigo(String codigoPedido) {
+        logger.debug("Pedido {} ausente no cache; consultando o banco", codigoPedido);
+        // Recém-gravado por esta instância e ainda não replicado: lido do primário
+        return roteamento.porCodigo(codigoPedido, () -> shards.executarPorCodigo(codigoPedido, () ->
+                transacaoLeitura.execute(status -> repository.findResumoPorCodigo(codigoPedido)
+                        .map(p -> repository.anexarItens(List.of(p)).get(0))
+                        .orElse(null))));
+    }
+}
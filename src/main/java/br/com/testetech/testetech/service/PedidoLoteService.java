@@ -0,0 +1,296 @@
+package br.com.testetech.testetech.service;
+
+import br.com.testetech.testetech.dedupe.FiltroCodigosPedido;
+import br.com.testetech.testetech.dto.PedidoInputDTO;
+import br.com.testetech.testetech.dto.ResultadoLoteDTO;
+import br.com.testetech.testetech.evento.PedidoRegistradoEvent;
+import br.com.testetech.testetech.model.ArmazenamentoItens;
+import br.com.testetech.testetech.model.Pedido;
+import br.com.testetech.testetech.repository.PedidoRepository;
+import br.com.testetech.testetech.sharding.ShardsPedidos;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Serviço de ingestão de pedidos em lote.
+ * <p>
+ * Diferente de {@link PedidoService#registrarPedido(PedidoInputDTO)}, que abre uma transação,
+ * uma consulta de duplicidade e um conjunto de INSERTs por pedido, este serviço divide o lote
+ * em blocos ({@code pedidos.lote.tamanho-chunk}) e, para cada bloco:
+ * <ol>
+ * <li>Valida cada pedido individualmente (Bean Validation), sem abortar o lote.</li>
+ * <li>Resolve a duplicidade de todos os códigos com uma única consulta em conjunto, restrita aos
+ * códigos que o {@link FiltroCodigosPedido} não garante como inéditos.</li>
+ * <li>Persiste os pedidos novos em uma única transação, agrupando os INSERTs em batches JDBC.</li>
+ * </ol>
+ * Se o bloco falhar por violação de integridade (corrida com outra requisição), ele é
+ * reprocessado pedido a pedido para que apenas os registros conflitantes sejam rejeitados.
+ * </p>
+ * <p>
+ * Com particionamento ativo ({@link ShardsPedidos}), os candidatos de cada bloco são agrupados por shard
+ * e cada grupo é persistido em paralelo, com transação e contingência próprias no seu banco.
+ * </p>
+ */
+@Service
+public class PedidoLoteService {
+
+    private final Logger logger = LoggerFactory.getLogger(PedidoLoteService.class);
+
+    private final PedidoRepository repository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Validator validator;
+
+    private final FiltroCodigosPedido filtroCodigos;
+
+    private final ShardsPedidos shards;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Mesmo contador 'pedidos.processados' do fluxo unitário (o Micrometer devolve a instância já registrada).
+     */
+    private final Counter pedidosProcessadosCounter;
+
+    private final int tamanhoChunk;
+
+    private final ArmazenamentoItens armazenamentoItens;
+
+    public PedidoLoteService(PedidoRepository repository,
+                             PlatformTransactionManager transactionManager,
+                             Validator validator,
+                             FiltroCodigosPedido filtroCodigos,
+                             ShardsPedidos shards,
+                             MeterRegistry meterRegistry,
+                             ApplicationEventPublisher eventPublisher,
+                             @Value("${pedidos.lote.tamanho-chunk:500}") int tamanhoChunk,
+                             @Value("${pedidos.itens.armazenamento:NORMALIZADO}") ArmazenamentoItens armazenamentoItens) {
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.validator = validator;
+        this.filtroCodigos = filtroCodigos;
+        this.shards = shards;
+        this.eventPublisher = eventPublisher;
+        this.tamanhoChunk = tamanhoChunk;
+        this.armazenamentoItens = armazenamentoItens;
+
+        this.pedidosProcessadosCounter = Counter.builder("pedidos.processados")
+                .description("Total de pedidos processados com sucesso pela API")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Registra um lote de pedidos, devolvendo um resultado por pedido na mesma ordem de entrada.
+     *
+     * @param dtos Pedidos recebidos no lote.
+     * @return Lista com a situação (aceito, duplicado ou falha) de cada pedido.
+     */
+    public List<ResultadoLoteDTO> registrarLote(List<PedidoInputDTO> dtos) {
+        logger.info("Iniciando processamento de lote com {} pedidos", dtos.size());
+
+        ResultadoLoteDTO[] resultados = new ResultadoLoteDTO[dtos.size()];
+        Set<String> codigosDoLote = new HashSet<>();
+
+        for (int inicio = 0; inicio < dtos.size(); inicio += tamanhoChunk) {
+            int fim = Math.min(inicio + tamanhoChunk, dtos.size());
+            ResultadoLoteDTO[] bloco = new ResultadoLoteDTO[fim - inicio];
+            processarChunk(dtos.subList(inicio, fim), inicio, codigosDoLote, bloco);
+            System.arraycopy(bloco, 0, resultados, inicio, bloco.length);
+        }
+
+        return Arrays.asList(resultados);
+    }
+
+    /**
+     * Registra um único bloco de um lote lido em streaming ({@link PedidoLoteStreamingService}).
+     * <p>
+     * Códigos repetidos dentro do bloco são rejeitados aqui; repetições entre blocos já persistidos
+     * são detectadas pela verificação de existência do bloco seguinte.
+     * </p>
+     *
+     * @param bloco Pedidos do bloco (posições com resultado já definido são ignoradas).
+     * @param deslocamento Posição no lote do primeiro pedido do bloco.
+     * @param resultados Resultados do bloco, indexados como {@code bloco}; entradas não nulas
+     * (ex: pedidos que não puderam ser lidos) são preservadas e as demais são preenchidas.
+     */
+    public void registrarBloco(List<PedidoInputDTO> bloco, int deslocamento, ResultadoLoteDTO[] resultados) {
+        processarChunk(bloco, deslocamento, new HashSet<>(), resultados);
+    }
+
+    /**
+     * @param chunk Pedidos do bloco; a posição {@code i} corresponde ao índice {@code deslocamento + i} no lote.
+     * @param resultados Resultados do bloco, indexados como {@code chunk}.
+     */
+    private void processarChunk(List<PedidoInputDTO> chunk, int deslocamento,
+                                Set<String> codigosDoLote, ResultadoLoteDTO[] resultados) {
+        // Código -> posição no bloco dos pedidos válidos e inéditos dentro do próprio lote
+        Map<String, Integer> candidatos = new LinkedHashMap<>();
+
+        for (int i = 0; i < chunk.size(); i++) {
+            if (resultados[i] != null) {
+                continue;
+            }
+            PedidoInputDTO dto = chunk.get(i);
+            String erro = validar(dto);
+            if (erro != null) {
+                resultados[i] = ResultadoLoteDTO.falha(deslocamento + i, dto == null ? null : dto.getCodigoPedido(), erro);
+            } else if (!codigosDoLote.add(dto.getCodigoPedido())) {
+                resultados[i] = ResultadoLoteDTO.duplicado(deslocamento + i, dto.getCodigoPedido(), "Código repetido dentro do lote");
+            } else {
+                candidatos.put(dto.getCodigoPedido(), i);
+            }
+        }
+
+        if (candidatos.isEmpty()) {
+            return;
+        }
+
+        if (!shards.isAtivo()) {
+            persistirCandidatos(chunk, deslocamento, candidatos, resultados);
+            return;
+        }
+
+        Map<Integer, Map<String, Integer>> porShard = new HashMap<>();
+        candidatos.forEach((codigo, i) ->
+                porShard.computeIfAbsent(shards.shardDe(codigo), s -> new LinkedHashMap<>()).put(codigo, i));
+        // Cada grupo escreve em posições distintas de 'resultados'
+        shards.executarEmTodos(shard -> {
+            Map<String, Integer> grupo = porShard.get(shard);
+            if (grupo != null) {
+                persistirCandidatos(chunk, deslocamento, grupo, resultados);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Persiste os candidatos do bloco (todos do mesmo shard) em uma transação, recorrendo ao
+     * registro pedido a pedido se ela falhar.
+     */
+    private void persistirCandidatos(List<PedidoInputDTO> chunk, int deslocamento, Map<String, Integer> candidatos,
+                                     ResultadoLoteDTO[] resultados) {
+        int fim = deslocamento + chunk.size();
+        try {
+            List<Integer> aceitos = transactionTemplate.execute(status -> persistirChunk(chunk, deslocamento, candidatos, resultados));
+            aceitos.forEach(i -> resultados[i] = ResultadoLoteDTO.aceito(deslocamento + i, chunk.get(i).getCodigoPedido()));
+            pedidosProcessadosCounter.increment(aceitos.size());
+            logger.info("Bloco [{}-{}) do lote persistido: {} pedidos aceitos", deslocamento, fim, aceitos.size());
+        } catch (RuntimeException e) {
+            logger.warn("Falha ao persistir o bloco [{}-{}) do lote; reprocessando pedido a pedido", deslocamento, fim, e);
+            candidatos.values().forEach(i -> resultados[i] = persistirIndividualmente(deslocamento + i, chunk.get(i)));
+        }
+    }
+
+    /**
+     * Executado dentro da transação do bloco: descarta os códigos já existentes com uma única
+     * consulta e persiste o restante com um único flush, permitindo o agrupamento dos INSERTs.
+     *
+     * @return Posições no bloco dos pedidos persistidos.
+     */
+    private List<Integer> persistirChunk(List<PedidoInputDTO> chunk, int deslocamento, Map<String, Integer> candidatos,
+                                         ResultadoLoteDTO[] resultados) {
+        Set<String> talvezExistentes = candidatos.keySet().stream()
+                .filter(codigo -> !filtroCodigos.certamenteNovo(codigo))
+                .collect(Collectors.toSet());
+        Set<String> existentes = talvezExistentes.isEmpty()
+                ? Set.of()
+                : repository.findCodigosExistentes(talvezExistentes);
+        talvezExistentes.forEach(codigo -> filtroCodigos.confirmarVerificacao(existentes.contains(codigo)));
+
+        List<Pedido> novos = new ArrayList<>(candidatos.size());
+        List<Integer> aceitos = new ArrayList<>(candidatos.size());
+
+        candidatos.forEach((codigo, i) -> {
+            if (existentes.contains(codigo)) {
+                resultados[i] = ResultadoLoteDTO.duplicado(deslocamento + i, codigo, "Pedido já existe: " + codigo);
+            } else {
+                novos.add(PedidoMapper.armazenar(PedidoMapper.paraEntidade(chunk.get(i)), armazenamentoItens));
+                aceitos.add(i);
+            }
+        });
+
+        repository.saveAll(novos);
+        repository.flush();
+        novos.forEach(pedido -> {
+            filtroCodigos.registrar(pedido.getCodigoPedido());
+            eventPublisher.publishEvent(new PedidoRegistradoEvent(PedidoMapper.paraResumo(pedido)));
+        });
+        return aceitos;
+    }
+
+    /**
+     * Caminho de contingência: persiste um único pedido em transação própria,
+     * isolando o registro que violou a integridade do restante do bloco.
+     */
+    private ResultadoLoteDTO persistirIndividualmente(int indice, PedidoInputDTO dto) {
+        String codigo = dto.getCodigoPedido();
+        try {
+            Boolean inserido = transactionTemplate.execute(status -> {
+                if (repository.existsByCodigoPedido(codigo)) {
+                    return false;
+                }
+                Pedido pedido = repository.saveAndFlush(
+                        PedidoMapper.armazenar(PedidoMapper.paraEntidade(dto), armazenamentoItens));
+                filtroCodigos.registrar(codigo);
+                eventPublisher.publishEvent(new PedidoRegistradoEvent(PedidoMapper.paraResumo(pedido)));
+                return true;
+            });
+            if (!Boolean.TRUE.equals(inserido)) {
+                return ResultadoLoteDTO.duplicado(indice, codigo, "Pedido já existe: " + codigo);
+            }
+            pedidosProcessadosCounter.increment();
+            return ResultadoLoteDTO.aceito(indice, codigo);
+        } catch (DataIntegrityViolationException e) {
+            if (PedidoService.isViolacaoCodigoPedido(e)) {
+                return ResultadoLoteDTO.duplicado(indice, codigo, "Pedido já existe: " + codigo);
+            }
+            logger.error("Violação de integridade ao persistir o pedido {} do lote", codigo, e);
+            return ResultadoLoteDTO.falha(indice, codigo, "Erro ao persistir o pedido");
+        } catch (RuntimeException e) {
+            logger.error("Erro ao persistir o pedido {} do lote", codigo, e);
+            return ResultadoLoteDTO.falha(indice, codigo, "Erro ao persistir o pedido");
+        }
+    }
+
+    /**
+     * @return Quantidade de pedidos por bloco ({@code pedidos.lote.tamanho-chunk}).
+     */
+    public int getTamanhoChunk() {
+        return tamanhoChunk;
+    }
+
+    private String validar(PedidoInputDTO dto) {
+        if (dto == null) {
+            return "Pedido nulo";
+        }
+        Set<ConstraintViolation<PedidoInputDTO>> violacoes = validator.validate(dto);
+        if (violacoes.isEmpty()) {
+            return null;
+        }
+        return violacoes.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+}
@@ -0,0 +1,169 @@
+package br.com.testetech.testetech.service;
+
+import br.com.testetech.testetech.dto.PedidoInputDTO;
+import br.com.testetech.testetech.dto.ResultadoLoteDTO;
+import br.com.testetech.testetech.exception.LoteInvalidoException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Ingestão em lote com leitura em streaming do corpo (API de streaming do Jackson).
+ * <p>
+ * Diferente de {@link PedidoLoteService#registrarLote}, que recebe o lote já desserializado por inteiro, aqui o
+ * array JSON é percorrido elemento a elemento: cada pedido é lido como árvore, convertido em
+ * {@link PedidoInputDTO} e acumulado até completar um bloco de {@code pedidos.lote.tamanho-chunk} pedidos, que é
+ * validado e persistido por {@link PedidoLoteService#registrarBloco} e descartado. Os resultados de cada bloco são
+ * escritos em NDJSON logo em seguida, de modo que o pico de memória depende do tamanho do bloco, e não do corpo.
+ * </p>
+ * <p>
+ * Um elemento que não pode ser convertido (ex: tipo incorreto) vira um resultado {@code FALHA} sem interromper
+ * o lote; um erro de sintaxe JSON encerra a leitura após processar os pedidos já lidos, com um último resultado
+ * {@code FALHA} na posição em que a leitura parou.
+ * </p>
+ */
+@Service
+public class PedidoLoteStreamingService {
+
+    private final Logger logger = LoggerFactory.getLogger(PedidoLoteStreamingService.class);
+
+    private final PedidoLoteService loteService;
+
+    private final ObjectMapper objectMapper;
+
+    private final ObjectWriter escritorResultados;
+
+    public PedidoLoteStreamingService(PedidoLoteService loteService, ObjectMapper objectMapper) {
+        this.loteService = loteService;
+        this.objectMapper = objectMapper;
+        this.escritorResultados = objectMapper.writerFor(ResultadoLoteDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(SerializationFeature.INDENT_OUTPUT);
+    }
+
+    /**
+     * Abre o corpo e posiciona a leitura no início do array, antes de a resposta começar
+     * (depois do primeiro byte não é mais possível responder 400).
+     *
+     * @param corpo Corpo da requisição.
+     * @return Parser posicionado após o {@code [} inicial; deve ser fechado pelo chamador.
+     * @throws LoteInvalidoException Se o corpo não começar com um array JSON.
+     */
+    public JsonParser abrir(InputStream corpo) throws IOException {
+        JsonParser parser = objectMapper.createParser(corpo);
+        try {
+            if (parser.nextToken() == JsonToken.START_ARRAY) {
+                return parser;
+            }
+        } catch (JsonProcessingException e) {
+            parser.close();
+            throw new LoteInvalidoException("JSON malformado: " + e.getOriginalMessage());
+        }
+        parser.close();
+        throw new LoteInvalidoException("O lote deve ser um array JSON de pedidos");
+    }
+
+    /**
+     * Lê os pedidos restantes do array, registrando-os em blocos, e escreve um resultado por pedido
+     * (NDJSON, na ordem de entrada) ao fim de cada bloco.
+     *
+     * @param parser Parser obtido por {@link #abrir}.
+     * @param saida Destino dos resultados (ex: corpo da resposta); não é fechado.
+     * @return Quantidade de pedidos lidos.
+     */
+    public long processar(JsonParser parser, OutputStream saida) throws IOException {
+        int tamanhoBloco = loteService.getTamanhoChunk();
+        JsonGenerator generator = escritorResultados.createGenerator(saida)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .setRootValueSeparator(new SerializedString("\n"));
+        List<PedidoInputDTO> bloco = new ArrayList<>(tamanhoBloco);
+        ResultadoLoteDTO[] resultados = new ResultadoLoteDTO[tamanhoBloco];
+        int deslocamento = 0;
+
+        try {
+            for (JsonToken token = parser.nextToken(); token != JsonToken.END_ARRAY; token = parser.nextToken()) {
+                if (token == null) {
+                    throw new LoteTruncadoException(parser);
+                }
+                JsonNode elemento = objectMapper.readTree(parser);
+                try {
+                    bloco.add(objectMapper.treeToValue(elemento, PedidoInputDTO.class));
+                } catch (JsonProcessingException | IllegalArgumentException e) {
+                    String mensagem = e instanceof JsonProcessingException json ? json.getOriginalMessage() : e.getMessage();
+                    resultados[bloco.size()] = ResultadoLoteDTO.falha(deslocamento + bloco.size(), codigo(elemento),
+                            "Pedido inválido: " + mensagem);
+                    bloco.add(null);
+                }
+                if (bloco.size() == tamanhoBloco) {
+                    deslocamento += registrar(bloco, deslocamento, resultados, generator);
+                }
+            }
+            deslocamento += registrar(bloco, deslocamento, resultados, generator);
+        } catch (JsonProcessingException e) {
+            // Sintaxe inválida: o restante do corpo não pode ser lido, mas o que já foi lido é registrado
+            deslocamento += registrar(bloco, deslocamento, resultados, generator);
+            escritorResultados.writeValue(generator, ResultadoLoteDTO.falha(deslocamento, null,
+                    "JSON malformado; leitura do lote interrompida: " + e.getOriginalMessage()));
+            logger.warn("Lote em streaming interrompido por JSON malformado após {} pedidos", deslocamento);
+        }
+        if (generator.getOutputContext().getEntryCount() > 0) {
+            generator.writeRaw('\n');
+        }
+        generator.flush();
+        logger.info("Lote em streaming concluído: {} pedidos lidos", deslocamento);
+        return deslocamento;
+    }
+
+    /**
+     * Registra o bloco, escreve seus resultados e o esvazia.
+     *
+     * @return Quantidade de pedidos do bloco.
+     */
+    private int registrar(List<PedidoInputDTO> bloco, int deslocamento, ResultadoLoteDTO[] resultados,
+                          JsonGenerator generator) throws IOException {
+        int quantidade = bloco.size();
+        if (quantidade == 0) {
+            return 0;
+        }
+        loteService.registrarBloco(bloco, deslocamento, resultados);
+        for (int i = 0; i < quantidade; i++) {
+            escritorResultados.writeValue(generator, resultados[i]);
+        }
+        // Entrega os resultados do bloco ao cliente antes de ler o próximo
+        generator.flush();
+        bloco.clear();
+        Arrays.fill(resultados, null);
+        return quantidade;
+    }
+
+    private static String codigo(JsonNode elemento) {
+        JsonNode codigo = elemento.path("codigoPedido");
+        return codigo.isTextual() ? codigo.asText() : null;
+    }
+
+    /**
+     * Fim do corpo antes do {@code ]} de fechamento.
+     */
+    private static final class LoteTruncadoException extends JsonProcessingException {
+
+        private LoteTruncadoException(JsonParser parser) {
+            super("Fim inesperado do corpo antes do fechamento do array", parser.currentLocation());
+        }
+    }
+}
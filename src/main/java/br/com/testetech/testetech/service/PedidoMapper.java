@@ -0,0 +1,182 @@
+package br.com.testetech.testetech.service;
+
+import br.com.testetech.testetech.dto.ItemResumoDTO;
+import br.com.testetech.testetech.dto.PedidoInputDTO;
+import br.com.testetech.testetech.dto.PedidoResumoDTO;
+import br.com.testetech.testetech.model.ArmazenamentoItens;
+import br.com.testetech.testetech.model.Pedido;
+import br.com.testetech.testetech.model.PedidoItem;
+import br.com.testetech.testetech.model.PedidoStatus;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Conversões entre os DTOs de entrada e as entidades de domínio de pedidos.
+ * <p>
+ * Centraliza o mapeamento e o cálculo do valor total para que o fluxo unitário
+ * ({@link PedidoService}) e o fluxo em lote ({@link PedidoLoteService}) produzam
+ * exatamente o mesmo resultado.
+ * </p>
+ */
+public final class PedidoMapper {
+
+    /**
+     * Escala das colunas monetárias ({@code numeric(38,2)}), aplicada ao resumo para que o pedido recém-salvo
+     * seja serializado exatamente como quando lido do banco.
+     */
+    private static final int ESCALA_MONETARIA = 2;
+
+    /** Dígitos tratados pelo cálculo do total em ponto fixo: qualquer número de 18 dígitos cabe em um {@code long}. */
+    private static final int DIGITOS_PONTO_FIXO = 18;
+
+    private static final long[] POTENCIAS_DE_DEZ = new long[DIGITOS_PONTO_FIXO + 1];
+
+    static {
+        POTENCIAS_DE_DEZ[0] = 1;
+        for (int i = 1; i < POTENCIAS_DE_DEZ.length; i++) {
+            POTENCIAS_DE_DEZ[i] = POTENCIAS_DE_DEZ[i - 1] * 10;
+        }
+    }
+
+    private PedidoMapper() {
+    }
+
+    /**
+     * Constrói a entidade {@link Pedido} a partir do DTO de entrada, já com os itens
+     * mapeados, o valor total calculado e o status {@link PedidoStatus#CALCULADO}.
+     *
+     * @param dto Dados de entrada do pedido.
+     * @return Entidade pronta para persistência (ainda não gerenciada pelo JPA).
+     */
+    public static Pedido paraEntidade(PedidoInputDTO dto) {
+        Pedido pedido = mapear(dto);
+        pedido.setValorTotal(calcularTotal(pedido.getItems()));
+        return pedido;
+    }
+
+    /**
+     * Constrói a entidade {@link Pedido} com seus itens, sem calcular o valor total.
+     * Separado de {@link #paraEntidade} para que o fluxo unitário cronometre cada etapa isoladamente.
+     *
+     * @param dto Dados de entrada do pedido.
+     * @return Entidade com status {@link PedidoStatus#CALCULADO} e valor total ainda não definido.
+     */
+    public static Pedido mapear(PedidoInputDTO dto) {
+        Pedido pedido = new Pedido();
+        pedido.setCodigoPedido(dto.getCodigoPedido());
+        // O total é calculado antes da gravação em todos os fluxos: RECEBIDO só é informado para pedidos na fila
+        pedido.setStatus(PedidoStatus.CALCULADO);
+
+        List<PedidoItem> items = dto.getItems().stream().map(i -> {
+            PedidoItem item = new PedidoItem();
+            item.setProdutoId(i.getProdutoId());
+            item.setQuantidade(i.getQuantidade());
+            item.setValorUnitario(i.getValorUnitario());
+            return item;
+        }).collect(Collectors.toList());
+
+        pedido.setItems(items);
+        return pedido;
+    }
+
+    /**
+     * Aplica ao pedido ainda não persistido o layout de gravação dos itens ({@code pedidos.itens.armazenamento}).
+     *
+     * @param pedido Entidade com os itens já mapeados.
+     * @param armazenamento Layout configurado.
+     * @return O próprio pedido.
+     */
+    public static Pedido armazenar(Pedido pedido, ArmazenamentoItens armazenamento) {
+        if (armazenamento == ArmazenamentoItens.COMPACTO) {
+            pedido.compactarItens();
+        }
+        return pedido;
+    }
+
+    /**
+     * Converte um pedido persistido no modelo de leitura imutável, com os itens.
+     *
+     * @param pedido Entidade já salva (com ID e data de criação).
+     * @return Resumo desacoplado da sessão JPA.
+     */
+    public static PedidoResumoDTO paraResumo(Pedido pedido) {
+        List<ItemResumoDTO> items = pedido.getItems().stream()
+                .map(i -> new ItemResumoDTO(i.getId(), i.getProdutoId(), escalaMonetaria(i.getValorUnitario()),
+                        i.getQuantidade()))
+                .toList();
+        return new PedidoResumoDTO(pedido.getId(), pedido.getCodigoPedido(), items, escalaMonetaria(pedido.getValorTotal()),
+                pedido.getStatus(), pedido.getDataCriacao());
+    }
+
+    /**
+     * @param valor Valor monetário em qualquer escala.
+     * @return O valor na escala persistida ({@code numeric(38,2)}), arredondado HALF_UP.
+     */
+    public static BigDecimal escalaMonetaria(BigDecimal valor) {
+        return valor.setScale(ESCALA_MONETARIA, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Calcula o valor total agregado dos itens (valor unitário x quantidade).
+     * <p>
+     * Soma em {@code long} na menor unidade (valor não escalado na maior escala dos itens), sem criar um
+     * {@link BigDecimal} por item. Se algum valor não couber em 18 dígitos, tiver escala negativa ou acima de 18,
+     * ou se houver estouro, o cálculo é refeito por {@link #calcularTotalBigDecimal}. O resultado é idêntico
+     * ({@link BigDecimal#equals}, inclusive a escala) nos dois caminhos.
+     * </p>
+     *
+     * @param items Itens do pedido.
+     * @return Soma exata dos subtotais, ou {@link BigDecimal#ZERO} para lista vazia.
+     */
+    public static BigDecimal calcularTotal(List<PedidoItem> items) {
+        BigDecimal total = calcularTotalPontoFixo(items);
+        return total != null ? total : calcularTotalBigDecimal(items);
+    }
+
+    /**
+     * Cálculo de referência do valor total, inteiramente em {@link BigDecimal}.
+     * Usado quando o caminho em ponto fixo não se aplica e como base de comparação em testes e benchmarks.
+     *
+     * @param items Itens do pedido.
+     * @return Soma exata dos subtotais, com a maior escala entre os valores unitários (mínimo 0).
+     */
+    public static BigDecimal calcularTotalBigDecimal(List<PedidoItem> items) {
+        return items.stream()
+                .map(item -> item.getValorUnitario().multiply(BigDecimal.valueOf(item.getQuantidade())))
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    /**
+     * Soma em ponto fixo: acumula os valores não escalados, reescalando o acumulado quando surge um item com
+     * mais casas decimais, de modo que a escala final é a mesma de {@link BigDecimal#add}.
+     *
+     * @return O total, ou {@code null} quando for preciso recorrer a {@link BigDecimal}.
+     */
+    static BigDecimal calcularTotalPontoFixo(List<PedidoItem> items) {
+        long soma = 0;
+        int escala = 0;
+        try {
+            for (PedidoItem item : items) {
+                BigDecimal valor = item.getValorUnitario();
+                int escalaValor = valor.scale();
+                if (escalaValor < 0 || escalaValor > DIGITOS_PONTO_FIXO || valor.precision() > DIGITOS_PONTO_FIXO) {
+                    return null;
+                }
+                long unidades = valor.unscaledValue().longValue();
+                if (escalaValor > escala) {
+                    soma = Math.multiplyExact(soma, POTENCIAS_DE_DEZ[escalaValor - escala]);
+                    escala = escalaValor;
+                } else if (escalaValor < escala) {
+                    unidades = Math.multiplyExact(unidades, POTENCIAS_DE_DEZ[escala - escalaValor]);
+                }
+                soma = Math.addExact(soma, Math.multiplyExact(unidades, (long) item.getQuantidade()));
+            }
+        } catch (ArithmeticException estouro) {
+            return null;
+        }
+        return BigDecimal.valueOf(soma, escala);
+    }
+}
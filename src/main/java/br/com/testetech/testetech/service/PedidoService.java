@@ -1,24 +1,26 @@
 package br.com.testetech.testetech.service;
 
+import br.com.testetech.testetech.dedupe.FiltroCodigosPedido;
 import br.com.testetech.testetech.dto.PedidoInputDTO;
+import br.com.testetech.testetech.evento.PedidoRegistradoEvent;
 import br.com.testetech.testetech.exception.PedidoDuplicadoException;
+import br.com.testetech.testetech.metricas.EtapaRegistro;
+import br.com.testetech.testetech.metricas.MetricasRegistroPedido;
+import br.com.testetech.testetech.model.ArmazenamentoItens;
 import br.com.testetech.testetech.model.Pedido;
-import br.com.testetech.testetech.model.PedidoItem;
-import br.com.testetech.testetech.model.PedidoStatus;
 import br.com.testetech.testetech.repository.PedidoRepository;
+import br.com.testetech.testetech.sharding.ShardsPedidos;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
+import org.hibernate.exception.ConstraintViolationException;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-
-import java.math.BigDecimal;
-import java.util.List;
-import java.util.stream.Collectors;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /**
  * Camada de serviço responsável pelas regras de negócio e orquestração do fluxo de pedidos.
@@ -38,19 +40,70 @@ public class PedidoService {
 
     private final PedidoRepository repository;
 
+    /**
+     * Transação do registro, aberta depois de escolhido o shard do pedido.
+     */
+    private final TransactionTemplate transacao;
+
+    private final ShardsPedidos shards;
+
     /**
      * Métrica customizada para contagem de pedidos processados com sucesso.
      */
     private final Counter pedidosProcessadosCounter;
 
+    /**
+     * Estratégia de detecção de duplicidade (verificação prévia ou otimista via índice único).
+     */
+    private final EstrategiaDeduplicacao estrategiaDeduplicacao;
+
+    /**
+     * Filtro de Bloom que dispensa a consulta de existência para códigos certamente inéditos.
+     */
+    private final FiltroCodigosPedido filtroCodigos;
+
+    /**
+     * Timers por etapa e contadores de duplicidade/concorrência do registro.
+     */
+    private final MetricasRegistroPedido metricas;
+
+    /**
+     * Publica {@link PedidoRegistradoEvent} para os modelos de leitura em memória (entregue após o commit).
+     */
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Layout de gravação dos itens ({@code pedidos.itens.armazenamento}).
+     */
+    private final ArmazenamentoItens armazenamentoItens;
+
     /**
      * Construtor com injeção de dependências.
      *
      * @param repository Acesso aos dados do pedido.
+     * @param transactionManager Gerenciador das transações de escrita.
+     * @param shards Particionamento que define o banco de cada pedido.
      * @param meterRegistry Registro de métricas do Micrometer para criação de contadores customizados.
+     * @param estrategiaDeduplicacao Estratégia configurada em {@code pedidos.deduplicacao.estrategia}.
+     * @param filtroCodigos Filtro probabilístico consultado antes da verificação no banco.
+     * @param metricas Instrumentação por etapa do registro.
+     * @param eventPublisher Publicador do evento de pedido registrado.
+     * @param armazenamentoItens Layout de gravação dos itens.
      */
-    public PedidoService(PedidoRepository repository, MeterRegistry meterRegistry) {
+    public PedidoService(PedidoRepository repository, PlatformTransactionManager transactionManager,
+                         ShardsPedidos shards, MeterRegistry meterRegistry,
+                         @Value("${pedidos.deduplicacao.estrategia:VERIFICACAO_PREVIA}") EstrategiaDeduplicacao estrategiaDeduplicacao,
+                         FiltroCodigosPedido filtroCodigos, MetricasRegistroPedido metricas,
+                         ApplicationEventPublisher eventPublisher,
+                         @Value("${pedidos.itens.armazenamento:NORMALIZADO}") ArmazenamentoItens armazenamentoItens) {
         this.repository = repository;
+        this.transacao = new TransactionTemplate(transactionManager);
+        this.shards = shards;
+        this.estrategiaDeduplicacao = estrategiaDeduplicacao;
+        this.filtroCodigos = filtroCodigos;
+        this.metricas = metricas;
+        this.eventPublisher = eventPublisher;
+        this.armazenamentoItens = armazenamentoItens;
 
         // Inicializa o contador customizado 'pedidos.processados'
         this.pedidosProcessadosCounter = Counter.builder("pedidos.processados")
@@ -63,77 +116,107 @@ public class PedidoService {
      * <p>
      * O fluxo de execução compreende:
      * <ol>
-     * <li>Verificação de duplicidade (Idempotência) baseada no código externo.</li>
+     * <li>Verificação de duplicidade (Idempotência) baseada no código externo. Na estratégia
+     * {@link EstrategiaDeduplicacao#OTIMISTA} a consulta prévia é omitida e a duplicidade é
+     * detectada pelo próprio INSERT, através do índice único {@code idx_codigo_pedido}. Na verificação
+     * prévia, códigos que o {@link FiltroCodigosPedido} aponta como certamente inéditos dispensam a consulta.</li>
      * <li>Mapeamento de DTO para Entidade de domínio.</li>
      * <li>Cálculo do valor total agregado dos itens via Stream API.</li>
      * <li>Persistência transacional no banco de dados e atualização de métricas.</li>
      * </ol>
+     * Cada etapa é cronometrada em {@code pedidos.registro.etapa} (ver {@link EtapaRegistro}).
+     * </p>
+     * <p>
+     * A transação é aberta no shard do código ({@link ShardsPedidos#executarPorCodigo}), onde o índice único
+     * garante a unicidade do código mesmo com vários bancos.
      * </p>
      *
      * @param dto Objeto contendo os dados de entrada do pedido.
      * @return A entidade {@link Pedido} persistida e atualizada com ID e Data de Criação.
      * @throws PedidoDuplicadoException Se já existir um pedido com o mesmo código identificador.
      */
-    @Transactional
     public Pedido registrarPedido(PedidoInputDTO dto) {
+        return shards.executarPorCodigo(dto.getCodigoPedido(), () -> transacao.execute(status -> registrarNoShard(dto)));
+    }
 
-
+    private Pedido registrarNoShard(PedidoInputDTO dto) {
         logger.info("Iniciando processamento do novo pedido. Código: {}", dto.getCodigoPedido());
 
 
-        if (repository.existsByCodigoPedido(dto.getCodigoPedido())) {
+        if (estrategiaDeduplicacao == EstrategiaDeduplicacao.VERIFICACAO_PREVIA
+                && metricas.medir(EtapaRegistro.DEDUPLICACAO, () -> codigoJaExiste(dto.getCodigoPedido()))) {
+            metricas.duplicadoPorConsulta();
             logger.warn("Tentativa de criação de pedido duplicado rejeitada. Código: {}", dto.getCodigoPedido());
             throw new PedidoDuplicadoException("Pedido já existe: " + dto.getCodigoPedido());
         }
 
-        Pedido pedido = new Pedido();
-        pedido.setCodigoPedido(dto.getCodigoPedido());
-        pedido.setStatus(PedidoStatus.CALCULADO);
-
-
-        List<PedidoItem> items = dto.getItems().stream().map(i -> {
-            PedidoItem item = new PedidoItem();
-            item.setProdutoId(i.getProdutoId());
-            item.setQuantidade(i.getQuantidade());
-            item.setValorUnitario(i.getValorUnitario());
-            return item;
-        }).collect(Collectors.toList());
-
-        pedido.setItems(items);
-
-
-        // Utilizando Stream para cálculo monetário preciso e thread-safe
-        BigDecimal total = items.stream()
-                .map(item -> item.getValorUnitario().multiply(BigDecimal.valueOf(item.getQuantidade())))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        pedido.setValorTotal(total);
+        Pedido pedido = metricas.medir(EtapaRegistro.MAPEAMENTO,
+                () -> PedidoMapper.armazenar(PedidoMapper.mapear(dto), armazenamentoItens));
+        pedido.setValorTotal(metricas.medir(EtapaRegistro.CALCULO_TOTAL, () -> PedidoMapper.calcularTotal(pedido.getItems())));
 
         try {
-            Pedido pedidoSalvo = repository.save(pedido);
+            // Com IDs via sequence o INSERT é adiado até o flush; forçá-lo aqui garante que uma
+            // violação do índice único seja capturada por este bloco, e não apenas no commit.
+            Pedido pedidoSalvo = metricas.medir(EtapaRegistro.PERSISTENCIA, () -> repository.saveAndFlush(pedido));
+            filtroCodigos.registrar(pedidoSalvo.getCodigoPedido());
+            metricas.medirCommit();
+            eventPublisher.publishEvent(new PedidoRegistradoEvent(PedidoMapper.paraResumo(pedidoSalvo)));
 
             // Incrementa a métrica de negócio para monitoramento
             pedidosProcessadosCounter.increment();
 
             logger.info("Pedido {} processado e salvo com sucesso. Valor Total: {}",
-                    pedidoSalvo.getCodigoPedido(), total);
+                    pedidoSalvo.getCodigoPedido(), pedidoSalvo.getValorTotal());
 
             return pedidoSalvo;
         } catch (DataIntegrityViolationException e) {
+            if (!isViolacaoCodigoPedido(e)) {
+                throw e;
+            }
+            if (estrategiaDeduplicacao == EstrategiaDeduplicacao.OTIMISTA) {
+                // Caminho esperado da estratégia otimista: o índice único é a própria verificação
+                metricas.duplicadoPorIndiceUnico();
+                logger.warn("Tentativa de criação de pedido duplicado rejeitada pelo índice único. Código: {}", dto.getCodigoPedido());
+                throw new PedidoDuplicadoException("Pedido já existe: " + dto.getCodigoPedido());
+            }
             // Tratamento defensivo para Race Conditions (Concorrência)
+            metricas.conflitoConcorrencia();
             logger.error("Erro de integridade/concorrência ao salvar o pedido: {}", dto.getCodigoPedido(), e);
             throw new PedidoDuplicadoException("Erro de concorrência: Pedido duplicado.");
         }
     }
 
     /**
-     * Recupera a listagem paginada de todos os pedidos.
+     * Consulta de existência do código, dispensada quando o filtro de Bloom o aponta como certamente inédito.
+     */
+    private boolean codigoJaExiste(String codigoPedido) {
+        if (filtroCodigos.certamenteNovo(codigoPedido)) {
+            return false;
+        }
+        boolean existe = repository.existsByCodigoPedido(codigoPedido);
+        filtroCodigos.confirmarVerificacao(existe);
+        return existe;
+    }
+
+    /**
+     * Identifica se a violação de integridade foi causada pela unicidade de 'codigo_pedido',
+     * distinguindo-a de outras violações (ex: colunas obrigatórias), que não devem virar 409.
      *
-     * @param pageable Configuração de paginação (tamanho, página e ordenação).
-     * @return Um objeto {@link Page} contendo os pedidos e metadados da consulta.
+     * @param e Exceção traduzida pelo Spring a partir do erro do driver JDBC.
+     * @return {@code true} se a violação se refere ao código do pedido.
      */
-    public Page<Pedido> listarTodos(Pageable pageable) {
-        logger.debug("Consultando lista de pedidos com parâmetros de paginação: {}", pageable);
-        return repository.findAll(pageable);
+    static boolean isViolacaoCodigoPedido(DataIntegrityViolationException e) {
+        for (Throwable causa = e; causa != null; causa = causa.getCause()) {
+            if (causa instanceof ConstraintViolationException violacao) {
+                String restricao = violacao.getConstraintName();
+                String mensagem = violacao.getSQLException() != null ? violacao.getSQLException().getMessage() : null;
+                return contemCodigoPedido(restricao) || contemCodigoPedido(mensagem);
+            }
+        }
+        return contemCodigoPedido(e.getMessage());
+    }
+
+    private static boolean contemCodigoPedido(String texto) {
+        return texto != null && texto.toLowerCase().contains("codigo_pedido");
     }
 }
\ No newline at end of file
@@ -0,0 +1,123 @@
+package br.com.testetech.testetech.service;
+
+import br.com.testetech.testetech.dto.PedidoInputDTO;
+import br.com.testetech.testetech.dto.PedidoResumoDTO;
+import br.com.testetech.testetech.exception.PedidoDuplicadoException;
+import br.com.testetech.testetech.exception.PedidoNaoEncontradoException;
+import br.com.testetech.testetech.idempotencia.RespostasIdempotentes;
+import br.com.testetech.testetech.idempotencia.RespostasIdempotentes.RespostaRegistrada;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Registro unitário idempotente: repetições de um pedido já registrado recebem a resposta original.
+ * <p>
+ * A chave é o cabeçalho {@code Idempotency-Key} ou, na sua ausência, o próprio código do pedido. Se houver
+ * resposta armazenada em {@link RespostasIdempotentes} com o mesmo conteúdo, ela é devolvida sem transação,
+ * sem acesso ao banco e sem exceção; conteúdo diferente para a mesma chave é um conflito real (409).
+ * Só quando a resposta não está em memória (expirada ou anterior à inicialização) o registro segue para
+ * {@link PedidoService#registrarPedido}, e uma duplicidade ali detectada ainda é comparada com o pedido
+ * gravado antes de virar 409.
+ * </p>
+ * <p>
+ * Contadores: {@code pedidos.idempotencia{resultado=repetido|conflito}}.
+ * </p>
+ */
+@Service
+public class RegistroIdempotenteService {
+
+    private final Logger logger = LoggerFactory.getLogger(RegistroIdempotenteService.class);
+
+    private final PedidoService pedidoService;
+
+    private final PedidoConsultaService consultaService;
+
+    private final RespostasIdempotentes respostas;
+
+    private final Counter repetidos;
+
+    private final Counter conflitos;
+
+    public RegistroIdempotenteService(PedidoService pedidoService, PedidoConsultaService consultaService,
+                                      RespostasIdempotentes respostas, MeterRegistry meterRegistry) {
+        this.pedidoService = pedidoService;
+        this.consultaService = consultaService;
+        this.respostas = respostas;
+        this.repetidos = Counter.builder("pedidos.idempotencia")
+                .description("Registros repetidos respondidos com a resposta original")
+                .tag("resultado", "repetido")
+                .register(meterRegistry);
+        this.conflitos = Counter.builder("pedidos.idempotencia")
+                .description("Registros rejeitados por reutilizar a chave com conteúdo diferente")
+                .tag("resultado", "conflito")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param chaveCliente Valor do cabeçalho {@code Idempotency-Key}, ou {@code null}.
+     * @param dto Dados de entrada do pedido.
+     * @return O pedido registrado (ou o registrado anteriormente) e se a resposta é uma repetição.
+     * @throws PedidoDuplicadoException Se a chave ou o código já foram usados com conteúdo diferente.
+     */
+    public ResultadoRegistro registrar(String chaveCliente, PedidoInputDTO dto) {
+        String codigoPedido = dto.getCodigoPedido();
+        String chave = RespostasIdempotentes.chave(chaveCliente, codigoPedido);
+        byte[] impressaoDigital = RespostasIdempotentes.impressaoDigital(dto);
+
+        RespostaRegistrada anterior = respostas.buscar(chave);
+        if (anterior == null && !chave.equals(codigoPedido)) {
+            anterior = respostas.buscar(codigoPedido);
+        }
+        if (anterior != null) {
+            if (!anterior.corresponde(impressaoDigital)) {
+                conflitos.increment();
+                throw new PedidoDuplicadoException("Pedido já registrado com conteúdo diferente: " + codigoPedido);
+            }
+            repetidos.increment();
+            logger.debug("Repetição do pedido {} respondida com o registro original", codigoPedido);
+            return new ResultadoRegistro(anterior.pedido(), true);
+        }
+
+        try {
+            PedidoResumoDTO pedido = PedidoMapper.paraResumo(pedidoService.registrarPedido(dto));
+            if (!chave.equals(codigoPedido)) {
+                respostas.armazenar(chave, new RespostaRegistrada(impressaoDigital, pedido));
+            }
+            return new ResultadoRegistro(pedido, false);
+        } catch (PedidoDuplicadoException duplicado) {
+            return repetirRegistroGravado(chave, codigoPedido, impressaoDigital, duplicado);
+        }
+    }
+
+    /**
+     * Caminho raro: o pedido já existe, mas sua resposta não está em memória (ou foi gravado por uma requisição
+     * concorrente). Compara com o pedido gravado para distinguir a repetição do conflito.
+     */
+    private ResultadoRegistro repetirRegistroGravado(String chave, String codigoPedido, byte[] impressaoDigital,
+                                                     PedidoDuplicadoException duplicado) {
+        PedidoResumoDTO gravado;
+        try {
+            gravado = consultaService.buscarPorCodigo(codigoPedido);
+        } catch (PedidoNaoEncontradoException e) {
+            throw duplicado;
+        }
+        RespostaRegistrada resposta = new RespostaRegistrada(RespostasIdempotentes.impressaoDigital(gravado), gravado);
+        if (!resposta.corresponde(impressaoDigital)) {
+            conflitos.increment();
+            throw duplicado;
+        }
+        respostas.armazenar(chave, resposta);
+        repetidos.increment();
+        return new ResultadoRegistro(gravado, true);
+    }
+
+    /**
+     * @param pedido Corpo da resposta 201.
+     * @param repetido {@code true} se é a resposta de um registro anterior.
+     */
+    public record ResultadoRegistro(PedidoResumoDTO pedido, boolean repetido) {
+    }
+}
@@ -0,0 +1,47 @@
+package br.com.testetech.testetech.sharding;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link DataSource} que entrega a conexão do shard escolhido para a thread corrente
+ * ({@link ShardsPedidos#executar}).
+ * <p>
+ * Sem shard escolhido (inicialização do Hibernate e leitura de metadados JDBC) a conexão vem do shard 0.
+ * Os pools dos shards são fechados junto com o contexto. Também encaminha as réplicas de leitura, uma por shard.
+ * </p>
+ */
+public class DataSourceShards extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private final List<? extends DataSource> shards;
+
+    public DataSourceShards(List<? extends DataSource> shards) {
+        this.shards = shards;
+        Map<Object, Object> alvos = new HashMap<>();
+        for (int i = 0; i < shards.size(); i++) {
+            alvos.put(i, shards.get(i));
+        }
+        setTargetDataSources(alvos);
+        setDefaultTargetDataSource(shards.get(0));
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ShardsPedidos.atual();
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (DataSource shard : shards) {
+            if (shard instanceof AutoCloseable pool) {
+                pool.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package br.com.testetech.testetech.sharding;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.SessionFactoryObserver;
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.model.relational.Namespace;
+import org.hibernate.boot.model.relational.Sequence;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.engine.jdbc.env.spi.JdbcEnvironment;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.hibernate.tool.schema.Action;
+import org.hibernate.tool.schema.spi.DelayedDropAction;
+import org.hibernate.tool.schema.spi.SchemaManagementToolCoordinator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Aplica o {@code spring.jpa.hibernate.ddl-auto} a cada shard e escalona as sequences de IDs entre eles.
+ * <p>
+ * O Hibernate gerencia o esquema por uma única conexão (a do shard 0); com particionamento, a ação é retirada
+ * da configuração ({@link ShardsConfig}) e executada aqui, shard a shard, ao final da criação da SessionFactory.
+ * </p>
+ * <p>
+ * O otimizador {@code pooled} das sequences é único na SessionFactory e reserva blocos de
+ * {@code allocationSize} IDs de qualquer shard, usando-os para INSERTs em qualquer outro. Para que os blocos
+ * nunca se repitam, a sequence do shard {@code i} de {@code n} passa a começar no fim do bloco {@code i} e a
+ * avançar {@code n} blocos por vez: os IDs continuam únicos em todos os shards (e a listagem pode desempatar
+ * por ID ao intercalar). O escalonamento só é aplicado quando a ação recria as sequences; em bancos já
+ * existentes ({@code none}, {@code update}) ele deve ter sido aplicado na criação.
+ * </p>
+ */
+class EsquemaShards implements Integrator, SessionFactoryObserver {
+
+    private static final EnumSet<Action> ACOES_QUE_CRIAM = EnumSet.of(Action.CREATE_ONLY, Action.CREATE, Action.CREATE_DROP);
+
+    private final Logger logger = LoggerFactory.getLogger(EsquemaShards.class);
+
+    private final ShardsPedidos shards;
+
+    private final Object acao;
+
+    private final Map<Integer, DelayedDropAction> remocoes = new ConcurrentHashMap<>();
+
+    private Metadata metadata;
+
+    EsquemaShards(ShardsPedidos shards, Object acao) {
+        this.shards = shards;
+        this.acao = acao;
+    }
+
+    @Override
+    public void integrate(Metadata metadata, BootstrapContext bootstrapContext, SessionFactoryImplementor sessionFactory) {
+        this.metadata = metadata;
+        sessionFactory.addObserver(this);
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+    }
+
+    @Override
+    public void sessionFactoryCreated(SessionFactory factory) {
+        if (acao == null || Action.interpretHbm2ddlSetting(acao) == Action.NONE) {
+            return;
+        }
+        SessionFactoryImplementor sessionFactory = (SessionFactoryImplementor) factory;
+        Map<String, Object> configuracao = new HashMap<>(sessionFactory.getProperties());
+        configuracao.put(AvailableSettings.HBM2DDL_AUTO, acao);
+        boolean escalonar = ACOES_QUE_CRIAM.contains(Action.interpretHbm2ddlSetting(acao));
+
+        shards.paraCadaShard(shard -> {
+            SchemaManagementToolCoordinator.process(metadata, sessionFactory.getServiceRegistry(), configuracao,
+                    remocao -> remocoes.put(shard, remocao));
+            if (escalonar) {
+                escalonarSequences(sessionFactory, shard);
+            }
+        });
+        logger.info("Esquema '{}' aplicado a {} shards", acao, shards.getQuantidade());
+    }
+
+    @Override
+    public void sessionFactoryClosing(SessionFactory factory) {
+        // Remoção do esquema ao encerrar (create-drop), em cada shard
+        SessionFactoryImplementor sessionFactory = (SessionFactoryImplementor) factory;
+        shards.paraCadaShard(shard -> {
+            DelayedDropAction remocao = remocoes.get(shard);
+            if (remocao != null) {
+                remocao.perform(sessionFactory.getServiceRegistry());
+            }
+        });
+    }
+
+    private void escalonarSequences(SessionFactoryImplementor sessionFactory, int shard) {
+        JdbcEnvironment ambiente = sessionFactory.getJdbcServices().getJdbcEnvironment();
+        ConnectionProvider conexoes = sessionFactory.getServiceRegistry().requireService(ConnectionProvider.class);
+        int quantidade = shards.getQuantidade();
+        try {
+            Connection conexao = conexoes.getConnection();
+            try (Statement comando = conexao.createStatement()) {
+                for (Namespace namespace : metadata.getDatabase().getNamespaces()) {
+                    for (Sequence sequence : namespace.getSequences()) {
+                        String nome = ambiente.getQualifiedObjectNameFormatter().format(sequence.getName(), ambiente.getDialect());
+                        long inicio = sequence.getInitialValue() - 1L + (long) sequence.getIncrementSize() * (shard + 1);
+                        long incremento = (long) sequence.getIncrementSize() * quantidade;
+                        comando.execute("alter sequence " + nome + " restart with " + inicio + " increment by " + incremento);
+                    }
+                }
+                if (!conexao.getAutoCommit()) {
+                    conexao.commit();
+                }
+            } finally {
+                conexoes.closeConnection(conexao);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Falha ao escalonar as sequences do shard " + shard, e);
+        }
+    }
+}
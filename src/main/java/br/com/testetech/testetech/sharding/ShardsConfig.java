@@ -0,0 +1,77 @@
+package br.com.testetech.testetech.sharding;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.id.SequenceMismatchStrategy;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.jpa.boot.spi.JpaSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Substitui o {@link DataSource} de {@code spring.datasource} por um pool HikariCP por shard
+ * ({@code pedidos.sharding.urls}), atrás do {@link DataSourceShards}.
+ * <p>
+ * Usuário, senha e driver continuam vindo de {@code spring.datasource.*}. Cada pool publica as métricas
+ * {@code hikaricp.*} com a tag {@code pool=shard-<i>}. Localmente, basta informar várias URLs H2 em memória,
+ * ex: {@code jdbc:h2:mem:shard0,jdbc:h2:mem:shard1}.
+ * </p>
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnExpression("!'${pedidos.sharding.urls:}'.isBlank()")
+public class ShardsConfig {
+
+    @Bean
+    public DataSource dataSource(ShardsPedidos shards, DataSourceProperties propriedades, MeterRegistry meterRegistry,
+                                 @Value("${pedidos.sharding.tamanho-pool:10}") int tamanhoPool) {
+        List<HikariDataSource> pools = new ArrayList<>(shards.getQuantidade());
+        for (int i = 0; i < shards.getQuantidade(); i++) {
+            pools.add(criarPool("shard-" + i, shards.getUrls().get(i), propriedades, tamanhoPool, meterRegistry));
+        }
+        return new DataSourceShards(pools);
+    }
+
+    /**
+     * Cria um pool HikariCP para a URL informada, com driver e credenciais de {@code spring.datasource.*} e
+     * métricas {@code hikaricp.*} com a tag {@code pool=<nome>}.
+     */
+    public static HikariDataSource criarPool(String nome, String url, DataSourceProperties propriedades, int tamanhoPool,
+                                             MeterRegistry meterRegistry) {
+        HikariDataSource pool = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(propriedades.determineDriverClassName())
+                .url(url)
+                .username(propriedades.determineUsername())
+                .password(propriedades.determinePassword())
+                .build();
+        pool.setPoolName(nome);
+        pool.setMaximumPoolSize(tamanhoPool);
+        pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return pool;
+    }
+
+    /**
+     * Transfere o {@code ddl-auto} do Hibernate para o {@link EsquemaShards}, que o aplica a cada shard.
+     * A verificação do incremento das sequences é desligada porque, nos shards, ele é múltiplo do
+     * {@code allocationSize} por construção.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer esquemaShards(ShardsPedidos shards) {
+        return propriedades -> {
+            EsquemaShards esquema = new EsquemaShards(shards, propriedades.remove(AvailableSettings.HBM2DDL_AUTO));
+            propriedades.put(JpaSettings.INTEGRATOR_PROVIDER, (IntegratorProvider) () -> List.of(esquema));
+            propriedades.put(AvailableSettings.SEQUENCE_INCREMENT_SIZE_MISMATCH_STRATEGY, SequenceMismatchStrategy.NONE);
+        };
+    }
+}
@@ -0,0 +1,319 @@
+package br.com.testetech.testetech.sharding;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * Particionamento (sharding) dos pedidos por hash do {@code codigoPedido} entre os bancos configurados em
+ * {@code pedidos.sharding.urls}.
+ * <p>
+ * Cada código pertence a exatamente um shard ({@link #shardDe}), cujo índice único {@code idx_codigo_pedido}
+ * continua garantindo a unicidade: repetições de um código sempre chegam ao mesmo banco. O shard é escolhido
+ * por thread ({@link #executar}) antes de a transação obter a conexão, e o {@link DataSourceShards} encaminha a
+ * conexão ao banco correspondente. Escritas e consultas por código tocam um único shard; consultas sem código
+ * (listagens, varreduras) são distribuídas a todos em paralelo ({@link #executarEmTodos}) e os resultados,
+ * já ordenados por shard, são intercalados ({@link #intercalar}).
+ * </p>
+ * <p>
+ * Sem {@code pedidos.sharding.urls} há um único shard e todos os métodos executam diretamente na thread
+ * chamadora, sobre o banco de {@code spring.datasource}. A função de hash é estável entre execuções; alterar a
+ * quantidade de shards exige redistribuir os pedidos existentes.
+ * </p>
+ */
+@Component
+public class ShardsPedidos implements AutoCloseable {
+
+    private static final ThreadLocal<Integer> ATUAL = new ThreadLocal<>();
+
+    private final List<String> urls;
+
+    private final int quantidade;
+
+    /**
+     * Threads das consultas distribuídas; cada tarefa abre a própria transação no seu shard.
+     */
+    private final ExecutorService executor;
+
+    public ShardsPedidos(@Value("${pedidos.sharding.urls:}") List<String> urls,
+                         @Value("${pedidos.sharding.threads-por-shard:4}") int threadsPorShard) {
+        this.urls = urls.stream().map(String::trim).filter(url -> !url.isEmpty()).toList();
+        this.quantidade = Math.max(1, this.urls.size());
+        // Limitado: cada tarefa ocupa uma conexão do shard; o excedente aguarda na fila em vez de criar threads
+        this.executor = quantidade > 1
+                ? Executors.newFixedThreadPool(quantidade * Math.max(1, threadsPorShard),
+                        Thread.ofPlatform().name("shard-", 0).daemon().factory())
+                : null;
+    }
+
+    /**
+     * @return Shard escolhido para a thread corrente, ou {@code null} fora de {@link #executar}.
+     */
+    static Integer atual() {
+        return ATUAL.get();
+    }
+
+    /**
+     * @return URLs JDBC dos shards, na ordem dos índices (vazia sem particionamento).
+     */
+    List<String> getUrls() {
+        return urls;
+    }
+
+    public int getQuantidade() {
+        return quantidade;
+    }
+
+    /**
+     * @return {@code true} se há mais de um shard configurado.
+     */
+    public boolean isAtivo() {
+        return quantidade > 1;
+    }
+
+    /**
+     * @param codigoPedido Código de negócio do pedido.
+     * @return Índice do shard que armazena o pedido, em {@code [0, quantidade)}.
+     */
+    public int shardDe(String codigoPedido) {
+        if (quantidade == 1) {
+            return 0;
+        }
+        // String.hashCode é especificado (estável entre JVMs); a mistura (fmix32 do MurmurHash3)
+        // espalha códigos sequenciais como PEDIDO-1, PEDIDO-2... entre os shards
+        int h = codigoPedido.hashCode();
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return Math.floorMod(h, quantidade);
+    }
+
+    /**
+     * Executa a ação com as conexões da thread direcionadas ao shard informado.
+     * <p>
+     * Deve envolver a transação (e não ser chamado dentro dela): a conexão é obtida no início da transação.
+     * </p>
+     *
+     * @throws IllegalStateException Se uma transação já estiver ativa em outro shard.
+     */
+    public <T> T executar(int shard, Supplier<T> acao) {
+        if (quantidade == 1) {
+            return acao.get();
+        }
+        Integer anterior = ATUAL.get();
+        if (anterior != null && anterior == shard) {
+            return acao.get();
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("O shard deve ser escolhido antes de iniciar a transação");
+        }
+        ATUAL.set(shard);
+        try {
+            return acao.get();
+        } finally {
+            if (anterior == null) {
+                ATUAL.remove();
+            } else {
+                ATUAL.set(anterior);
+            }
+        }
+    }
+
+    /**
+     * Executa a ação no shard do pedido (ver {@link #executar}).
+     */
+    public <T> T executarPorCodigo(String codigoPedido, Supplier<T> acao) {
+        return executar(shardDe(codigoPedido), acao);
+    }
+
+    /**
+     * Executa a ação em cada shard, um de cada vez, na thread chamadora (ex: varreduras em streaming que
+     * alimentam um único acumulador).
+     */
+    public void paraCadaShard(IntConsumer acao) {
+        for (int shard = 0; shard < quantidade; shard++) {
+            int indice = shard;
+            executar(indice, () -> {
+                acao.accept(indice);
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Executa a função em todos os shards em paralelo (scatter) e aguarda todos (gather).
+     * <p>
+     * Com um único shard, executa na thread chamadora. Se alguma execução falhar, a primeira falha é relançada
+     * depois que todas terminarem.
+     * </p>
+     *
+     * @param consulta Função aplicada a cada índice de shard, já direcionado a ele; deve abrir a própria transação.
+     * @return Resultados indexados pelo shard.
+     */
+    public <T> List<T> executarEmTodos(IntFunction<T> consulta) {
+        if (quantidade == 1) {
+            return Collections.singletonList(consulta.apply(0));
+        }
+        List<CompletableFuture<T>> tarefas = new ArrayList<>(quantidade);
+        for (int shard = 0; shard < quantidade; shard++) {
+            int indice = shard;
+            tarefas.add(CompletableFuture.supplyAsync(() -> executar(indice, () -> consulta.apply(indice)), executor));
+        }
+        List<T> resultados = new ArrayList<>(quantidade);
+        RuntimeException falha = null;
+        for (CompletableFuture<T> tarefa : tarefas) {
+            try {
+                resultados.add(tarefa.join());
+            } catch (CompletionException e) {
+                resultados.add(null);
+                if (falha == null) {
+                    falha = e.getCause() instanceof RuntimeException causa ? causa : e;
+                }
+            }
+        }
+        if (falha != null) {
+            throw falha;
+        }
+        return resultados;
+    }
+
+    /**
+     * Agrupa os elementos pelo shard do seu código, aplica a função a cada grupo no respectivo shard (em paralelo)
+     * e remonta os resultados na ordem original.
+     *
+     * @param itens Elementos a distribuir.
+     * @param codigo Código de pedido que define o shard de cada elemento.
+     * @param noShard Função que devolve, para um grupo, uma lista do mesmo tamanho e na mesma ordem.
+     * @return Resultados na ordem de {@code itens}.
+     */
+    public <T, R> List<R> distribuir(List<T> itens, Function<T, String> codigo, Function<List<T>, List<R>> noShard) {
+        if (quantidade == 1 || itens.isEmpty()) {
+            return noShard.apply(itens);
+        }
+        List<List<T>> grupos = new ArrayList<>(quantidade);
+        List<List<Integer>> posicoes = new ArrayList<>(quantidade);
+        for (int shard = 0; shard < quantidade; shard++) {
+            grupos.add(new ArrayList<>());
+            posicoes.add(new ArrayList<>());
+        }
+        for (int i = 0; i < itens.size(); i++) {
+            int shard = shardDe(codigo.apply(itens.get(i)));
+            grupos.get(shard).add(itens.get(i));
+            posicoes.get(shard).add(i);
+        }
+        List<List<R>> porShard = executarEmTodos(shard -> grupos.get(shard).isEmpty()
+                ? List.<R>of()
+                : noShard.apply(grupos.get(shard)));
+
+        List<R> resultado = new ArrayList<>(Collections.nCopies(itens.size(), null));
+        for (int shard = 0; shard < quantidade; shard++) {
+            List<R> grupo = porShard.get(shard);
+            for (int i = 0; i < grupo.size(); i++) {
+                resultado.set(posicoes.get(shard).get(i), grupo.get(i));
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Intercalação k-way de listas já ordenadas (uma por shard), com a mesma semântica de OFFSET/LIMIT
+     * sobre o resultado combinado.
+     *
+     * @param ordenadas Listas ordenadas segundo {@code ordem}.
+     * @param ordem Ordenação comum às listas.
+     * @param descartar Quantidade de elementos iniciais a descartar.
+     * @param limite Quantidade máxima de elementos devolvidos.
+     * @return Até {@code limite} elementos, na ordem combinada.
+     */
+    public static <T> List<T> intercalar(List<? extends List<T>> ordenadas, Comparator<? super T> ordem,
+                                         long descartar, int limite) {
+        int[] posicoes = new int[ordenadas.size()];
+        PriorityQueue<Integer> cabecas = new PriorityQueue<>(Math.max(1, ordenadas.size()),
+                (a, b) -> ordem.compare(ordenadas.get(a).get(posicoes[a]), ordenadas.get(b).get(posicoes[b])));
+        for (int i = 0; i < ordenadas.size(); i++) {
+            if (!ordenadas.get(i).isEmpty()) {
+                cabecas.add(i);
+            }
+        }
+        List<T> resultado = new ArrayList<>(limite);
+        long descartados = 0;
+        while (!cabecas.isEmpty() && resultado.size() < limite) {
+            int lista = cabecas.poll();
+            T elemento = ordenadas.get(lista).get(posicoes[lista]++);
+            if (descartados < descartar) {
+                descartados++;
+            } else {
+                resultado.add(elemento);
+            }
+            if (posicoes[lista] < ordenadas.get(lista).size()) {
+                cabecas.add(lista);
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Intercalação k-way preguiçosa de iteradores já ordenados: cada iterador é avançado somente quando o seu
+     * elemento corrente é consumido, mantendo em memória um elemento por shard.
+     *
+     * @param ordenados Iteradores ordenados segundo {@code ordem}.
+     * @param ordem Ordenação comum aos iteradores.
+     * @return Iterador sobre todos os elementos, na ordem combinada.
+     */
+    public static <T> Iterator<T> intercalar(List<? extends Iterator<T>> ordenados, Comparator<? super T> ordem) {
+        List<T> cabecas = new ArrayList<>(Collections.nCopies(ordenados.size(), null));
+        PriorityQueue<Integer> fila = new PriorityQueue<>(Math.max(1, ordenados.size()),
+                (a, b) -> ordem.compare(cabecas.get(a), cabecas.get(b)));
+        for (int i = 0; i < ordenados.size(); i++) {
+            if (ordenados.get(i).hasNext()) {
+                cabecas.set(i, ordenados.get(i).next());
+                fila.add(i);
+            }
+        }
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return !fila.isEmpty();
+            }
+
+            @Override
+            public T next() {
+                if (fila.isEmpty()) {
+                    throw new NoSuchElementException();
+                }
+                int i = fila.poll();
+                T elemento = cabecas.get(i);
+                if (ordenados.get(i).hasNext()) {
+                    cabecas.set(i, ordenados.get(i).next());
+                    fila.add(i);
+                }
+                return elemento;
+            }
+        };
+    }
+
+    @Override
+    public void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -1,23 +1,30 @@
 package br.com.testetech.testetech;
 
+import br.com.testetech.testetech.dedupe.FiltroCodigosPedido;
 import br.com.testetech.testetech.dto.ItemDTO;
 import br.com.testetech.testetech.dto.PedidoInputDTO;
 import br.com.testetech.testetech.exception.PedidoDuplicadoException;
+import br.com.testetech.testetech.metricas.MetricasRegistroPedido;
+import br.com.testetech.testetech.model.ArmazenamentoItens;
 import br.com.testetech.testetech.model.Pedido;
 import br.com.testetech.testetech.model.PedidoStatus;
 import br.com.testetech.testetech.repository.PedidoRepository;
+import br.com.testetech.testetech.service.EstrategiaDeduplicacao;
 import br.com.testetech.testetech.service.PedidoService;
+import br.com.testetech.testetech.sharding.ShardsPedidos;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
-import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -30,16 +37,35 @@ class PedidoServiceTest {
     @Mock
     private PedidoRepository repository;
 
+    /**
+     * Filtro simulado sempre responde "talvez existente", forçando a verificação no repositório.
+     */
+    @Mock
+    private FiltroCodigosPedido filtroCodigos;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     /**
      * Isso cria um registro de métricas real em memória para o teste,
      * evitando que o contador seja nulo e cause erro no construtor.
      */
-    @Spy
-    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    /**
+     * Eventos publicados pelo serviço (entregues aos modelos de leitura após o commit).
+     */
+    private final List<Object> eventos = new ArrayList<>();
 
-    @InjectMocks
     private PedidoService service;
 
+    @BeforeEach
+    void setUp() {
+        MetricasRegistroPedido metricas = new MetricasRegistroPedido(meterRegistry, new Duration[]{Duration.ofMillis(10)}, false);
+        service = new PedidoService(repository, transactionManager, new ShardsPedidos(List.of(), 4), meterRegistry,
+                EstrategiaDeduplicacao.VERIFICACAO_PREVIA, filtroCodigos, metricas, eventos::add, ArmazenamentoItens.NORMALIZADO);
+    }
+
     @Test
     @DisplayName("Deve calcular o valor total corretamente e salvar o pedido")
     void shouldCalculateTotalAndSaveOrder() {
@@ -50,7 +76,7 @@ class PedidoServiceTest {
         PedidoInputDTO input = new PedidoInputDTO("PEDIDO-123", List.of(item1, item2));
 
         when(repository.existsByCodigoPedido("PEDIDO-123")).thenReturn(false);
-        when(repository.save(any(Pedido.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(repository.saveAndFlush(any(Pedido.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         // ACTION
         Pedido result = service.registrarPedido(input);
@@ -60,7 +86,11 @@ class PedidoServiceTest {
         assertEquals(new BigDecimal("50.00"), result.getValorTotal());
         assertEquals(PedidoStatus.CALCULADO, result.getStatus());
 
-        verify(repository, times(1)).save(any(Pedido.class));
+        verify(repository, times(1)).saveAndFlush(any(Pedido.class));
+        assertEquals(1, eventos.size());
+        for (String etapa : List.of("deduplicacao", "mapeamento", "calculo_total", "persistencia")) {
+            assertEquals(1, meterRegistry.get("pedidos.registro.etapa").tag("etapa", etapa).timer().count(), etapa);
+        }
     }
 
     @Test
@@ -77,6 +107,7 @@ class PedidoServiceTest {
             service.registrarPedido(input);
         });
 
-        verify(repository, never()).save(any());
+        verify(repository, never()).saveAndFlush(any());
+        assertEquals(1.0, meterRegistry.get("pedidos.duplicados").tag("deteccao", "consulta").counter().count());
     }
 }
\ No newline at end of file
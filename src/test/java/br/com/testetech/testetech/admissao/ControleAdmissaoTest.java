@@ -0,0 +1,134 @@
+package br.com.testetech.testetech.admissao;
+
+import br.com.testetech.testetech.controller.PedidoController;
+import br.com.testetech.testetech.dto.ItemResumoDTO;
+import br.com.testetech.testetech.dto.PedidoResumoDTO;
+import br.com.testetech.testetech.ingestao.IngestaoAssincrona;
+import br.com.testetech.testetech.model.PedidoStatus;
+import br.com.testetech.testetech.service.PedidoConsultaService;
+import br.com.testetech.testetech.service.PedidoLoteService;
+import br.com.testetech.testetech.service.PedidoLoteStreamingService;
+import br.com.testetech.testetech.service.RegistroIdempotenteService;
+import br.com.testetech.testetech.service.RegistroIdempotenteService.ResultadoRegistro;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Teste do controle de admissão nos endpoints de pedidos, com limite de uma requisição de escrita e os serviços
+ * simulados.
+ */
+@WebMvcTest(value = PedidoController.class, properties = {
+        "pedidos.admissao.limite-minimo=1",
+        "pedidos.admissao.escrita.limite-inicial=1",
+        "pedidos.admissao.escrita.limite-maximo=1",
+        "pedidos.admissao.retry-after=2s"
+})
+class ControleAdmissaoTest {
+
+    private static final String CORPO = """
+            {"codigoPedido":"PEDIDO-1","items":[{"produtoId":"PRODUTO-1","valorUnitario":10.50,"quantidade":2}]}""";
+
+    private static final PedidoResumoDTO PEDIDO = new PedidoResumoDTO(1L, "PEDIDO-1",
+            List.of(new ItemResumoDTO("PRODUTO-1", new BigDecimal("10.50"), 2)), new BigDecimal("21.00"),
+            PedidoStatus.CALCULADO, LocalDateTime.of(2025, 12, 5, 10, 0));
+
+    @TestConfiguration
+    static class MetricasConfig {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @MockitoBean
+    private RegistroIdempotenteService service;
+
+    @MockitoBean
+    private PedidoLoteService loteService;
+
+    @MockitoBean
+    private PedidoLoteStreamingService loteStreamingService;
+
+    @MockitoBean
+    private PedidoConsultaService consultaService;
+
+    @MockitoBean
+    private IngestaoAssincrona ingestaoAssincrona;
+
+    @Test
+    @DisplayName("Deve recusar com 429 e Retry-After a escrita excedente, sem afetar as leituras")
+    void shouldShedExcessWritesWithoutAffectingReads() throws Exception {
+        // GIVEN: um registro em andamento ocupa a única vaga de escrita
+        CountDownLatch emAndamento = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        when(service.registrar(isNull(), any())).thenAnswer(invocacao -> {
+            emAndamento.countDown();
+            liberar.await(10, TimeUnit.SECONDS);
+            return new ResultadoRegistro(PEDIDO, false);
+        });
+        when(consultaService.buscarPorCodigo("PEDIDO-1")).thenReturn(PEDIDO);
+        CompletableFuture<Integer> primeiro = CompletableFuture.supplyAsync(() -> criar().getStatus());
+        assertTrue(emAndamento.await(10, TimeUnit.SECONDS));
+
+        // WHEN / THEN
+        mockMvc.perform(post("/api/pedidos").contentType(MediaType.APPLICATION_JSON).content(CORPO))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "2"))
+                .andExpect(jsonPath("$.status").value(429));
+        mockMvc.perform(get("/api/pedidos/PEDIDO-1"))
+                .andExpect(status().isOk());
+
+        liberar.countDown();
+        assertEquals(201, primeiro.get(10, TimeUnit.SECONDS));
+        assertEquals(201, criar().getStatus());
+        verify(service, times(2)).registrar(isNull(), any());
+        assertEquals(1, meterRegistry.get("pedidos.admissao.rejeicoes").tag("rota", "escrita").counter().count());
+        assertEquals(0, meterRegistry.get("pedidos.admissao.em.execucao").tag("rota", "escrita").gauge().value());
+    }
+
+    private MockHttpServletResponse criar() {
+        try {
+            return mockMvc.perform(post("/api/pedidos").contentType(MediaType.APPLICATION_JSON).content(CORPO))
+                    .andReturn()
+                    .getResponse();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
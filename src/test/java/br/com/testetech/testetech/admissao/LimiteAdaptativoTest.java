@@ -0,0 +1,101 @@
+package br.com.testetech.testetech.admissao;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Teste unitário do ajuste do limite de concorrência pela latência.
+ */
+class LimiteAdaptativoTest {
+
+    private static final long MILISSEGUNDO = 1_000_000;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("Deve recusar além do limite e contar as rejeições")
+    void shouldRejectBeyondLimit() {
+        // GIVEN
+        LimiteAdaptativo limite = new LimiteAdaptativo("escrita", 2, 1, 10, 1.5, meterRegistry);
+
+        // WHEN
+        boolean primeira = limite.tentarAdquirir();
+        boolean segunda = limite.tentarAdquirir();
+        boolean excedente = limite.tentarAdquirir();
+        limite.descartar();
+        boolean aposDescarte = limite.tentarAdquirir();
+
+        // THEN
+        assertTrue(primeira);
+        assertTrue(segunda);
+        assertFalse(excedente);
+        assertTrue(aposDescarte);
+        assertEquals(1, meterRegistry.get("pedidos.admissao.rejeicoes").tag("rota", "escrita").counter().count());
+        assertEquals(2, meterRegistry.get("pedidos.admissao.em.execucao").tag("rota", "escrita").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Deve crescer com latência estável e encolher quando a latência sobe")
+    void shouldGrowWhileLatencyIsStableAndShrinkWhenItRises() {
+        // GIVEN
+        LimiteAdaptativo limite = new LimiteAdaptativo("escrita", 10, 4, 200, 1.5, meterRegistry);
+
+        // WHEN
+        saturar(limite, 20, MILISSEGUNDO);
+        int expandido = limite.getLimite();
+        saturar(limite, 5, 20 * MILISSEGUNDO);
+
+        // THEN
+        assertTrue(expandido > 10, "Limite não cresceu: " + expandido);
+        assertTrue(limite.getLimite() < expandido / 2, "Limite não encolheu: " + limite.getLimite());
+        assertEquals(limite.getLimite(), meterRegistry.get("pedidos.admissao.limite").tag("rota", "escrita").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Não deve crescer sem demanda nem sair da faixa configurada")
+    void shouldNotGrowWhenAppLimitedAndStayWithinBounds() {
+        // GIVEN
+        LimiteAdaptativo ocioso = new LimiteAdaptativo("leitura", 20, 4, 200, 1.5, meterRegistry);
+        LimiteAdaptativo estreito = new LimiteAdaptativo("escrita", 10, 4, 12, 1.5, meterRegistry);
+
+        // WHEN
+        // Uma requisição por vez: a demanda nunca chega ao limite
+        int admitidas = 0;
+        for (int i = 0; i < 100; i++) {
+            if (ocioso.tentarAdquirir()) {
+                admitidas++;
+                ocioso.liberar(MILISSEGUNDO);
+            }
+        }
+        saturar(estreito, 20, MILISSEGUNDO);
+        int maximo = estreito.getLimite();
+        saturar(estreito, 50, 500 * MILISSEGUNDO);
+
+        // THEN
+        assertEquals(100, admitidas);
+        assertEquals(20, ocioso.getLimite());
+        assertEquals(12, maximo);
+        assertEquals(4, estreito.getLimite());
+    }
+
+    /**
+     * Ocupa todas as vagas e as libera com a latência informada, pelo número de rodadas informado.
+     */
+    private static void saturar(LimiteAdaptativo limite, int rodadas, long rttNanos) {
+        for (int rodada = 0; rodada < rodadas; rodada++) {
+            int admitidas = 0;
+            while (limite.tentarAdquirir()) {
+                admitidas++;
+            }
+            for (int i = 0; i < admitidas; i++) {
+                limite.liberar(rttNanos);
+            }
+        }
+    }
+}
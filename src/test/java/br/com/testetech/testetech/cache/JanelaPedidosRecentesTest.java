@@ -0,0 +1,134 @@
+package br.com.testetech.testetech.cache;
+
+import br.com.testetech.testetech.dto.PedidoResumoDTO;
+import br.com.testetech.testetech.evento.PedidoRegistradoEvent;
+import br.com.testetech.testetech.model.PedidoStatus;
+import br.com.testetech.testetech.repository.PedidoRepository;
+import br.com.testetech.testetech.sharding.ShardsPedidos;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * Teste unitário da janela de pedidos recentes, com repositório e gerenciador de transações simulados.
+ */
+@ExtendWith(MockitoExtension.class)
+class JanelaPedidosRecentesTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 12, 5, 10, 0);
+
+    private static final Sort ORDENACAO_PADRAO = Sort.by(Sort.Direction.DESC, "dataCriacao");
+
+    @Mock
+    private PedidoRepository repository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final AtomicLong ids = new AtomicLong();
+
+    private JanelaPedidosRecentes janela;
+
+    @BeforeEach
+    void setUp() {
+        janela = new JanelaPedidosRecentes(repository, transactionManager, new ShardsPedidos(List.of(), 4),
+                new SimpleMeterRegistry(), true, 8);
+    }
+
+    @Test
+    @DisplayName("Deve servir a primeira página padrão com os pedidos carregados e os recebidos por evento")
+    void shouldServeFirstPageFromSeedAndEvents() {
+        // GIVEN: 3 pedidos no banco (mais recentes primeiro) e 20 no total
+        List<PedidoResumoDTO> existentes = List.of(pedido(3), pedido(2), pedido(1));
+        when(repository.findMaisRecentes(any(Limit.class))).thenReturn(existentes);
+        when(repository.anexarItens(existentes)).thenReturn(existentes);
+        when(repository.count()).thenReturn(20L);
+        janela.start();
+
+        // WHEN
+        List<PedidoResumoDTO> novos = new ArrayList<>();
+        for (int minuto = 4; minuto <= 12; minuto++) {
+            PedidoResumoDTO pedido = pedido(minuto);
+            novos.add(pedido);
+            janela.registrar(new PedidoRegistradoEvent(pedido));
+        }
+        Page<PedidoResumoDTO> pagina = janela.primeiraPagina(PageRequest.of(0, 5, ORDENACAO_PADRAO), true);
+
+        // THEN
+        assertEquals(29, pagina.getTotalElements());
+        assertEquals(List.of(novos.get(8), novos.get(7), novos.get(6), novos.get(5), novos.get(4)), pagina.getContent());
+        assertEquals(8, janela.recentes(8, true).size(), "A janela retém apenas as 8 entradas mais recentes");
+        assertNull(janela.primeiraPagina(PageRequest.of(0, 5, ORDENACAO_PADRAO), false).getContent().get(0).getItems());
+    }
+
+    @Test
+    @DisplayName("Deve atender apenas a primeira página da ordenação padrão que caiba na janela")
+    void shouldOnlyServeDefaultFirstPage() {
+        when(repository.findMaisRecentes(any(Limit.class))).thenReturn(List.of());
+        when(repository.anexarItens(List.of())).thenReturn(List.of());
+        assertFalse(janela.atende(PageRequest.of(0, 5, ORDENACAO_PADRAO)), "Antes do carregamento, tudo vai ao banco");
+
+        janela.start();
+
+        assertTrue(janela.atende(PageRequest.of(0, 8, ORDENACAO_PADRAO)));
+        assertFalse(janela.atende(PageRequest.of(1, 5, ORDENACAO_PADRAO)));
+        assertFalse(janela.atende(PageRequest.of(0, 9, ORDENACAO_PADRAO)));
+        assertFalse(janela.atende(PageRequest.of(0, 5, Sort.by("valorTotal"))));
+        assertFalse(janela.atende(PageRequest.of(0, 5, Sort.by(Sort.Direction.ASC, "dataCriacao"))));
+    }
+
+    @Test
+    @DisplayName("Deve aceitar registros concorrentes sem perder a contagem nem repetir pedidos")
+    void shouldAcceptConcurrentRegistrations() throws InterruptedException {
+        // GIVEN
+        when(repository.findMaisRecentes(any(Limit.class))).thenReturn(List.of());
+        when(repository.anexarItens(List.of())).thenReturn(List.of());
+        janela.start();
+
+        // WHEN
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    janela.registrar(new PedidoRegistradoEvent(pedido(i)));
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // THEN
+        Page<PedidoResumoDTO> pagina = janela.primeiraPagina(PageRequest.of(0, 8, ORDENACAO_PADRAO), true);
+        assertEquals(40_000, pagina.getTotalElements());
+        assertEquals(8, pagina.getContent().stream().map(PedidoResumoDTO::getId).distinct().count());
+    }
+
+    private PedidoResumoDTO pedido(int minuto) {
+        long id = ids.incrementAndGet();
+        return new PedidoResumoDTO(id, "PEDIDO-" + id, List.of(), new BigDecimal("10.00"),
+                PedidoStatus.CALCULADO, BASE.plusMinutes(minuto));
+    }
+}
@@ -0,0 +1,147 @@
+package br.com.testetech.testetech.controller;
+
+import br.com.testetech.testetech.config.FormatosBinariosConfig;
+import br.com.testetech.testetech.dto.ItemDTO;
+import br.com.testetech.testetech.dto.ItemResumoDTO;
+import br.com.testetech.testetech.dto.PedidoInputDTO;
+import br.com.testetech.testetech.dto.PedidoResumoDTO;
+import br.com.testetech.testetech.ingestao.IngestaoAssincrona;
+import br.com.testetech.testetech.model.PedidoStatus;
+import br.com.testetech.testetech.service.PedidoConsultaService;
+import br.com.testetech.testetech.service.PedidoLoteService;
+import br.com.testetech.testetech.service.PedidoLoteStreamingService;
+import br.com.testetech.testetech.service.RegistroIdempotenteService;
+import br.com.testetech.testetech.service.RegistroIdempotenteService.ResultadoRegistro;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Teste da negociação de formato (JSON, CBOR e Smile) em {@code criar} e {@code listar}, com os serviços simulados.
+ */
+@WebMvcTest(PedidoController.class)
+@Import(FormatosBinariosConfig.class)
+class PedidoControllerFormatosTest {
+
+    private static final MediaType SMILE = MediaType.valueOf("application/x-jackson-smile");
+
+    private static final PedidoResumoDTO PEDIDO = new PedidoResumoDTO(1L, "PEDIDO-1",
+            List.of(new ItemResumoDTO("PRODUTO-1", new BigDecimal("10.50"), 2)), new BigDecimal("21.00"),
+            PedidoStatus.CALCULADO, LocalDateTime.of(2025, 12, 5, 10, 0));
+
+    @TestConfiguration
+    static class MetricasConfig {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    private final ObjectMapper cbor = Jackson2ObjectMapperBuilder.cbor().build();
+
+    private final ObjectMapper smile = Jackson2ObjectMapperBuilder.smile().build();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper json;
+
+    @MockitoBean
+    private RegistroIdempotenteService service;
+
+    @MockitoBean
+    private PedidoLoteService loteService;
+
+    @MockitoBean
+    private PedidoLoteStreamingService loteStreamingService;
+
+    @MockitoBean
+    private PedidoConsultaService consultaService;
+
+    @MockitoBean
+    private IngestaoAssincrona ingestaoAssincrona;
+
+    @Test
+    @DisplayName("Deve aceitar pedido em CBOR e responder no formato pedido em Accept")
+    void shouldCreateFromCborAndNegotiateResponse() throws Exception {
+        // GIVEN
+        when(service.registrar(isNull(), any())).thenReturn(new ResultadoRegistro(PEDIDO, false));
+        PedidoInputDTO entrada = new PedidoInputDTO("PEDIDO-1", List.of(new ItemDTO("PRODUTO-1", new BigDecimal("10.50"), 2)));
+
+        // WHEN
+        MvcResult resultado = mockMvc.perform(post("/api/pedidos")
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .accept(SMILE)
+                        .content(cbor.writeValueAsBytes(entrada)))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType(SMILE))
+                .andReturn();
+
+        // THEN
+        ArgumentCaptor<PedidoInputDTO> recebido = ArgumentCaptor.forClass(PedidoInputDTO.class);
+        verify(service).registrar(isNull(), recebido.capture());
+        assertEquals("PEDIDO-1", recebido.getValue().getCodigoPedido());
+        assertEquals(new BigDecimal("10.50"), recebido.getValue().getItems().get(0).getValorUnitario());
+
+        JsonNode corpo = smile.readTree(resultado.getResponse().getContentAsByteArray());
+        assertEquals("PEDIDO-1", corpo.get("codigoPedido").asText());
+        assertEquals("2025-12-05T10:00:00", corpo.get("dataCriacao").asText(), "Datas seguem o formato do JSON");
+    }
+
+    @Test
+    @DisplayName("Deve listar em CBOR quando solicitado e manter JSON como padrão")
+    void shouldListInCborAndDefaultToJson() throws Exception {
+        // GIVEN
+        when(consultaService.listarTodos(any(Pageable.class), anyBoolean())).thenReturn(new PageImpl<>(List.of(PEDIDO)));
+
+        // WHEN
+        MvcResult binario = mockMvc.perform(get("/api/pedidos").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn();
+        MvcResult padrao = mockMvc.perform(get("/api/pedidos"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andReturn();
+
+        // THEN
+        JsonNode pedidoCbor = cbor.readTree(binario.getResponse().getContentAsByteArray()).get("content").get(0);
+        JsonNode pedidoJson = json.readTree(padrao.getResponse().getContentAsByteArray()).get("content").get(0);
+        assertEquals(pedidoJson.get("codigoPedido"), pedidoCbor.get("codigoPedido"));
+        assertEquals(pedidoJson.get("dataCriacao"), pedidoCbor.get("dataCriacao"));
+        assertEquals(0, pedidoJson.get("valorTotal").decimalValue().compareTo(pedidoCbor.get("valorTotal").decimalValue()));
+        assertEquals(pedidoJson.get("items").get(0).get("produtoId"), pedidoCbor.get("items").get(0).get("produtoId"));
+    }
+}
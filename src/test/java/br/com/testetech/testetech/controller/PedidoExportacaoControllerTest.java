@@ -0,0 +1,94 @@
+package br.com.testetech.testetech.controller;
+
+import br.com.testetech.testetech.exportacao.ExportacaoPedidos;
+import br.com.testetech.testetech.exportacao.FormatoExportacao;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Teste do tempo limite e da negociação de gzip da exportação, com a exportação simulada.
+ */
+@WebMvcTest(value = PedidoExportacaoController.class, properties = "pedidos.exportacao.timeout=2h")
+class PedidoExportacaoControllerTest {
+
+    @TestConfiguration
+    static class MetricasConfig {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private ExportacaoPedidos exportacao;
+
+    @Test
+    @DisplayName("Deve escrever a exportação com o tempo limite próprio da rota")
+    void shouldStreamWithOwnTimeout() throws Exception {
+        // GIVEN
+        doAnswer(invocation -> {
+            invocation.getArgument(5, OutputStream.class).write("{}\n".getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        }).when(exportacao).exportar(any(), any(), any(), anyBoolean(), anyBoolean(), any());
+
+        // WHEN
+        MvcResult resultado = mockMvc.perform(get("/api/pedidos/exportacao"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // THEN
+        assertEquals(7_200_000L, resultado.getRequest().getAsyncContext().getTimeout());
+        mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"pedidos.ndjson\""))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(content().string("{}\n"));
+        verify(exportacao).exportar(eq(FormatoExportacao.NDJSON), isNull(), isNull(), eq(true), eq(false), any());
+    }
+
+    @Test
+    @DisplayName("Deve respeitar os pesos do Accept-Encoding ao decidir pelo gzip")
+    void shouldHonourAcceptEncodingWeights() {
+        // THEN
+        assertTrue(PedidoExportacaoController.aceitaGzip("gzip"));
+        assertTrue(PedidoExportacaoController.aceitaGzip("deflate, GZIP;q=0.5"));
+        assertTrue(PedidoExportacaoController.aceitaGzip("br;q=1.0, *;q=0.1"));
+        assertFalse(PedidoExportacaoController.aceitaGzip("gzip;q=0"));
+        assertFalse(PedidoExportacaoController.aceitaGzip("gzip; q=0.000, *"));
+        assertFalse(PedidoExportacaoController.aceitaGzip("*;q=0"));
+        assertFalse(PedidoExportacaoController.aceitaGzip("identity"));
+        assertFalse(PedidoExportacaoController.aceitaGzip(null));
+    }
+}
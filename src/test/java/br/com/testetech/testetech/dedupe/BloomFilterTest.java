@@ -0,0 +1,48 @@
+package br.com.testetech.testetech.dedupe;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Teste unitário do filtro de Bloom: ausência de falsos negativos e taxa de falsos positivos
+ * compatível com o dimensionamento solicitado.
+ */
+class BloomFilterTest {
+
+    private static final int CAPACIDADE = 100_000;
+
+    @Test
+    @DisplayName("Nunca deve responder 'certamente ausente' para um código adicionado")
+    void shouldNotProduceFalseNegatives() {
+        // GIVEN
+        BloomFilter filtro = new BloomFilter(CAPACIDADE, 0.01);
+        IntStream.range(0, CAPACIDADE).forEach(i -> filtro.adicionar("PEDIDO-" + i));
+
+        // THEN
+        assertTrue(IntStream.range(0, CAPACIDADE).allMatch(i -> filtro.talvezContenha("PEDIDO-" + i)));
+        assertEquals(CAPACIDADE, filtro.getInsercoes());
+    }
+
+    @Test
+    @DisplayName("Deve manter a taxa de falsos positivos próxima da configurada ao atingir a capacidade")
+    void shouldRespectConfiguredFalsePositiveRate() {
+        // GIVEN
+        BloomFilter filtro = new BloomFilter(CAPACIDADE, 0.01);
+        IntStream.range(0, CAPACIDADE).forEach(i -> filtro.adicionar("PEDIDO-" + i));
+
+        // WHEN
+        long falsosPositivos = IntStream.range(0, CAPACIDADE)
+                .filter(i -> filtro.talvezContenha("INEDITO-" + i))
+                .count();
+
+        // THEN
+        double taxaObservada = (double) falsosPositivos / CAPACIDADE;
+        assertTrue(taxaObservada < 0.02, "Taxa de falsos positivos observada: " + taxaObservada);
+        assertTrue(filtro.taxaFalsoPositivoEstimada() < 0.02);
+    }
+}
@@ -0,0 +1,68 @@
+package br.com.testetech.testetech.dedupe;
+
+import br.com.testetech.testetech.repository.PedidoRepository;
+import br.com.testetech.testetech.sharding.ShardsPedidos;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Teste unitário das métricas do filtro de códigos, habilitado e desabilitado.
+ */
+@ExtendWith(MockitoExtension.class)
+class FiltroCodigosPedidoTest {
+
+    @Mock
+    private PedidoRepository repository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("Deve contar as inserções como contador monotônico")
+    void shouldPublishInsertionsAsFunctionCounter() {
+        // GIVEN
+        FiltroCodigosPedido filtro = filtro(true);
+
+        // WHEN
+        filtro.registrar("PEDIDO-1");
+        filtro.registrar("PEDIDO-2");
+
+        // THEN
+        assertEquals(2, meterRegistry.get("pedidos.dedupe.bloom.insercoes").functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("Não deve publicar as métricas do vetor de bits com o filtro desabilitado")
+    void shouldSkipFilterWhenDisabled() {
+        // GIVEN
+        FiltroCodigosPedido filtro = filtro(false);
+
+        // WHEN
+        filtro.aquecer();
+        filtro.registrar("PEDIDO-1");
+
+        // THEN
+        assertFalse(filtro.certamenteNovo("PEDIDO-2"));
+        assertNull(meterRegistry.find("pedidos.dedupe.bloom.memoria").gauge());
+        assertNull(meterRegistry.find("pedidos.dedupe.bloom.insercoes").functionCounter());
+    }
+
+    private FiltroCodigosPedido filtro(boolean habilitado) {
+        return new FiltroCodigosPedido(repository, transactionManager, new ShardsPedidos(List.of(), 4), meterRegistry,
+                habilitado, 1000, 0.01);
+    }
+}
@@ -0,0 +1,23 @@
+package br.com.testetech.testetech.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Pedidos de entrada compartilhados pelos testes que só precisam de um pedido válido com um código qualquer.
+ */
+public final class FabricaPedidos {
+
+    private FabricaPedidos() {
+    }
+
+    /**
+     * @param codigo Código do pedido.
+     * @return Pedido com dois itens ({@code PRODUTO-A} 10.00 x2 e {@code PRODUTO-B} 4.99 x1), total de 24.99.
+     */
+    public static PedidoInputDTO pedido(String codigo) {
+        return new PedidoInputDTO(codigo, List.of(
+                new ItemDTO("PRODUTO-A", new BigDecimal("10.00"), 2),
+                new ItemDTO("PRODUTO-B", new BigDecimal("4.99"), 1)));
+    }
+}
@@ -60,6 +60,22 @@ class PedidoValidationTest {
         assertTrue(violations.stream().anyMatch(v -> v.getMessage().contains("O código do pedido não pode estar em branco")));
     }
 
+    @Test
+    @DisplayName("Deve falhar quando o Código do Pedido coincidir com uma rota fixa de consulta")
+    void shouldFailWhenCodigoPedidoIsReservedRoute() {
+        // GIVEN
+        ItemDTO item = new ItemDTO("PRODUTO-1", new BigDecimal("100.00"), 1);
+        PedidoInputDTO reservado = new PedidoInputDTO("cursor", List.of(item));
+        PedidoInputDTO semelhante = new PedidoInputDTO("cursor-2025", List.of(item));
+
+        // WHEN
+        Set<ConstraintViolation<PedidoInputDTO>> violations = validator.validate(reservado);
+
+        // THEN
+        assertTrue(violations.stream().anyMatch(v -> v.getMessage().contains("rotas de consulta")));
+        assertTrue(validator.validate(semelhante).isEmpty(), "Só o código idêntico à rota deve ser recusado");
+    }
+
     @Test
     @DisplayName("Deve falhar quando a lista de itens estiver vazia")
     void shouldFailWhenItemsListIsInvalid() {
@@ -0,0 +1,149 @@
+package br.com.testetech.testetech.estatisticas;
+
+import br.com.testetech.testetech.dto.AgregadoPedidosDTO;
+import br.com.testetech.testetech.dto.EstatisticasPedidosDTO;
+import br.com.testetech.testetech.dto.PedidoResumoDTO;
+import br.com.testetech.testetech.evento.PedidoRegistradoEvent;
+import br.com.testetech.testetech.model.PedidoStatus;
+import br.com.testetech.testetech.repository.AgregadoLinha;
+import br.com.testetech.testetech.repository.PedidoRepository;
+import br.com.testetech.testetech.sharding.ShardsPedidos;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * Teste unitário dos agregados incrementais, com repositório e gerenciador de transações simulados.
+ */
+@ExtendWith(MockitoExtension.class)
+class AgregadosPedidosTest {
+
+    private static final LocalDateTime DIA = LocalDateTime.of(2025, 12, 5, 0, 0);
+
+    @Mock
+    private PedidoRepository repository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private AgregadosPedidos agregados;
+
+    @BeforeEach
+    void setUp() {
+        // Reconciliação periódica desabilitada: o teste a aciona diretamente
+        agregados = new AgregadosPedidos(repository, transactionManager, new ShardsPedidos(List.of(), 4), new SimpleMeterRegistry(),
+                Duration.ZERO, Duration.ofMinutes(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        agregados.stop();
+    }
+
+    @Test
+    @DisplayName("Deve reconstruir os agregados pela varredura e somar os pedidos recebidos por evento")
+    void shouldRebuildAndAccumulate() {
+        // GIVEN
+        when(repository.streamAgregados()).thenReturn(Stream.of(
+                linha(DIA.plusHours(9), "10.00"),
+                linha(DIA.plusHours(9).plusMinutes(30), "5.50"),
+                linha(DIA.minusDays(1).plusHours(23), "1.00")));
+        agregados.start();
+
+        // WHEN
+        agregados.registrar(evento(DIA.plusHours(14).plusMinutes(5), "100.25"));
+
+        // THEN
+        EstatisticasPedidosDTO visaoGeral = agregados.visaoGeral();
+        assertEquals(4, visaoGeral.getTotal().getQuantidade());
+        assertEquals(new BigDecimal("116.75"), visaoGeral.getTotal().getReceita());
+        assertEquals(4, visaoGeral.getPorStatus().get(PedidoStatus.CALCULADO).getQuantidade());
+
+        List<AgregadoPedidosDTO> dias = agregados.porDia(DIA.toLocalDate().minusDays(2), DIA.toLocalDate());
+        assertEquals(List.of(0L, 1L, 3L), dias.stream().map(AgregadoPedidosDTO::getQuantidade).toList());
+        assertEquals(new BigDecimal("115.75"), dias.get(2).getReceita());
+
+        List<AgregadoPedidosDTO> horas = agregados.porHora(DIA.toLocalDate());
+        assertEquals(24, horas.size());
+        assertEquals(DIA.plusHours(9), horas.get(9).getInicio());
+        assertEquals(2, horas.get(9).getQuantidade());
+        assertEquals(new BigDecimal("100.25"), horas.get(14).getReceita());
+    }
+
+    @Test
+    @DisplayName("Deve corrigir pela diferença apenas as horas encerradas que divergem do banco")
+    void shouldReconcileClosedHours() {
+        // GIVEN: memória com um pedido a menos às 9h (ex: evento perdido)
+        when(repository.streamAgregados()).thenReturn(Stream.of(linha(DIA.plusHours(9), "10.00")));
+        agregados.start();
+        agregados.registrar(evento(DIA.plusHours(11).plusMinutes(59), "7.00"));
+        when(repository.streamAgregadosAntesDe(any())).thenReturn(Stream.of(
+                linha(DIA.plusHours(9), "10.00"),
+                linha(DIA.plusHours(9).plusMinutes(10), "2.00")));
+
+        // WHEN: às 12h00m30s, com margem de 1 minuto, somente as horas até 10h estão encerradas
+        int corrigidos = agregados.reconciliar(DIA.plusHours(12).plusSeconds(30));
+
+        // THEN
+        assertEquals(1, corrigidos);
+        assertEquals(2, agregados.porHora(DIA.toLocalDate()).get(9).getQuantidade());
+        assertEquals(1, agregados.porHora(DIA.toLocalDate()).get(11).getQuantidade());
+        assertEquals(new BigDecimal("19.00"), agregados.visaoGeral().getTotal().getReceita());
+        assertEquals(3, agregados.porDia(DIA.toLocalDate(), DIA.toLocalDate()).get(0).getQuantidade());
+    }
+
+    @Test
+    @DisplayName("Deve manter contagens exatas sob registros concorrentes")
+    void shouldStayExactUnderConcurrency() throws InterruptedException {
+        // GIVEN
+        when(repository.streamAgregados()).thenReturn(Stream.empty());
+        agregados.start();
+
+        // WHEN
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            int deslocamento = t;
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 5_000; i++) {
+                    agregados.registrar(evento(DIA.plusHours((i + deslocamento) % 24), "0.01"));
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // THEN
+        LocalDate dia = DIA.toLocalDate();
+        assertEquals(40_000, agregados.visaoGeral().getTotal().getQuantidade());
+        assertEquals(new BigDecimal("400.00"), agregados.porDia(dia, dia).get(0).getReceita());
+        assertEquals(40_000, agregados.porHora(dia).stream().mapToLong(AgregadoPedidosDTO::getQuantidade).sum());
+    }
+
+    private static AgregadoLinha linha(LocalDateTime dataCriacao, String valor) {
+        return new AgregadoLinha(dataCriacao, PedidoStatus.CALCULADO, new BigDecimal(valor));
+    }
+
+    private static PedidoRegistradoEvent evento(LocalDateTime dataCriacao, String valor) {
+        return new PedidoRegistradoEvent(new PedidoResumoDTO(1L, "PEDIDO", List.of(), new BigDecimal(valor),
+                PedidoStatus.CALCULADO, dataCriacao));
+    }
+}
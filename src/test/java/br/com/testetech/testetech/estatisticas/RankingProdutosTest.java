@@ -0,0 +1,92 @@
+package br.com.testetech.testetech.estatisticas;
+
+import br.com.testetech.testetech.dto.ItemResumoDTO;
+import br.com.testetech.testetech.dto.PedidoResumoDTO;
+import br.com.testetech.testetech.dto.ProdutoRankingDTO;
+import br.com.testetech.testetech.dto.RankingProdutosDTO;
+import br.com.testetech.testetech.evento.PedidoRegistradoEvent;
+import br.com.testetech.testetech.exception.PeriodoInvalidoException;
+import br.com.testetech.testetech.model.PedidoStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testes do resumo Space-Saving (cotas de erro contra a contagem exata) e das janelas do ranking de produtos.
+ */
+class RankingProdutosTest {
+
+    @Test
+    @DisplayName("Deve respeitar as cotas de erro do Space-Saving em um fluxo com muitos itens raros")
+    void shouldRespectSpaceSavingErrorBounds() {
+        // GIVEN: 5 produtos frequentes e 20.000 raros, com apenas 50 contadores
+        ResumoSpaceSaving resumo = new ResumoSpaceSaving(50);
+        Map<String, Long> exato = new HashMap<>();
+        Random aleatorio = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            String produto = aleatorio.nextInt(4) == 0 ? "FREQUENTE-" + aleatorio.nextInt(5) : "RARO-" + aleatorio.nextInt(20_000);
+            long peso = 1 + aleatorio.nextInt(3);
+            resumo.adicionar(produto, peso);
+            exato.merge(produto, peso, Long::sum);
+        }
+
+        // WHEN
+        ResumoSpaceSaving.Instantaneo instantaneo = resumo.instantaneo();
+
+        // THEN
+        assertEquals(50, instantaneo.contagens().size());
+        assertTrue(instantaneo.minimo() <= instantaneo.total() / 50);
+        instantaneo.contagens().forEach((produto, valores) -> {
+            long real = exato.get(produto);
+            assertTrue(valores[0] - valores[1] <= real && real <= valores[0], produto);
+        });
+        for (int i = 0; i < 5; i++) {
+            assertTrue(instantaneo.contagens().containsKey("FREQUENTE-" + i), "Itens acima de N/m devem estar monitorados");
+        }
+    }
+
+    @Test
+    @DisplayName("Deve ordenar por receita ou quantidade e restringir a janela às horas solicitadas")
+    void shouldRankByCriterionAndWindow() {
+        // GIVEN
+        RankingProdutos ranking = new RankingProdutos(10, 24);
+        LocalDateTime agora = LocalDateTime.now();
+        ranking.registrar(evento(agora, item("NOTEBOOK", "5000.00", 1), item("MOUSE", "150.00", 4)));
+        ranking.registrar(evento(agora, item("MOUSE", "150.00", 2)));
+        ranking.registrar(evento(agora.minusHours(3), item("CABO", "10.00", 100)));
+
+        // WHEN
+        RankingProdutosDTO receitaUltimaHora = ranking.ranking(CriterioRanking.RECEITA, 2, 1);
+        RankingProdutosDTO quantidadeQuatroHoras = ranking.ranking(CriterioRanking.QUANTIDADE, 10, 4);
+        RankingProdutosDTO quantidadeAcumulada = ranking.ranking(CriterioRanking.QUANTIDADE, 1, null);
+
+        // THEN
+        assertEquals(List.of("NOTEBOOK", "MOUSE"), receitaUltimaHora.getProdutos().stream().map(ProdutoRankingDTO::getProdutoId).toList());
+        assertEquals(new BigDecimal("900.00"), receitaUltimaHora.getProdutos().get(1).getValorEstimado());
+        assertEquals(new BigDecimal("5900.00"), receitaUltimaHora.getTotalObservado());
+        assertEquals(new BigDecimal("0.00"), receitaUltimaHora.getErroMaximo(), "Com contadores sobrando a contagem é exata");
+
+        assertEquals(List.of("CABO", "MOUSE", "NOTEBOOK"), quantidadeQuatroHoras.getProdutos().stream().map(ProdutoRankingDTO::getProdutoId).toList());
+        assertEquals("CABO", quantidadeAcumulada.getProdutos().get(0).getProdutoId());
+        assertThrows(PeriodoInvalidoException.class, () -> ranking.ranking(CriterioRanking.RECEITA, 10, 25));
+    }
+
+    private static PedidoRegistradoEvent evento(LocalDateTime dataCriacao, ItemResumoDTO... itens) {
+        return new PedidoRegistradoEvent(new PedidoResumoDTO(1L, "PEDIDO", List.of(itens), BigDecimal.ZERO,
+                PedidoStatus.CALCULADO, dataCriacao));
+    }
+
+    private static ItemResumoDTO item(String produtoId, String valorUnitario, int quantidade) {
+        return new ItemResumoDTO(produtoId, new BigDecimal(valorUnitario), quantidade);
+    }
+}
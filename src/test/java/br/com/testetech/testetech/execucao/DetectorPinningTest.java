@@ -0,0 +1,52 @@
+package br.com.testetech.testetech.execucao;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Teste do detector de pinning com uma thread virtual que bloqueia dentro de um {@code synchronized}.
+ */
+class DetectorPinningTest {
+
+    private final Object monitor = new Object();
+
+    @Test
+    @DisplayName("Deve publicar o tempo de pinning com a origem do bloco synchronized")
+    void shouldReportPinnedVirtualThread() throws InterruptedException {
+        // GIVEN
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        DetectorPinning detector = new DetectorPinning(meterRegistry, 10);
+        detector.start();
+
+        try {
+            // WHEN
+            Thread.ofVirtual().start(this::bloquearDentroDoMonitor).join();
+
+            // THEN: o stream JFR entrega os eventos de forma assíncrona (flush aproximadamente a cada segundo)
+            Timer pinning = null;
+            for (int tentativa = 0; tentativa < 50 && pinning == null; tentativa++) {
+                Thread.sleep(100);
+                pinning = meterRegistry.find("pedidos.virtual.pinning").timer();
+            }
+            assertNotNull(pinning, "O evento jdk.VirtualThreadPinned deveria ter sido registrado");
+            assertTrue(pinning.getId().getTag("origem").endsWith("DetectorPinningTest.bloquearDentroDoMonitor"));
+        } finally {
+            detector.stop();
+        }
+    }
+
+    private void bloquearDentroDoMonitor() {
+        synchronized (monitor) {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package br.com.testetech.testetech.exportacao;
+
+import br.com.testetech.testetech.dto.ItemDTO;
+import br.com.testetech.testetech.dto.PedidoInputDTO;
+import br.com.testetech.testetech.exception.PeriodoInvalidoException;
+import br.com.testetech.testetech.model.Pedido;
+import br.com.testetech.testetech.repository.PedidoRepository;
+import br.com.testetech.testetech.service.PedidoMapper;
+import br.com.testetech.testetech.sharding.ShardsPedidos;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Teste de integração da exportação em streaming contra o H2 em memória.
+ */
+@DataJpaTest(properties = "pedidos.exportacao.tamanho-bloco=4")
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({ExportacaoPedidos.class, ShardsPedidos.class})
+class ExportacaoPedidosTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 1, 1, 10, 0);
+
+    @TestConfiguration
+    static class MetricasConfig {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private ExportacaoPedidos exportacao;
+
+    @Autowired
+    private PedidoRepository repository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        // 10 pedidos, um por hora, inseridos fora de ordem cronológica; o pedido i tem i % 3 itens
+        IntStream.of(9, 3, 0, 7, 1, 5, 2, 8, 4, 6).forEach(i -> {
+            List<ItemDTO> itens = IntStream.range(0, i % 3)
+                    .mapToObj(j -> new ItemDTO("PRODUTO, \"" + j + "\"", new BigDecimal("1.50"), j + 1))
+                    .toList();
+            Pedido pedido = PedidoMapper.paraEntidade(new PedidoInputDTO("PEDIDO-" + i, itens));
+            repository.save(pedido);
+            pedido.setDataCriacao(BASE.plusHours(i));
+        });
+        repository.flush();
+    }
+
+    @Test
+    @DisplayName("Deve exportar em NDJSON, em ordem cronológica e com os itens, blocos após blocos")
+    void shouldExportNdjsonInChronologicalOrder() throws IOException {
+        // WHEN
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        long exportados = exportacao.exportar(FormatoExportacao.NDJSON, null, null, true, false, saida);
+
+        // THEN
+        String[] linhas = saida.toString(StandardCharsets.UTF_8).split("\n", -1);
+        assertEquals(10, exportados);
+        assertEquals(11, linhas.length, "Cada pedido termina com quebra de linha");
+        assertEquals("", linhas[10]);
+        for (int i = 0; i < 10; i++) {
+            JsonNode pedido = objectMapper.readTree(linhas[i]);
+            assertEquals("PEDIDO-" + i, pedido.get("codigoPedido").asText());
+            assertEquals(i % 3, pedido.get("items").size());
+        }
+    }
+
+    @Test
+    @DisplayName("Deve exportar em CSV comprimido, uma linha por item, restrito ao período")
+    void shouldExportGzippedCsvWithinPeriod() throws IOException {
+        // WHEN: de 2h (inclusive) até 6h (exclusivo)
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        long exportados = exportacao.exportar(FormatoExportacao.CSV, BASE.plusHours(2), BASE.plusHours(6), true, true, saida);
+
+        // THEN
+        String csv;
+        try (GZIPInputStream entrada = new GZIPInputStream(new ByteArrayInputStream(saida.toByteArray()))) {
+            csv = new String(entrada.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        List<String> linhas = new ArrayList<>(List.of(csv.split("\r\n")));
+        assertEquals(4, exportados);
+        assertEquals("id,codigoPedido,dataCriacao,status,valorTotal,produtoId,valorUnitario,quantidade", linhas.remove(0));
+        // PEDIDO-2 (2 itens), PEDIDO-3 (sem itens), PEDIDO-4 (1 item), PEDIDO-5 (2 itens)
+        assertEquals(6, linhas.size());
+        assertEquals(List.of("PEDIDO-2", "PEDIDO-2", "PEDIDO-3", "PEDIDO-4", "PEDIDO-5", "PEDIDO-5"),
+                linhas.stream().map(l -> l.split(",")[1]).toList());
+        assertEquals(",PEDIDO-3,2025-01-01T13:00,CALCULADO,0.00,,,", linhas.get(2).substring(linhas.get(2).indexOf(',')));
+        assertEquals("\"PRODUTO, \"\"1\"\"\",1.50,2", linhas.get(1).substring(linhas.get(1).indexOf("\"PRODUTO")));
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar período cujo início não é anterior ao fim")
+    void shouldRejectInvalidPeriod() {
+        assertThrows(PeriodoInvalidoException.class, () -> exportacao.exportar(FormatoExportacao.CSV,
+                BASE.plusHours(3), BASE.plusHours(3), false, false, new ByteArrayOutputStream()));
+    }
+}
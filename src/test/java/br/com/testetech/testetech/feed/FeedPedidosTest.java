@@ -0,0 +1,227 @@
+package br.com.testetech.testetech.feed;
+
+import br.com.testetech.testetech.controller.PedidoFeedController;
+import br.com.testetech.testetech.dto.PedidoResumoDTO;
+import br.com.testetech.testetech.evento.PedidoRegistradoEvent;
+import br.com.testetech.testetech.model.PedidoStatus;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Teste do feed SSE de pedidos, com um anel de 4 posições e as assinaturas abertas pelo MockMvc.
+ */
+@WebMvcTest(value = PedidoFeedController.class, properties = {
+        "pedidos.feed.capacidade=4",
+        "pedidos.feed.max-assinantes=2"
+})
+class FeedPedidosTest {
+
+    private static final Pattern ID = Pattern.compile("id:(\\S+)");
+
+    /**
+     * Emissores das assinaturas abertas pelo teste, na ordem.
+     */
+    private static final List<SseEmitter> EMISSORES = new CopyOnWriteArrayList<>();
+
+    @TestConfiguration
+    static class FeedConfig {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        FeedPedidos feedPedidos(MeterRegistry meterRegistry,
+                                @Value("${pedidos.feed.capacidade}") int capacidade,
+                                @Value("${pedidos.feed.max-assinantes}") int maxAssinantes) {
+            return new FeedPedidos(meterRegistry, capacidade, maxAssinantes, Duration.ofSeconds(15),
+                    Duration.ofMinutes(30)) {
+                @Override
+                public SseEmitter assinar(String ultimoId) {
+                    SseEmitter emitter = super.assinar(ultimoId);
+                    EMISSORES.add(emitter);
+                    return emitter;
+                }
+            };
+        }
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private FeedPedidos feed;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    void tearDown() {
+        // Encerra as assinaturas do teste (o MockMvc não as encerra) e reabre o feed para o próximo
+        feed.stop();
+        aguardar(() -> meterRegistry.get("pedidos.feed.assinantes").gauge().value() == 0);
+        feed.start();
+        EMISSORES.clear();
+    }
+
+    @Test
+    @DisplayName("Deve entregar os pedidos confirmados e retomar a partir do Last-Event-ID")
+    void shouldStreamOrdersAndResumeFromLastEventId() throws Exception {
+        // GIVEN
+        MvcResult assinatura = assinar(null);
+        publicar("PEDIDO-1", "PEDIDO-2", "PEDIDO-3");
+        aguardarConteudo(assinatura, "PEDIDO-3");
+        String conteudo = conteudo(assinatura);
+        List<String> ids = ID.matcher(conteudo).results().map(m -> m.group(1)).toList();
+
+        // WHEN
+        MvcResult retomada = assinar(ids.get(0));
+        aguardarConteudo(retomada, "PEDIDO-3");
+
+        // THEN
+        assertTrue(conteudo.indexOf("PEDIDO-1") < conteudo.indexOf("PEDIDO-2"));
+        assertTrue(conteudo.contains("event:pedido"));
+        assertEquals(3, ids.size());
+        assertFalse(conteudo(retomada).contains("PEDIDO-1"));
+        assertTrue(conteudo(retomada).contains("PEDIDO-2"));
+        assertFalse(conteudo(retomada).contains("resync"));
+    }
+
+    @Test
+    @DisplayName("Deve pedir ressincronização para ID fora do anel ou de outra execução e seguir com os novos pedidos")
+    void shouldAskToResyncWhenLastEventIdIsUnknown() throws Exception {
+        // GIVEN
+        MvcResult primeira = assinar(null);
+        publicar("ANTIGO-1");
+        aguardarConteudo(primeira, "ANTIGO-1");
+        Matcher id = ID.matcher(conteudo(primeira));
+        assertTrue(id.find());
+        // O anel de 4 posições dá a volta sobre o primeiro evento
+        publicar("ANTIGO-2", "ANTIGO-3", "ANTIGO-4", "ANTIGO-5", "ANTIGO-6");
+        feed.stop();
+        aguardar(() -> meterRegistry.get("pedidos.feed.assinantes").gauge().value() == 0);
+        feed.start();
+
+        // WHEN
+        MvcResult expirado = assinar(id.group(1));
+        MvcResult desconhecido = assinar("outra-execucao-1");
+        publicar("NOVO-1");
+        aguardarConteudo(expirado, "NOVO-1");
+        aguardarConteudo(desconhecido, "NOVO-1");
+
+        // THEN
+        assertTrue(conteudo(expirado).contains("event:resync"));
+        assertTrue(conteudo(expirado).contains("id-desconhecido"));
+        assertFalse(conteudo(expirado).contains("ANTIGO-"));
+        assertTrue(conteudo(desconhecido).contains("event:resync"));
+        assertEquals(2, meterRegistry.get("pedidos.feed.ressincronizacoes").tag("motivo", "id-desconhecido")
+                .counter().count());
+    }
+
+    @Test
+    @DisplayName("Deve pedir ressincronização e desconectar o assinante que fica mais de um anel para trás")
+    void shouldResyncAndDisconnectSlowConsumer() throws Exception {
+        // GIVEN
+        MvcResult lento = assinar(null);
+        SseEmitter emitter = EMISSORES.get(0);
+
+        // WHEN
+        // Enquanto o monitor do emissor está com o teste, a thread do assinante não consegue enviar nada
+        synchronized (emitter) {
+            publicar("LENTO-1", "LENTO-2", "LENTO-3", "LENTO-4", "LENTO-5", "LENTO-6");
+        }
+        aguardar(() -> meterRegistry.get("pedidos.feed.assinantes").gauge().value() == 0);
+
+        // THEN
+        assertTrue(conteudo(lento).contains("event:resync"));
+        assertTrue(conteudo(lento).contains("consumidor-lento"));
+        assertFalse(conteudo(lento).contains("LENTO-6"));
+        assertEquals(1, meterRegistry.get("pedidos.feed.ressincronizacoes").tag("motivo", "consumidor-lento")
+                .counter().count());
+        // O emissor encerrado conclui o processamento assíncrono da requisição
+        assertDoesNotThrow(() -> lento.getAsyncResult(5000), "A conexão do assinante lento deve ser encerrada");
+    }
+
+    @Test
+    @DisplayName("Deve recusar com 429 a assinatura além do limite")
+    void shouldRejectSubscriptionsBeyondLimit() throws Exception {
+        // GIVEN
+        assinar(null);
+        assinar(null);
+
+        // WHEN / THEN
+        mockMvc.perform(get("/api/pedidos/feed"))
+                .andExpect(status().isTooManyRequests());
+    }
+
+    private MvcResult assinar(String ultimoId) throws Exception {
+        var requisicao = get("/api/pedidos/feed");
+        if (ultimoId != null) {
+            requisicao.header("Last-Event-ID", ultimoId);
+        }
+        return mockMvc.perform(requisicao)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+
+    private void publicar(String... codigos) {
+        for (String codigo : codigos) {
+            feed.registrar(new PedidoRegistradoEvent(new PedidoResumoDTO(1L, codigo, List.of(), BigDecimal.TEN,
+                    PedidoStatus.CALCULADO, LocalDateTime.of(2025, 12, 5, 10, 0))));
+        }
+    }
+
+    private static String conteudo(MvcResult resultado) throws Exception {
+        return resultado.getResponse().getContentAsString();
+    }
+
+    private static void aguardarConteudo(MvcResult resultado, String trecho) {
+        aguardar(() -> {
+            try {
+                return conteudo(resultado).contains(trecho);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    private static void aguardar(BooleanSupplier condicao) {
+        long limite = System.nanoTime() + 5_000_000_000L;
+        while (!condicao.getAsBoolean()) {
+            assertTrue(System.nanoTime() < limite, "Condição não atingida em 5 s");
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
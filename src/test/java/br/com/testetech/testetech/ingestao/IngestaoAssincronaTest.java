@@ -0,0 +1,182 @@
+package br.com.testetech.testetech.ingestao;
+
+import br.com.testetech.testetech.dto.PedidoInputDTO;
+import br.com.testetech.testetech.dto.PedidoRecebidoDTO;
+import br.com.testetech.testetech.dto.ResultadoLoteDTO;
+import br.com.testetech.testetech.exception.IngestaoIndisponivelException;
+import br.com.testetech.testetech.exception.PedidoDuplicadoException;
+import br.com.testetech.testetech.journal.JournalPedidos;
+import br.com.testetech.testetech.model.PedidoStatus;
+import br.com.testetech.testetech.service.PedidoLoteService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static br.com.testetech.testetech.dto.FabricaPedidos.pedido;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Teste unitário da fila de ingestão assíncrona, com o serviço de lote simulado.
+ */
+@ExtendWith(MockitoExtension.class)
+class IngestaoAssincronaTest {
+
+    @Mock
+    private PedidoLoteService loteService;
+
+    @Mock
+    private JournalPedidos journal;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private IngestaoAssincrona ingestao;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ingestao = new IngestaoAssincrona(loteService, journal, meterRegistry, ModoIngestao.ASSINCRONO, 3, 1, 10, 2, 0, 5000, false);
+    }
+
+    @Test
+    @DisplayName("Deve aceitar com status RECEBIDO e recusar pendentes repetidos ou fila cheia")
+    void shouldApplyBackpressureAndRejectPendingDuplicates() {
+        // WHEN
+        PedidoRecebidoDTO recebido = ingestao.enfileirar(pedido("PEDIDO-0"));
+        ingestao.enfileirar(pedido("PEDIDO-1"));
+        ingestao.enfileirar(pedido("PEDIDO-2"));
+
+        // THEN
+        assertEquals(PedidoStatus.RECEBIDO, recebido.getStatus());
+        assertEquals(recebido.getRecebidoEm(), ingestao.buscarPendente("PEDIDO-0").orElseThrow().getRecebidoEm());
+        assertThrows(PedidoDuplicadoException.class, () -> ingestao.enfileirar(pedido("PEDIDO-0")));
+        assertThrows(IngestaoIndisponivelException.class, () -> ingestao.enfileirar(pedido("PEDIDO-3")));
+        assertEquals(3, meterRegistry.get("pedidos.ingestao.fila.profundidade").gauge().value());
+        assertEquals(1, meterRegistry.get("pedidos.ingestao.recusados").counter().count());
+    }
+
+    @Test
+    @DisplayName("Deve liberar o código quando a gravação no journal falhar")
+    void shouldReleaseCodeWhenJournalFails() {
+        // GIVEN
+        when(journal.registrar(any()))
+                .thenThrow(new IllegalStateException("Journal de pedidos não está aberto"))
+                .thenReturn(7L);
+
+        // WHEN
+        assertThrows(IllegalStateException.class, () -> ingestao.enfileirar(pedido("PEDIDO-0")));
+        PedidoRecebidoDTO recebido = ingestao.enfileirar(pedido("PEDIDO-0"));
+
+        // THEN
+        assertEquals("PEDIDO-0", recebido.getCodigoPedido());
+        assertEquals(1, meterRegistry.get("pedidos.ingestao.fila.profundidade").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Deve drenar a fila em um único lote e esvaziá-la no desligamento")
+    void shouldDrainQueueInBatches() {
+        // GIVEN
+        when(loteService.registrarLote(anyList())).thenAnswer(invocation -> {
+            List<PedidoInputDTO> dtos = invocation.getArgument(0);
+            return IntStream.range(0, dtos.size())
+                    .mapToObj(i -> ResultadoLoteDTO.aceito(i, dtos.get(i).getCodigoPedido()))
+                    .toList();
+        });
+        ingestao.enfileirar(pedido("PEDIDO-0"));
+        ingestao.enfileirar(pedido("PEDIDO-1"));
+        ingestao.enfileirar(pedido("PEDIDO-2"));
+
+        // WHEN
+        ingestao.start();
+        ingestao.stop();
+
+        // THEN
+        verify(loteService, timeout(5000)).registrarLote(argThat(lote -> lote.size() == 3));
+        assertEquals(0, meterRegistry.get("pedidos.ingestao.fila.profundidade").gauge().value());
+        assertEquals(1, meterRegistry.get("pedidos.ingestao.lote.tamanho").summary().count());
+        assertTrue(ingestao.buscarPendente("PEDIDO-0").isEmpty());
+        assertThrows(IngestaoIndisponivelException.class, () -> ingestao.enfileirar(pedido("PEDIDO-3")));
+    }
+
+    @Test
+    @DisplayName("Deve repetir o lote que falha e confirmá-lo no journal quando a nova tentativa for aceita")
+    void shouldRetryFailedBatch() {
+        // GIVEN
+        when(journal.registrar(any())).thenReturn(1L);
+        when(loteService.registrarLote(anyList()))
+                .thenThrow(new IllegalStateException("Banco indisponível"))
+                .thenReturn(List.of(ResultadoLoteDTO.aceito(0, "PEDIDO-0")));
+        ingestao.enfileirar(pedido("PEDIDO-0"));
+
+        // WHEN
+        ingestao.start();
+        ingestao.stop();
+
+        // THEN
+        verify(loteService, times(2)).registrarLote(anyList());
+        verify(journal).confirmar(1L);
+        verify(journal, never()).descartar(any(), anyLong());
+        assertEquals(1, meterRegistry.get("pedidos.ingestao.novas-tentativas").counter().count());
+    }
+
+    @Test
+    @DisplayName("Deve mover o lote para os descartados do journal e liberar o código após esgotar as tentativas")
+    void shouldDeadLetterBatchAfterLastAttempt() {
+        // GIVEN
+        when(journal.registrar(any())).thenReturn(1L);
+        when(loteService.registrarLote(anyList())).thenThrow(new IllegalStateException("Banco indisponível"));
+        PedidoInputDTO pedido = pedido("PEDIDO-0");
+        ingestao.enfileirar(pedido);
+
+        // WHEN
+        ingestao.start();
+        ingestao.stop();
+
+        // THEN
+        verify(loteService, times(2)).registrarLote(anyList());
+        verify(journal).descartar(pedido, 1L);
+        assertEquals(1, meterRegistry.get("pedidos.ingestao.rejeitados").tag("situacao", "falha").counter().count());
+        assertTrue(ingestao.buscarPendente("PEDIDO-0").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Deve mover para os descartados do journal o pedido que falha dentro de um lote aceito")
+    void shouldDeadLetterOrderThatFailsInsideBatch() {
+        // GIVEN
+        when(journal.registrar(any())).thenReturn(1L, 2L);
+        when(loteService.registrarLote(anyList())).thenReturn(List.of(
+                ResultadoLoteDTO.aceito(0, "PEDIDO-0"),
+                ResultadoLoteDTO.falha(1, "PEDIDO-1", "Erro ao persistir o pedido")));
+        PedidoInputDTO falho = pedido("PEDIDO-1");
+        ingestao.enfileirar(pedido("PEDIDO-0"));
+        ingestao.enfileirar(falho);
+
+        // WHEN
+        ingestao.start();
+        ingestao.stop();
+
+        // THEN
+        verify(loteService).registrarLote(anyList());
+        verify(journal).confirmar(1L);
+        verify(journal).descartar(falho, 2L);
+        verify(journal, never()).confirmar(2L);
+        assertEquals(1, meterRegistry.get("pedidos.ingestao.rejeitados").tag("situacao", "falha").counter().count());
+    }
+}
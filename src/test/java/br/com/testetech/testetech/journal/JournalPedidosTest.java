@@ -0,0 +1,165 @@
+package br.com.testetech.testetech.journal;
+
+import br.com.testetech.testetech.dto.PedidoInputDTO;
+import br.com.testetech.testetech.dto.ResultadoLoteDTO;
+import br.com.testetech.testetech.service.PedidoLoteService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static br.com.testetech.testetech.dto.FabricaPedidos.pedido;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Teste do journal de ingestão sobre um diretório temporário, simulando a queda da JVM
+ * ao abandonar a instância sem {@code stop()}.
+ */
+@ExtendWith(MockitoExtension.class)
+class JournalPedidosTest {
+
+    /**
+     * Segmentos pequenos o suficiente para forçar a rolagem com poucas dezenas de pedidos.
+     */
+    private static final DataSize TAMANHO_SEGMENTO = DataSize.ofBytes(1024);
+
+    /**
+     * Intervalo longo: o group commit periódico não interfere no cenário do teste.
+     */
+    private static final long INTERVALO_FORCE_MS = 60_000;
+
+    @TempDir
+    Path diretorio;
+
+    @Mock
+    private PedidoLoteService loteService;
+
+    @Test
+    @DisplayName("Deve reprocessar após a queda apenas os pedidos posteriores ao checkpoint")
+    void shouldReplayEntriesAfterCheckpoint() throws IOException {
+        // GIVEN
+        JournalPedidos antesDaQueda = novoJournal();
+        antesDaQueda.start();
+        List<Long> sequencias = IntStream.range(0, 30)
+                .mapToObj(i -> antesDaQueda.registrar(pedido("PEDIDO-" + i)))
+                .toList();
+        sequencias.subList(0, 10).forEach(antesDaQueda::confirmar);
+        antesDaQueda.confirmar(sequencias.get(15)); // confirmação fora de ordem não avança o checkpoint
+        antesDaQueda.sincronizar();
+        assertTrue(segmentos() > 1, "Os pedidos devem ocupar mais de um segmento");
+
+        // WHEN
+        JournalPedidos aposQueda = novoJournal();
+        aposQueda.start();
+
+        // THEN
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<PedidoInputDTO>> reprocessados = ArgumentCaptor.forClass(List.class);
+        verify(loteService).registrarLote(reprocessados.capture());
+        assertEquals(IntStream.range(10, 30).mapToObj(i -> "PEDIDO-" + i).toList(),
+                reprocessados.getValue().stream().map(PedidoInputDTO::getCodigoPedido).toList());
+        assertEquals(new BigDecimal("10.00"), reprocessados.getValue().get(0).getItems().get(0).getValorUnitario());
+
+        assertEquals(31, aposQueda.registrar(pedido("PEDIDO-30")), "A numeração deve continuar após o reprocessamento");
+        assertEquals(1, segmentos(), "Os segmentos reprocessados devem ser descartados");
+        aposQueda.stop();
+    }
+
+    @Test
+    @DisplayName("Deve apagar segmentos cobertos pelo checkpoint e não reprocessar nada após desligamento limpo")
+    void shouldDiscardConfirmedSegments() throws IOException {
+        // GIVEN
+        JournalPedidos journal = novoJournal();
+        journal.start();
+        IntStream.range(0, 30).forEach(i -> journal.confirmar(journal.registrar(pedido("PEDIDO-" + i))));
+
+        // WHEN
+        journal.stop();
+
+        // THEN
+        assertEquals(1, segmentos());
+        assertEquals(30, ByteBuffer.wrap(Files.readAllBytes(diretorio.resolve("checkpoint"))).getLong());
+        assertThrows(IllegalStateException.class, () -> journal.registrar(pedido("PEDIDO-30")),
+                "O journal deve recusar appends após o desligamento");
+        novoJournal().start();
+        verify(loteService, never()).registrarLote(anyList());
+    }
+
+    @Test
+    @DisplayName("Deve gravar o pedido descartado à parte e confirmar sua sequência")
+    void shouldMoveDiscardedEntryOutOfReplay() throws IOException {
+        // GIVEN
+        JournalPedidos journal = novoJournal();
+        journal.start();
+        long descartado = journal.registrar(pedido("PEDIDO-0"));
+        journal.confirmar(journal.registrar(pedido("PEDIDO-1")));
+
+        // WHEN
+        journal.descartar(pedido("PEDIDO-0"), descartado);
+        journal.sincronizar();
+
+        // THEN
+        assertEquals(2, ByteBuffer.wrap(Files.readAllBytes(diretorio.resolve("checkpoint"))).getLong());
+        ByteBuffer entrada = ByteBuffer.wrap(Files.readAllBytes(diretorio.resolve("descartados")));
+        assertEquals(descartado, entrada.getLong(2 * Integer.BYTES));
+        assertEquals("PEDIDO-0", CodecEntradaJournal.decodificar(
+                entrada.slice(JournalPedidos.TAMANHO_CABECALHO, entrada.getInt(0))).getCodigoPedido());
+        novoJournal().start();
+        verify(loteService, never()).registrarLote(anyList());
+    }
+
+    @Test
+    @DisplayName("Deve mover para os descartados o pedido que falha no reprocessamento antes de avançar o checkpoint")
+    void shouldDeadLetterOrderThatFailsOnReplay() throws IOException {
+        // GIVEN
+        JournalPedidos antesDaQueda = novoJournal();
+        antesDaQueda.start();
+        IntStream.range(0, 3).forEach(i -> antesDaQueda.registrar(pedido("PEDIDO-" + i)));
+        when(loteService.registrarLote(anyList())).thenReturn(List.of(
+                ResultadoLoteDTO.aceito(0, "PEDIDO-0"),
+                ResultadoLoteDTO.falha(1, "PEDIDO-1", "Erro ao persistir o pedido"),
+                ResultadoLoteDTO.aceito(2, "PEDIDO-2")));
+
+        // WHEN
+        novoJournal().start();
+
+        // THEN
+        ByteBuffer entrada = ByteBuffer.wrap(Files.readAllBytes(diretorio.resolve("descartados")));
+        assertEquals(2, entrada.getLong(2 * Integer.BYTES));
+        assertEquals("PEDIDO-1", CodecEntradaJournal.decodificar(
+                entrada.slice(JournalPedidos.TAMANHO_CABECALHO, entrada.getInt(0))).getCodigoPedido());
+        assertEquals(JournalPedidos.TAMANHO_CABECALHO + entrada.getInt(0), entrada.capacity());
+        assertEquals(3, ByteBuffer.wrap(Files.readAllBytes(diretorio.resolve("checkpoint"))).getLong());
+    }
+
+    private JournalPedidos novoJournal() {
+        return new JournalPedidos(loteService, new SimpleMeterRegistry(), true, diretorio,
+                TAMANHO_SEGMENTO, INTERVALO_FORCE_MS, false);
+    }
+
+    private long segmentos() throws IOException {
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            return arquivos.filter(p -> p.getFileName().toString().endsWith(".journal")).count();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package br.com.testetech.testetech.metricas;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.CountAtBucket;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testes dos timers por etapa (buckets de SLO) e da correlação por requisição no cabeçalho {@code Server-Timing}.
+ */
+class MetricasRegistroPedidoTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final MetricasRegistroPedido metricas = new MetricasRegistroPedido(meterRegistry,
+            new Duration[]{Duration.ofMillis(5), Duration.ofMillis(50)}, false);
+
+    @Test
+    @DisplayName("Deve registrar a etapa no timer com os buckets de SLO configurados")
+    void shouldRecordStageIntoSloBuckets() {
+        // WHEN
+        String resultado = metricas.medir(EtapaRegistro.MAPEAMENTO, () -> "ok");
+
+        // THEN
+        Timer timer = meterRegistry.get("pedidos.registro.etapa").tag("etapa", "mapeamento").timer();
+        CountAtBucket[] buckets = timer.takeSnapshot().histogramCounts();
+        assertEquals("ok", resultado);
+        assertEquals(1, timer.count());
+        assertEquals(2, buckets.length);
+        assertEquals(5.0, buckets[0].bucket(TimeUnit.MILLISECONDS));
+        assertEquals(1.0, buckets[1].count(), "Uma medição submilissegundo cabe no bucket de 50ms");
+    }
+
+    @Test
+    @DisplayName("Deve acumular etapas e espera do pool somente dentro da requisição")
+    void shouldCorrelateStagesAndPoolWaitWithRequest() {
+        // GIVEN: fora de uma requisição nada é acumulado
+        CronometroRequisicao.acumularEsperaPool(1_000_000);
+        assertNull(CronometroRequisicao.atual());
+
+        CronometroRequisicao.iniciar();
+        try {
+            // WHEN
+            metricas.medir(EtapaRegistro.PERSISTENCIA, () -> null);
+            CronometroRequisicao.acumularEsperaPool(2_500_000);
+
+            // THEN
+            String serverTiming = CronometroRequisicao.atual().serverTiming();
+            assertTrue(serverTiming.startsWith("persistencia;dur="), serverTiming);
+            assertTrue(serverTiming.endsWith(", pool;dur=2.500"), serverTiming);
+        } finally {
+            CronometroRequisicao cronometro = CronometroRequisicao.encerrar();
+            assertEquals(1, cronometro.getConexoes());
+        }
+        assertNull(CronometroRequisicao.atual());
+    }
+
+    @Test
+    @DisplayName("Deve separar duplicados por forma de detecção dos conflitos de concorrência")
+    void shouldCountDuplicatesAndConflicts() {
+        // WHEN
+        metricas.duplicadoPorConsulta();
+        metricas.duplicadoPorIndiceUnico();
+        metricas.duplicadoPorIndiceUnico();
+        metricas.conflitoConcorrencia();
+
+        // THEN
+        assertEquals(1.0, meterRegistry.get("pedidos.duplicados").tag("deteccao", "consulta").counter().count());
+        assertEquals(2.0, meterRegistry.get("pedidos.duplicados").tag("deteccao", "indice_unico").counter().count());
+        assertEquals(1.0, meterRegistry.get("pedidos.conflitos.concorrencia").counter().count());
+    }
+}
@@ -0,0 +1,82 @@
+package br.com.testetech.testetech.model;
+
+import br.com.testetech.testetech.dto.ItemResumoDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Teste unitário da codificação colunar dos itens compactos.
+ */
+class CodecItensPedidoTest {
+
+    @Test
+    @DisplayName("Deve decodificar os itens na ordem original, com os valores na escala da coluna normalizada")
+    void shouldRoundTripWithColumnScale() {
+        // GIVEN
+        List<PedidoItem> items = List.of(
+                new PedidoItem("PRODUTO-A", new BigDecimal("10"), 2),
+                new PedidoItem("Café ☕", new BigDecimal("4.995"), 1),
+                new PedidoItem("PRODUTO-C", new BigDecimal("0.01"), 1_000_000));
+
+        // WHEN
+        List<ItemResumoDTO> decodificados = CodecItensPedido.decodificar(CodecItensPedido.codificar(items), ItemResumoDTO::new);
+
+        // THEN
+        assertEquals(List.of("PRODUTO-A x2 a 10.00", "Café ☕ x1 a 5.00", "PRODUTO-C x1000000 a 0.01"),
+                decodificados.stream().map(CodecItensPedidoTest::descrever).toList());
+    }
+
+    @Test
+    @DisplayName("Deve gravar os valores que não cabem em long pelo valor não escalado em bytes")
+    void shouldFallBackToBigIntegerForHugeValues() {
+        // GIVEN
+        BigDecimal enorme = new BigDecimal("123456789012345678901234567890.12");
+        List<PedidoItem> items = List.of(new PedidoItem("PRODUTO-A", new BigDecimal("1.50"), 3),
+                new PedidoItem("PRODUTO-B", enorme, 1));
+
+        // WHEN
+        List<PedidoItem> decodificados = CodecItensPedido.decodificar(CodecItensPedido.codificar(items), PedidoItem::new);
+
+        // THEN
+        assertEquals(new BigDecimal("1.50"), decodificados.get(0).getValorUnitario());
+        assertEquals(enorme, decodificados.get(1).getValorUnitario());
+        assertEquals(3, decodificados.get(0).getQuantidade());
+    }
+
+    @Test
+    @DisplayName("Deve ocupar pouco mais que os bytes dos produtos")
+    void shouldBeCompact() {
+        // GIVEN
+        List<PedidoItem> items = IntStream.range(0, 100)
+                .mapToObj(i -> new PedidoItem("PRODUTO-" + i, new BigDecimal("19.90"), 1 + i % 5))
+                .toList();
+        int bytesProdutos = items.stream().mapToInt(i -> i.getProdutoId().length()).sum();
+
+        // WHEN
+        byte[] codificado = CodecItensPedido.codificar(items);
+
+        // THEN
+        // 1 byte de tamanho, 2 de valor e 1 de quantidade por item, mais o cabeçalho
+        assertTrue(codificado.length <= bytesProdutos + 4 * items.size() + 3, "Tamanho: " + codificado.length);
+        assertEquals(items.size(), CodecItensPedido.decodificar(codificado, PedidoItem::new).size());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar um formato desconhecido")
+    void shouldRejectUnknownFormat() {
+        // WHEN / THEN
+        assertThrows(IllegalArgumentException.class, () -> CodecItensPedido.decodificar(new byte[]{9, 0}, PedidoItem::new));
+    }
+
+    private static String descrever(ItemResumoDTO item) {
+        return item.getProdutoId() + " x" + item.getQuantidade() + " a " + item.getValorUnitario();
+    }
+}
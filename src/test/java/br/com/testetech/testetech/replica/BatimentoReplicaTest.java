@@ -0,0 +1,93 @@
+package br.com.testetech.testetech.replica;
+
+import br.com.testetech.testetech.replica.RoteamentoLeitura.Destino;
+import br.com.testetech.testetech.sharding.ShardsPedidos;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Teste unitário da medição da posição da réplica pelo batimento, com bancos H2 em memória.
+ */
+class BatimentoReplicaTest {
+
+    private final List<HikariDataSource> pools = new ArrayList<>();
+
+    private final RoteamentoLeitura roteamento = new RoteamentoLeitura(List.of("jdbc:h2:mem:replica"),
+            Duration.ofSeconds(30), new SimpleMeterRegistry());
+
+    @AfterEach
+    void fechar() {
+        pools.forEach(HikariDataSource::close);
+    }
+
+    @Test
+    @DisplayName("Deve confirmar a réplica que mostra o batimento gravado no primário")
+    void shouldConfirmReplicaThatSeesHeartbeat() {
+        // GIVEN
+        HikariDataSource primario = pool("jdbc:h2:mem:batimento-primario");
+        // A "réplica" é o próprio primário: vê o batimento assim que ele é gravado
+        BatimentoReplica batimento = batimento(primario, pool("jdbc:h2:mem:batimento-primario"));
+        batimento.start();
+
+        // WHEN
+        batimento.bater();
+        Destino antesDaLeitura = roteamento.destinoLeitura();
+        batimento.bater();
+
+        // THEN
+        assertEquals(Destino.PRIMARIO, antesDaLeitura);
+        assertEquals(Destino.REPLICA, roteamento.destinoLeitura());
+        batimento.stop();
+        assertEquals(0, contar(primario));
+    }
+
+    @Test
+    @DisplayName("Não deve confirmar a réplica que não recebe o batimento")
+    void shouldNotConfirmStaleReplica() {
+        // GIVEN
+        HikariDataSource primario = pool("jdbc:h2:mem:batimento-primario-parado");
+        HikariDataSource replica = pool("jdbc:h2:mem:batimento-replica-parada");
+        new JdbcTemplate(replica).execute(
+                "create table replica_batimento (instancia varchar(36) primary key, sequencia bigint not null)");
+        BatimentoReplica batimento = batimento(primario, replica);
+        batimento.start();
+
+        // WHEN
+        for (int i = 0; i < 3; i++) {
+            batimento.bater();
+        }
+
+        // THEN
+        assertEquals(1, contar(primario));
+        assertEquals(0, contar(replica));
+        assertEquals(Destino.PRIMARIO, roteamento.destinoLeitura());
+        batimento.stop();
+    }
+
+    private BatimentoReplica batimento(HikariDataSource primario, HikariDataSource replica) {
+        // Intervalo longo: os ciclos são executados pelo próprio teste
+        return new BatimentoReplica(primario, new ReplicasLeitura(List.of(replica)), new ShardsPedidos(List.of(), 4),
+                roteamento, Duration.ofHours(1));
+    }
+
+    private HikariDataSource pool(String url) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setJdbcUrl(url + ";DB_CLOSE_DELAY=-1");
+        pools.add(pool);
+        return pool;
+    }
+
+    private static int contar(HikariDataSource dataSource) {
+        return new JdbcTemplate(dataSource).queryForObject("select count(*) from replica_batimento", Integer.class);
+    }
+}
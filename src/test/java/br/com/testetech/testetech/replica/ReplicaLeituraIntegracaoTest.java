@@ -0,0 +1,193 @@
+package br.com.testetech.testetech.replica;
+
+import br.com.testetech.testetech.cache.CachePedidos;
+import br.com.testetech.testetech.cache.JanelaPedidosRecentes;
+import br.com.testetech.testetech.dedupe.FiltroCodigosPedido;
+import br.com.testetech.testetech.dto.PedidoInputDTO;
+import br.com.testetech.testetech.dto.PedidoResumoDTO;
+import br.com.testetech.testetech.evento.PedidoRegistradoEvent;
+import br.com.testetech.testetech.metricas.MetricasRegistroPedido;
+import br.com.testetech.testetech.repository.PedidoRepository;
+import br.com.testetech.testetech.service.PedidoConsultaService;
+import br.com.testetech.testetech.service.PedidoService;
+import br.com.testetech.testetech.sharding.ShardsPedidos;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static br.com.testetech.testetech.dto.FabricaPedidos.pedido;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Teste de integração do roteamento de leitura com dois bancos H2 em memória (primário e réplica), sincronizados
+ * pelo {@link ReplicadorH2}. O replicador é acionado pelo próprio teste; o intervalo longo evita ciclos
+ * concorrentes.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:primario-teste",
+        "pedidos.replica.urls=jdbc:h2:mem:replica-teste",
+        "pedidos.replica.atraso-maximo=1m",
+        "pedidos.replica.replicador.habilitado=true",
+        "pedidos.replica.replicador.intervalo=1h",
+        // As listagens devem vir do banco, não da janela em memória
+        "pedidos.recentes.habilitada=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ReplicaConfig.class, RoteamentoLeitura.class, ShardsPedidos.class, PedidoService.class,
+        PedidoConsultaService.class, FiltroCodigosPedido.class, MetricasRegistroPedido.class, CachePedidos.class,
+        JanelaPedidosRecentes.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReplicaLeituraIntegracaoTest {
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private PedidoConsultaService consultaService;
+
+    @Autowired
+    private PedidoRepository repository;
+
+    @Autowired
+    private RoteamentoLeitura roteamento;
+
+    @Autowired
+    private ReplicadorH2 replicador;
+
+    @Autowired
+    private ReplicasLeitura replicas;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transacaoLeitura;
+
+    private String prefixo;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> repository.deleteAll());
+        // O replicador só propaga gravações de pedidos: a limpeza é feita nos dois bancos
+        try (Connection conexao = replicas.pool(0).getConnection(); Statement comando = conexao.createStatement()) {
+            comando.execute("delete from itens_pedido");
+            comando.execute("delete from pedidos");
+        }
+        replicador.replicar();
+        transacaoLeitura = new TransactionTemplate(transactionManager);
+        transacaoLeitura.setReadOnly(true);
+        prefixo = "PEDIDO-" + System.nanoTime() + "-";
+    }
+
+    @Test
+    @DisplayName("Deve servir as listagens pela réplica, que só vê os pedidos depois da replicação")
+    void shouldServeListingsFromReplica() {
+        // GIVEN
+        IntStream.range(0, 3).forEach(i -> pedidoService.registrarPedido(pedido(prefixo + i)));
+        double leiturasReplica = leituras("replica");
+        long naReplica = contar();
+        long noPrimario = RoteamentoLeitura.noPrimario(this::contar);
+
+        // WHEN
+        replicador.replicar();
+        List<PedidoResumoDTO> pagina = consultaService.listarTodos(PageRequest.of(0, 10), true).getContent();
+
+        // THEN
+        assertEquals(0, naReplica);
+        assertEquals(3, noPrimario);
+        assertEquals(3, pagina.size());
+        assertTrue(pagina.stream().allMatch(p -> p.getItems().size() == 2));
+        assertTrue(leituras("replica") > leiturasReplica + 1);
+    }
+
+    @Test
+    @DisplayName("Deve ler do primário o pedido recém-gravado até a réplica confirmá-lo")
+    void shouldReadOwnWritesFromPrimaryUntilReplicated() {
+        // GIVEN
+        String codigo = prefixo + "A";
+        pedidoService.registrarPedido(pedido(codigo));
+        boolean antesPorCodigo = porCodigo(codigo);
+        boolean antesNaReplica = existe(codigo);
+        double leiturasReplica = leituras("replica");
+
+        // WHEN
+        replicador.replicar();
+        boolean depoisPorCodigo = porCodigo(codigo);
+
+        // THEN
+        assertTrue(antesPorCodigo);
+        assertFalse(antesNaReplica);
+        assertTrue(depoisPorCodigo);
+        assertEquals(leiturasReplica + 1, leituras("replica"));
+    }
+
+    @Test
+    @DisplayName("Deve manter as escritas no primário e reaplicar o mesmo pedido sem duplicá-lo na réplica")
+    void shouldKeepWritesOnPrimaryAndReplicateIdempotently() {
+        // GIVEN
+        String codigo = prefixo + "B";
+        pedidoService.registrarPedido(pedido(codigo));
+        replicador.enfileirar(new PedidoRegistradoEvent(
+                consultaService.buscarPorCodigo(codigo)));
+
+        // WHEN
+        replicador.replicar();
+        PedidoResumoDTO replicado = transacaoLeitura.execute(status -> repository.findResumoPorCodigo(codigo)
+                .map(p -> repository.anexarItens(List.of(p)).get(0))
+                .orElseThrow());
+
+        // THEN
+        assertEquals(1, contar());
+        assertEquals(new BigDecimal("24.99"), replicado.getValorTotal());
+        assertEquals(2, replicado.getItems().size());
+        assertEquals(0, roteamento.atrasoNanos());
+    }
+
+    private boolean porCodigo(String codigo) {
+        return roteamento.porCodigo(codigo, () -> existe(codigo));
+    }
+
+    private long contar() {
+        return transacaoLeitura.execute(status -> repository.count());
+    }
+
+    private boolean existe(String codigo) {
+        return Boolean.TRUE.equals(transacaoLeitura.execute(status -> repository.existsByCodigoPedido(codigo)));
+    }
+
+    private double leituras(String destino) {
+        return meterRegistry.get("pedidos.replica.leituras").tag("destino", destino).counter().count();
+    }
+}
@@ -0,0 +1,108 @@
+package br.com.testetech.testetech.replica;
+
+import br.com.testetech.testetech.dto.PedidoResumoDTO;
+import br.com.testetech.testetech.evento.PedidoRegistradoEvent;
+import br.com.testetech.testetech.model.PedidoStatus;
+import br.com.testetech.testetech.replica.RoteamentoLeitura.Destino;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Teste unitário da decisão entre réplica e primário.
+ */
+class RoteamentoLeituraTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final RoteamentoLeitura roteamento = new RoteamentoLeitura(List.of("jdbc:h2:mem:replica"),
+            Duration.ofSeconds(30), meterRegistry);
+
+    @Test
+    @DisplayName("Deve ler do primário até a primeira confirmação da replicação")
+    void shouldReadFromPrimaryUntilReplicationConfirmed() {
+        // GIVEN
+        Destino antesDaConfirmacao = roteamento.destinoLeitura();
+
+        // WHEN
+        roteamento.confirmarReplicacao(System.nanoTime());
+
+        // THEN
+        assertEquals(Destino.PRIMARIO, antesDaConfirmacao);
+        assertEquals(Destino.REPLICA, roteamento.destinoLeitura());
+        assertEquals(1, meterRegistry.get("pedidos.replica.leituras").tag("destino", "primario").counter().count());
+        assertEquals(1, meterRegistry.get("pedidos.replica.leituras").tag("destino", "replica").counter().count());
+    }
+
+    @Test
+    @DisplayName("Deve ler do primário o código gravado e ainda não replicado")
+    void shouldReadOwnWritesFromPrimary() {
+        // GIVEN
+        roteamento.confirmarReplicacao(System.nanoTime());
+        roteamento.registrar(evento("PEDIDO-1"));
+        Destino gravado = roteamento.porCodigo("PEDIDO-1", roteamento::destinoLeitura);
+        Destino outro = roteamento.porCodigo("PEDIDO-2", roteamento::destinoLeitura);
+
+        // WHEN
+        roteamento.confirmarReplicacao(System.nanoTime());
+
+        // THEN
+        assertEquals(Destino.PRIMARIO, gravado);
+        assertEquals(Destino.REPLICA, outro);
+        assertEquals(Destino.REPLICA, roteamento.porCodigo("PEDIDO-1", roteamento::destinoLeitura));
+    }
+
+    @Test
+    @DisplayName("Deve voltar ao primário quando o atraso da réplica passa do máximo")
+    void shouldFallBackToPrimaryWhenLagExceedsMaximum() {
+        // GIVEN
+        // Limite de 1 min e confirmação de 10 min atrás: o resultado não depende do tempo entre as chamadas
+        RoteamentoLeitura tolerante = new RoteamentoLeitura(List.of("jdbc:h2:mem:replica"), Duration.ofMinutes(1),
+                meterRegistry);
+        tolerante.confirmarReplicacao(System.nanoTime() - Duration.ofMinutes(10).toNanos());
+        Destino semEscritaPendente = tolerante.destinoLeitura();
+        tolerante.registrar(evento("PEDIDO-1"));
+        Destino atrasado = tolerante.destinoLeitura();
+
+        // WHEN
+        tolerante.confirmarReplicacao(System.nanoTime());
+
+        // THEN
+        assertEquals(Destino.REPLICA, semEscritaPendente);
+        assertEquals(Destino.PRIMARIO, atrasado);
+        assertEquals(0, tolerante.atrasoNanos());
+        assertEquals(Destino.REPLICA, tolerante.destinoLeitura());
+    }
+
+    @Test
+    @DisplayName("Deve ler do primário dentro de noPrimario e sem réplica configurada")
+    void shouldReadFromPrimaryWhenForcedOrInactive() {
+        // GIVEN
+        roteamento.confirmarReplicacao(System.nanoTime());
+        RoteamentoLeitura inativo = new RoteamentoLeitura(List.of(), Duration.ofSeconds(1), new SimpleMeterRegistry());
+        inativo.confirmarReplicacao(System.nanoTime());
+
+        // WHEN
+        Destino forcado = RoteamentoLeitura.noPrimario(roteamento::destinoLeitura);
+        Destino livre = roteamento.destinoLeitura();
+        Destino semReplica = inativo.destinoLeitura();
+
+        // THEN
+        assertEquals(Destino.PRIMARIO, forcado);
+        assertEquals(Destino.REPLICA, livre);
+        assertEquals(Destino.PRIMARIO, semReplica);
+    }
+
+    private static PedidoRegistradoEvent evento(String codigo) {
+        return new PedidoRegistradoEvent(new PedidoResumoDTO(1L, codigo, List.of(), BigDecimal.TEN,
+                PedidoStatus.RECEBIDO, LocalDateTime.now()));
+    }
+}
@@ -0,0 +1,70 @@
+package br.com.testetech.testetech.repository;
+
+import br.com.testetech.testetech.dto.ItemDTO;
+import br.com.testetech.testetech.dto.PedidoInputDTO;
+import br.com.testetech.testetech.model.Pedido;
+import br.com.testetech.testetech.service.PedidoMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Teste de integração da camada de persistência (H2 em memória), utilizando as estatísticas
+ * do Hibernate para fixar a quantidade de comandos SQL emitidos por pedido.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class PedidoRepositoryTest {
+
+    @Autowired
+    private PedidoRepository repository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        // Aquece as sequences (o otimizador pooled consulta cada sequence duas vezes na primeira
+        // alocação); as próximas alocações já estarão no bloco em memória
+        repository.saveAndFlush(PedidoMapper.paraEntidade(pedidoComItens("PEDIDO-AQUECIMENTO-1", 2)));
+        repository.saveAndFlush(PedidoMapper.paraEntidade(pedidoComItens("PEDIDO-AQUECIMENTO-2", 2)));
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("Deve gravar um pedido de 20 itens com dois comandos preparados e nenhum UPDATE")
+    void shouldPersistOrderWithTwoBatchedStatements() {
+        // GIVEN
+        Pedido pedido = PedidoMapper.paraEntidade(pedidoComItens("PEDIDO-20-ITENS", 20));
+
+        // WHEN
+        repository.saveAndFlush(pedido);
+
+        // THEN
+        assertEquals(21, statistics.getEntityInsertCount());
+        assertEquals(0, statistics.getEntityUpdateCount());
+        // Um INSERT em 'pedidos' + um INSERT em 'itens_pedido' executado como batch JDBC
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    private static PedidoInputDTO pedidoComItens(String codigo, int quantidadeItens) {
+        List<ItemDTO> items = IntStream.range(0, quantidadeItens)
+                .mapToObj(i -> new ItemDTO("PRODUTO-" + i, new BigDecimal("9.90"), i + 1))
+                .toList();
+        return new PedidoInputDTO(codigo, items);
+    }
+}
@@ -0,0 +1,131 @@
+package br.com.testetech.testetech.service;
+
+import br.com.testetech.testetech.cache.CachePedidos;
+import br.com.testetech.testetech.cache.JanelaPedidosRecentes;
+import br.com.testetech.testetech.dedupe.FiltroCodigosPedido;
+import br.com.testetech.testetech.dto.ItemResumoDTO;
+import br.com.testetech.testetech.dto.PedidoInputDTO;
+import br.com.testetech.testetech.dto.PedidoResumoDTO;
+import br.com.testetech.testetech.dto.ResultadoLoteDTO;
+import br.com.testetech.testetech.dto.SituacaoLote;
+import br.com.testetech.testetech.metricas.MetricasRegistroPedido;
+import br.com.testetech.testetech.model.Pedido;
+import br.com.testetech.testetech.replica.RoteamentoLeitura;
+import br.com.testetech.testetech.repository.PedidoRepository;
+import br.com.testetech.testetech.sharding.ShardsPedidos;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+import static br.com.testetech.testetech.dto.FabricaPedidos.pedido;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Teste de integração do armazenamento compacto dos itens ({@code pedidos.itens.armazenamento=COMPACTO}).
+ */
+@DataJpaTest(properties = {
+        "pedidos.itens.armazenamento=COMPACTO",
+        "pedidos.recentes.habilitada=false"
+})
+@Import({PedidoService.class, PedidoLoteService.class, PedidoConsultaService.class, FiltroCodigosPedido.class,
+        MetricasRegistroPedido.class, CachePedidos.class, JanelaPedidosRecentes.class, ShardsPedidos.class,
+        RoteamentoLeitura.class})
+class ArmazenamentoCompactoTest {
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        Validator validator() {
+            return Validation.buildDefaultValidatorFactory().getValidator();
+        }
+    }
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private PedidoLoteService loteService;
+
+    @Autowired
+    private PedidoConsultaService consultaService;
+
+    @Autowired
+    private PedidoRepository repository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    @DisplayName("Deve gravar o pedido em uma única linha e lê-lo com os mesmos itens do registro")
+    void shouldStoreItemsInsideOrderRow() {
+        // WHEN
+        PedidoResumoDTO registrado = PedidoMapper.paraResumo(pedidoService.registrarPedido(pedido("COMPACTO-1")));
+        List<ResultadoLoteDTO> resultados = loteService.registrarLote(List.of(pedido("COMPACTO-2"), pedido("COMPACTO-3")));
+        entityManager.clear();
+        PedidoResumoDTO lido = consultaService.buscarPorCodigo("COMPACTO-1");
+        Pedido entidade = repository.findById(lido.getId()).orElseThrow();
+
+        // THEN
+        resultados.forEach(resultado -> assertEquals(SituacaoLote.ACEITO, resultado.getSituacao()));
+        assertEquals(0L, contar("select count(*) from itens_pedido"));
+        assertEquals(3L, contar("select count(*) from pedidos where itens_compactos is not null"));
+        assertEquals(descrever(registrado.getItems()), descrever(lido.getItems()));
+        assertEquals(List.of("PRODUTO-A x2 a 10.00", "PRODUTO-B x1 a 4.99"), descrever(lido.getItems()));
+        assertEquals(List.of(2, 1), entidade.getItems().stream().map(i -> i.getQuantidade()).toList());
+    }
+
+    @Test
+    @DisplayName("Deve ler na mesma página pedidos gravados nos dois armazenamentos")
+    void shouldReadBothLayoutsTogether() {
+        // GIVEN
+        repository.saveAndFlush(PedidoMapper.paraEntidade(pedido("NORMALIZADO-1")));
+        pedidoService.registrarPedido(pedido("COMPACTO-1"));
+        entityManager.clear();
+
+        // WHEN
+        List<PedidoResumoDTO> pagina = consultaService
+                .listarTodos(PageRequest.of(0, 10, Sort.by("codigoPedido")), true).getContent();
+
+        // THEN
+        assertEquals(1L, contar("select count(*) from pedidos where itens_compactos is not null"));
+        assertEquals(2L, contar("select count(*) from itens_pedido"));
+        assertEquals(2, pagina.size());
+        for (PedidoResumoDTO p : pagina) {
+            assertNotNull(p.getItems(), p.getCodigoPedido());
+            assertEquals(List.of("PRODUTO-A x2 a 10.00", "PRODUTO-B x1 a 4.99"), descrever(p.getItems()));
+        }
+        // Somente os itens normalizados têm linha (e ID) em itens_pedido
+        assertTrue(pagina.get(0).getItems().stream().allMatch(i -> i.getId() == null));
+        assertTrue(pagina.get(1).getItems().stream().allMatch(i -> i.getId() != null));
+    }
+
+    private long contar(String sql) {
+        return ((Number) entityManager.getEntityManager().createNativeQuery(sql).getSingleResult()).longValue();
+    }
+
+    private static List<String> descrever(List<ItemResumoDTO> items) {
+        return items.stream()
+                .map(i -> i.getProdutoId() + " x" + i.getQuantidade() + " a " + i.getValorUnitario())
+                .toList();
+    }
+}
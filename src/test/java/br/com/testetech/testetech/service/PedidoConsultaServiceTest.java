@@ -0,0 +1,202 @@
+package br.com.testetech.testetech.service;
+
+import br.com.testetech.testetech.cache.CachePedidos;
+import br.com.testetech.testetech.cache.JanelaPedidosRecentes;
+import br.com.testetech.testetech.dto.ItemDTO;
+import br.com.testetech.testetech.dto.PaginaCursorDTO;
+import br.com.testetech.testetech.dto.PedidoInputDTO;
+import br.com.testetech.testetech.dto.PedidoResumoDTO;
+import br.com.testetech.testetech.exception.CursorInvalidoException;
+import br.com.testetech.testetech.exception.PedidoNaoEncontradoException;
+import br.com.testetech.testetech.model.Pedido;
+import br.com.testetech.testetech.replica.RoteamentoLeitura;
+import br.com.testetech.testetech.repository.PedidoRepository;
+import br.com.testetech.testetech.sharding.ShardsPedidos;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Teste de integração das consultas de leitura de pedidos contra o H2 em memória.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        // Os pedidos são inseridos direto pelo repositório, sem eventos: as páginas devem vir do banco
+        "pedidos.recentes.habilitada=false"
+})
+@Import({PedidoConsultaService.class, CachePedidos.class, JanelaPedidosRecentes.class, ShardsPedidos.class,
+        RoteamentoLeitura.class})
+class PedidoConsultaServiceTest {
+
+    private static final int TOTAL_PEDIDOS = 25;
+
+    @TestConfiguration
+    static class MetricasConfig {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private PedidoConsultaService consultaService;
+
+    @Autowired
+    private PedidoRepository repository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        // Datas repetidas forçam o desempate pelo ID dentro do cursor
+        LocalDateTime base = LocalDateTime.of(2025, 1, 1, 10, 0);
+        IntStream.range(0, TOTAL_PEDIDOS).forEach(i -> {
+            Pedido pedido = PedidoMapper.paraEntidade(new PedidoInputDTO("PEDIDO-" + i,
+                    List.of(new ItemDTO("PRODUTO-A", new BigDecimal("10.00"), 1))));
+            repository.save(pedido);
+            pedido.setDataCriacao(base.plusMinutes(i / 3));
+        });
+        repository.flush();
+    }
+
+    @Test
+    @DisplayName("Deve percorrer todos os pedidos por cursor, sem repetições e em ordem decrescente")
+    void shouldWalkAllPagesWithCursor() {
+        // GIVEN
+        List<PedidoResumoDTO> visitados = new ArrayList<>();
+        List<Integer> tamanhos = new ArrayList<>();
+        String cursor = null;
+
+        // WHEN
+        do {
+            PaginaCursorDTO<PedidoResumoDTO> pagina = consultaService.listarPorCursor(cursor, 10, false);
+            visitados.addAll(pagina.getConteudo());
+            tamanhos.add(pagina.getConteudo().size());
+            cursor = pagina.getProximoCursor();
+        } while (cursor != null);
+
+        // THEN
+        assertEquals(List.of(10, 10, 5), tamanhos);
+        assertEquals(TOTAL_PEDIDOS, visitados.stream().map(PedidoResumoDTO::getId).distinct().count());
+        List<PedidoResumoDTO> ordenados = new ArrayList<>(visitados);
+        ordenados.sort(Comparator.comparing(PedidoResumoDTO::getDataCriacao).thenComparing(PedidoResumoDTO::getId).reversed());
+        assertEquals(ordenados, visitados);
+    }
+
+    @Test
+    @DisplayName("Deve devolver a última página sem cursor de continuação")
+    void shouldReturnNullCursorOnLastPage() {
+        PaginaCursorDTO<PedidoResumoDTO> pagina = consultaService.listarPorCursor(null, TOTAL_PEDIDOS, true);
+
+        assertEquals(TOTAL_PEDIDOS, pagina.getConteudo().size());
+        assertNull(pagina.getProximoCursor());
+        assertTrue(pagina.getConteudo().stream().allMatch(p -> p.getItems().size() == 1));
+    }
+
+    @Test
+    @DisplayName("Deve consultar o banco apenas na primeira leitura por código")
+    void shouldServeRepeatedLookupsFromCache() {
+        // GIVEN
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // WHEN
+        PedidoResumoDTO primeira = consultaService.buscarPorCodigo("PEDIDO-7");
+        long comandosPrimeiraLeitura = statistics.getPrepareStatementCount();
+        PedidoResumoDTO segunda = consultaService.buscarPorCodigo("PEDIDO-7");
+
+        // THEN: resumo + itens na primeira leitura; nenhuma consulta na segunda
+        assertEquals(2, comandosPrimeiraLeitura);
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertSame(primeira, segunda);
+        assertEquals(1, segunda.getItems().size());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tags("cache", "pedidos", "result", "hit").functionCounter().count());
+        assertEquals(0.5, meterRegistry.get("pedidos.cache.taxa.acerto").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Deve lançar exceção para código inexistente sem armazenar a ausência")
+    void shouldNotCacheMissingOrder() {
+        assertThrows(PedidoNaoEncontradoException.class, () -> consultaService.buscarPorCodigo("PEDIDO-INEXISTENTE"));
+
+        repository.save(PedidoMapper.paraEntidade(new PedidoInputDTO("PEDIDO-INEXISTENTE",
+                List.of(new ItemDTO("PRODUTO-B", new BigDecimal("5.00"), 2)))));
+
+        assertEquals(new BigDecimal("10.00"), consultaService.buscarPorCodigo("PEDIDO-INEXISTENTE").getValorTotal());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar um cursor adulterado")
+    void shouldRejectInvalidCursor() {
+        assertThrows(CursorInvalidoException.class, () -> consultaService.listarPorCursor("nao-e-um-cursor", 10, false));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {5, 10, 20})
+    @DisplayName("Deve executar um número constante de comandos por página, independentemente do tamanho")
+    void shouldUseConstantQueryCountPerPage(int tamanhoPagina) {
+        // GIVEN
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // WHEN
+        Page<PedidoResumoDTO> pagina = consultaService.listarTodos(
+                PageRequest.of(0, tamanhoPagina, Sort.by(Sort.Direction.DESC, "dataCriacao")), true);
+
+        // THEN
+        assertEquals(tamanhoPagina, pagina.getContent().size());
+        assertTrue(pagina.getContent().stream().allMatch(p -> p.getItems().size() == 1));
+        // Página + COUNT + uma única consulta com os itens de toda a página
+        assertEquals(3, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount(), "Nenhuma entidade gerenciada deve ser carregada");
+    }
+
+    @Test
+    @DisplayName("Deve omitir os itens e a consulta de itens quando não solicitados")
+    void shouldSkipItemsQueryWhenNotRequested() {
+        // GIVEN
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // WHEN
+        Page<PedidoResumoDTO> pagina = consultaService.listarTodos(PageRequest.of(0, 10), false);
+
+        // THEN
+        assertNotNull(pagina.getContent().get(0).getCodigoPedido());
+        assertNull(pagina.getContent().get(0).getItems());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+}
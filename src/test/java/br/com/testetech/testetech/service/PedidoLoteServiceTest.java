@@ -0,0 +1,86 @@
+package br.com.testetech.testetech.service;
+
+import br.com.testetech.testetech.dedupe.FiltroCodigosPedido;
+import br.com.testetech.testetech.dto.ItemDTO;
+import br.com.testetech.testetech.dto.PedidoInputDTO;
+import br.com.testetech.testetech.dto.ResultadoLoteDTO;
+import br.com.testetech.testetech.dto.SituacaoLote;
+import br.com.testetech.testetech.model.ArmazenamentoItens;
+import br.com.testetech.testetech.repository.PedidoRepository;
+import br.com.testetech.testetech.sharding.ShardsPedidos;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Teste unitário do fluxo de ingestão em lote, com repositório e gerenciador de transações simulados.
+ */
+@ExtendWith(MockitoExtension.class)
+class PedidoLoteServiceTest {
+
+    @Mock
+    private PedidoRepository repository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private FiltroCodigosPedido filtroCodigos;
+
+    private PedidoLoteService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new PedidoLoteService(repository, transactionManager,
+                Validation.buildDefaultValidatorFactory().getValidator(), filtroCodigos, new ShardsPedidos(List.of(), 4),
+                new SimpleMeterRegistry(),
+                evento -> { }, 2, ArmazenamentoItens.NORMALIZADO);
+    }
+
+    @Test
+    @DisplayName("Deve classificar cada pedido do lote como aceito, duplicado ou falha, preservando a ordem")
+    void shouldReportResultPerOrder() {
+        // GIVEN
+        ItemDTO item = new ItemDTO("PRODUTO-1", new BigDecimal("10.00"), 1);
+        List<PedidoInputDTO> lote = List.of(
+                new PedidoInputDTO("PEDIDO-1", List.of(item)),
+                new PedidoInputDTO("PEDIDO-EXISTENTE", List.of(item)),
+                new PedidoInputDTO("PEDIDO-1", List.of(item)),  // repetido no próprio lote
+                new PedidoInputDTO("PEDIDO-SEM-ITENS", List.of()),
+                new PedidoInputDTO("PEDIDO-2", List.of(item)));
+
+        when(repository.findCodigosExistentes(anyCollection()))
+                .thenAnswer(invocation -> invocation.<Set<String>>getArgument(0).contains("PEDIDO-EXISTENTE")
+                        ? Set.of("PEDIDO-EXISTENTE") : Set.of());
+
+        // WHEN
+        List<ResultadoLoteDTO> resultados = service.registrarLote(lote);
+
+        // THEN
+        assertEquals(List.of(SituacaoLote.ACEITO, SituacaoLote.DUPLICADO, SituacaoLote.DUPLICADO,
+                        SituacaoLote.FALHA, SituacaoLote.ACEITO),
+                resultados.stream().map(ResultadoLoteDTO::getSituacao).toList());
+        assertEquals(List.of(0, 1, 2, 3, 4), resultados.stream().map(ResultadoLoteDTO::getIndice).toList());
+
+        // Uma consulta de duplicidade e um saveAll por bloco com candidatos (blocos de 2: [0,1], [2,3], [4])
+        verify(repository, times(2)).findCodigosExistentes(anyCollection());
+        verify(repository, times(2)).saveAll(anyList());
+    }
+}
@@ -0,0 +1,140 @@
+package br.com.testetech.testetech.service;
+
+import br.com.testetech.testetech.dedupe.FiltroCodigosPedido;
+import br.com.testetech.testetech.dto.ResultadoLoteDTO;
+import br.com.testetech.testetech.dto.SituacaoLote;
+import br.com.testetech.testetech.exception.LoteInvalidoException;
+import br.com.testetech.testetech.model.ArmazenamentoItens;
+import br.com.testetech.testetech.repository.PedidoRepository;
+import br.com.testetech.testetech.sharding.ShardsPedidos;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Teste unitário da leitura em streaming do lote, com repositório e gerenciador de transações simulados.
+ */
+@ExtendWith(MockitoExtension.class)
+class PedidoLoteStreamingServiceTest {
+
+    private static final String ITEM = "{\"produtoId\":\"PRODUTO-1\",\"valorUnitario\":10.00,\"quantidade\":1}";
+
+    @Mock
+    private PedidoRepository repository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private FiltroCodigosPedido filtroCodigos;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private PedidoLoteStreamingService service;
+
+    @BeforeEach
+    void setUp() {
+        PedidoLoteService loteService = new PedidoLoteService(repository, transactionManager,
+                Validation.buildDefaultValidatorFactory().getValidator(), filtroCodigos, new ShardsPedidos(List.of(), 4),
+                new SimpleMeterRegistry(),
+                evento -> { }, 2, ArmazenamentoItens.NORMALIZADO);
+        service = new PedidoLoteStreamingService(loteService, objectMapper);
+    }
+
+    @Test
+    @DisplayName("Deve registrar o lote em blocos e reportar elementos inválidos sem interromper a leitura")
+    void shouldRegisterInChunksAndReportInvalidElements() throws IOException {
+        // GIVEN
+        when(repository.findCodigosExistentes(anyCollection())).thenReturn(Set.of());
+        String corpo = "[" + String.join(",",
+                pedido("PEDIDO-1"),
+                "{\"codigoPedido\":\"PEDIDO-TIPO\",\"items\":[{\"produtoId\":\"P\",\"valorUnitario\":\"abc\",\"quantidade\":1}]}",
+                pedido("PEDIDO-2"),
+                "null",
+                pedido("PEDIDO-3")) + "]";
+
+        // WHEN
+        List<ResultadoLoteDTO> resultados = processar(corpo);
+
+        // THEN
+        assertEquals(List.of(SituacaoLote.ACEITO, SituacaoLote.FALHA, SituacaoLote.ACEITO, SituacaoLote.FALHA,
+                SituacaoLote.ACEITO), resultados.stream().map(ResultadoLoteDTO::getSituacao).toList());
+        assertEquals(List.of(0, 1, 2, 3, 4), resultados.stream().map(ResultadoLoteDTO::getIndice).toList());
+        assertEquals("PEDIDO-TIPO", resultados.get(1).getCodigoPedido());
+        assertTrue(resultados.get(1).getMensagem().startsWith("Pedido inválido"), resultados.get(1).getMensagem());
+
+        // Blocos de 2: [0,1], [2,3], [4]
+        verify(repository, times(3)).saveAll(anyList());
+    }
+
+    @Test
+    @DisplayName("Deve registrar os pedidos lidos e encerrar com falha quando o JSON é interrompido")
+    void shouldStopOnMalformedJson() throws IOException {
+        // GIVEN
+        when(repository.findCodigosExistentes(anyCollection())).thenReturn(Set.of());
+
+        // WHEN
+        List<ResultadoLoteDTO> resultados = processar("[" + pedido("PEDIDO-1") + ",{\"codigoPedido\":");
+
+        // THEN
+        assertEquals(2, resultados.size());
+        assertEquals(SituacaoLote.ACEITO, resultados.get(0).getSituacao());
+        assertEquals(SituacaoLote.FALHA, resultados.get(1).getSituacao());
+        assertEquals(1, resultados.get(1).getIndice());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar corpo que não é um array JSON antes de iniciar a resposta")
+    void shouldRejectNonArrayBody() {
+        assertThrows(LoteInvalidoException.class, () -> service.abrir(entrada(pedido("PEDIDO-1"))));
+        assertThrows(LoteInvalidoException.class, () -> service.abrir(entrada("}")));
+    }
+
+    private List<ResultadoLoteDTO> processar(String corpo) throws IOException {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        try (JsonParser parser = service.abrir(entrada(corpo))) {
+            service.processar(parser, saida);
+        }
+        List<ResultadoLoteDTO> resultados = new ArrayList<>();
+        for (String linha : saida.toString(StandardCharsets.UTF_8).split("\n")) {
+            var no = objectMapper.readTree(linha);
+            resultados.add(new ResultadoLoteDTO(no.get("indice").asInt(), no.path("codigoPedido").asText(null),
+                    SituacaoLote.valueOf(no.get("situacao").asText()), no.path("mensagem").asText(null)));
+        }
+        return resultados;
+    }
+
+    private static String pedido(String codigo) {
+        return "{\"codigoPedido\":\"" + codigo + "\",\"items\":[" + ITEM + "]}";
+    }
+
+    private static ByteArrayInputStream entrada(String corpo) {
+        return new ByteArrayInputStream(corpo.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,110 @@
+package br.com.testetech.testetech.service;
+
+import br.com.testetech.testetech.model.PedidoItem;
+import net.jqwik.api.Arbitraries;
+import net.jqwik.api.Arbitrary;
+import net.jqwik.api.Combinators;
+import net.jqwik.api.Example;
+import net.jqwik.api.ForAll;
+import net.jqwik.api.Label;
+import net.jqwik.api.Property;
+import net.jqwik.api.Provide;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Testes baseados em propriedades do cálculo do valor total: o caminho em ponto fixo deve produzir exatamente
+ * o mesmo {@link BigDecimal} (valor e escala) que a redução em {@link BigDecimal}.
+ */
+class PedidoMapperPropertiesTest {
+
+    @Property
+    @Label("Deve produzir o mesmo total que a redução em BigDecimal para quaisquer valores e escalas")
+    void shouldMatchBigDecimalForAnyItems(@ForAll("itensQuaisquer") List<PedidoItem> items) {
+        // WHEN
+        BigDecimal total = PedidoMapper.calcularTotal(items);
+
+        // THEN
+        assertEquals(PedidoMapper.calcularTotalBigDecimal(items), total);
+    }
+
+    @Property
+    @Label("Deve calcular valores monetários usuais em ponto fixo, sem recorrer a BigDecimal")
+    void shouldUseFixedPointForMonetaryItems(@ForAll("itensMonetarios") List<PedidoItem> items) {
+        // WHEN
+        BigDecimal pontoFixo = PedidoMapper.calcularTotalPontoFixo(items);
+
+        // THEN
+        assertNotNull(pontoFixo);
+        assertEquals(PedidoMapper.calcularTotalBigDecimal(items), pontoFixo);
+    }
+
+    @Example
+    @Label("Deve recorrer a BigDecimal quando a soma estoura o long")
+    void shouldFallBackOnOverflow() {
+        // GIVEN
+        List<PedidoItem> items = List.of(item(BigDecimal.valueOf(Long.MAX_VALUE / 10, 2), 20), item(new BigDecimal("0.01"), 1));
+
+        // WHEN
+        BigDecimal pontoFixo = PedidoMapper.calcularTotalPontoFixo(items);
+        BigDecimal total = PedidoMapper.calcularTotal(items);
+
+        // THEN
+        assertNull(pontoFixo);
+        assertEquals(new BigDecimal("184467440737095516.01"), total);
+    }
+
+    @Example
+    @Label("Deve manter a escala da redução em BigDecimal para lista vazia e valores inteiros")
+    void shouldPreserveScale() {
+        // GIVEN
+        List<PedidoItem> inteiros = List.of(item(BigDecimal.TEN, 3));
+        List<PedidoItem> escalasMistas = List.of(item(BigDecimal.TEN, 3), item(new BigDecimal("0.500"), 1));
+
+        // WHEN
+        BigDecimal totalVazio = PedidoMapper.calcularTotal(List.of());
+        BigDecimal totalInteiros = PedidoMapper.calcularTotal(inteiros);
+        BigDecimal totalEscalasMistas = PedidoMapper.calcularTotal(escalasMistas);
+
+        // THEN
+        assertEquals(BigDecimal.ZERO, totalVazio);
+        assertEquals(new BigDecimal("30"), totalInteiros);
+        assertEquals(new BigDecimal("30.500"), totalEscalasMistas);
+    }
+
+    @Provide
+    Arbitrary<List<PedidoItem>> itensQuaisquer() {
+        Arbitrary<BigInteger> naoEscalados = Arbitraries.oneOf(
+                Arbitraries.longs().map(BigInteger::valueOf),
+                Arbitraries.bigIntegers().between(BigInteger.TEN.pow(25).negate(), BigInteger.TEN.pow(25)));
+        Arbitrary<BigDecimal> valores = Combinators.combine(naoEscalados, Arbitraries.integers().between(-3, 22))
+                .as(BigDecimal::new);
+        return itens(valores, Arbitraries.integers().between(0, Integer.MAX_VALUE));
+    }
+
+    @Provide
+    Arbitrary<List<PedidoItem>> itensMonetarios() {
+        Arbitrary<BigDecimal> valores = Combinators.combine(
+                        Arbitraries.longs().between(0, 1_000_000_000L), Arbitraries.integers().between(0, 4))
+                .as(BigDecimal::valueOf);
+        return itens(valores, Arbitraries.integers().between(1, 10_000));
+    }
+
+    private static Arbitrary<List<PedidoItem>> itens(Arbitrary<BigDecimal> valores, Arbitrary<Integer> quantidades) {
+        return Combinators.combine(valores, quantidades).as(PedidoMapperPropertiesTest::item).list().ofMaxSize(50);
+    }
+
+    private static PedidoItem item(BigDecimal valorUnitario, int quantidade) {
+        PedidoItem item = new PedidoItem();
+        item.setProdutoId("PRODUTO");
+        item.setValorUnitario(valorUnitario);
+        item.setQuantidade(quantidade);
+        return item;
+    }
+}
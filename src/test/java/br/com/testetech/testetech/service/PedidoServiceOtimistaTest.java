@@ -0,0 +1,83 @@
+package br.com.testetech.testetech.service;
+
+import br.com.testetech.testetech.cache.CachePedidos;
+import br.com.testetech.testetech.dedupe.FiltroCodigosPedido;
+import br.com.testetech.testetech.dto.ItemDTO;
+import br.com.testetech.testetech.dto.PedidoInputDTO;
+import br.com.testetech.testetech.exception.PedidoDuplicadoException;
+import br.com.testetech.testetech.metricas.MetricasRegistroPedido;
+import br.com.testetech.testetech.repository.PedidoRepository;
+import br.com.testetech.testetech.sharding.ShardsPedidos;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Teste de integração da estratégia de deduplicação otimista contra o H2, validando que o
+ * índice único {@code idx_codigo_pedido} é traduzido para {@link PedidoDuplicadoException}.
+ */
+@DataJpaTest(properties = {
+        "pedidos.deduplicacao.estrategia=OTIMISTA",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({PedidoService.class, FiltroCodigosPedido.class, MetricasRegistroPedido.class, CachePedidos.class,
+        ShardsPedidos.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PedidoServiceOtimistaTest {
+
+    @TestConfiguration
+    static class MetricasConfig {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private PedidoService service;
+
+    @Autowired
+    private PedidoRepository repository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    @DisplayName("Deve registrar sem consulta prévia e rejeitar o duplicado pelo índice único")
+    void shouldDetectDuplicateThroughUniqueIndex() {
+        // GIVEN
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        PedidoInputDTO input = new PedidoInputDTO("PEDIDO-OTIMISTA",
+                List.of(new ItemDTO("PRODUTO-A", new BigDecimal("10.00"), 2)));
+        statistics.clear();
+
+        // WHEN
+        service.registrarPedido(input);
+
+        // THEN
+        assertEquals(0, statistics.getQueryExecutionCount(), "O caminho otimista não deve executar a consulta de existência");
+        assertThrows(PedidoDuplicadoException.class, () -> service.registrarPedido(input));
+        assertEquals(1, repository.count());
+        assertEquals(1.0, meterRegistry.get("pedidos.duplicados").tag("deteccao", "indice_unico").counter().count());
+    }
+}
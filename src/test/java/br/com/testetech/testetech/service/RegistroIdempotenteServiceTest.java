@@ -0,0 +1,119 @@
+package br.com.testetech.testetech.service;
+
+import br.com.testetech.testetech.dto.ItemDTO;
+import br.com.testetech.testetech.dto.ItemResumoDTO;
+import br.com.testetech.testetech.dto.PedidoInputDTO;
+import br.com.testetech.testetech.dto.PedidoResumoDTO;
+import br.com.testetech.testetech.evento.PedidoRegistradoEvent;
+import br.com.testetech.testetech.exception.PedidoDuplicadoException;
+import br.com.testetech.testetech.idempotencia.RespostasIdempotentes;
+import br.com.testetech.testetech.model.PedidoStatus;
+import br.com.testetech.testetech.service.RegistroIdempotenteService.ResultadoRegistro;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Teste unitário do registro idempotente, com os serviços de registro e consulta simulados.
+ */
+@ExtendWith(MockitoExtension.class)
+class RegistroIdempotenteServiceTest {
+
+    @Mock
+    private PedidoService pedidoService;
+
+    @Mock
+    private PedidoConsultaService consultaService;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private RespostasIdempotentes respostas;
+
+    private RegistroIdempotenteService service;
+
+    @BeforeEach
+    void setUp() {
+        respostas = new RespostasIdempotentes(meterRegistry, 100, Duration.ofMinutes(1));
+        service = new RegistroIdempotenteService(pedidoService, consultaService, respostas, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Deve repetir a resposta original sem acessar o serviço de registro")
+    void shouldReplayRegisteredOrder() {
+        // GIVEN: pedido registrado e publicado após o commit (valor persistido com 2 casas)
+        PedidoResumoDTO registrado = resumo("PEDIDO-1", "10.00");
+        respostas.registrar(new PedidoRegistradoEvent(registrado));
+
+        // WHEN: repetição com o mesmo conteúdo, em outra escala
+        ResultadoRegistro resultado = service.registrar(null, entrada("PEDIDO-1", "10"));
+
+        // THEN
+        assertTrue(resultado.repetido());
+        assertSame(registrado, resultado.pedido());
+        verifyNoInteractions(pedidoService, consultaService);
+        assertEquals(1.0, meterRegistry.get("pedidos.idempotencia").tag("resultado", "repetido").counter().count());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar com 409 o mesmo código ou a mesma chave com conteúdo diferente")
+    void shouldRejectDifferentPayload() {
+        // GIVEN
+        respostas.registrar(new PedidoRegistradoEvent(resumo("PEDIDO-1", "10.00")));
+        when(pedidoService.registrarPedido(any())).thenReturn(PedidoMapper.paraEntidade(entrada("PEDIDO-2", "5.00")));
+        service.registrar("CHAVE-A", entrada("PEDIDO-2", "5.00"));
+
+        // WHEN / THEN
+        assertThrows(PedidoDuplicadoException.class, () -> service.registrar(null, entrada("PEDIDO-1", "99.00")));
+        assertThrows(PedidoDuplicadoException.class, () -> service.registrar("CHAVE-A", entrada("PEDIDO-3", "5.00")));
+        assertTrue(service.registrar("CHAVE-A", entrada("PEDIDO-2", "5.00")).repetido());
+        verify(pedidoService, times(1)).registrarPedido(any());
+        assertEquals(2.0, meterRegistry.get("pedidos.idempotencia").tag("resultado", "conflito").counter().count());
+    }
+
+    @Test
+    @DisplayName("Deve comparar com o pedido gravado quando a resposta não está em memória")
+    void shouldCompareWithStoredOrderOnCacheMiss() {
+        // GIVEN: pedido anterior à inicialização, detectado como duplicado pelo serviço
+        PedidoDuplicadoException duplicado = new PedidoDuplicadoException("Pedido já existe: PEDIDO-1");
+        when(pedidoService.registrarPedido(any())).thenThrow(duplicado);
+        when(consultaService.buscarPorCodigo("PEDIDO-1")).thenReturn(resumo("PEDIDO-1", "10.00"));
+
+        // WHEN
+        ResultadoRegistro resultado = service.registrar(null, entrada("PEDIDO-1", "10.00"));
+
+        // THEN: repetição respondida, e a próxima já sai da memória; conteúdo diferente segue como 409
+        assertTrue(resultado.repetido());
+        assertTrue(service.registrar(null, entrada("PEDIDO-1", "10.00")).repetido());
+        verify(pedidoService, times(1)).registrarPedido(any());
+        assertThrows(PedidoDuplicadoException.class, () -> service.registrar("OUTRA-CHAVE", entrada("PEDIDO-1", "11.00")));
+    }
+
+    private static PedidoInputDTO entrada(String codigoPedido, String valorUnitario) {
+        return new PedidoInputDTO(codigoPedido, List.of(new ItemDTO("PRODUTO-1", new BigDecimal(valorUnitario), 2)));
+    }
+
+    private static PedidoResumoDTO resumo(String codigoPedido, String valorUnitario) {
+        BigDecimal valor = new BigDecimal(valorUnitario);
+        return new PedidoResumoDTO(1L, codigoPedido, List.of(new ItemResumoDTO("PRODUTO-1", valor, 2)),
+                valor.multiply(BigDecimal.TWO), PedidoStatus.CALCULADO, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,197 @@
+package br.com.testetech.testetech.sharding;
+
+import br.com.testetech.testetech.cache.CachePedidos;
+import br.com.testetech.testetech.cache.JanelaPedidosRecentes;
+import br.com.testetech.testetech.dedupe.FiltroCodigosPedido;
+import br.com.testetech.testetech.dto.PaginaCursorDTO;
+import br.com.testetech.testetech.dto.PedidoInputDTO;
+import br.com.testetech.testetech.dto.PedidoResumoDTO;
+import br.com.testetech.testetech.dto.ResultadoLoteDTO;
+import br.com.testetech.testetech.dto.SituacaoLote;
+import br.com.testetech.testetech.exception.PedidoDuplicadoException;
+import br.com.testetech.testetech.metricas.MetricasRegistroPedido;
+import br.com.testetech.testetech.replica.RoteamentoLeitura;
+import br.com.testetech.testetech.repository.PedidoRepository;
+import br.com.testetech.testetech.service.PedidoConsultaService;
+import br.com.testetech.testetech.service.PedidoLoteService;
+import br.com.testetech.testetech.service.PedidoService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static br.com.testetech.testetech.dto.FabricaPedidos.pedido;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Teste de integração do particionamento com três bancos H2 em memória.
+ */
+@DataJpaTest(properties = {
+        "pedidos.sharding.urls=jdbc:h2:mem:shard-teste-0,jdbc:h2:mem:shard-teste-1,jdbc:h2:mem:shard-teste-2",
+        // Os pedidos de cada teste são removidos direto pelo repositório: as páginas devem vir do banco
+        "pedidos.recentes.habilitada=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ShardsConfig.class, ShardsPedidos.class, PedidoService.class, PedidoLoteService.class,
+        PedidoConsultaService.class, FiltroCodigosPedido.class, MetricasRegistroPedido.class, CachePedidos.class,
+        JanelaPedidosRecentes.class, RoteamentoLeitura.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ShardsPedidosIntegracaoTest {
+
+    private static final int TOTAL_PEDIDOS = 30;
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        Validator validator() {
+            return Validation.buildDefaultValidatorFactory().getValidator();
+        }
+    }
+
+    @Autowired
+    private ShardsPedidos shards;
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private PedidoLoteService loteService;
+
+    @Autowired
+    private PedidoConsultaService consultaService;
+
+    @Autowired
+    private PedidoRepository repository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private List<String> codigos;
+
+    @BeforeEach
+    void setUp() {
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+        shards.paraCadaShard(shard -> transacao.executeWithoutResult(status -> repository.deleteAll()));
+        // Códigos distintos por teste: o cache de consulta por código é compartilhado pelo contexto
+        String prefixo = "PEDIDO-" + System.nanoTime() + "-";
+        codigos = IntStream.range(0, TOTAL_PEDIDOS).mapToObj(i -> prefixo + i).toList();
+        codigos.forEach(codigo -> pedidoService.registrarPedido(pedido(codigo)));
+    }
+
+    @Test
+    @DisplayName("Deve gravar cada pedido somente no shard do seu código, com IDs únicos entre shards")
+    void shouldWriteEachOrderToItsShard() {
+        // WHEN
+        List<Long> porShard = shards.executarEmTodos(shard -> repository.count());
+        List<PedidoResumoDTO> todos = consultaService.listarTodos(PageRequest.of(0, TOTAL_PEDIDOS), false).getContent();
+
+        // THEN
+        assertEquals(TOTAL_PEDIDOS, porShard.stream().mapToLong(Long::longValue).sum());
+        assertTrue(porShard.stream().allMatch(quantidade -> quantidade > 0), "Shard sem pedidos: " + porShard);
+        for (String codigo : codigos) {
+            assertTrue(shards.executarPorCodigo(codigo, () -> repository.existsByCodigoPedido(codigo)), codigo);
+        }
+        assertEquals(TOTAL_PEDIDOS, todos.stream().map(PedidoResumoDTO::getId).distinct().count());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar o código repetido no shard de origem e consultá-lo com os itens")
+    void shouldRejectDuplicateAndFindByCode() {
+        // GIVEN
+        String codigo = codigos.get(7);
+
+        // WHEN
+        assertThrows(PedidoDuplicadoException.class, () -> pedidoService.registrarPedido(pedido(codigo)));
+        PedidoResumoDTO encontrado = consultaService.buscarPorCodigo(codigo);
+
+        // THEN
+        assertEquals(codigo, encontrado.getCodigoPedido());
+        assertEquals(2, encontrado.getItems().size());
+    }
+
+    @Test
+    @DisplayName("Deve registrar o lote distribuindo os pedidos entre os shards")
+    void shouldRegisterBatchAcrossShards() {
+        // GIVEN
+        List<PedidoInputDTO> lote = new ArrayList<>();
+        IntStream.range(0, 12).forEach(i -> lote.add(pedido("LOTE-" + System.nanoTime() + "-" + i)));
+        lote.add(pedido(codigos.get(0)));
+
+        // WHEN
+        List<ResultadoLoteDTO> resultados = loteService.registrarLote(lote);
+
+        // THEN
+        assertEquals(12, resultados.stream().filter(r -> r.getSituacao() == SituacaoLote.ACEITO).count());
+        assertEquals(SituacaoLote.DUPLICADO, resultados.get(12).getSituacao());
+        assertEquals(TOTAL_PEDIDOS + 12, shards.executarEmTodos(shard -> repository.count()).stream()
+                .mapToLong(Long::longValue).sum());
+    }
+
+    @Test
+    @DisplayName("Deve intercalar as páginas dos shards na ordenação solicitada")
+    void shouldMergePagesAcrossShards() {
+        // GIVEN
+        Sort porCodigo = Sort.by("codigoPedido");
+        List<String> visitados = new ArrayList<>();
+
+        // WHEN
+        for (int pagina = 0; pagina < 4; pagina++) {
+            Page<PedidoResumoDTO> resultado = consultaService.listarTodos(PageRequest.of(pagina, 8, porCodigo), true);
+            assertEquals(TOTAL_PEDIDOS, resultado.getTotalElements());
+            assertTrue(resultado.getContent().stream().allMatch(p -> p.getItems().size() == 2));
+            resultado.getContent().forEach(p -> visitados.add(p.getCodigoPedido()));
+        }
+
+        // THEN
+        assertEquals(codigos.stream().sorted().toList(), visitados);
+    }
+
+    @Test
+    @DisplayName("Deve percorrer todos os shards por cursor, sem repetições e em ordem decrescente")
+    void shouldWalkAllShardsWithCursor() {
+        // GIVEN
+        List<PedidoResumoDTO> visitados = new ArrayList<>();
+        String cursor = null;
+
+        // WHEN
+        do {
+            PaginaCursorDTO<PedidoResumoDTO> pagina = consultaService.listarPorCursor(cursor, 7, false);
+            visitados.addAll(pagina.getConteudo());
+            cursor = pagina.getProximoCursor();
+        } while (cursor != null);
+
+        // THEN
+        assertEquals(TOTAL_PEDIDOS, visitados.stream().map(PedidoResumoDTO::getId).distinct().count());
+        List<PedidoResumoDTO> ordenados = new ArrayList<>(visitados);
+        ordenados.sort(Comparator.comparing(PedidoResumoDTO::getDataCriacao).thenComparing(PedidoResumoDTO::getId).reversed());
+        assertEquals(ordenados, visitados);
+    }
+}
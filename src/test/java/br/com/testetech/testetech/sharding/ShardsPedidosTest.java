@@ -0,0 +1,130 @@
+package br.com.testetech.testetech.sharding;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Teste unitário do roteamento e da intercalação entre shards.
+ */
+class ShardsPedidosTest {
+
+    private final ShardsPedidos shards = new ShardsPedidos(List.of("jdbc:h2:mem:a", "jdbc:h2:mem:b", "jdbc:h2:mem:c"), 4);
+
+    @AfterEach
+    void tearDown() {
+        shards.close();
+    }
+
+    @Test
+    @DisplayName("Deve distribuir os códigos de forma estável e aproximadamente uniforme")
+    void shouldSpreadCodesEvenly() {
+        // GIVEN
+        int[] porShard = new int[3];
+
+        // WHEN
+        IntStream.range(0, 30_000).forEach(i -> porShard[shards.shardDe("PEDIDO-" + i)]++);
+
+        // THEN
+        for (int quantidade : porShard) {
+            assertTrue(quantidade > 9_000 && quantidade < 11_000, "Distribuição desigual: " + quantidade);
+        }
+        assertEquals(shards.shardDe("PEDIDO-42"), new ShardsPedidos(List.of("x", "y", "z"), 4).shardDe("PEDIDO-42"));
+        assertEquals(0, new ShardsPedidos(List.of(), 4).shardDe("PEDIDO-42"));
+    }
+
+    @Test
+    @DisplayName("Deve expor o shard corrente somente durante a execução")
+    void shouldExposeCurrentShardOnlyInsideExecution() {
+        // WHEN
+        Integer dentro = shards.executar(2, ShardsPedidos::atual);
+
+        // THEN
+        assertEquals(2, dentro);
+        assertNull(ShardsPedidos.atual());
+    }
+
+    @Test
+    @DisplayName("Deve executar em todos os shards em paralelo e propagar a falha após aguardar todos")
+    void shouldScatterAndPropagateFailure() {
+        // GIVEN
+        Set<Integer> executados = ConcurrentHashMap.newKeySet();
+
+        // WHEN
+        List<Integer> resultados = shards.executarEmTodos(shard -> ShardsPedidos.atual() * 10);
+        IllegalStateException erro = assertThrows(IllegalStateException.class, () -> shards.executarEmTodos(shard -> {
+            executados.add(shard);
+            if (shard == 1) {
+                throw new IllegalStateException("falha no shard 1");
+            }
+            return shard;
+        }));
+
+        // THEN
+        assertEquals(List.of(0, 10, 20), resultados);
+        assertEquals("falha no shard 1", erro.getMessage());
+        assertEquals(Set.of(0, 1, 2), executados);
+    }
+
+    @Test
+    @DisplayName("Deve aplicar a função a cada grupo no seu shard e remontar na ordem original")
+    void shouldDistributeAndReassemble() {
+        // GIVEN
+        List<String> codigos = IntStream.range(0, 20).mapToObj(i -> "PEDIDO-" + i).toList();
+
+        // WHEN
+        List<String> resultado = shards.distribuir(codigos, codigo -> codigo,
+                grupo -> grupo.stream().map(codigo -> codigo + "@" + ShardsPedidos.atual()).toList());
+
+        // THEN
+        assertEquals(codigos.stream().map(codigo -> codigo + "@" + shards.shardDe(codigo)).toList(), resultado);
+    }
+
+    @Test
+    @DisplayName("Deve intercalar listas ordenadas com a semântica de OFFSET/LIMIT")
+    void shouldMergeSortedLists() {
+        // GIVEN
+        List<List<Integer>> porShard = List.of(List.of(1, 4, 7, 10), List.of(2, 5, 8), List.of(), List.of(3, 6, 9));
+
+        // WHEN
+        List<Integer> todos = ShardsPedidos.intercalar(porShard, Comparator.naturalOrder(), 0, 100);
+        List<Integer> pagina = ShardsPedidos.intercalar(porShard, Comparator.naturalOrder(), 3, 3);
+        List<Integer> alemDoFim = ShardsPedidos.intercalar(porShard, Comparator.naturalOrder(), 10, 5);
+
+        // THEN
+        assertEquals(List.of(1, 2, 3, 4, 5, 6, 7, 8, 9, 10), todos);
+        assertEquals(List.of(4, 5, 6), pagina);
+        assertEquals(List.of(), alemDoFim);
+    }
+
+    @Test
+    @DisplayName("Deve intercalar iteradores sob demanda, mantendo um elemento por iterador")
+    void shouldMergeIteratorsLazily() {
+        // GIVEN
+        List<Iterator<Integer>> porShard = List.of(List.of(9, 6, 3).iterator(), List.of(8, 7, 1).iterator(),
+                List.<Integer>of().iterator());
+
+        // WHEN
+        Iterator<Integer> intercalado = ShardsPedidos.intercalar(porShard, Comparator.reverseOrder());
+        List<Integer> resultado = new ArrayList<>();
+        intercalado.forEachRemaining(resultado::add);
+
+        // THEN
+        assertEquals(List.of(9, 8, 7, 6, 3, 1), resultado);
+        assertFalse(intercalado.hasNext());
+    }
+}